@@ -4,10 +4,10 @@ import software.amazon.awssdk.services.fms.FmsClient;
 import software.amazon.awssdk.services.fms.model.DeleteNotificationChannelRequest;
 import software.amazon.awssdk.services.fms.model.DeleteNotificationChannelResponse;
 import software.amazon.awssdk.services.fms.model.GetNotificationChannelResponse;
-import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.Logger;
 import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+import software.amazon.fms.notificationchannel.helpers.FmsApiInvoker;
 
 public class DeleteHandler extends NotificationChannelHandler {
 
@@ -26,7 +26,7 @@ public class DeleteHandler extends NotificationChannelHandler {
 
     @Override
     protected DeleteNotificationChannelResponse makeRequest(
-            final AmazonWebServicesClientProxy proxy,
+            final FmsApiInvoker invoker,
             final ResourceModel desiredResourceState,
             final GetNotificationChannelResponse getNotificationChannelResponse,
             final Logger logger) {
@@ -35,7 +35,7 @@ public class DeleteHandler extends NotificationChannelHandler {
         final DeleteNotificationChannelRequest deleteNotificationChannelRequest =
                 DeleteNotificationChannelRequest.builder().build();
         final DeleteNotificationChannelResponse response =
-                proxy.injectCredentialsAndInvokeV2(deleteNotificationChannelRequest, client::deleteNotificationChannel);
+                invoker.invoke(deleteNotificationChannelRequest, client::deleteNotificationChannel);
         logRequest(response, logger);
         return response;
     }
@@ -44,7 +44,7 @@ public class DeleteHandler extends NotificationChannelHandler {
     protected ProgressEvent<ResourceModel, CallbackContext> constructSuccessProgressEvent(
             final GetNotificationChannelResponse response,
             final ResourceHandlerRequest<ResourceModel> request,
-            final AmazonWebServicesClientProxy proxy) {
+            final FmsApiInvoker invoker) {
         return ProgressEvent.defaultSuccessHandler(null);
     }
 }
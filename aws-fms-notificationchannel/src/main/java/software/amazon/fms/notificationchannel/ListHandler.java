@@ -3,11 +3,11 @@ package software.amazon.fms.notificationchannel;
 import software.amazon.awssdk.services.fms.FmsClient;
 import software.amazon.awssdk.services.fms.model.FmsResponse;
 import software.amazon.awssdk.services.fms.model.GetNotificationChannelResponse;
-import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.Logger;
 import software.amazon.cloudformation.proxy.OperationStatus;
 import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+import software.amazon.fms.notificationchannel.helpers.FmsApiInvoker;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -28,7 +28,7 @@ public class ListHandler extends NotificationChannelHandler {
     }
 
     @Override
-    protected FmsResponse makeRequest(final AmazonWebServicesClientProxy proxy,
+    protected FmsResponse makeRequest(final FmsApiInvoker invoker,
                                       final ResourceModel desiredResourceState,
                                       final GetNotificationChannelResponse getNotificationChannelResponse,
                                       final Logger logger) {
@@ -40,7 +40,7 @@ public class ListHandler extends NotificationChannelHandler {
     protected ProgressEvent<ResourceModel, CallbackContext> constructSuccessProgressEvent(
             final GetNotificationChannelResponse response,
             final ResourceHandlerRequest<ResourceModel> request,
-            final AmazonWebServicesClientProxy proxy) {
+            final FmsApiInvoker invoker) {
         List<ResourceModel> resourceModels = new ArrayList<>();
 
         if (response.snsTopicArn() != null) {
@@ -1,5 +1,6 @@
 package software.amazon.fms.notificationchannel;
 
+import software.amazon.awssdk.core.exception.SdkClientException;
 import software.amazon.awssdk.services.fms.FmsClient;
 import software.amazon.awssdk.services.fms.model.FmsResponse;
 import software.amazon.awssdk.services.fms.model.GetNotificationChannelRequest;
@@ -8,14 +9,22 @@ import software.amazon.awssdk.services.fms.model.InternalErrorException;
 import software.amazon.awssdk.services.fms.model.InvalidOperationException;
 import software.amazon.awssdk.services.fms.model.ResourceNotFoundException;
 import software.amazon.cloudformation.exceptions.CfnAlreadyExistsException;
+import software.amazon.cloudformation.exceptions.CfnThrottlingException;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.HandlerErrorCode;
 import software.amazon.cloudformation.proxy.Logger;
 import software.amazon.cloudformation.proxy.OperationStatus;
 import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+import software.amazon.fms.notificationchannel.helpers.FmsApiInvoker;
+import software.amazon.fms.notificationchannel.helpers.FmsClientRegistry;
+import software.amazon.fms.notificationchannel.helpers.HandlerMetrics;
+import software.amazon.fms.notificationchannel.helpers.SnapshotPriming;
+import software.amazon.fms.notificationchannel.helpers.Span;
+import software.amazon.fms.notificationchannel.helpers.Tracer;
 
 import java.util.Collections;
+import java.util.List;
 
 abstract class NotificationChannelHandler extends BaseHandler<CallbackContext> {
 
@@ -25,10 +34,14 @@ abstract class NotificationChannelHandler extends BaseHandler<CallbackContext> {
     /** Standard read request to check pre-action resource state. */
     private final GetNotificationChannelRequest getNotificationChannelRequest;
 
-    /** Constructor for use by CloudFormation, uses default FMS client. */
+    /**
+     * Constructor for use by CloudFormation, uses the FMS client shared by all handlers and registers the priming of
+     * the handler code paths for when the process is snapshotted.
+     */
     NotificationChannelHandler() {
-        client = FmsClient.create();
+        client = FmsClientRegistry.getClient();
         getNotificationChannelRequest = GetNotificationChannelRequest.builder().build();
+        SnapshotPriming.register();
     }
 
     /**
@@ -66,13 +79,13 @@ abstract class NotificationChannelHandler extends BaseHandler<CallbackContext> {
 
     /**
      * Hook called by handleRequest to make the primary action (create, read, etc..) request on the FMS API.
-     * @param proxy AWS proxy to make requests.
+     * @param invoker Invoker to make FMS API requests.
      * @param desiredResourceState CloudFormation's desired resource state.
      * @param getNotificationChannelResponse Notification channel get request response.
      * @return Response from the FMS API.
      */
     protected abstract FmsResponse makeRequest(
-            final AmazonWebServicesClientProxy proxy,
+            final FmsApiInvoker invoker,
             final ResourceModel desiredResourceState,
             final GetNotificationChannelResponse getNotificationChannelResponse,
             final Logger logger);
@@ -81,13 +94,24 @@ abstract class NotificationChannelHandler extends BaseHandler<CallbackContext> {
      * Hook called by handleRequest to build the ProgressEvent after a successful makeRequest call.
      * @param response Notification channel get request response.
      * @param request CloudFormation's handler request.
-     * @param proxy AWS proxy to make requests.
+     * @param invoker Invoker to make FMS API requests.
      * @return ProgressEvent with Post-action resource state.
      */
     abstract ProgressEvent<ResourceModel, CallbackContext> constructSuccessProgressEvent(
             final GetNotificationChannelResponse response,
             final ResourceHandlerRequest<ResourceModel> request,
-            final AmazonWebServicesClientProxy proxy);
+            final FmsApiInvoker invoker);
+
+    /**
+     * Hook called by handleRequest before any FMS API request, to reject a desired resource state that FMS would reject
+     * without making the requests. Handlers without a desired resource state to validate find no violations.
+     * @param request CloudFormation's handler request.
+     * @return Violations found, empty if the request may proceed.
+     */
+    protected List<String> validateRequest(final ResourceHandlerRequest<ResourceModel> request) {
+
+        return Collections.emptyList();
+    }
 
     /**
      * Logs the requestId of an FmsResponse.
@@ -105,6 +129,18 @@ abstract class NotificationChannelHandler extends BaseHandler<CallbackContext> {
         logger.log(String.format("%s Id: %s", response.getClass().getSimpleName(), requestId));
     }
 
+    /**
+     * Get the action of the handler from its class name, e.g. Create for the CreateHandler.
+     * @return The handler action.
+     */
+    String actionName() {
+
+        final String className = getClass().getSimpleName();
+        return className.endsWith("Handler")
+                ? className.substring(0, className.length() - "Handler".length())
+                : className;
+    }
+
     /**
      * Hook called by CloudFormation to run resource management actions.
      * @param proxy AWS proxy to make requests.
@@ -120,32 +156,77 @@ abstract class NotificationChannelHandler extends BaseHandler<CallbackContext> {
             final CallbackContext callbackContext,
             final Logger logger) {
 
+        // record the metrics and trace of the invocation and flush them once it is over
+        final HandlerMetrics metrics = new HandlerMetrics(ResourceModel.TYPE_NAME, actionName());
+        final Tracer tracer = new Tracer(ResourceModel.TYPE_NAME, actionName());
+        try {
+            final ProgressEvent<ResourceModel, CallbackContext> progressEvent =
+                    handleRequest(new FmsApiInvoker(proxy, logger, metrics, tracer), request, callbackContext, logger);
+            metrics.recordOutcome(progressEvent);
+            tracer.recordOutcome(progressEvent);
+            return progressEvent;
+        } catch (RuntimeException e) {
+            metrics.recordOutcome(e);
+            tracer.recordOutcome(e);
+            throw e;
+        } finally {
+            metrics.flush(logger);
+            tracer.flush(logger);
+        }
+    }
+
+    /**
+     * Run the resource management action of the handler.
+     * @param invoker Invoker to make FMS API requests.
+     * @param request CloudFormation's requested resource state.
+     * @param callbackContext Resource's post-action context.
+     * @param logger CloudWatch logger.
+     * @return Success event with new resource state or failure event with handler error code.
+     */
+    private ProgressEvent<ResourceModel, CallbackContext> handleRequest(
+            final FmsApiInvoker invoker,
+            final ResourceHandlerRequest<ResourceModel> request,
+            final CallbackContext callbackContext,
+            final Logger logger) {
+
+        // fail fast on a desired resource state that FMS would reject
+        final List<String> violations = invoker.getTracer().trace("Validation", () -> validateRequest(request));
+        if (!violations.isEmpty()) {
+            final String message = String.join("; ", violations);
+            logger.log(String.format("Invalid request: %s", message));
+            return ProgressEvent.failed(null, callbackContext, HandlerErrorCode.InvalidRequest, message);
+        }
+
         GetNotificationChannelResponse getNotificationChannelResponse;
         try {
             // attempt to get an existing notification channel
             getNotificationChannelResponse =
-                    proxy.injectCredentialsAndInvokeV2(getNotificationChannelRequest, client::getNotificationChannel);
+                    invoker.invoke(getNotificationChannelRequest, client::getNotificationChannel);
             logRequest(getNotificationChannelResponse, logger);
 
             // handlers fail differently based on the result of the notification channel get request
             // allow for failing based on notification channel existence or non-existence
-            if (throwAlreadyExistsException() && getNotificationChannelResponse.snsTopicArn() != null) {
-                return ProgressEvent.failed(
-                        null,
-                        callbackContext,
-                        HandlerErrorCode.AlreadyExists,
-                        "Notification Channel already exists");
-            }
-            if (throwNotFoundException() && getNotificationChannelResponse.snsTopicArn() == null) {
-                return ProgressEvent.failed(
-                        null,
-                        callbackContext,
-                        HandlerErrorCode.NotFound,
-                        "Notification Channel not found");
+            try (Span validationSpan = invoker.getTracer().startSpan("Validation")) {
+                if (throwAlreadyExistsException() && getNotificationChannelResponse.snsTopicArn() != null) {
+                    validationSpan.setError("Notification Channel already exists");
+                    return ProgressEvent.failed(
+                            null,
+                            callbackContext,
+                            HandlerErrorCode.AlreadyExists,
+                            "Notification Channel already exists");
+                }
+                if (throwNotFoundException() && getNotificationChannelResponse.snsTopicArn() == null) {
+                    validationSpan.setError("Notification Channel not found");
+                    return ProgressEvent.failed(
+                            null,
+                            callbackContext,
+                            HandlerErrorCode.NotFound,
+                            "Notification Channel not found");
+                }
             }
 
             // make the primary handler request
-            makeRequest(proxy, request.getDesiredResourceState(), getNotificationChannelResponse, logger);
+            makeRequest(invoker, request.getDesiredResourceState(), getNotificationChannelResponse, logger);
         } catch(CfnAlreadyExistsException e) {
             return ProgressEvent.failed(null, callbackContext, HandlerErrorCode.AlreadyExists,
                     "The resource cannot be updated. Please delete and recreate the CloudFormation resource.");
@@ -162,9 +243,15 @@ abstract class NotificationChannelHandler extends BaseHandler<CallbackContext> {
             return ProgressEvent.defaultFailureHandler(e, HandlerErrorCode.InvalidRequest);
         } catch(InternalErrorException e) {
             return ProgressEvent.defaultFailureHandler(e, HandlerErrorCode.ServiceInternalError);
+        } catch(CfnThrottlingException e) {
+            return ProgressEvent.defaultFailureHandler(e, HandlerErrorCode.Throttling);
+        } catch(SdkClientException e) {
+            return ProgressEvent.defaultFailureHandler(e, HandlerErrorCode.NetworkFailure);
         }
 
         // let each handler construct its own success progress event with resource model(s)
-        return constructSuccessProgressEvent(getNotificationChannelResponse, request, proxy);
+        return invoker.getTracer().trace(
+                "ModelConstruction",
+                () -> constructSuccessProgressEvent(getNotificationChannelResponse, request, invoker));
     }
 }
@@ -2,10 +2,10 @@ package software.amazon.fms.notificationchannel;
 
 import software.amazon.awssdk.services.fms.FmsClient;
 import software.amazon.awssdk.services.fms.model.GetNotificationChannelResponse;
-import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.Logger;
 import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+import software.amazon.fms.notificationchannel.helpers.FmsApiInvoker;
 
 public class ReadHandler extends NotificationChannelHandler {
 
@@ -24,7 +24,7 @@ public class ReadHandler extends NotificationChannelHandler {
 
     @Override
     protected GetNotificationChannelResponse makeRequest(
-            final AmazonWebServicesClientProxy proxy,
+            final FmsApiInvoker invoker,
             final ResourceModel desiredResourceState,
             final GetNotificationChannelResponse getNotificationChannelResponse,
             final Logger logger) {
@@ -37,7 +37,7 @@ public class ReadHandler extends NotificationChannelHandler {
     protected ProgressEvent<ResourceModel, CallbackContext> constructSuccessProgressEvent(
             final GetNotificationChannelResponse response,
             final ResourceHandlerRequest<ResourceModel> request,
-            final AmazonWebServicesClientProxy proxy) {
+            final FmsApiInvoker invoker) {
         return ProgressEvent.defaultSuccessHandler(
                 ResourceModel.builder()
                         .snsRoleName(response.snsRoleName())
@@ -5,10 +5,13 @@ import software.amazon.awssdk.services.fms.model.GetNotificationChannelResponse;
 import software.amazon.awssdk.services.fms.model.PutNotificationChannelRequest;
 import software.amazon.awssdk.services.fms.model.PutNotificationChannelResponse;
 import software.amazon.cloudformation.exceptions.CfnAlreadyExistsException;
-import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.Logger;
 import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+import software.amazon.fms.notificationchannel.helpers.FmsApiInvoker;
+import software.amazon.fms.notificationchannel.helpers.ResourceModelValidator;
+
+import java.util.List;
 
 public class UpdateHandler extends NotificationChannelHandler {
 
@@ -25,9 +28,14 @@ public class UpdateHandler extends NotificationChannelHandler {
         return true;
     }
 
+    @Override
+    protected List<String> validateRequest(final ResourceHandlerRequest<ResourceModel> request) {
+        return ResourceModelValidator.validate(request.getDesiredResourceState());
+    }
+
     @Override
     protected PutNotificationChannelResponse makeRequest(
-            final AmazonWebServicesClientProxy proxy,
+            final FmsApiInvoker invoker,
             final ResourceModel desiredResourceState,
             final GetNotificationChannelResponse getNotificationChannelResponse,
             final Logger logger) {
@@ -36,7 +44,7 @@ public class UpdateHandler extends NotificationChannelHandler {
                 .snsRoleName(desiredResourceState.getSnsRoleName())
                 .build();
         final PutNotificationChannelResponse response =
-                proxy.injectCredentialsAndInvokeV2(putNotificationChannelRequest, client::putNotificationChannel);
+                invoker.invoke(putNotificationChannelRequest, client::putNotificationChannel);
         logRequest(response, logger);
         return response;
     }
@@ -45,7 +53,7 @@ public class UpdateHandler extends NotificationChannelHandler {
     protected ProgressEvent<ResourceModel, CallbackContext> constructSuccessProgressEvent(
             final GetNotificationChannelResponse response,
             final ResourceHandlerRequest<ResourceModel> request,
-            final AmazonWebServicesClientProxy proxy) {
+            final FmsApiInvoker invoker) {
         return ProgressEvent.defaultSuccessHandler(request.getDesiredResourceState());
     }
 }
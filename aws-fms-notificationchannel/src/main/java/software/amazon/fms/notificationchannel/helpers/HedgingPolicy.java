@@ -0,0 +1,141 @@
+package software.amazon.fms.notificationchannel.helpers;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opt-in hedging of the idempotent FMS reads. Once a read has been outstanding for longer than a percentile of the
+ * latencies of its operation, a duplicate request is sent and whichever response arrives first is used, so that a
+ * single stalled request does not stall the whole handler. The latencies are recorded per operation and shared by
+ * every invocation in the process, and hedging only starts once an operation has enough of them. The extra requests
+ * are capped to a ratio of the hedged reads: each read earns a fraction of a hedge, and a hedge is only sent when a
+ * whole one has been earned.
+ */
+class HedgingPolicy {
+
+    /** Environment variable enabling hedging at a latency percentile between 0 and 100, disabled when unset. */
+    static final String PERCENTILE_ENV = "FMS_API_HEDGE_PERCENTILE";
+
+    /** Environment variable setting the most hedges sent per hedgeable read, between 0 and 1. */
+    static final String MAX_RATIO_ENV = "FMS_API_HEDGE_MAX_RATIO";
+
+    /** Default most hedges sent per hedgeable read. */
+    private static final double DEFAULT_MAX_RATIO = 0.05;
+
+    /** Latencies an operation must have recorded before its reads are hedged. */
+    static final int MIN_SAMPLES = 20;
+
+    /** Most hedges that can be earned ahead of a burst of slow reads. */
+    private static final double MAX_EARNED_HEDGES = 10;
+
+    /** Read-only FMS operations that are safe to send twice. */
+    static final Set<String> HEDGED_OPERATIONS = Collections.singleton("GetNotificationChannel");
+
+    /** Latency percentile after which a read is hedged, 0 when hedging is disabled. */
+    private final double percentile;
+
+    /** Most hedges sent per hedgeable read. */
+    private final double maxRatio;
+
+    /** Latencies of the hedgeable operations, keyed by FMS operation. */
+    private final ConcurrentMap<String, LatencyHistogram> latencies = new ConcurrentHashMap<>();
+
+    /** Hedges earned and not yet sent. */
+    private double earnedHedges;
+
+    /**
+     * Create a hedging policy.
+     * @param percentile Latency percentile after which a read is hedged, 0 to disable hedging.
+     * @param maxRatio Most hedges sent per hedgeable read.
+     */
+    HedgingPolicy(final double percentile, final double maxRatio) {
+
+        this.percentile = percentile;
+        this.maxRatio = maxRatio;
+    }
+
+    /**
+     * Create the hedging policy configured through the environment.
+     * @param environment Environment variables to read.
+     * @return The hedging policy, disabled unless a percentile is set.
+     */
+    static HedgingPolicy fromEnvironment(final Map<String, String> environment) {
+
+        final String percentile = environment.get(PERCENTILE_ENV);
+        if (percentile == null || percentile.trim().isEmpty()) {
+            return disabled();
+        }
+        final String maxRatio = environment.get(MAX_RATIO_ENV);
+        return new HedgingPolicy(
+                Double.parseDouble(percentile.trim()),
+                maxRatio == null || maxRatio.trim().isEmpty() ? DEFAULT_MAX_RATIO : Double.parseDouble(maxRatio));
+    }
+
+    /**
+     * Create a hedging policy that never hedges.
+     * @return The hedging policy.
+     */
+    static HedgingPolicy disabled() {
+
+        return new HedgingPolicy(0, 0);
+    }
+
+    /**
+     * Determine whether the requests to an operation are hedged.
+     * @param operation FMS operation.
+     * @return Whether hedging is enabled and the operation is a hedgeable read.
+     */
+    boolean appliesTo(final String operation) {
+
+        return percentile > 0 && HEDGED_OPERATIONS.contains(operation);
+    }
+
+    /**
+     * Start a request to an operation, earning its fraction of a hedge if the operation is hedged.
+     * @param operation FMS operation.
+     * @return Nanoseconds after which the request should be hedged, negative if it should not be.
+     */
+    long startRequest(final String operation) {
+
+        if (!appliesTo(operation)) {
+            return -1;
+        }
+        synchronized (this) {
+            earnedHedges = Math.min(MAX_EARNED_HEDGES, earnedHedges + maxRatio);
+        }
+        final LatencyHistogram histogram = latencies.get(operation);
+        return histogram == null || histogram.getCount() < MIN_SAMPLES
+                ? -1
+                : TimeUnit.MILLISECONDS.toNanos(histogram.getPercentileMs(percentile));
+    }
+
+    /**
+     * Record the latency of a successful request to an operation.
+     * @param operation FMS operation.
+     * @param latencyNanos Latency of the request in nanoseconds.
+     */
+    void recordLatency(final String operation, final long latencyNanos) {
+
+        if (appliesTo(operation)) {
+            latencies.computeIfAbsent(operation, key -> new LatencyHistogram())
+                    .record(TimeUnit.NANOSECONDS.toMillis(latencyNanos));
+        }
+    }
+
+    /**
+     * Spend an earned hedge.
+     * @return Whether a hedge had been earned and may be sent.
+     */
+    synchronized boolean tryHedge() {
+
+        if (earnedHedges < 1) {
+            return false;
+        }
+        earnedHedges -= 1;
+        return true;
+    }
+}
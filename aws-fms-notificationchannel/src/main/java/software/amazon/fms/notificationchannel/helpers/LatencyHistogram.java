@@ -0,0 +1,81 @@
+package software.amazon.fms.notificationchannel.helpers;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with fixed millisecond buckets. Each bucket is a striped {@link LongAdder}, so concurrent
+ * recordings (e.g. from the asynchronous execution path) do not contend on a single counter.
+ */
+public class LatencyHistogram {
+
+    /** Upper bounds of the buckets in milliseconds, the last bucket holds everything above the last bound. */
+    private static final long[] BUCKET_BOUNDS_MS = {
+            1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000, 10000, 30000
+    };
+
+    private final LongAdder[] buckets = new LongAdder[BUCKET_BOUNDS_MS.length + 1];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sumMs = new LongAdder();
+    private final LongAccumulator maxMs = new LongAccumulator(Math::max, 0);
+
+    public LatencyHistogram() {
+
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Record a latency.
+     * @param latencyMs Latency in milliseconds.
+     */
+    public void record(final long latencyMs) {
+
+        int bucket = 0;
+        while (bucket < BUCKET_BOUNDS_MS.length && latencyMs > BUCKET_BOUNDS_MS[bucket]) {
+            bucket++;
+        }
+        buckets[bucket].increment();
+        count.increment();
+        sumMs.add(latencyMs);
+        maxMs.accumulate(latencyMs);
+    }
+
+    public long getCount() {
+
+        return count.sum();
+    }
+
+    public long getSumMs() {
+
+        return sumMs.sum();
+    }
+
+    public long getMaxMs() {
+
+        return maxMs.get();
+    }
+
+    /**
+     * Estimate a percentile as the upper bound of the bucket it falls in, capped by the largest recorded latency.
+     * @param percentile Percentile between 0 and 100.
+     * @return The estimated latency in milliseconds, 0 if nothing was recorded.
+     */
+    public long getPercentileMs(final double percentile) {
+
+        final long total = getCount();
+        if (total == 0) {
+            return 0;
+        }
+        final long rank = Math.max(1, (long) Math.ceil(total * percentile / 100));
+        long cumulative = 0;
+        for (int i = 0; i < BUCKET_BOUNDS_MS.length; i++) {
+            cumulative += buckets[i].sum();
+            if (cumulative >= rank) {
+                return Math.min(BUCKET_BOUNDS_MS[i], getMaxMs());
+            }
+        }
+        return getMaxMs();
+    }
+}
@@ -0,0 +1,188 @@
+package software.amazon.fms.notificationchannel.helpers;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.crac.Context;
+import org.crac.Core;
+import org.crac.Resource;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.http.AbortableInputStream;
+import software.amazon.awssdk.http.ExecutableHttpRequest;
+import software.amazon.awssdk.http.HttpExecuteRequest;
+import software.amazon.awssdk.http.HttpExecuteResponse;
+import software.amazon.awssdk.http.SdkHttpClient;
+import software.amazon.awssdk.http.SdkHttpResponse;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.fms.FmsClient;
+import software.amazon.awssdk.services.fms.model.DeleteNotificationChannelRequest;
+import software.amazon.awssdk.services.fms.model.GetNotificationChannelRequest;
+import software.amazon.awssdk.services.fms.model.GetNotificationChannelResponse;
+import software.amazon.awssdk.services.fms.model.PutNotificationChannelRequest;
+import software.amazon.cloudformation.resource.Serializer;
+import software.amazon.fms.notificationchannel.ResourceModel;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Priming of the handler code paths before the process is snapshotted, e.g. by Lambda SnapStart or a CRaC JVM. The
+ * handlers register it once they have built the shared FMS client; before the checkpoint it round-trips a synthetic
+ * notification channel through the serializer of the handler wrapper and the FMS request and response shapes, and
+ * marshals each FMS request the handlers make through a client whose transport never leaves the process, so that the
+ * first invocation after the restore finds those classes loaded, initialized and compiled. It then closes the
+ * connections of the shared HTTP client, which are reopened after the restore. On a JVM without checkpoint support
+ * the hooks are never called.
+ */
+public final class SnapshotPriming implements Resource {
+
+    /** Times each code path is run, enough for the hottest methods to be compiled before the checkpoint. */
+    static final int PRIMING_ITERATIONS = 250;
+
+    /**
+     * Registered instance. Held here since the checkpoint context is free to keep only weak references to the
+     * resources registered with it.
+     */
+    private static final SnapshotPriming INSTANCE = new SnapshotPriming();
+
+    /** Canned FMS response of the priming transport, every response shape unmarshals it. */
+    private static final byte[] PRIMING_RESPONSE = "{}".getBytes(StandardCharsets.UTF_8);
+
+    private static final TypeReference<ResourceModel> MODEL_TYPE = new TypeReference<ResourceModel>() { };
+
+    /** Flag indicating if the instance has been registered with the checkpoint context. */
+    private static boolean registered;
+
+    private SnapshotPriming() {
+    }
+
+    /**
+     * Register the priming hooks with the global checkpoint context, once per process.
+     */
+    public static synchronized void register() {
+
+        if (!registered) {
+            Core.getGlobalContext().register(INSTANCE);
+            registered = true;
+        }
+    }
+
+    @Override
+    public void beforeCheckpoint(final Context<? extends Resource> context) throws IOException {
+
+        prime(PRIMING_ITERATIONS);
+        FmsClientRegistry.closeConnections();
+    }
+
+    @Override
+    public void afterRestore(final Context<? extends Resource> context) {
+
+        FmsClientRegistry.reopenConnections();
+    }
+
+    /**
+     * Run the conversions, serialization and request marshalling of the handlers without reaching FMS.
+     * @param iterations Times each code path is run.
+     * @return Number of FMS requests marshalled.
+     * @throws IOException If a model could not be serialized or deserialized.
+     */
+    static int prime(final int iterations) throws IOException {
+
+        final AtomicInteger marshalled = new AtomicInteger();
+        final Serializer serializer = new Serializer();
+        final ResourceModel model = ResourceModel.builder()
+                .snsTopicArn("arn:aws:sns:us-east-1:123456789012:priming")
+                .snsRoleName("arn:aws:iam::123456789012:role/aws-service-role/fms.amazonaws.com/AWSServiceRoleForFMS")
+                .build();
+
+        try (FmsClient client = primingClient(marshalled)) {
+            for (int i = 0; i < iterations; i++) {
+                final ResourceModel desiredModel = serializer.deserialize(serializer.serialize(model), MODEL_TYPE);
+                ResourceModelValidator.validate(desiredModel);
+                final PutNotificationChannelRequest putRequest = PutNotificationChannelRequest.builder()
+                        .snsTopicArn(desiredModel.getSnsTopicArn())
+                        .snsRoleName(desiredModel.getSnsRoleName())
+                        .build();
+                final GetNotificationChannelResponse getResponse = GetNotificationChannelResponse.builder()
+                        .snsTopicArn(putRequest.snsTopicArn())
+                        .snsRoleName(putRequest.snsRoleName())
+                        .build();
+                serializer.serialize(ResourceModel.builder()
+                        .snsTopicArn(getResponse.snsTopicArn())
+                        .snsRoleName(getResponse.snsRoleName())
+                        .build());
+
+                client.getNotificationChannel(GetNotificationChannelRequest.builder().build());
+                client.putNotificationChannel(putRequest);
+                client.deleteNotificationChannel(DeleteNotificationChannelRequest.builder().build());
+            }
+        }
+        return marshalled.get();
+    }
+
+    /**
+     * Build an FMS client that marshals and signs its requests as the shared one does, but answers them in process.
+     * @param marshalled Counter of the requests the client marshalled.
+     * @return The priming FMS client.
+     */
+    private static FmsClient primingClient(final AtomicInteger marshalled) {
+
+        final String region = System.getenv(FmsClientRegistry.REGION_ENV);
+        return FmsClient.builder()
+                .region(region == null || region.isEmpty() ? Region.US_EAST_1 : Region.of(region))
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("priming", "priming")))
+                .httpClient(new PrimingHttpClient(marshalled))
+                .build();
+    }
+
+    /**
+     * Transport answering every request with an empty JSON document without opening a connection.
+     */
+    private static final class PrimingHttpClient implements SdkHttpClient {
+
+        private static final Map<String, List<String>> HEADERS =
+                Collections.singletonMap("Content-Type", Collections.singletonList("application/x-amz-json-1.1"));
+
+        private final AtomicInteger marshalled;
+
+        PrimingHttpClient(final AtomicInteger marshalled) {
+
+            this.marshalled = marshalled;
+        }
+
+        @Override
+        public ExecutableHttpRequest prepareRequest(final HttpExecuteRequest request) {
+
+            marshalled.incrementAndGet();
+            return new ExecutableHttpRequest() {
+
+                @Override
+                public HttpExecuteResponse call() {
+
+                    return HttpExecuteResponse.builder()
+                            .response(SdkHttpResponse.builder().statusCode(200).headers(HEADERS).build())
+                            .responseBody(AbortableInputStream.create(new ByteArrayInputStream(PRIMING_RESPONSE)))
+                            .build();
+                }
+
+                @Override
+                public void abort() {
+                }
+            };
+        }
+
+        @Override
+        public String clientName() {
+
+            return "Priming";
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
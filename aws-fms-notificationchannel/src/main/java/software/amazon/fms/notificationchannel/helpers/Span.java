@@ -0,0 +1,164 @@
+package software.amazon.fms.notificationchannel.helpers;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Timed phase of a handler invocation, e.g. an FMS API call or a conversion, recorded by a {@link Tracer}. Spans are
+ * closed in try-with-resources blocks on the synchronous path and ended explicitly when a future completes on the
+ * asynchronous path. A span of a disabled tracer records nothing.
+ */
+public class Span implements AutoCloseable {
+
+    /** Span kinds, numbered as in the OpenTelemetry protocol. */
+    public enum Kind {
+        INTERNAL(1),
+        SERVER(2),
+        CLIENT(3);
+
+        private final int value;
+
+        Kind(final int value) {
+            this.value = value;
+        }
+
+        int getValue() {
+            return value;
+        }
+    }
+
+    /** Span recording nothing, returned by disabled tracers. */
+    static final Span NOOP = new Span(null, "", "", null, Kind.INTERNAL, 0);
+
+    private final Tracer tracer;
+    private final String name;
+    private final String spanId;
+    private final String parentSpanId;
+    private final Kind kind;
+    private final long startEpochNanos;
+    private final Map<String, Object> attributes = Collections.synchronizedMap(new LinkedHashMap<>());
+    private final AtomicBoolean ended = new AtomicBoolean();
+    private volatile long endEpochNanos;
+    private volatile String errorMessage;
+
+    Span(
+            final Tracer tracer,
+            final String name,
+            final String spanId,
+            final String parentSpanId,
+            final Kind kind,
+            final long startEpochNanos) {
+
+        this.tracer = tracer;
+        this.name = name;
+        this.spanId = spanId;
+        this.parentSpanId = parentSpanId;
+        this.kind = kind;
+        this.startEpochNanos = startEpochNanos;
+    }
+
+    /**
+     * Set a string attribute of the span.
+     * @param key Attribute key, e.g. fms.operation.
+     * @param value Attribute value.
+     * @return This span.
+     */
+    public Span setAttribute(final String key, final String value) {
+
+        if (tracer != null && value != null) {
+            attributes.put(key, value);
+        }
+        return this;
+    }
+
+    /**
+     * Set a numeric attribute of the span.
+     * @param key Attribute key, e.g. fms.batch.size.
+     * @param value Attribute value.
+     * @return This span.
+     */
+    public Span setAttribute(final String key, final long value) {
+
+        if (tracer != null) {
+            attributes.put(key, value);
+        }
+        return this;
+    }
+
+    /**
+     * Mark the span as failed.
+     * @param message Description of the failure.
+     */
+    public void setError(final String message) {
+
+        if (tracer != null) {
+            errorMessage = message == null ? "" : message;
+        }
+    }
+
+    /**
+     * Mark the span as failed with an exception.
+     * @param e Exception the phase failed with.
+     */
+    public void setError(final Throwable e) {
+
+        if (tracer != null) {
+            setAttribute("exception.type", e.getClass().getName());
+            setError(e.getMessage());
+        }
+    }
+
+    /**
+     * End the span, only the first call has an effect.
+     */
+    public void end() {
+
+        if (tracer != null && ended.compareAndSet(false, true)) {
+            endEpochNanos = tracer.epochNanos();
+            tracer.finished(this);
+        }
+    }
+
+    @Override
+    public void close() {
+
+        end();
+    }
+
+    String getName() {
+        return name;
+    }
+
+    String getSpanId() {
+        return spanId;
+    }
+
+    String getParentSpanId() {
+        return parentSpanId;
+    }
+
+    Kind getKind() {
+        return kind;
+    }
+
+    long getStartEpochNanos() {
+        return startEpochNanos;
+    }
+
+    long getEndEpochNanos() {
+        return endEpochNanos;
+    }
+
+    String getErrorMessage() {
+        return errorMessage;
+    }
+
+    Map<String, Object> getAttributes() {
+
+        synchronized (attributes) {
+            return new LinkedHashMap<>(attributes);
+        }
+    }
+}
@@ -13,6 +13,8 @@ import software.amazon.awssdk.services.fms.model.PutNotificationChannelRequest;
 import software.amazon.awssdk.services.fms.model.PutNotificationChannelResponse;
 import software.amazon.awssdk.services.fms.model.ResourceNotFoundException;
 import software.amazon.cloudformation.proxy.*;
+import software.amazon.fms.notificationchannel.helpers.AllocationBudget;
+import software.amazon.fms.notificationchannel.helpers.ApiCallBudget;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -26,6 +28,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -101,6 +104,13 @@ class CreateHandlerTest {
                         .build()
         ));
 
+        // verify the api call budget
+        ApiCallBudget.budget()
+                .allow("GetNotificationChannel", 1)
+                .allow("PutNotificationChannel", 1)
+                .total(2)
+                .assertWithin(proxy);
+
         // assertions
         assertThat(response).isNotNull();
         assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
@@ -111,6 +121,35 @@ class CreateHandlerTest {
         assertThat(response.getErrorCode()).isNull();
     }
 
+    @Test
+    void handleRequestWithinAllocationBudget() {
+        // stub the responses for the read and create requests
+        doReturn(GetNotificationChannelResponse.builder().build())
+                .when(proxy)
+                .injectCredentialsAndInvokeV2(
+                        ArgumentMatchers.isA(GetNotificationChannelRequest.class),
+                        ArgumentMatchers.any()
+                );
+        doReturn(PutNotificationChannelResponse.builder().build())
+                .when(proxy)
+                .injectCredentialsAndInvokeV2(
+                        ArgumentMatchers.isA(PutNotificationChannelRequest.class),
+                        ArgumentMatchers.any()
+                );
+
+        // create the create request and send it, measuring the allocations of the handler
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(model)
+                .build();
+        final ProgressEvent<ResourceModel, CallbackContext> response = AllocationBudget.kilobytes(512)
+                .assertWithin(() -> handler.handleRequest(proxy, request, null, message -> { }));
+
+        // assertions
+        assertThat(response).isNotNull();
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getResourceModel()).isEqualTo(model);
+    }
+
     @Test
     void handleRequestReadResourceAlreadyExists() {
         // stub the response for the read request
@@ -136,6 +175,12 @@ class CreateHandlerTest {
         verify(proxy, times(1)).injectCredentialsAndInvokeV2(captor.capture(), any());
         assertThat(captor.getValue()).isEqualTo(GetNotificationChannelRequest.builder().build());
 
+        // verify the api call budget
+        ApiCallBudget.budget()
+                .allow("GetNotificationChannel", 1)
+                .total(1)
+                .assertWithin(proxy);
+
         // assertions
         assertThat(response).isNotNull();
         assertThat(response.getStatus()).isEqualTo(OperationStatus.FAILED);
@@ -146,6 +191,32 @@ class CreateHandlerTest {
         assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.AlreadyExists);
     }
 
+    @Test
+    void handleRequestSchemaViolationsFailBeforeGet() {
+        // model a notification channel without a role and with a malformed topic ARN
+        final ResourceModel invalidModel = ResourceModel.builder()
+                .snsTopicArn("arn:aws:sns:us-east-1:012345678901:test topic")
+                .build();
+
+        // create the create request and send it
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(invalidModel)
+                .build();
+        final ProgressEvent<ResourceModel, CallbackContext> response =
+                handler.handleRequest(proxy, request, null, logger);
+
+        // verify no request was made
+        verify(proxy, never()).injectCredentialsAndInvokeV2(any(), any());
+
+        // assertions
+        assertThat(response).isNotNull();
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.FAILED);
+        assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.InvalidRequest);
+        assertThat(response.getMessage()).isEqualTo(String.join("; ",
+                "SnsRoleName is required",
+                "SnsTopicArn must match pattern ^([^\\s]+)$"));
+    }
+
     @Test
     void handleRequestCreateNotFoundException() {
         // stub the response for the read request
@@ -23,6 +23,7 @@ import software.amazon.cloudformation.proxy.Logger;
 import software.amazon.cloudformation.proxy.OperationStatus;
 import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+import software.amazon.fms.notificationchannel.helpers.ApiCallBudget;
 
 import java.util.Arrays;
 
@@ -99,6 +100,13 @@ class DeleteHandlerTest {
                 DeleteNotificationChannelRequest.builder().build()
         ));
 
+        // verify the api call budget
+        ApiCallBudget.budget()
+                .allow("GetNotificationChannel", 1)
+                .allow("DeleteNotificationChannel", 1)
+                .total(2)
+                .assertWithin(proxy);
+
         // assertions
         assertThat(response).isNotNull();
         assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
@@ -0,0 +1,299 @@
+package software.amazon.fms.notificationchannel;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import software.amazon.awssdk.services.fms.model.DeleteNotificationChannelRequest;
+import software.amazon.awssdk.services.fms.model.PutNotificationChannelRequest;
+import software.amazon.cloudformation.Action;
+import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.Logger;
+import software.amazon.cloudformation.proxy.OperationStatus;
+import software.amazon.cloudformation.proxy.ProgressEvent;
+import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+import software.amazon.cloudformation.proxy.ResourceHandlerTestPayload;
+import software.amazon.cloudformation.resource.Serializer;
+import software.amazon.fms.notificationchannel.helpers.InMemoryFmsClient;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Replays CloudFormation handler request fixtures against the notification channel handlers and the in-memory FMS
+ * stand-in, so that a slow payload can be reproduced and profiled locally. A fixture is either a SAM test event like
+ * the ones in sam-tests, with the action and request, or a bare handler request whose action is the prefix of its file
+ * name, e.g. update-new-topic.json. The notification channel is a singleton of the account, so before each invocation
+ * the stand-in is reset to the state the action expects: without a channel for Create, and with the channel of the
+ * previous resource state, or the desired one, for the other actions. Only the handler invocations are timed.
+ * Each fixture is first replayed for the warm-up iterations, so that the measured iterations run compiled code, and
+ * the runner can pause after the warm-up for a profiler to attach.
+ * Run with: mvn test-compile -P replay [-Dreplay.fixtures=sam-tests] [-Dreplay.iterations=1000]
+ * [-Dreplay.warmup=1000] [-Dreplay.pause=true]
+ */
+public class EventReplayRunner {
+
+    private static final TypeReference<ResourceHandlerTestPayload<ResourceModel, CallbackContext, Object>> EVENT_TYPE =
+            new TypeReference<ResourceHandlerTestPayload<ResourceModel, CallbackContext, Object>>() { };
+
+    private static final TypeReference<ResourceHandlerRequest<ResourceModel>> REQUEST_TYPE =
+            new TypeReference<ResourceHandlerRequest<ResourceModel>>() { };
+
+    private final InMemoryFmsClient client = InMemoryFmsClient.builder().build();
+    private final AmazonWebServicesClientProxy proxy = InMemoryFmsClient.newProxy();
+    private final Logger logger = message -> { };
+    private final Serializer serializer = new Serializer();
+
+    public static void main(final String[] args) throws IOException {
+
+        if (args.length < 1 || args.length > 4) {
+            System.err.println("usage: EventReplayRunner <fixture or directory> [iterations] [warm-up] [pause]");
+            System.exit(2);
+        }
+        final int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+        final int warmup = args.length > 2 ? Integer.parseInt(args[2]) : 0;
+        final boolean pause = args.length > 3 && Boolean.parseBoolean(args[3]);
+
+        final EventReplayRunner runner = new EventReplayRunner();
+        final List<Fixture> fixtures = runner.load(Paths.get(args[0]));
+        for (final Fixture fixture : fixtures) {
+            runner.replay(fixture, warmup);
+        }
+        if (pause) {
+            System.out.printf("%s warmed up, attach the profiler and press Enter%n",
+                    ManagementFactory.getRuntimeMXBean().getName());
+            new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8)).readLine();
+        }
+
+        System.out.printf("%-32s %-7s %10s %8s %9s %9s %9s %9s  %s%n", "fixture", "action", "iterations",
+                "failures", "p50 ms", "p95 ms", "p99 ms", "max ms", "API calls per invocation");
+        long failures = 0;
+        for (final Fixture fixture : fixtures) {
+            final Result result = runner.replay(fixture, iterations);
+            result.print(fixture);
+            failures += result.failures;
+        }
+        System.exit(failures == 0 ? 0 : 1);
+    }
+
+    /**
+     * Load a fixture, or every JSON fixture of a directory in file name order.
+     * @param path Fixture file or directory.
+     * @return The fixtures.
+     * @throws IOException If a fixture could not be read or parsed.
+     */
+    private List<Fixture> load(final Path path) throws IOException {
+
+        final List<Path> files;
+        if (Files.isDirectory(path)) {
+            try (Stream<Path> entries = Files.list(path)) {
+                files = entries.filter(file -> file.getFileName().toString().endsWith(".json"))
+                        .sorted()
+                        .collect(Collectors.toList());
+            }
+        } else {
+            files = Arrays.asList(path);
+        }
+
+        final List<Fixture> fixtures = new ArrayList<>();
+        for (final Path file : files) {
+            final String fileName = file.getFileName().toString();
+            final String json = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+            final ResourceHandlerTestPayload<ResourceModel, CallbackContext, Object> event =
+                    serializer.deserialize(json, EVENT_TYPE);
+            if (event.getRequest() != null && event.getAction() != null) {
+                fixtures.add(new Fixture(fileName, event.getAction(), serializer.serialize(event.getRequest()),
+                        event.getCallbackContext()));
+            } else {
+                final String prefix = fileName.split("[-_.]", 2)[0].toUpperCase(Locale.ROOT);
+                final Action action = Arrays.stream(Action.values())
+                        .filter(value -> value.name().equals(prefix))
+                        .findFirst()
+                        .orElseThrow(() -> new IllegalArgumentException(String.format(
+                                "%s has no action, name it after the action, e.g. create.json", fileName)));
+                fixtures.add(new Fixture(fileName, action, json, null));
+            }
+        }
+        return fixtures;
+    }
+
+    /**
+     * Invoke the handler of a fixture a number of times.
+     * @param fixture Fixture to replay.
+     * @param iterations Number of invocations.
+     * @return The latencies, failures and FMS API calls of the invocations.
+     * @throws IOException If the request of the fixture could not be deserialized.
+     */
+    private Result replay(final Fixture fixture, final int iterations) throws IOException {
+
+        final Result result = new Result(iterations);
+        for (int i = 0; i < iterations; i++) {
+            final ResourceHandlerRequest<ResourceModel> request = prepare(fixture);
+            final BaseHandler<CallbackContext> handler = handler(fixture.action);
+            final Map<String, Long> callsBefore = client.getCallCounts();
+
+            final long start = System.nanoTime();
+            try {
+                final ProgressEvent<ResourceModel, CallbackContext> event =
+                        handler.handleRequest(proxy, request, fixture.callbackContext, logger);
+                result.latencies[i] = System.nanoTime() - start;
+                if (event.getStatus() == OperationStatus.FAILED) {
+                    result.fail(String.format("%s: %s", event.getErrorCode(), event.getMessage()));
+                }
+            } catch (RuntimeException e) {
+                result.latencies[i] = System.nanoTime() - start;
+                result.fail(e.toString());
+            }
+            client.getCallCounts().forEach((operation, count) ->
+                    result.calls.merge(operation, count - callsBefore.getOrDefault(operation, 0L), Long::sum));
+        }
+        return result;
+    }
+
+    /**
+     * Deserialize a fresh copy of the request of a fixture and reset the notification channel of the stand-in to the
+     * state its action expects.
+     */
+    private ResourceHandlerRequest<ResourceModel> prepare(final Fixture fixture) throws IOException {
+
+        final ResourceHandlerRequest<ResourceModel> request = serializer.deserialize(fixture.request, REQUEST_TYPE);
+        if (request.getDesiredResourceState() == null) {
+            request.setDesiredResourceState(new ResourceModel());
+        }
+
+        if (fixture.action == Action.CREATE) {
+            if (client.getSnsTopicArn() != null) {
+                client.deleteNotificationChannel(DeleteNotificationChannelRequest.builder().build());
+            }
+        } else {
+            seed(request);
+        }
+        return request;
+    }
+
+    /**
+     * Put the notification channel a request acts on, from its previous resource state, its desired one if that is a
+     * complete channel, or else a placeholder channel.
+     */
+    private void seed(final ResourceHandlerRequest<ResourceModel> request) {
+
+        final ResourceModel existing;
+        if (request.getPreviousResourceState() != null) {
+            existing = request.getPreviousResourceState();
+        } else if (request.getDesiredResourceState().getSnsTopicArn() != null) {
+            existing = request.getDesiredResourceState();
+        } else {
+            existing = ResourceModel.builder()
+                    .snsTopicArn("arn:aws:sns:us-east-1:012345678901:replay")
+                    .snsRoleName("arn:aws:iam::012345678901:role/aws-service-role/fms.amazonaws.com/"
+                            + "AWSServiceRoleForFMS")
+                    .build();
+        }
+        client.putNotificationChannel(PutNotificationChannelRequest.builder()
+                .snsTopicArn(existing.getSnsTopicArn())
+                .snsRoleName(existing.getSnsRoleName())
+                .build());
+    }
+
+    private BaseHandler<CallbackContext> handler(final Action action) {
+
+        switch (action) {
+            case CREATE:
+                return new CreateHandler(client);
+            case READ:
+                return new ReadHandler(client);
+            case UPDATE:
+                return new UpdateHandler(client);
+            case DELETE:
+                return new DeleteHandler(client);
+            case LIST:
+            default:
+                return new ListHandler(client);
+        }
+    }
+
+    /**
+     * Handler request fixture, the request is kept serialized so that every invocation gets a fresh copy.
+     */
+    private static final class Fixture {
+
+        private final String name;
+        private final Action action;
+        private final String request;
+        private final CallbackContext callbackContext;
+
+        Fixture(final String name, final Action action, final String request, final CallbackContext callbackContext) {
+
+            this.name = name;
+            this.action = action;
+            this.request = request;
+            this.callbackContext = callbackContext;
+        }
+    }
+
+    /**
+     * Latencies, failures and FMS API calls of the invocations of a fixture.
+     */
+    private static final class Result {
+
+        private final long[] latencies;
+        private final Map<String, Long> calls = new TreeMap<>();
+        private long failures;
+        private String firstFailure;
+
+        Result(final int iterations) {
+
+            this.latencies = new long[iterations];
+        }
+
+        void fail(final String message) {
+
+            if (failures++ == 0) {
+                firstFailure = message;
+            }
+        }
+
+        void print(final Fixture fixture) {
+
+            final long[] sorted = latencies.clone();
+            Arrays.sort(sorted);
+            calls.values().removeIf(count -> count == 0);
+            System.out.printf("%-32s %-7s %10d %8d %9.3f %9.3f %9.3f %9.3f  %s%n",
+                    fixture.name,
+                    fixture.action,
+                    sorted.length,
+                    failures,
+                    percentileMs(sorted, 50),
+                    percentileMs(sorted, 95),
+                    percentileMs(sorted, 99),
+                    percentileMs(sorted, 100),
+                    calls.entrySet().stream()
+                            .map(entry -> String.format("%s=%.1f", entry.getKey(),
+                                    (double) entry.getValue() / sorted.length))
+                            .collect(Collectors.joining(", ")));
+            if (firstFailure != null) {
+                System.out.printf("  first failure: %s%n", firstFailure);
+            }
+        }
+
+        private static double percentileMs(final long[] sorted, final double percentile) {
+
+            if (sorted.length == 0) {
+                return 0;
+            }
+            final int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+            return sorted[Math.max(0, index)] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package software.amazon.fms.notificationchannel;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.HandlerErrorCode;
+import software.amazon.cloudformation.proxy.Logger;
+import software.amazon.cloudformation.proxy.OperationStatus;
+import software.amazon.cloudformation.proxy.ProgressEvent;
+import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+import software.amazon.fms.notificationchannel.helpers.InMemoryFmsClient;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Runs the handlers through the lifecycle of a notification channel against the in-memory FMS stand-in, rather than
+ * against responses stubbed call by call.
+ */
+@ExtendWith(MockitoExtension.class)
+class HandlerLifecycleTest {
+
+    private static final String SNS_ROLE_NAME =
+            "arn:aws:iam::012345678901:role/aws-service-role/fms.amazonaws.com/AWSServiceRoleForFMS";
+
+    @Mock
+    private Logger logger;
+
+    private AmazonWebServicesClientProxy proxy;
+
+    @BeforeEach
+    void setup() {
+
+        logger = mock(Logger.class);
+        proxy = InMemoryFmsClient.newProxy();
+    }
+
+    @Test
+    void notificationChannelLifecycle() {
+
+        final InMemoryFmsClient client = InMemoryFmsClient.builder().build();
+
+        // create the notification channel, it can only be created once
+        final ProgressEvent<ResourceModel, CallbackContext> created = new CreateHandler(client)
+                .handleRequest(proxy, request(model("first-topic")), null, logger);
+        assertThat(created.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        final ProgressEvent<ResourceModel, CallbackContext> createdAgain = new CreateHandler(client)
+                .handleRequest(proxy, request(model("second-topic")), null, logger);
+        assertThat(createdAgain.getErrorCode()).isEqualTo(HandlerErrorCode.AlreadyExists);
+
+        // update the notification channel to another topic
+        final ProgressEvent<ResourceModel, CallbackContext> updated = new UpdateHandler(client)
+                .handleRequest(proxy, request(model("second-topic")), null, logger);
+        assertThat(updated.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+
+        // read and list the notification channel
+        final ProgressEvent<ResourceModel, CallbackContext> read = new ReadHandler(client)
+                .handleRequest(proxy, request(ResourceModel.builder().build()), null, logger);
+        assertThat(read.getResourceModel()).isEqualTo(model("second-topic"));
+        final ProgressEvent<ResourceModel, CallbackContext> listed = new ListHandler(client)
+                .handleRequest(proxy, request(ResourceModel.builder().build()), null, logger);
+        assertThat(listed.getResourceModels()).containsExactly(model("second-topic"));
+
+        // delete the notification channel, it can no longer be read
+        final ProgressEvent<ResourceModel, CallbackContext> deleted = new DeleteHandler(client)
+                .handleRequest(proxy, request(ResourceModel.builder().build()), null, logger);
+        assertThat(deleted.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        final ProgressEvent<ResourceModel, CallbackContext> readDeleted = new ReadHandler(client)
+                .handleRequest(proxy, request(ResourceModel.builder().build()), null, logger);
+        assertThat(readDeleted.getErrorCode()).isEqualTo(HandlerErrorCode.NotFound);
+
+        // assertions
+        assertThat(client.getSnsTopicArn()).isNull();
+        assertThat(client.getCallCounts())
+                .containsEntry("GetNotificationChannel", 7L)
+                .containsEntry("PutNotificationChannel", 2L)
+                .containsEntry("DeleteNotificationChannel", 1L);
+    }
+
+    @Test
+    void throttledCallsRetried() {
+
+        // throttle a third of the calls with some latency, the invoker retries them within its budget
+        final InMemoryFmsClient client = InMemoryFmsClient.builder()
+                .seed(42)
+                .uniformLatency(Duration.ofMillis(1), Duration.ofMillis(5))
+                .throttleRate(0.3)
+                .build();
+        final ProgressEvent<ResourceModel, CallbackContext> created = new CreateHandler(client)
+                .handleRequest(proxy, request(model("first-topic")), null, logger);
+        final ProgressEvent<ResourceModel, CallbackContext> read = new ReadHandler(client)
+                .handleRequest(proxy, request(ResourceModel.builder().build()), null, logger);
+
+        // assertions
+        assertThat(created.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(read.getResourceModel()).isEqualTo(model("first-topic"));
+        assertThat(client.getSnsRoleName()).isEqualTo(SNS_ROLE_NAME);
+    }
+
+    private static ResourceModel model(final String topicName) {
+
+        return ResourceModel.builder()
+                .snsTopicArn("arn:aws:sns:us-east-1:012345678901:" + topicName)
+                .snsRoleName(SNS_ROLE_NAME)
+                .build();
+    }
+
+    private static ResourceHandlerRequest<ResourceModel> request(final ResourceModel model) {
+
+        return ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(model)
+                .build();
+    }
+}
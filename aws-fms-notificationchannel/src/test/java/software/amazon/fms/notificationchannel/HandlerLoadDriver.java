@@ -0,0 +1,81 @@
+package software.amazon.fms.notificationchannel;
+
+import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.Logger;
+import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+import software.amazon.fms.notificationchannel.helpers.InMemoryFmsClient;
+import software.amazon.fms.notificationchannel.helpers.LoadHarness;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Drives thousands of concurrent Create, Read, Update, List and Delete invocations of the notification channel
+ * handlers against in-memory FMS stand-ins, and reports the throughput, latency, FMS API calls and heap usage of each
+ * action. An account holds a single notification channel, so each invocation of an action targets the stand-in of
+ * its own account, the way a fleet of accounts would.
+ * Run with: mvn test-compile -P load-test [-Dload.invocations=2000] [-Dload.concurrency=64]
+ */
+public class HandlerLoadDriver {
+
+    private static final String SNS_ROLE_NAME =
+            "arn:aws:iam::012345678901:role/aws-service-role/fms.amazonaws.com/AWSServiceRoleForFMS";
+
+    public static void main(final String[] args) {
+
+        final int invocations = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        final int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+
+        final List<InMemoryFmsClient> accounts = new ArrayList<>(invocations);
+        for (int i = 0; i < invocations; i++) {
+            accounts.add(InMemoryFmsClient.builder()
+                    .seed(i)
+                    .logNormalLatency(Duration.ofMillis(20), 0.5)
+                    .throttleRate(0.01)
+                    .build());
+        }
+        final Supplier<Map<String, Long>> callCounts = () -> LoadHarness.sumCallCounts(
+                accounts.stream().map(InMemoryFmsClient::getCallCounts).collect(Collectors.toList()));
+        final AmazonWebServicesClientProxy proxy = InMemoryFmsClient.newProxy();
+        final Logger logger = message -> { };
+
+        final LoadHarness harness = new LoadHarness(concurrency, System.out);
+        System.out.printf("%d invocations per action, %d concurrent%n", invocations, concurrency);
+        harness.printHeader();
+        long failures = 0;
+
+        failures += harness.run("Create", invocations, i -> new CreateHandler(accounts.get(i))
+                .handleRequest(proxy, request(model(i, "created")), null, logger), callCounts);
+        failures += harness.run("Read", invocations, i -> new ReadHandler(accounts.get(i))
+                .handleRequest(proxy, request(ResourceModel.builder().build()), null, logger), callCounts);
+        failures += harness.run("Update", invocations, i -> new UpdateHandler(accounts.get(i))
+                .handleRequest(proxy, request(model(i, "updated")), null, logger), callCounts);
+        failures += harness.run("List", invocations, i -> new ListHandler(accounts.get(i))
+                .handleRequest(proxy, request(ResourceModel.builder().build()), null, logger), callCounts);
+        failures += harness.run("Delete", invocations, i -> new DeleteHandler(accounts.get(i))
+                .handleRequest(proxy, request(ResourceModel.builder().build()), null, logger), callCounts);
+
+        if (failures > 0) {
+            System.exit(1);
+        }
+    }
+
+    private static ResourceModel model(final int index, final String topicName) {
+
+        return ResourceModel.builder()
+                .snsTopicArn(String.format("arn:aws:sns:us-east-1:%012d:%s", index, topicName))
+                .snsRoleName(SNS_ROLE_NAME)
+                .build();
+    }
+
+    private static ResourceHandlerRequest<ResourceModel> request(final ResourceModel model) {
+
+        return ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(model)
+                .build();
+    }
+}
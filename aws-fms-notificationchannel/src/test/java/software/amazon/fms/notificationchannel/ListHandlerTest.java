@@ -21,6 +21,7 @@ import software.amazon.cloudformation.proxy.Logger;
 import software.amazon.cloudformation.proxy.OperationStatus;
 import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+import software.amazon.fms.notificationchannel.helpers.ApiCallBudget;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
@@ -89,6 +90,12 @@ public class ListHandlerTest {
         verify(proxy, times(1)).injectCredentialsAndInvokeV2(captor.capture(), any());
         assertThat(captor.getValue()).isEqualTo(GetNotificationChannelRequest.builder().build());
 
+        // verify the api call budget
+        ApiCallBudget.budget()
+                .allow("GetNotificationChannel", 1)
+                .total(1)
+                .assertWithin(proxy);
+
         // assertions
         assertThat(response).isNotNull();
         assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
@@ -3,6 +3,7 @@ package software.amazon.fms.notificationchannel;
 import org.mockito.ArgumentCaptor;
 import org.mockito.ArgumentMatchers;
 import org.mockito.Captor;
+import software.amazon.awssdk.core.exception.SdkClientException;
 import software.amazon.awssdk.services.fms.FmsClient;
 import software.amazon.awssdk.services.fms.model.FmsRequest;
 import software.amazon.awssdk.services.fms.model.GetNotificationChannelRequest;
@@ -15,12 +16,15 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.cloudformation.exceptions.CfnThrottlingException;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.HandlerErrorCode;
 import software.amazon.cloudformation.proxy.Logger;
 import software.amazon.cloudformation.proxy.OperationStatus;
 import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+import software.amazon.fms.notificationchannel.helpers.AllocationBudget;
+import software.amazon.fms.notificationchannel.helpers.ApiCallBudget;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
@@ -90,6 +94,12 @@ class ReadHandlerTest {
         verify(proxy, times(1)).injectCredentialsAndInvokeV2(captor.capture(), any());
         assertThat(captor.getValue()).isEqualTo(GetNotificationChannelRequest.builder().build());
 
+        // verify the api call budget
+        ApiCallBudget.budget()
+                .allow("GetNotificationChannel", 1)
+                .total(1)
+                .assertWithin(proxy);
+
         // assertions
         assertThat(response).isNotNull();
         assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
@@ -100,6 +110,32 @@ class ReadHandlerTest {
         assertThat(response.getErrorCode()).isNull();
     }
 
+    @Test
+    void handleRequestWithinAllocationBudget() {
+        // stub the response for the read request
+        doReturn(GetNotificationChannelResponse.builder()
+                        .snsTopicArn(sampleSnsTopicArn)
+                        .snsRoleName(sampleSnsRoleName)
+                        .build())
+                .when(proxy)
+                .injectCredentialsAndInvokeV2(
+                        ArgumentMatchers.isA(GetNotificationChannelRequest.class),
+                        ArgumentMatchers.any()
+                );
+
+        // create the read request and send it, measuring the allocations of the handler
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(model)
+                .build();
+        final ProgressEvent<ResourceModel, CallbackContext> response = AllocationBudget.kilobytes(512)
+                .assertWithin(() -> handler.handleRequest(proxy, request, null, message -> { }));
+
+        // assertions
+        assertThat(response).isNotNull();
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getResourceModel()).isEqualTo(model);
+    }
+
     @Test
     void handleRequestReadResourceNotFound() {
         // stub the response for the read request
@@ -224,4 +260,54 @@ class ReadHandlerTest {
         assertThat(response.getResourceModels()).isNull();
         assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.ServiceInternalError);
     }
+
+    @Test
+    void handleRequestThrottlingException() {
+        // mock the retry budget running out on throttled requests
+        doThrow(new CfnThrottlingException("GetNotificationChannel"))
+                .when(proxy)
+                .injectCredentialsAndInvokeV2(
+                        ArgumentMatchers.any(),
+                        ArgumentMatchers.any()
+                );
+
+        // create the read request and send it
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(model)
+                .build();
+        final ProgressEvent<ResourceModel, CallbackContext> response =
+                handler.handleRequest(proxy, request, null, logger);
+
+        // assertions
+        assertThat(response).isNotNull();
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.FAILED);
+        assertThat(response.getResourceModel()).isNull();
+        assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.Throttling);
+    }
+
+    @Test
+    void handleRequestNetworkFailure() {
+        // mock a non transient SdkClientException from the SDK
+        doThrow(SdkClientException.builder().message("Unable to execute HTTP request").build())
+                .when(proxy)
+                .injectCredentialsAndInvokeV2(
+                        ArgumentMatchers.any(),
+                        ArgumentMatchers.any()
+                );
+
+        // create the read request and send it
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(model)
+                .build();
+        final ProgressEvent<ResourceModel, CallbackContext> response =
+                handler.handleRequest(proxy, request, null, logger);
+
+        // verify the request was not retried
+        verify(proxy, times(1)).injectCredentialsAndInvokeV2(captor.capture(), any());
+
+        // assertions
+        assertThat(response).isNotNull();
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.FAILED);
+        assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.NetworkFailure);
+    }
 }
@@ -23,6 +23,8 @@ import software.amazon.cloudformation.proxy.Logger;
 import software.amazon.cloudformation.proxy.OperationStatus;
 import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+import software.amazon.fms.notificationchannel.helpers.AllocationBudget;
+import software.amazon.fms.notificationchannel.helpers.ApiCallBudget;
 
 import java.util.Arrays;
 
@@ -140,6 +142,13 @@ class UpdateHandlerTest {
                         .build()
         ));
 
+        // verify the api call budget
+        ApiCallBudget.budget()
+                .allow("GetNotificationChannel", 1)
+                .allow("PutNotificationChannel", 1)
+                .total(2)
+                .assertWithin(proxy);
+
         // assertions
         assertThat(response).isNotNull();
         assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
@@ -150,6 +159,38 @@ class UpdateHandlerTest {
         assertThat(response.getErrorCode()).isNull();
     }
 
+    @Test
+    void handleRequestWithinAllocationBudget() {
+        // stub the responses for the read and update requests
+        doReturn(GetNotificationChannelResponse.builder()
+                        .snsTopicArn(sampleSnsTopicArn)
+                        .snsRoleName(sampleSnsRoleName)
+                        .build())
+                .when(proxy)
+                .injectCredentialsAndInvokeV2(
+                        ArgumentMatchers.isA(GetNotificationChannelRequest.class),
+                        ArgumentMatchers.any()
+                );
+        doReturn(PutNotificationChannelResponse.builder().build())
+                .when(proxy)
+                .injectCredentialsAndInvokeV2(
+                        ArgumentMatchers.isA(PutNotificationChannelRequest.class),
+                        ArgumentMatchers.any()
+                );
+
+        // create the update request and send it, measuring the allocations of the handler
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(model)
+                .build();
+        final ProgressEvent<ResourceModel, CallbackContext> response = AllocationBudget.kilobytes(512)
+                .assertWithin(() -> handler.handleRequest(proxy, request, null, message -> { }));
+
+        // assertions
+        assertThat(response).isNotNull();
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getResourceModel()).isEqualTo(model);
+    }
+
     @Test
     void handleRequestCreateInvalidOperationException() {
         // stub the response for the read request
@@ -0,0 +1,286 @@
+package software.amazon.fms.notificationchannel.helpers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.services.fms.FmsClient;
+import software.amazon.awssdk.services.fms.model.FmsException;
+import software.amazon.awssdk.services.fms.model.GetNotificationChannelRequest;
+import software.amazon.awssdk.services.fms.model.GetNotificationChannelResponse;
+import software.amazon.awssdk.services.fms.model.InternalErrorException;
+import software.amazon.cloudformation.exceptions.CfnThrottlingException;
+import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.Logger;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class FmsApiInvokerTest {
+
+    @Mock
+    private AmazonWebServicesClientProxy proxy;
+
+    @Mock
+    private FmsClient client;
+
+    @Mock
+    private Logger logger;
+
+    private HandlerMetrics metrics;
+
+    private Tracer tracer;
+
+    private FmsApiInvoker invoker;
+
+    @BeforeEach
+    void setup() {
+
+        metrics = new HandlerMetrics("AWS::FMS::NotificationChannel", "Read");
+        tracer = new Tracer("AWS::FMS::NotificationChannel", "Read");
+        invoker = new FmsApiInvoker(
+                proxy, logger, metrics, tracer, Duration.ofSeconds(5), Duration.ofMillis(1), Duration.ofMillis(2));
+    }
+
+    @Test
+    void invokeReturnsResponse() {
+
+        // stub the response for the read request
+        final GetNotificationChannelResponse getNotificationChannelResponse = sampleGetNotificationChannelResponse();
+        doReturn(getNotificationChannelResponse)
+                .when(proxy)
+                .injectCredentialsAndInvokeV2(
+                        ArgumentMatchers.isA(GetNotificationChannelRequest.class),
+                        ArgumentMatchers.any()
+                );
+
+        // assertions
+        assertThat(invoker.invoke(GetNotificationChannelRequest.builder().build(), client::getNotificationChannel))
+                .isEqualTo(getNotificationChannelResponse);
+    }
+
+    @Test
+    void invokeRetriesThrottledRequest() throws IOException {
+
+        // throttle the first two read requests
+        final GetNotificationChannelResponse getNotificationChannelResponse = sampleGetNotificationChannelResponse();
+        doThrow(sampleThrottlingException(), sampleThrottlingException())
+                .doReturn(getNotificationChannelResponse)
+                .when(proxy)
+                .injectCredentialsAndInvokeV2(
+                        ArgumentMatchers.isA(GetNotificationChannelRequest.class),
+                        ArgumentMatchers.any()
+                );
+
+        // assertions
+        assertThat(invoker.invoke(GetNotificationChannelRequest.builder().build(), client::getNotificationChannel))
+                .isEqualTo(getNotificationChannelResponse);
+        verify(proxy, times(3)).injectCredentialsAndInvokeV2(
+                ArgumentMatchers.isA(GetNotificationChannelRequest.class),
+                ArgumentMatchers.any()
+        );
+
+        // the retries are recorded in the metrics of the invocation
+        final JsonNode document = new ObjectMapper().readTree(metrics.toEmfDocuments("FMS", 0L).get(0));
+        assertThat(document.get("Operation").asText()).isEqualTo("GetNotificationChannel");
+        assertThat(document.get("Calls").asLong()).isEqualTo(3);
+        assertThat(document.get("Retries").asLong()).isEqualTo(2);
+        assertThat(document.get("Throttles").asLong()).isEqualTo(2);
+        assertThat(document.get("Failures").asLong()).isEqualTo(0);
+    }
+
+    @Test
+    void invokeRetriesTransientNetworkFailure() {
+
+        // fail the first read request on the network
+        final GetNotificationChannelResponse getNotificationChannelResponse = sampleGetNotificationChannelResponse();
+        doThrow(SdkClientException.builder().cause(new IOException("Connection reset")).build())
+                .doReturn(getNotificationChannelResponse)
+                .when(proxy)
+                .injectCredentialsAndInvokeV2(
+                        ArgumentMatchers.isA(GetNotificationChannelRequest.class),
+                        ArgumentMatchers.any()
+                );
+
+        // assertions
+        assertThat(invoker.invoke(GetNotificationChannelRequest.builder().build(), client::getNotificationChannel))
+                .isEqualTo(getNotificationChannelResponse);
+        verify(proxy, times(2)).injectCredentialsAndInvokeV2(
+                ArgumentMatchers.isA(GetNotificationChannelRequest.class),
+                ArgumentMatchers.any()
+        );
+    }
+
+    @Test
+    void invokeDoesNotRetryServiceError() {
+
+        // mock an InternalErrorException from the FMS API
+        doThrow(InternalErrorException.builder().build())
+                .when(proxy)
+                .injectCredentialsAndInvokeV2(
+                        ArgumentMatchers.isA(GetNotificationChannelRequest.class),
+                        ArgumentMatchers.any()
+                );
+
+        // assertions
+        assertThrows(InternalErrorException.class,
+                () -> invoker.invoke(GetNotificationChannelRequest.builder().build(), client::getNotificationChannel));
+        verify(proxy, times(1)).injectCredentialsAndInvokeV2(
+                ArgumentMatchers.isA(GetNotificationChannelRequest.class),
+                ArgumentMatchers.any()
+        );
+    }
+
+    @Test
+    void invokeThrowsThrottlingWhenRetryBudgetRunsOut() {
+
+        // throttle every read request
+        doThrow(sampleThrottlingException())
+                .when(proxy)
+                .injectCredentialsAndInvokeV2(
+                        ArgumentMatchers.isA(GetNotificationChannelRequest.class),
+                        ArgumentMatchers.any()
+                );
+        final FmsApiInvoker shortBudgetInvoker = new FmsApiInvoker(
+                proxy, logger, metrics, tracer, Duration.ofMillis(20), Duration.ofMillis(5), Duration.ofMillis(10));
+
+        // assertions
+        final CfnThrottlingException e = assertThrows(CfnThrottlingException.class,
+                () -> shortBudgetInvoker.invoke(
+                        GetNotificationChannelRequest.builder().build(), client::getNotificationChannel));
+        assertThat(e.getCause()).isInstanceOf(FmsException.class);
+    }
+
+    @Test
+    void invokeHedgesSlowRead() throws IOException, InterruptedException {
+
+        // stall the first read request until the end of the test, its hedge responds immediately
+        final CountDownLatch stalled = new CountDownLatch(1);
+        final GetNotificationChannelResponse getNotificationChannelResponse = sampleGetNotificationChannelResponse();
+        doAnswer(invocation -> {
+            stalled.await();
+            return getNotificationChannelResponse;
+        })
+                .doReturn(getNotificationChannelResponse)
+                .when(proxy)
+                .injectCredentialsAndInvokeV2(
+                        ArgumentMatchers.isA(GetNotificationChannelRequest.class),
+                        ArgumentMatchers.any()
+                );
+        final FmsApiInvoker hedgingInvoker = new FmsApiInvoker(proxy, logger, metrics, tracer,
+                Duration.ofSeconds(5), Duration.ofMillis(1), Duration.ofMillis(2), warmHedgingPolicy(1));
+
+        // assertions
+        try {
+            assertThat(hedgingInvoker.invoke(
+                    GetNotificationChannelRequest.builder().build(), client::getNotificationChannel))
+                    .isEqualTo(getNotificationChannelResponse);
+        } finally {
+            stalled.countDown();
+        }
+        verify(proxy, times(2)).injectCredentialsAndInvokeV2(
+                ArgumentMatchers.isA(GetNotificationChannelRequest.class),
+                ArgumentMatchers.any()
+        );
+
+        // the hedge and its win are recorded in the metrics of the invocation
+        final JsonNode document = new ObjectMapper().readTree(metrics.toEmfDocuments("FMS", 0L).get(0));
+        assertThat(document.get("Calls").asLong()).isEqualTo(1);
+        assertThat(document.get("Hedges").asLong()).isEqualTo(1);
+        assertThat(document.get("HedgeWins").asLong()).isEqualTo(1);
+    }
+
+    @Test
+    void invokeDoesNotHedgeBeyondMaxRatio() throws IOException {
+
+        // slow down the read request past the hedging delay
+        final GetNotificationChannelResponse getNotificationChannelResponse = sampleGetNotificationChannelResponse();
+        doAnswer(invocation -> {
+            Thread.sleep(100);
+            return getNotificationChannelResponse;
+        })
+                .when(proxy)
+                .injectCredentialsAndInvokeV2(
+                        ArgumentMatchers.isA(GetNotificationChannelRequest.class),
+                        ArgumentMatchers.any()
+                );
+        final FmsApiInvoker hedgingInvoker = new FmsApiInvoker(proxy, logger, metrics, tracer,
+                Duration.ofSeconds(5), Duration.ofMillis(1), Duration.ofMillis(2), warmHedgingPolicy(0));
+
+        // assertions
+        assertThat(hedgingInvoker.invoke(
+                GetNotificationChannelRequest.builder().build(), client::getNotificationChannel))
+                .isEqualTo(getNotificationChannelResponse);
+        verify(proxy, times(1)).injectCredentialsAndInvokeV2(
+                ArgumentMatchers.isA(GetNotificationChannelRequest.class),
+                ArgumentMatchers.any()
+        );
+        final JsonNode document = new ObjectMapper().readTree(metrics.toEmfDocuments("FMS", 0L).get(0));
+        assertThat(document.get("Hedges").asLong()).isEqualTo(0);
+    }
+
+    @Test
+    void operationName() {
+
+        // assertions
+        assertThat(FmsApiInvoker.operationName(GetNotificationChannelRequest.builder().build()))
+                .isEqualTo("GetNotificationChannel");
+    }
+
+    @Test
+    void retryBudgetFromEnvironment() {
+
+        // assertions
+        assertThat(FmsApiInvoker.retryBudgetFromEnvironment(Collections.emptyMap()))
+                .isEqualTo(Duration.ofSeconds(30));
+        assertThat(FmsApiInvoker.retryBudgetFromEnvironment(
+                Collections.singletonMap(FmsApiInvoker.RETRY_BUDGET_ENV, "1500")))
+                .isEqualTo(Duration.ofMillis(1500));
+    }
+
+    private static GetNotificationChannelResponse sampleGetNotificationChannelResponse() {
+
+        return GetNotificationChannelResponse.builder()
+                .snsTopicArn("arn:aws:sns:us-east-1:012345678901:test-topic")
+                .snsRoleName("arn:aws:iam::012345678901:role/aws-service-role/fms.amazonaws.com/AWSServiceRoleForFMS")
+                .build();
+    }
+
+    /**
+     * Create a hedging policy that has recorded enough latencies of 50 ms to hedge reads after 50 ms.
+     */
+    private static HedgingPolicy warmHedgingPolicy(final double maxRatio) {
+
+        final HedgingPolicy hedging = new HedgingPolicy(50, maxRatio);
+        for (int i = 0; i < HedgingPolicy.MIN_SAMPLES; i++) {
+            hedging.recordLatency("GetNotificationChannel", TimeUnit.MILLISECONDS.toNanos(50));
+        }
+        return hedging;
+    }
+
+    private static FmsException sampleThrottlingException() {
+
+        return FmsException.builder()
+                .awsErrorDetails(AwsErrorDetails.builder().errorCode("ThrottlingException").build())
+                .statusCode(400)
+                .build();
+    }
+}
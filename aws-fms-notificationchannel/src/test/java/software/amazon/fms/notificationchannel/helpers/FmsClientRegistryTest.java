@@ -0,0 +1,67 @@
+package software.amazon.fms.notificationchannel.helpers;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.fms.FmsClient;
+
+import java.net.URI;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FmsClientRegistryTest {
+
+    private static final URI sampleEndpoint = URI.create("http://localhost:8080");
+
+    @AfterEach
+    void tearDown() {
+
+        FmsClientRegistry.close();
+    }
+
+    @Test
+    void getClientReusesClientForSameRegionAndEndpoint() {
+
+        final FmsClient first = FmsClientRegistry.getClient(Region.US_EAST_1, sampleEndpoint);
+        final FmsClient second = FmsClientRegistry.getClient(Region.US_EAST_1, sampleEndpoint);
+
+        // assertions
+        assertThat(second).isSameAs(first);
+    }
+
+    @Test
+    void getClientBuildsSeparateClientsPerRegionAndEndpoint() {
+
+        final FmsClient regional = FmsClientRegistry.getClient(Region.US_EAST_1, null);
+        final FmsClient otherRegion = FmsClientRegistry.getClient(Region.US_WEST_2, null);
+        final FmsClient otherEndpoint = FmsClientRegistry.getClient(Region.US_EAST_1, sampleEndpoint);
+
+        // assertions
+        assertThat(otherRegion).isNotSameAs(regional);
+        assertThat(otherEndpoint).isNotSameAs(regional);
+        assertThat(otherEndpoint).isNotSameAs(otherRegion);
+    }
+
+    @Test
+    void closeRebuildsClientOnNextUse() {
+
+        final FmsClient first = FmsClientRegistry.getClient(Region.US_EAST_1, sampleEndpoint);
+        FmsClientRegistry.close();
+        final FmsClient second = FmsClientRegistry.getClient(Region.US_EAST_1, sampleEndpoint);
+
+        // assertions
+        assertThat(second).isNotNull();
+        assertThat(second).isNotSameAs(first);
+    }
+
+    @Test
+    void closeConnectionsKeepsClients() {
+
+        final FmsClient client = FmsClientRegistry.getClient(Region.US_EAST_1, sampleEndpoint);
+        FmsClientRegistry.closeConnections();
+        FmsClientRegistry.reopenConnections();
+
+        // assertions
+        assertThat(FmsClientRegistry.getClient(Region.US_EAST_1, sampleEndpoint)).isSameAs(client);
+    }
+}
@@ -0,0 +1,71 @@
+package software.amazon.fms.notificationchannel.helpers;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HedgingPolicyTest {
+
+    @Test
+    void hedgingIsDisabledUnlessConfigured() {
+
+        final HedgingPolicy hedging = HedgingPolicy.fromEnvironment(Collections.emptyMap());
+        for (int i = 0; i < HedgingPolicy.MIN_SAMPLES; i++) {
+            hedging.recordLatency("GetNotificationChannel", TimeUnit.MILLISECONDS.toNanos(10));
+        }
+
+        // assertions
+        assertThat(hedging.appliesTo("GetNotificationChannel")).isFalse();
+        assertThat(hedging.startRequest("GetNotificationChannel")).isNegative();
+    }
+
+    @Test
+    void onlyReadsAreHedged() {
+
+        final Map<String, String> environment = new HashMap<>();
+        environment.put(HedgingPolicy.PERCENTILE_ENV, "95");
+        final HedgingPolicy hedging = HedgingPolicy.fromEnvironment(environment);
+
+        // assertions
+        assertThat(hedging.appliesTo("GetNotificationChannel")).isTrue();
+        assertThat(hedging.appliesTo("PutNotificationChannel")).isFalse();
+        assertThat(hedging.startRequest("PutNotificationChannel")).isNegative();
+    }
+
+    @Test
+    void hedgeDelayIsLatencyPercentileOnceEnoughAreRecorded() {
+
+        final HedgingPolicy hedging = new HedgingPolicy(90, 1);
+        for (int i = 1; i < HedgingPolicy.MIN_SAMPLES; i++) {
+            hedging.recordLatency("GetNotificationChannel", TimeUnit.MILLISECONDS.toNanos(10));
+        }
+
+        // assertions
+        assertThat(hedging.startRequest("GetNotificationChannel")).isNegative();
+        hedging.recordLatency("GetNotificationChannel", TimeUnit.MILLISECONDS.toNanos(10));
+        assertThat(hedging.startRequest("GetNotificationChannel")).isEqualTo(TimeUnit.MILLISECONDS.toNanos(10));
+    }
+
+    @Test
+    void hedgesAreCappedToMaxRatio() {
+
+        final Map<String, String> environment = new HashMap<>();
+        environment.put(HedgingPolicy.PERCENTILE_ENV, "95");
+        environment.put(HedgingPolicy.MAX_RATIO_ENV, "0.25");
+        final HedgingPolicy hedging = HedgingPolicy.fromEnvironment(environment);
+        for (int i = 0; i < 3; i++) {
+            hedging.startRequest("GetNotificationChannel");
+        }
+
+        // assertions
+        assertThat(hedging.tryHedge()).isFalse();
+        hedging.startRequest("GetNotificationChannel");
+        assertThat(hedging.tryHedge()).isTrue();
+        assertThat(hedging.tryHedge()).isFalse();
+    }
+}
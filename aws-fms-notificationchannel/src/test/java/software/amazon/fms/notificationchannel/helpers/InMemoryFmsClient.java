@@ -0,0 +1,260 @@
+package software.amazon.fms.notificationchannel.helpers;
+
+import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
+import software.amazon.awssdk.core.exception.AbortedException;
+import software.amazon.awssdk.services.fms.FmsClient;
+import software.amazon.awssdk.services.fms.model.DeleteNotificationChannelRequest;
+import software.amazon.awssdk.services.fms.model.DeleteNotificationChannelResponse;
+import software.amazon.awssdk.services.fms.model.FmsException;
+import software.amazon.awssdk.services.fms.model.GetNotificationChannelRequest;
+import software.amazon.awssdk.services.fms.model.GetNotificationChannelResponse;
+import software.amazon.awssdk.services.fms.model.PutNotificationChannelRequest;
+import software.amazon.awssdk.services.fms.model.PutNotificationChannelResponse;
+import software.amazon.awssdk.services.fms.model.ResourceNotFoundException;
+import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.Credentials;
+import software.amazon.cloudformation.proxy.LoggerProxy;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Stateful in-memory stand-in for the FMS notification channel APIs, to run the real handlers through multi-call
+ * flows offline. Like the service, it holds at most one notification channel per account and answers a get without a
+ * channel with an empty response. Every call can be delayed by a latency distribution and throttled at a configurable
+ * rate, drawn from a seeded random source so that runs are repeatable.
+ */
+public class InMemoryFmsClient implements FmsClient {
+
+    private final LongSupplier latencyMillis;
+    private final double throttleRate;
+    private final Random random;
+
+    private String snsTopicArn;
+    private String snsRoleName;
+    private final Map<String, Long> callCounts = new ConcurrentSkipListMap<>();
+
+    private InMemoryFmsClient(final Builder builder) {
+
+        this.random = new Random(builder.seed);
+        this.latencyMillis = builder.latencyMillis == null ? () -> 0 : builder.latencyMillis.apply(random);
+        this.throttleRate = builder.throttleRate;
+    }
+
+    public static Builder builder() {
+
+        return new Builder();
+    }
+
+    /**
+     * Create a CloudFormation proxy that makes the requests of the handlers against a stand-in, the way the proxy
+     * given to the handlers in Lambda does.
+     * @return The proxy.
+     */
+    public static AmazonWebServicesClientProxy newProxy() {
+
+        return new AmazonWebServicesClientProxy(
+                new LoggerProxy(),
+                new Credentials("accessKeyId", "secretAccessKey", "sessionToken"),
+                () -> Long.MAX_VALUE);
+    }
+
+    /**
+     * Get the number of calls made to each FMS operation, throttled calls included.
+     * @return Calls per FMS operation, sorted by operation.
+     */
+    public Map<String, Long> getCallCounts() {
+
+        return new TreeMap<>(callCounts);
+    }
+
+    /**
+     * Get the SNS topic of the notification channel currently stored.
+     * @return The SNS topic ARN, null without a notification channel.
+     */
+    public synchronized String getSnsTopicArn() {
+
+        return snsTopicArn;
+    }
+
+    /**
+     * Get the role of the notification channel currently stored.
+     * @return The SNS role name, null without a notification channel.
+     */
+    public synchronized String getSnsRoleName() {
+
+        return snsRoleName;
+    }
+
+    @Override
+    public String serviceName() {
+
+        return SERVICE_NAME;
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public GetNotificationChannelResponse getNotificationChannel(final GetNotificationChannelRequest request) {
+
+        return call("GetNotificationChannel", () -> GetNotificationChannelResponse.builder()
+                .snsTopicArn(snsTopicArn)
+                .snsRoleName(snsRoleName)
+                .build());
+    }
+
+    @Override
+    public PutNotificationChannelResponse putNotificationChannel(final PutNotificationChannelRequest request) {
+
+        return call("PutNotificationChannel", () -> {
+            snsTopicArn = request.snsTopicArn();
+            snsRoleName = request.snsRoleName();
+            return PutNotificationChannelResponse.builder().build();
+        });
+    }
+
+    @Override
+    public DeleteNotificationChannelResponse deleteNotificationChannel(
+            final DeleteNotificationChannelRequest request) {
+
+        return call("DeleteNotificationChannel", () -> {
+            if (snsTopicArn == null) {
+                throw ResourceNotFoundException.builder()
+                        .message("Notification channel does not exist")
+                        .awsErrorDetails(errorDetails("ResourceNotFoundException"))
+                        .statusCode(400)
+                        .build();
+            }
+            snsTopicArn = null;
+            snsRoleName = null;
+            return DeleteNotificationChannelResponse.builder().build();
+        });
+    }
+
+    /**
+     * Make a call against the stand-in: wait for the latency of the call, throttle it or run it on the state.
+     * @param operation FMS operation.
+     * @param body Effect of the call on the state.
+     * @param <T> Type of the response.
+     * @return The response.
+     */
+    private <T> T call(final String operation, final Supplier<T> body) {
+
+        callCounts.merge(operation, 1L, Long::sum);
+        final long latency;
+        final boolean throttled;
+        synchronized (random) {
+            latency = latencyMillis.getAsLong();
+            throttled = random.nextDouble() < throttleRate;
+        }
+        sleep(latency);
+        if (throttled) {
+            throw FmsException.builder()
+                    .message("Rate exceeded")
+                    .awsErrorDetails(errorDetails("ThrottlingException"))
+                    .statusCode(400)
+                    .build();
+        }
+        synchronized (this) {
+            return body.get();
+        }
+    }
+
+    private static AwsErrorDetails errorDetails(final String errorCode) {
+
+        return AwsErrorDetails.builder().errorCode(errorCode).serviceName(SERVICE_NAME).build();
+    }
+
+    private static void sleep(final long millis) {
+
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw AbortedException.builder().message("Interrupted while waiting for the stand-in").cause(e).build();
+        }
+    }
+
+    public static class Builder {
+
+        private long seed = 0;
+        private Function<Random, LongSupplier> latencyMillis;
+        private double throttleRate = 0;
+
+        /**
+         * Seed the random source of the latencies and throttling.
+         * @param seed Seed of the random source.
+         * @return This builder.
+         */
+        public Builder seed(final long seed) {
+
+            this.seed = seed;
+            return this;
+        }
+
+        /**
+         * Delay every call by the same latency.
+         * @param latency Latency of the calls.
+         * @return This builder.
+         */
+        public Builder fixedLatency(final Duration latency) {
+
+            this.latencyMillis = random -> latency::toMillis;
+            return this;
+        }
+
+        /**
+         * Delay the calls by latencies drawn uniformly between two bounds.
+         * @param min Lower bound of the latencies.
+         * @param max Upper bound of the latencies.
+         * @return This builder.
+         */
+        public Builder uniformLatency(final Duration min, final Duration max) {
+
+            this.latencyMillis = random ->
+                    () -> min.toMillis() + (long) (random.nextDouble() * (max.toMillis() - min.toMillis()));
+            return this;
+        }
+
+        /**
+         * Delay the calls by log-normally distributed latencies, the long tail typical of service calls.
+         * @param median Median latency of the calls.
+         * @param sigma Standard deviation of the logarithm of the latencies, 0.5 gives a p99 around 3x the median.
+         * @return This builder.
+         */
+        public Builder logNormalLatency(final Duration median, final double sigma) {
+
+            this.latencyMillis = random ->
+                    () -> Math.round(median.toMillis() * Math.exp(sigma * random.nextGaussian()));
+            return this;
+        }
+
+        /**
+         * Throttle a fraction of the calls with a ThrottlingException.
+         * @param throttleRate Fraction of the calls throttled, between 0 and 1.
+         * @return This builder.
+         */
+        public Builder throttleRate(final double throttleRate) {
+
+            this.throttleRate = throttleRate;
+            return this;
+        }
+
+        public InMemoryFmsClient build() {
+
+            return new InMemoryFmsClient(this);
+        }
+    }
+}
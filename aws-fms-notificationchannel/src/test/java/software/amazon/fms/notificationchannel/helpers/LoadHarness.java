@@ -0,0 +1,166 @@
+package software.amazon.fms.notificationchannel.helpers;
+
+import software.amazon.cloudformation.proxy.OperationStatus;
+import software.amazon.cloudformation.proxy.ProgressEvent;
+
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Drives a handler action with many concurrent invocations and reports its throughput, latency percentiles, FMS API
+ * calls and peak heap usage, one line per action. The percentiles are those of the {@link LatencyHistogram} buckets,
+ * the same resolution as the latency metrics the handlers emit in production.
+ */
+public class LoadHarness {
+
+    private static final long MEGABYTE = 1024 * 1024;
+
+    private final int concurrency;
+    private final PrintStream out;
+
+    /**
+     * Create a harness.
+     * @param concurrency Number of invocations in flight at any time.
+     * @param out Stream the report is printed to.
+     */
+    public LoadHarness(final int concurrency, final PrintStream out) {
+
+        this.concurrency = concurrency;
+        this.out = out;
+    }
+
+    /**
+     * Print the header of the report.
+     */
+    public void printHeader() {
+
+        out.printf("%-8s %11s %8s %10s %8s %8s %8s %10s %13s  %s%n",
+                "action", "invocations", "failures", "per second", "p50 ms", "p95 ms", "p99 ms",
+                "API calls", "peak heap MB", "API calls per operation");
+    }
+
+    /**
+     * Run invocations of a handler action and print the line of the action.
+     * @param action Handler action, e.g. Create.
+     * @param invocations Number of invocations.
+     * @param invocation Invocation of the handler, given the index of the invocation.
+     * @param callCounts Calls made to each FMS operation of the stand-in so far.
+     * @return The number of failed invocations, failed progress events and exceptions alike.
+     */
+    public long run(
+            final String action,
+            final int invocations,
+            final IntFunction<ProgressEvent<?, ?>> invocation,
+            final Supplier<Map<String, Long>> callCounts) {
+
+        final LatencyHistogram latencies = new LatencyHistogram();
+        final AtomicLong failures = new AtomicLong();
+        final List<Callable<Void>> tasks = new ArrayList<>(invocations);
+        for (int i = 0; i < invocations; i++) {
+            final int index = i;
+            tasks.add(() -> {
+                final long start = System.nanoTime();
+                try {
+                    if (invocation.apply(index).getStatus() == OperationStatus.FAILED) {
+                        failures.incrementAndGet();
+                    }
+                } catch (RuntimeException e) {
+                    failures.incrementAndGet();
+                } finally {
+                    latencies.record((System.nanoTime() - start) / 1_000_000);
+                }
+                return null;
+            });
+        }
+
+        final Map<String, Long> callsBefore = callCounts.get();
+        resetPeakHeapUsage();
+        final ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        final long start = System.nanoTime();
+        try {
+            for (final Future<Void> future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while running " + action, e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to run " + action, e);
+        } finally {
+            executor.shutdownNow();
+        }
+        final long elapsedNanos = System.nanoTime() - start;
+
+        final Map<String, Long> calls = new TreeMap<>(callCounts.get());
+        callsBefore.forEach((operation, count) -> calls.merge(operation, -count, Long::sum));
+        calls.values().removeIf(count -> count == 0);
+        out.printf("%-8s %11d %8d %10.1f %8d %8d %8d %10d %13d  %s%n",
+                action,
+                invocations,
+                failures.get(),
+                invocations * 1e9 / elapsedNanos,
+                latencies.getPercentileMs(50),
+                latencies.getPercentileMs(95),
+                latencies.getPercentileMs(99),
+                calls.values().stream().mapToLong(Long::longValue).sum(),
+                peakHeapUsage() / MEGABYTE,
+                calls.entrySet().stream().map(Object::toString).collect(Collectors.joining(", ")));
+        return failures.get();
+    }
+
+    /**
+     * Sum the calls made to each FMS operation of several stand-ins.
+     * @param callCounts Calls per FMS operation of each stand-in.
+     * @return Calls per FMS operation, sorted by operation.
+     */
+    public static Map<String, Long> sumCallCounts(final Iterable<Map<String, Long>> callCounts) {
+
+        final Map<String, Long> sum = new TreeMap<>();
+        callCounts.forEach(counts -> counts.forEach((operation, count) -> sum.merge(operation, count, Long::sum)));
+        return sum;
+    }
+
+    /**
+     * Collect garbage left by the previous action and reset the peak usage of the heap pools.
+     */
+    private static void resetPeakHeapUsage() {
+
+        System.gc();
+        for (final MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    /**
+     * Get the peak heap usage since the last reset, as the sum of the peaks of the heap pools. The pools do not all
+     * peak at the same time, so this is an upper bound of the heap the action needed.
+     * @return The peak heap usage in bytes.
+     */
+    private static long peakHeapUsage() {
+
+        long peak = 0;
+        for (final MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+}
@@ -0,0 +1,99 @@
+package software.amazon.fms.notificationchannel.helpers;
+
+import com.sun.net.httpserver.HttpServer;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.fms.FmsClient;
+import software.amazon.awssdk.services.fms.model.FmsRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Local HTTP endpoint answering every FMS operation with an empty JSON document. FMS stand-ins mirrored onto it still
+ * answer the handlers, while each request also goes through the marshalling, signing and HTTP transport of the shared
+ * SDK client, so that a run against the stand-in loads the same classes as a run against FMS.
+ */
+public class LocalFmsEndpoint implements AutoCloseable {
+
+    /** Canned FMS response served for every operation. */
+    private static final byte[] RESPONSE_BODY = "{}".getBytes(StandardCharsets.UTF_8);
+
+    private final HttpServer server;
+    private final URI uri;
+
+    private LocalFmsEndpoint(final HttpServer server) {
+
+        this.server = server;
+        this.uri = URI.create(String.format("http://localhost:%d", server.getAddress().getPort()));
+    }
+
+    /**
+     * Start an endpoint on a free local port.
+     * @return The started endpoint.
+     * @throws IOException If the endpoint could not be bound.
+     */
+    public static LocalFmsEndpoint start() throws IOException {
+
+        final HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            try (InputStream request = exchange.getRequestBody()) {
+                while (request.read() != -1) {
+                    // drain the request so the connection can be reused
+                }
+            }
+            exchange.getResponseHeaders().add("Content-Type", "application/x-amz-json-1.1");
+            exchange.sendResponseHeaders(200, RESPONSE_BODY.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(RESPONSE_BODY);
+            }
+        });
+        server.start();
+        return new LocalFmsEndpoint(server);
+    }
+
+    public URI getUri() {
+
+        return uri;
+    }
+
+    /**
+     * Wrap an FMS stand-in so that every request made to it is first sent to an endpoint through the shared FMS client
+     * of {@link FmsClientRegistry}. The responses of the endpoint are discarded, the stand-in provides the results.
+     * @param standIn FMS stand-in answering the requests.
+     * @param endpoint URI of the endpoint, e.g. of a {@link LocalFmsEndpoint} started by another process.
+     * @return The mirrored FMS client.
+     */
+    public static FmsClient mirror(final FmsClient standIn, final URI endpoint) {
+
+        final FmsClient sdkClient = FmsClientRegistry.getClient(Region.US_EAST_1, endpoint);
+        return (FmsClient) Proxy.newProxyInstance(
+                FmsClient.class.getClassLoader(),
+                new Class<?>[] {FmsClient.class},
+                (proxy, method, args) -> {
+                    try {
+                        if (args != null && args.length == 1 && args[0] instanceof FmsRequest) {
+                            method.invoke(sdkClient, args);
+                        }
+                        return method.invoke(standIn, args);
+                    } catch (final InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    /**
+     * Stop the endpoint and close the clients of the registry.
+     */
+    @Override
+    public void close() {
+
+        FmsClientRegistry.close();
+        server.stop(0);
+    }
+}
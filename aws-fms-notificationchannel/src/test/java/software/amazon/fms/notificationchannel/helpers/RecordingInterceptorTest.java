@@ -0,0 +1,110 @@
+package software.amazon.fms.notificationchannel.helpers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.fms.FmsClient;
+import software.amazon.awssdk.services.fms.model.GetNotificationChannelRequest;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RecordingInterceptorTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void recordsEachInteraction() throws IOException {
+
+        final Path recording = tempDir.resolve("recording.jsonl");
+        try (LocalFmsEndpoint endpoint = LocalFmsEndpoint.start();
+             FmsClient client = FmsClient.builder()
+                     .region(Region.US_EAST_1)
+                     .endpointOverride(endpoint.getUri())
+                     .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("id", "key")))
+                     .httpClient(HttpTransportConfiguration.builder().build().buildHttpClient())
+                     .overrideConfiguration(configuration -> configuration
+                             .addExecutionInterceptor(new RecordingInterceptor(recording)))
+                     .build()) {
+            client.putNotificationChannel(request -> request.snsTopicArn("topic").snsRoleName("role"));
+            client.getNotificationChannel(GetNotificationChannelRequest.builder().build());
+        }
+
+        final ObjectMapper mapper = new ObjectMapper();
+        final List<String> lines = Files.readAllLines(recording, StandardCharsets.UTF_8);
+        final JsonNode putNotificationChannel = mapper.readTree(lines.get(0));
+        final JsonNode getNotificationChannel = mapper.readTree(lines.get(1));
+
+        // assertions
+        assertThat(lines).hasSize(2);
+        assertThat(putNotificationChannel.get("operation").asText()).isEqualTo("PutNotificationChannel");
+        assertThat(mapper.readTree(putNotificationChannel.get("request").asText()).get("SnsTopicArn").asText())
+                .isEqualTo("topic");
+        assertThat(putNotificationChannel.get("status").asInt()).isEqualTo(200);
+        assertThat(putNotificationChannel.get("response").asText()).isEqualTo("{}");
+        assertThat(putNotificationChannel.get("latencyNanos").asLong()).isPositive();
+        assertThat(getNotificationChannel.get("operation").asText()).isEqualTo("GetNotificationChannel");
+    }
+
+    @Test
+    void replayServesRecordedResponsesInOrderAndStartsOver() throws IOException {
+
+        final Path recording = record(
+                interaction("GetNotificationChannel", "{\"SnsTopicArn\":\"first\"}", 0),
+                interaction("GetNotificationChannel", "{\"SnsTopicArn\":\"second\"}", 0));
+
+        try (FmsClient client = ReplayHttpClient.newClient(recording, false)) {
+            final GetNotificationChannelRequest request = GetNotificationChannelRequest.builder().build();
+
+            // assertions
+            assertThat(client.getNotificationChannel(request).snsTopicArn()).isEqualTo("first");
+            assertThat(client.getNotificationChannel(request).snsTopicArn()).isEqualTo("second");
+            assertThat(client.getNotificationChannel(request).snsTopicArn()).isEqualTo("first");
+        }
+    }
+
+    @Test
+    void replayReproducesRecordedLatency() throws IOException {
+
+        final long latencyNanos = TimeUnit.MILLISECONDS.toNanos(50);
+        final Path recording = record(interaction("GetNotificationChannel", "{}", latencyNanos));
+
+        try (FmsClient client = ReplayHttpClient.newClient(recording, true)) {
+            final long start = System.nanoTime();
+            client.getNotificationChannel(GetNotificationChannelRequest.builder().build());
+
+            // assertions
+            assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(latencyNanos);
+        }
+    }
+
+    private Path record(final String... interactions) throws IOException {
+
+        final Path recording = tempDir.resolve("replay.jsonl");
+        Files.write(recording, Arrays.asList(interactions), StandardCharsets.UTF_8);
+        return recording;
+    }
+
+    private static String interaction(final String operation, final String response, final long latencyNanos) {
+
+        return new ObjectMapper().createObjectNode()
+                .put("operation", operation)
+                .put("request", "{}")
+                .put("status", 200)
+                .put("response", response)
+                .put("latencyNanos", latencyNanos)
+                .toString();
+    }
+}
@@ -0,0 +1,71 @@
+package software.amazon.fms.notificationchannel.helpers;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.http.SdkHttpClient;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class ReopenableHttpClientTest {
+
+    @Test
+    void buildsTransportOnFirstUseOnly() {
+
+        final List<SdkHttpClient> built = new ArrayList<>();
+        final ReopenableHttpClient httpClient = new ReopenableHttpClient(() -> {
+            final SdkHttpClient transport = mock(SdkHttpClient.class);
+            doReturn("Transport").when(transport).clientName();
+            built.add(transport);
+            return transport;
+        });
+
+        // assertions
+        assertThat(built).isEmpty();
+        assertThat(httpClient.clientName()).isEqualTo("Transport");
+        assertThat(httpClient.clientName()).isEqualTo("Transport");
+        assertThat(built).hasSize(1);
+    }
+
+    @Test
+    void closeConnectionsClosesTransportAndRebuildsOnNextUse() {
+
+        final List<SdkHttpClient> built = new ArrayList<>();
+        final ReopenableHttpClient httpClient = new ReopenableHttpClient(() -> {
+            final SdkHttpClient transport = mock(SdkHttpClient.class);
+            built.add(transport);
+            return transport;
+        });
+
+        httpClient.open();
+        httpClient.closeConnections();
+        httpClient.open();
+
+        // verify the first transport was closed and the second is still open
+        assertThat(built).hasSize(2);
+        verify(built.get(0), times(1)).close();
+        verify(built.get(1), never()).close();
+    }
+
+    @Test
+    void closeConnectionsBeforeFirstUseBuildsNothing() {
+
+        final List<SdkHttpClient> built = new ArrayList<>();
+        final ReopenableHttpClient httpClient = new ReopenableHttpClient(() -> {
+            final SdkHttpClient transport = mock(SdkHttpClient.class);
+            built.add(transport);
+            return transport;
+        });
+
+        httpClient.closeConnections();
+
+        // assertions
+        assertThat(built).isEmpty();
+    }
+}
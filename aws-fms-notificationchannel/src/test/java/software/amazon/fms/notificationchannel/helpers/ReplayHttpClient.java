@@ -0,0 +1,210 @@
+package software.amazon.fms.notificationchannel.helpers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.exception.AbortedException;
+import software.amazon.awssdk.http.AbortableInputStream;
+import software.amazon.awssdk.http.ContentStreamProvider;
+import software.amazon.awssdk.http.ExecutableHttpRequest;
+import software.amazon.awssdk.http.HttpExecuteRequest;
+import software.amazon.awssdk.http.HttpExecuteResponse;
+import software.amazon.awssdk.http.SdkHttpClient;
+import software.amazon.awssdk.http.SdkHttpResponse;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.fms.FmsClient;
+import software.amazon.awssdk.utils.IoUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HTTP transport serving the FMS interactions captured by {@link RecordingInterceptor}, so that handler changes can
+ * be compared offline against the responses, pagination shapes and, optionally, latencies of a real account. A request
+ * is answered with the first response not served yet that was recorded for the same operation and body, or, when the
+ * handler now sends a different body, for the same operation. Once every response to an operation has been served
+ * they are served again, so that a recording can be replayed any number of times.
+ */
+public class ReplayHttpClient implements SdkHttpClient {
+
+    /** Header naming the operation of an FMS request, e.g. AWSFMS_20180101.GetNotificationChannel. */
+    private static final String TARGET_HEADER = "X-Amz-Target";
+
+    private static final Map<String, List<String>> HEADERS =
+            Collections.singletonMap("Content-Type", Collections.singletonList("application/x-amz-json-1.1"));
+
+    private final Map<String, Interactions> byOperation = new HashMap<>();
+    private final boolean recordedLatency;
+
+    /**
+     * Load a recording.
+     * @param recording File written by {@link RecordingInterceptor}.
+     * @param recordedLatency Whether each response is delayed by the latency observed when it was recorded.
+     * @throws IOException If the recording could not be read or parsed.
+     */
+    public ReplayHttpClient(final Path recording, final boolean recordedLatency) throws IOException {
+
+        this.recordedLatency = recordedLatency;
+        final ObjectMapper mapper = new ObjectMapper();
+        for (final String line : Files.readAllLines(recording, StandardCharsets.UTF_8)) {
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+            final JsonNode node = mapper.readTree(line);
+            final Interaction interaction = new Interaction(
+                    node.get("request").asText(),
+                    node.get("status").asInt(),
+                    node.get("response").asText().getBytes(StandardCharsets.UTF_8),
+                    node.get("latencyNanos").asLong());
+            byOperation.computeIfAbsent(node.get("operation").asText(), key -> new Interactions()).add(interaction);
+        }
+    }
+
+    /**
+     * Build an FMS client served by a recording.
+     * @param recording File written by {@link RecordingInterceptor}.
+     * @param recordedLatency Whether each response is delayed by the latency observed when it was recorded.
+     * @return The FMS client.
+     * @throws IOException If the recording could not be read or parsed.
+     */
+    public static FmsClient newClient(final Path recording, final boolean recordedLatency) throws IOException {
+
+        return FmsClient.builder()
+                .region(Region.US_EAST_1)
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("replay", "replay")))
+                .httpClient(new ReplayHttpClient(recording, recordedLatency))
+                .build();
+    }
+
+    @Override
+    public ExecutableHttpRequest prepareRequest(final HttpExecuteRequest request) {
+
+        final String target = request.httpRequest().firstMatchingHeader(TARGET_HEADER)
+                .orElseThrow(() -> new IllegalArgumentException("Not an FMS request: " + request.httpRequest()));
+        final String operation = target.substring(target.indexOf('.') + 1);
+        final Optional<ContentStreamProvider> content = request.contentStreamProvider();
+        final String body = content.isPresent() ? read(content.get().newStream()) : "";
+
+        final Interaction interaction = next(operation, body);
+        return new ExecutableHttpRequest() {
+
+            @Override
+            public HttpExecuteResponse call() {
+
+                if (recordedLatency) {
+                    sleep(interaction.latencyNanos);
+                }
+                return HttpExecuteResponse.builder()
+                        .response(SdkHttpResponse.builder().statusCode(interaction.status).headers(HEADERS).build())
+                        .responseBody(AbortableInputStream.create(new ByteArrayInputStream(interaction.response)))
+                        .build();
+            }
+
+            @Override
+            public void abort() {
+            }
+        };
+    }
+
+    @Override
+    public String clientName() {
+
+        return "Replay";
+    }
+
+    @Override
+    public void close() {
+    }
+
+    private synchronized Interaction next(final String operation, final String body) {
+
+        final Interactions interactions = byOperation.get(operation);
+        if (interactions == null) {
+            throw new IllegalStateException("No " + operation + " interaction was recorded");
+        }
+        return interactions.next(body);
+    }
+
+    private static String read(final InputStream stream) {
+
+        try (InputStream content = stream) {
+            return new String(IoUtils.toByteArray(content), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void sleep(final long nanos) {
+
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw AbortedException.builder().message("Interrupted while replaying the recording").cause(e).build();
+        }
+    }
+
+    /**
+     * Recorded interactions of an operation, in recorded order.
+     */
+    private static final class Interactions {
+
+        private final List<Interaction> recorded = new ArrayList<>();
+        private final List<Interaction> pending = new LinkedList<>();
+
+        void add(final Interaction interaction) {
+
+            recorded.add(interaction);
+            pending.add(interaction);
+        }
+
+        Interaction next(final String request) {
+
+            if (pending.isEmpty()) {
+                pending.addAll(recorded);
+            }
+            for (final Iterator<Interaction> iterator = pending.iterator(); iterator.hasNext();) {
+                final Interaction interaction = iterator.next();
+                if (interaction.request.equals(request)) {
+                    iterator.remove();
+                    return interaction;
+                }
+            }
+            return pending.remove(0);
+        }
+    }
+
+    /**
+     * Recorded response to an FMS request.
+     */
+    private static final class Interaction {
+
+        private final String request;
+        private final int status;
+        private final byte[] response;
+        private final long latencyNanos;
+
+        Interaction(final String request, final int status, final byte[] response, final long latencyNanos) {
+
+            this.request = request;
+            this.status = status;
+            this.response = response;
+            this.latencyNanos = latencyNanos;
+        }
+    }
+}
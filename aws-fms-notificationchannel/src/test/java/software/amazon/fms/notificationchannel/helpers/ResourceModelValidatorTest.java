@@ -0,0 +1,76 @@
+package software.amazon.fms.notificationchannel.helpers;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.fms.notificationchannel.ResourceModel;
+
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResourceModelValidatorTest {
+
+    private static final String SNS_TOPIC_ARN = "arn:aws:sns:us-east-1:012345678901:test-topic";
+    private static final String SNS_ROLE_NAME =
+            "arn:aws:iam::012345678901:role/aws-service-role/fms.amazonaws.com/AWSServiceRoleForFMS";
+
+    @Test
+    void sampleNotificationChannelIsValid() {
+
+        final ResourceModel model = ResourceModel.builder()
+                .snsTopicArn(SNS_TOPIC_ARN)
+                .snsRoleName(SNS_ROLE_NAME)
+                .build();
+
+        // assertions
+        assertThat(ResourceModelValidator.validate(model)).isEmpty();
+        assertThat(ResourceModelValidator.validate(null)).isEmpty();
+    }
+
+    @Test
+    void topicAndRoleAreBothRequired() {
+
+        // assertions
+        assertThat(ResourceModelValidator.validate(ResourceModel.builder().build())).containsExactly(
+                "SnsRoleName is required",
+                "SnsTopicArn is required");
+        assertThat(ResourceModelValidator.validate(ResourceModel.builder().snsTopicArn(SNS_TOPIC_ARN).build()))
+                .containsExactly("SnsRoleName is required");
+    }
+
+    @Test
+    void snsTopicArnRejectsAnyWhitespace() {
+
+        final ResourceModel model = ResourceModel.builder()
+                .snsRoleName(SNS_ROLE_NAME)
+                .build();
+
+        // assertions, the ARN pattern rejects spaces, tabs and line breaks anywhere in the ARN
+        for (final String whitespace : new String[] {" ", "\t", "\n"}) {
+            model.setSnsTopicArn(SNS_TOPIC_ARN.replace(":test", ":" + whitespace + "test"));
+            assertThat(ResourceModelValidator.validate(model))
+                    .as("%s", whitespace)
+                    .containsExactly("SnsTopicArn must match pattern ^([^\\s]+)$");
+        }
+        model.setSnsTopicArn("");
+        assertThat(ResourceModelValidator.validate(model)).containsExactly(
+                "SnsTopicArn must be at least 1 characters long",
+                "SnsTopicArn must match pattern ^([^\\s]+)$");
+    }
+
+    @Test
+    void snsRoleNameSharesTheResourceArnLengthBound() {
+
+        final String longestArn = SNS_ROLE_NAME + String.join("",
+                Collections.nCopies(1024 - SNS_ROLE_NAME.length(), "a"));
+        final ResourceModel model = ResourceModel.builder()
+                .snsTopicArn(SNS_TOPIC_ARN)
+                .snsRoleName(longestArn)
+                .build();
+
+        // assertions
+        assertThat(ResourceModelValidator.validate(model)).isEmpty();
+        model.setSnsRoleName(longestArn + "a");
+        assertThat(ResourceModelValidator.validate(model))
+                .containsExactly("SnsRoleName must be at most 1024 characters long");
+    }
+}
@@ -0,0 +1,20 @@
+package software.amazon.fms.notificationchannel.helpers;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SnapshotPrimingTest {
+
+    /** Requests marshalled per priming iteration, a read, a put and a delete of the priming channel. */
+    private static final int REQUESTS_PER_ITERATION = 3;
+
+    @Test
+    void primeMarshalsEveryRequestWithoutSendingIt() throws IOException {
+
+        // assertions
+        assertThat(SnapshotPriming.prime(2)).isEqualTo(2 * REQUESTS_PER_ITERATION);
+    }
+}
@@ -0,0 +1,47 @@
+package software.amazon.fms.notificationchannel.helpers;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTest {
+
+    @Test
+    void takeAllowsBurstThenWaitsForRefill() {
+
+        final TokenBucket bucket = new TokenBucket(10, 2, 0);
+
+        // assertions
+        assertThat(bucket.take(0)).isEqualTo(0);
+        assertThat(bucket.take(0)).isEqualTo(0);
+        assertThat(bucket.take(0)).isEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+        assertThat(bucket.take(0)).isEqualTo(TimeUnit.MILLISECONDS.toNanos(200));
+    }
+
+    @Test
+    void takeRefillsUpToCapacity() {
+
+        final TokenBucket bucket = new TokenBucket(10, 2, 0);
+        bucket.take(0);
+        bucket.take(0);
+
+        // assertions
+        final long later = TimeUnit.SECONDS.toNanos(10);
+        assertThat(bucket.take(later)).isEqualTo(0);
+        assertThat(bucket.take(later)).isEqualTo(0);
+        assertThat(bucket.take(later)).isGreaterThan(0);
+    }
+
+    @Test
+    void giveBackReturnsUnusedToken() {
+
+        final TokenBucket bucket = new TokenBucket(10, 1, 0);
+        bucket.take(0);
+        bucket.giveBack();
+
+        // assertions
+        assertThat(bucket.take(0)).isEqualTo(0);
+    }
+}
@@ -0,0 +1,180 @@
+package software.amazon.fms.policy.helpers;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import software.amazon.awssdk.services.fms.model.Policy;
+import software.amazon.awssdk.services.fms.model.SecurityServiceType;
+import software.amazon.awssdk.services.fms.model.Tag;
+import software.amazon.fms.policy.NetworkAclEntry;
+import software.amazon.fms.policy.NetworkAclEntrySet;
+import software.amazon.fms.policy.PolicyOption;
+import software.amazon.fms.policy.ResourceModel;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Throughput of the conversions between the CloudFormation and FMS models of a policy, which every handler invocation
+ * runs at least once. The minimal payload is the sample policy with only the required parameters, the maximal one
+ * is generated by the {@link WorkloadGenerator}, with thousands of accounts and organizational units in its include and
+ * exclude maps, full network ACL entry lists and tags at their limits, and has the largest ManagedServiceData FMS
+ * accepts. Run with the gc profiler to get the allocation rate alongside the throughput:
+ * mvn test-compile -P jmh -Djmh.args=ConverterBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConverterBenchmark {
+
+    /** Maximum length of the ManagedServiceData of a policy. */
+    static final int MAX_MANAGED_SERVICE_DATA_LENGTH = 8192;
+
+    public enum Payload {
+        MINIMAL,
+        MAXIMAL
+    }
+
+    @Param({"MINIMAL", "MAXIMAL"})
+    public Payload payload;
+
+    /** Number of accounts in the include and exclude maps of a maximal policy. */
+    @Param({"5000"})
+    public int accounts;
+
+    private ResourceModel resourceModel;
+    private Policy policy;
+    private PolicyOption policyOption;
+    private List<NetworkAclEntry> networkAclEntries;
+    private List<software.amazon.awssdk.services.fms.model.NetworkAclEntry> fmsNetworkAclEntries;
+    private List<Tag> existingTags;
+    private Map<String, String> desiredTags;
+
+    @Setup
+    public void setup() {
+
+        resourceModel = payload == Payload.MINIMAL
+                ? CfnSampleHelper.sampleRequiredParametersResourceModelForNetworkAcl(true, true, false)
+                : maximalResourceModel(accounts);
+        policy = FmsHelper.convertCFNResourceModelToFMSPolicy(resourceModel, BaseSampleHelper.samplePolicyUpdateToken)
+                .toBuilder()
+                .policyId(BaseSampleHelper.samplePolicyId)
+                .build();
+        policyOption = resourceModel.getSecurityServicePolicyData().getPolicyOption();
+
+        final NetworkAclEntrySet entrySet = policyOption.getNetworkAclCommonPolicy().getNetworkAclEntrySet();
+        networkAclEntries = new ArrayList<>(entrySet.getFirstEntries());
+        networkAclEntries.addAll(entrySet.getLastEntries());
+        fmsNetworkAclEntries = networkAclEntries.stream()
+                .map(FmsHelper::convertCFNNetworkAclEntryToFMSNetworkAclEntry)
+                .collect(Collectors.toList());
+
+        // the existing and desired tags overlap by half, so each side has tags to add and to remove
+        final int tags = payload == Payload.MINIMAL ? 1 : WorkloadGenerator.MAX_TAGS;
+        existingTags = new ArrayList<>();
+        desiredTags = new LinkedHashMap<>();
+        for (int i = 0; i < tags; i++) {
+            existingTags.add(Tag.builder().key("key" + i).value("value").build());
+            desiredTags.put("key" + (i + tags / 2), "value");
+        }
+    }
+
+    @Benchmark
+    public Policy convertCFNResourceModelToFMSPolicy() {
+
+        return FmsHelper.convertCFNResourceModelToFMSPolicy(resourceModel, BaseSampleHelper.samplePolicyUpdateToken);
+    }
+
+    @Benchmark
+    public ResourceModel convertFMSPolicyToCFNResourceModel() {
+
+        return CfnHelper.convertFMSPolicyToCFNResourceModel(policy, BaseSampleHelper.samplePolicyArn, existingTags);
+    }
+
+    @Benchmark
+    public software.amazon.awssdk.services.fms.model.PolicyOption convertCFNPolicyOptionToFMSPolicyOption() {
+
+        return FmsHelper.convertCFNPolicyOptionToFMSPolicyOption(policyOption);
+    }
+
+    @Benchmark
+    public void convertCFNNetworkAclEntryToFMSNetworkAclEntry(final Blackhole blackhole) {
+
+        for (final NetworkAclEntry entry : networkAclEntries) {
+            blackhole.consume(FmsHelper.convertCFNNetworkAclEntryToFMSNetworkAclEntry(entry));
+        }
+    }
+
+    @Benchmark
+    public void convertFmsNetworkAclEntryToCFNNetworkAclEntry(final Blackhole blackhole) {
+
+        for (final software.amazon.awssdk.services.fms.model.NetworkAclEntry entry : fmsNetworkAclEntries) {
+            blackhole.consume(CfnHelper.convertFmsNetworkAclEntryToCFNNetworkAclEntry(entry));
+        }
+    }
+
+    @Benchmark
+    public List<Tag> tagsToAdd() {
+
+        return FmsHelper.tagsToAdd(existingTags, desiredTags);
+    }
+
+    @Benchmark
+    public List<String> tagsToRemove() {
+
+        return FmsHelper.tagsToRemove(existingTags, desiredTags);
+    }
+
+    /**
+     * Generate a network ACL policy with every parameter at its largest and the largest ManagedServiceData.
+     * @param accounts Number of accounts in the include and exclude maps.
+     * @return The policy.
+     */
+    static ResourceModel maximalResourceModel(final int accounts) {
+
+        final ResourceModel resourceModel = new WorkloadGenerator(WorkloadGenerator.DEFAULT_SEED)
+                .policy(SecurityServiceType.NETWORK_ACL_COMMON, accounts, accounts / 10);
+        resourceModel.setId(BaseSampleHelper.samplePolicyId);
+        resourceModel.setArn(BaseSampleHelper.samplePolicyArn);
+        resourceModel.getSecurityServicePolicyData().setManagedServiceData(managedServiceData());
+        return resourceModel;
+    }
+
+    /**
+     * Assemble a network ACL ManagedServiceData just under the maximum length, by repeating its entries.
+     * @return The ManagedServiceData.
+     */
+    static String managedServiceData() {
+
+        final String header = "{\"type\":\"NETWORK_ACL_COMMON\",\"networkAclEntrySet\":{\"firstEntries\":[";
+        final String footer = "],\"forceRemediateForFirstEntries\":true,\"lastEntries\":[],"
+                + "\"forceRemediateForLastEntries\":false}}";
+        final StringBuilder managedServiceData = new StringBuilder(header);
+        for (int i = 0; ; i++) {
+            final String entry = String.format("%s{\"egress\":%b,\"protocol\":\"6\",\"portRange\":{\"from\":%d,"
+                    + "\"to\":%d},\"cidrBlock\":\"10.%d.%d.0/24\",\"ruleAction\":\"allow\"}",
+                    i == 0 ? "" : ",", i % 2 == 0, 1024 + i, 1024 + i, i / 256, i % 256);
+            if (managedServiceData.length() + entry.length() + footer.length() > MAX_MANAGED_SERVICE_DATA_LENGTH) {
+                break;
+            }
+            managedServiceData.append(entry);
+        }
+        return managedServiceData.append(footer).toString();
+    }
+}
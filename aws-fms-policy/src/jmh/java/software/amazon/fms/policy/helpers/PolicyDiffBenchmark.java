@@ -0,0 +1,71 @@
+package software.amazon.fms.policy.helpers;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import software.amazon.awssdk.services.fms.model.Policy;
+import software.amazon.fms.policy.ResourceModel;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the diff the update handler runs between the live and desired policies, on the maximal policy of the
+ * {@link ConverterBenchmark}, whose include and exclude maps carry thousands of accounts. The desired policy either
+ * lists the same accounts in reverse order, or has a tenth of its included accounts replaced:
+ * mvn test-compile -P jmh -Djmh.args=PolicyDiffBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PolicyDiffBenchmark {
+
+    /** Number of accounts in the include and exclude maps of the policies. */
+    @Param({"5000"})
+    public int accounts;
+
+    /** Whether the included accounts of the desired policy differ from the live ones. */
+    @Param({"false", "true"})
+    public boolean changed;
+
+    private Policy live;
+    private Policy desired;
+
+    @Setup
+    public void setup() {
+
+        final ResourceModel resourceModel = ConverterBenchmark.maximalResourceModel(accounts);
+        live = FmsHelper.convertCFNResourceModelToFMSPolicy(resourceModel, BaseSampleHelper.samplePolicyUpdateToken);
+
+        final List<String> includedAccounts = new ArrayList<>(resourceModel.getIncludeMap().getACCOUNT());
+        Collections.reverse(includedAccounts);
+        if (changed) {
+            final List<String> otherAccounts = new WorkloadGenerator(WorkloadGenerator.DEFAULT_SEED + 1)
+                    .accountIds(accounts / 10);
+            for (int i = 0; i < otherAccounts.size(); i++) {
+                includedAccounts.set(i, otherAccounts.get(i));
+            }
+        }
+        resourceModel.getIncludeMap().setACCOUNT(includedAccounts);
+        desired = FmsHelper.convertCFNResourceModelToFMSPolicy(resourceModel, BaseSampleHelper.samplePolicyUpdateToken);
+    }
+
+    @Benchmark
+    public PolicyDiff between() {
+
+        return PolicyDiff.between(live, desired);
+    }
+}
@@ -0,0 +1,73 @@
+package software.amazon.fms.policy.helpers;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import software.amazon.awssdk.services.fms.model.Policy;
+import software.amazon.fms.policy.ResourceModel;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the validation of a desired policy against the resource schema, which the create and update handlers
+ * run before any FMS API request, next to the conversion of the same policy to the FMS model it saves a round trip
+ * for. The payloads are those of the {@link ConverterBenchmark}, the maximal one carrying thousands of account and
+ * organizational unit IDs that are each checked against their pattern and length:
+ * mvn test-compile -P jmh -Djmh.args=ResourceModelValidatorBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResourceModelValidatorBenchmark {
+
+    @Param({"MINIMAL", "MAXIMAL"})
+    public ConverterBenchmark.Payload payload;
+
+    /** Number of accounts in the include and exclude maps of a maximal policy. */
+    @Param({"5000"})
+    public int accounts;
+
+    private ResourceModel resourceModel;
+
+    @Setup
+    public void setup() {
+
+        resourceModel = payload == ConverterBenchmark.Payload.MINIMAL
+                ? CfnSampleHelper.sampleRequiredParametersResourceModelForNetworkAcl(true, true, false)
+                : ConverterBenchmark.maximalResourceModel(accounts);
+        final List<String> violations = ResourceModelValidator.validate(resourceModel);
+        if (!violations.isEmpty()) {
+            throw new IllegalStateException("Invalid benchmark payload: " + violations);
+        }
+    }
+
+    @Benchmark
+    public List<String> validate() {
+
+        return ResourceModelValidator.validate(resourceModel);
+    }
+
+    @Benchmark
+    public List<String> validateManagedServiceData() {
+
+        return ManagedServiceDataValidator.validate(resourceModel.getSecurityServicePolicyData());
+    }
+
+    @Benchmark
+    public Policy convertCFNResourceModelToFMSPolicy() {
+
+        return FmsHelper.convertCFNResourceModelToFMSPolicy(resourceModel, BaseSampleHelper.samplePolicyUpdateToken);
+    }
+}
@@ -7,11 +7,11 @@ import software.amazon.awssdk.services.fms.model.PutPolicyRequest;
 import software.amazon.awssdk.services.fms.model.PutPolicyResponse;
 import software.amazon.awssdk.services.fms.model.Tag;
 import software.amazon.cloudformation.exceptions.CfnInternalFailureException;
-import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.Logger;
 import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
 import software.amazon.fms.policy.helpers.CfnHelper;
+import software.amazon.fms.policy.helpers.FmsApiInvoker;
 import software.amazon.fms.policy.helpers.FmsHelper;
 
 import java.util.List;
@@ -26,20 +26,29 @@ public class CreateHandler extends PolicyHandler<PutPolicyResponse> {
         super(client);
     }
 
+    @Override
+    protected List<String> validateRequest(final ResourceHandlerRequest<ResourceModel> request) {
+
+        return validateDesiredResourceState(request.getDesiredResourceState());
+    }
+
     @Override
     protected PutPolicyResponse makeRequest(
-            final AmazonWebServicesClientProxy proxy,
+            final FmsApiInvoker invoker,
             final ResourceHandlerRequest<ResourceModel> request,
             final Logger logger) {
 
         // make the create request
-        final PutPolicyRequest.Builder putPolicyRequestBuilder = PutPolicyRequest.builder()
-                .policy(FmsHelper.convertCFNResourceModelToFMSPolicy(request.getDesiredResourceState()));
-        final List<Tag> tags = FmsHelper.convertCFNTagMapToFMSTagSet(request.getDesiredResourceTags());
-        if (!tags.isEmpty()) {
-            putPolicyRequestBuilder.tagList(tags);
-        }
-        final PutPolicyResponse response = proxy.injectCredentialsAndInvokeV2(
+        final PutPolicyRequest.Builder putPolicyRequestBuilder = invoker.getTracer().trace("Conversion", () -> {
+            final PutPolicyRequest.Builder builder = PutPolicyRequest.builder()
+                    .policy(FmsHelper.convertCFNResourceModelToFMSPolicy(request.getDesiredResourceState()));
+            final List<Tag> tags = FmsHelper.convertCFNTagMapToFMSTagSet(request.getDesiredResourceTags());
+            if (!tags.isEmpty()) {
+                builder.tagList(tags);
+            }
+            return builder;
+        });
+        final PutPolicyResponse response = invoker.invoke(
                 putPolicyRequestBuilder.build(),
                 client::putPolicy);
         logRequest(response, logger);
@@ -50,27 +59,28 @@ public class CreateHandler extends PolicyHandler<PutPolicyResponse> {
     protected ProgressEvent<ResourceModel, CallbackContext> constructSuccessProgressEvent(
             final PutPolicyResponse response,
             final ResourceHandlerRequest<ResourceModel> request,
-            final AmazonWebServicesClientProxy proxy) {
-        return ProgressEvent.defaultSuccessHandler(constructSuccessResourceModel(response, request, proxy));
+            final FmsApiInvoker invoker) {
+        return ProgressEvent.defaultSuccessHandler(constructSuccessResourceModel(response, request, invoker));
     }
 
     private ResourceModel constructSuccessResourceModel(
             final PutPolicyResponse response,
             final ResourceHandlerRequest<ResourceModel> request,
-            final AmazonWebServicesClientProxy proxy) {
+            final FmsApiInvoker invoker) {
 
         try {
             // convert the create request response to a resource model and add the tags in
             return CfnHelper.convertFMSPolicyToCFNResourceModel(
                     response.policy(),
                     response.policyArn(),
-                    FmsHelper.convertCFNTagMapToFMSTagSet(request.getDesiredResourceTags()));
+                    FmsHelper.convertCFNTagMapToFMSTagSet(request.getDesiredResourceTags()),
+                    request.getDesiredResourceState());
         } catch (Exception e) {
             // if any code fails, delete the policy since CloudFormation is unaware of it
             DeletePolicyRequest deletePolicyRequest = DeletePolicyRequest.builder()
                     .policyId(response.policy().policyId())
                     .build();
-            proxy.injectCredentialsAndInvokeV2(deletePolicyRequest, client::deletePolicy);
+            invoker.invoke(deletePolicyRequest, client::deletePolicy);
 
             // raise an internal exception so CloudFormation knows policy creation failed
             throw new CfnInternalFailureException(e);
@@ -4,10 +4,10 @@ import software.amazon.awssdk.services.fms.FmsClient;
 import software.amazon.awssdk.services.fms.model.DeletePolicyRequest;
 import software.amazon.awssdk.services.fms.model.DeletePolicyResponse;
 import software.amazon.awssdk.services.fms.model.PutPolicyResponse;
-import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.Logger;
 import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+import software.amazon.fms.policy.helpers.FmsApiInvoker;
 
 public class DeleteHandler extends PolicyHandler<DeletePolicyResponse> {
 
@@ -21,7 +21,7 @@ public class DeleteHandler extends PolicyHandler<DeletePolicyResponse> {
 
     @Override
     protected DeletePolicyResponse makeRequest(
-            final AmazonWebServicesClientProxy proxy,
+            final FmsApiInvoker invoker,
             final ResourceHandlerRequest<ResourceModel> request,
             final Logger logger) {
 
@@ -44,7 +44,7 @@ public class DeleteHandler extends PolicyHandler<DeletePolicyResponse> {
         }
 
         // make the delete request
-        final DeletePolicyResponse response = proxy.injectCredentialsAndInvokeV2(
+        final DeletePolicyResponse response = invoker.invoke(
                 deletePolicyRequest.build(),
                 client::deletePolicy);
         logRequest(response, logger);
@@ -55,7 +55,7 @@ public class DeleteHandler extends PolicyHandler<DeletePolicyResponse> {
     protected ProgressEvent<ResourceModel, CallbackContext> constructSuccessProgressEvent(
             final DeletePolicyResponse response,
             final ResourceHandlerRequest<ResourceModel> request,
-            final AmazonWebServicesClientProxy proxy) {
+            final FmsApiInvoker invoker) {
         return ProgressEvent.defaultSuccessHandler(null);
     }
 }
@@ -3,12 +3,12 @@ package software.amazon.fms.policy;
 import software.amazon.awssdk.services.fms.FmsClient;
 import software.amazon.awssdk.services.fms.model.ListPoliciesRequest;
 import software.amazon.awssdk.services.fms.model.ListPoliciesResponse;
-import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.Logger;
 import software.amazon.cloudformation.proxy.OperationStatus;
 import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
 import software.amazon.fms.policy.helpers.CfnHelper;
+import software.amazon.fms.policy.helpers.FmsApiInvoker;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -26,7 +26,7 @@ public class ListHandler extends PolicyHandler<ListPoliciesResponse> {
 
     @Override
     protected ListPoliciesResponse makeRequest(
-            final AmazonWebServicesClientProxy proxy,
+            final FmsApiInvoker invoker,
             final ResourceHandlerRequest<ResourceModel> request,
             final Logger logger) {
 
@@ -36,7 +36,7 @@ public class ListHandler extends PolicyHandler<ListPoliciesResponse> {
                 .maxResults(MAX_RESULTS)
                 .build();
 
-        ListPoliciesResponse listPoliciesResponse = proxy.injectCredentialsAndInvokeV2(
+        ListPoliciesResponse listPoliciesResponse = invoker.invoke(
                 listPoliciesRequest,
                 client::listPolicies);
         logRequest(listPoliciesResponse, logger);
@@ -48,7 +48,7 @@ public class ListHandler extends PolicyHandler<ListPoliciesResponse> {
     protected ProgressEvent<ResourceModel, CallbackContext> constructSuccessProgressEvent(
             final ListPoliciesResponse response,
             final ResourceHandlerRequest<ResourceModel> request,
-            final AmazonWebServicesClientProxy proxy) {
+            final FmsApiInvoker invoker) {
         List<ResourceModel> resourceModels = new ArrayList<>();
 
         if (response.hasPolicyList()) {
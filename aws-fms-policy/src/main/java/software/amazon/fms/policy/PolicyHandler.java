@@ -1,5 +1,7 @@
 package software.amazon.fms.policy;
 
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.services.fms.FmsAsyncClient;
 import software.amazon.awssdk.services.fms.FmsClient;
 import software.amazon.awssdk.services.fms.model.FmsResponse;
 import software.amazon.awssdk.services.fms.model.InternalErrorException;
@@ -8,21 +10,61 @@ import software.amazon.awssdk.services.fms.model.InvalidOperationException;
 import software.amazon.awssdk.services.fms.model.InvalidTypeException;
 import software.amazon.awssdk.services.fms.model.LimitExceededException;
 import software.amazon.awssdk.services.fms.model.ResourceNotFoundException;
+import software.amazon.cloudformation.exceptions.CfnThrottlingException;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.HandlerErrorCode;
 import software.amazon.cloudformation.proxy.Logger;
 import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+import software.amazon.fms.policy.helpers.FmsApiInvoker;
+import software.amazon.fms.policy.helpers.FmsClientRegistry;
+import software.amazon.fms.policy.helpers.HandlerMetrics;
+import software.amazon.fms.policy.helpers.ManagedServiceDataValidator;
+import software.amazon.fms.policy.helpers.ResourceModelValidator;
+import software.amazon.fms.policy.helpers.SnapshotPriming;
+import software.amazon.fms.policy.helpers.Tracer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
 
 abstract class PolicyHandler<ResponseT extends FmsResponse> extends BaseHandler<CallbackContext> {
 
+    /** Environment variable enabling the asynchronous execution path of the handlers. */
+    static final String ASYNC_EXECUTION_ENV = "FMS_ASYNC_EXECUTION";
+
     /** FMS client instance to make requests on behalf of CloudFormation. */
     protected final FmsClient client;
 
-    /** Constructor for use by CloudFormation, uses default FMS client. */
+    /** FMS async client instance to overlap independent requests, null when the handler runs synchronously. */
+    protected final FmsAsyncClient asyncClient;
+
+    /**
+     * Constructor for use by CloudFormation, uses the FMS clients shared by all handlers and registers the priming of
+     * the handler code paths for when the process is snapshotted.
+     */
     PolicyHandler() {
 
-        client = FmsClient.create();
+        this(FmsClientRegistry.getClient(), FmsClientRegistry::getAsyncClient, System.getenv());
+        SnapshotPriming.register();
+    }
+
+    /**
+     * Constructor selecting the execution path from the environment, asynchronous if it enables it.
+     * @param client The FmsClient to use.
+     * @param asyncClient Supplier of the FmsAsyncClient, only called when the asynchronous path is enabled.
+     * @param environment Environment variables of the process.
+     */
+    PolicyHandler(
+            final FmsClient client,
+            final Supplier<FmsAsyncClient> asyncClient,
+            final Map<String, String> environment) {
+
+        this(client, Boolean.parseBoolean(environment.get(ASYNC_EXECUTION_ENV)) ? asyncClient.get() : null);
     }
 
     /**
@@ -31,18 +73,29 @@ abstract class PolicyHandler<ResponseT extends FmsResponse> extends BaseHandler<
      */
     PolicyHandler(final FmsClient client) {
 
+        this(client, null);
+    }
+
+    /**
+     * Constructor for use in tests, allows for mocked clients with the asynchronous execution path enabled.
+     * @param client The FmsClient to use.
+     * @param asyncClient The FmsAsyncClient to use, or null to run synchronously.
+     */
+    PolicyHandler(final FmsClient client, final FmsAsyncClient asyncClient) {
+
         this.client = client;
+        this.asyncClient = asyncClient;
     }
 
     /**
      * Hook called by handleRequest to make the primary action (create, read, etc..) request on the FMS API.
-     * @param proxy AWS proxy to make requests.
+     * @param invoker Invoker to make FMS API requests.
      * @param request CloudFormation's handler request.
      * @param logger CloudWatch logger.
      * @return Response from the FMS API.
      */
     protected abstract ResponseT makeRequest(
-            final AmazonWebServicesClientProxy proxy,
+            final FmsApiInvoker invoker,
             final ResourceHandlerRequest<ResourceModel> request,
             final Logger logger);
 
@@ -50,13 +103,75 @@ abstract class PolicyHandler<ResponseT extends FmsResponse> extends BaseHandler<
      * Hook called by handleRequest to build the ProgressEvent after a successful makeRequest call.
      * @param response Generic type request response from makeRequest call.
      * @param request CloudFormation's handler request.
-     * @param proxy AWS proxy to make requests.
+     * @param invoker Invoker to make FMS API requests.
      * @return ProgressEvent with Post-action resource state.
      */
     abstract ProgressEvent<ResourceModel, CallbackContext> constructSuccessProgressEvent(
             final ResponseT response,
             final ResourceHandlerRequest<ResourceModel> request,
-            final AmazonWebServicesClientProxy proxy);
+            final FmsApiInvoker invoker);
+
+    /**
+     * Hook called by handleRequest before any FMS API request, to reject a desired resource state that FMS would reject
+     * without making the requests. Handlers without a desired resource state to validate find no violations.
+     * @param request CloudFormation's handler request.
+     * @return Violations found, empty if the request may proceed.
+     */
+    protected List<String> validateRequest(final ResourceHandlerRequest<ResourceModel> request) {
+
+        return Collections.emptyList();
+    }
+
+    /**
+     * Validate a desired resource state against the resource schema, and its ManagedServiceData against its policy
+     * type, for the handlers that put it.
+     * @param model Desired resource state.
+     * @return Violations found, empty if the desired resource state is valid.
+     */
+    static List<String> validateDesiredResourceState(final ResourceModel model) {
+
+        final List<String> violations = new ArrayList<>(ResourceModelValidator.validate(model));
+        if (model != null) {
+            violations.addAll(ManagedServiceDataValidator.validate(model.getSecurityServicePolicyData()));
+        }
+        return violations;
+    }
+
+    /**
+     * Hook called by handleRequest instead of makeRequest and constructSuccessProgressEvent when an async client is
+     * available, letting independent FMS API requests overlap. Handlers without an asynchronous path return null and
+     * run synchronously.
+     * @param invoker Invoker to make FMS API requests.
+     * @param request CloudFormation's handler request.
+     * @param logger CloudWatch logger.
+     * @return Future ProgressEvent with post-action resource state, or null to run synchronously.
+     */
+    protected CompletableFuture<ProgressEvent<ResourceModel, CallbackContext>> makeAsyncRequest(
+            final FmsApiInvoker invoker,
+            final ResourceHandlerRequest<ResourceModel> request,
+            final Logger logger) {
+
+        return null;
+    }
+
+    /**
+     * Wait for an asynchronous request, rethrowing the FMS exception it failed with so that it is mapped to the same
+     * handler error code as on the synchronous path.
+     * @param future Future result of the asynchronous request.
+     * @param <T> Type of the result.
+     * @return Result of the asynchronous request.
+     */
+    static <T> T join(final CompletableFuture<T> future) {
+
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
 
     /**
      * Logs the requestId of an FmsResponse.
@@ -74,6 +189,18 @@ abstract class PolicyHandler<ResponseT extends FmsResponse> extends BaseHandler<
         logger.log(String.format("%s Id: %s", response.getClass().getSimpleName(), requestId));
     }
 
+    /**
+     * Get the action of the handler from its class name, e.g. Create for the CreateHandler.
+     * @return The handler action.
+     */
+    String actionName() {
+
+        final String className = getClass().getSimpleName();
+        return className.endsWith("Handler")
+                ? className.substring(0, className.length() - "Handler".length())
+                : className;
+    }
+
     /**
      * Hook called by CloudFormation to run resource management actions.
      * @param proxy AWS proxy to make requests.
@@ -89,10 +216,56 @@ abstract class PolicyHandler<ResponseT extends FmsResponse> extends BaseHandler<
             final CallbackContext callbackContext,
             final Logger logger) {
 
+        // record the metrics and trace of the invocation and flush them once it is over
+        final HandlerMetrics metrics = new HandlerMetrics(ResourceModel.TYPE_NAME, actionName());
+        final Tracer tracer = new Tracer(ResourceModel.TYPE_NAME, actionName());
+        try {
+            final ProgressEvent<ResourceModel, CallbackContext> progressEvent =
+                    handleRequest(new FmsApiInvoker(proxy, logger, metrics, tracer), request, logger);
+            metrics.recordOutcome(progressEvent);
+            tracer.recordOutcome(progressEvent);
+            return progressEvent;
+        } catch (RuntimeException e) {
+            metrics.recordOutcome(e);
+            tracer.recordOutcome(e);
+            throw e;
+        } finally {
+            metrics.flush(logger);
+            tracer.flush(logger);
+        }
+    }
+
+    /**
+     * Run the resource management action of the handler.
+     * @param invoker Invoker to make FMS API requests.
+     * @param request CloudFormation's requested resource state.
+     * @param logger CloudWatch logger.
+     * @return Success event with new resource state or failure event with handler error code.
+     */
+    private ProgressEvent<ResourceModel, CallbackContext> handleRequest(
+            final FmsApiInvoker invoker,
+            final ResourceHandlerRequest<ResourceModel> request,
+            final Logger logger) {
+
+        // fail fast on a desired resource state that FMS would reject
+        final List<String> violations = invoker.getTracer().trace("Validation", () -> validateRequest(request));
+        if (!violations.isEmpty()) {
+            final String message = String.join("; ", violations);
+            logger.log(String.format("Invalid request: %s", message));
+            return ProgressEvent.failed(null, null, HandlerErrorCode.InvalidRequest, message);
+        }
+
         final ResponseT response;
         try {
+            // make the asynchronous handler requests if the handler supports them
+            final CompletableFuture<ProgressEvent<ResourceModel, CallbackContext>> progressEvent =
+                    asyncClient == null ? null : makeAsyncRequest(invoker, request, logger);
+            if (progressEvent != null) {
+                return join(progressEvent);
+            }
+
             // make the primary handler request
-            response = makeRequest(proxy, request, logger);
+            response = makeRequest(invoker, request, logger);
         } catch(ResourceNotFoundException e) {
             logger.log(e.toString());
             return ProgressEvent.defaultFailureHandler(e, HandlerErrorCode.NotFound);
@@ -105,10 +278,18 @@ abstract class PolicyHandler<ResponseT extends FmsResponse> extends BaseHandler<
         } catch(InternalErrorException e) {
             logger.log(e.toString());
             return ProgressEvent.defaultFailureHandler(e, HandlerErrorCode.ServiceInternalError);
+        } catch(CfnThrottlingException e) {
+            logger.log(e.toString());
+            return ProgressEvent.defaultFailureHandler(e, HandlerErrorCode.Throttling);
+        } catch(SdkClientException e) {
+            logger.log(e.toString());
+            return ProgressEvent.defaultFailureHandler(e, HandlerErrorCode.NetworkFailure);
         }
 
         // let each handler construct its own success progress event with resource model(s)
-        return constructSuccessProgressEvent(response, request, proxy);
+        return invoker.getTracer().trace(
+                "ModelConstruction",
+                () -> constructSuccessProgressEvent(response, request, invoker));
 
 //        return ProgressEvent.defaultSuccessHandler(constructSuccessResourceModel(response, request, proxy));
     }
@@ -1,15 +1,19 @@
 package software.amazon.fms.policy;
 
+import software.amazon.awssdk.services.fms.FmsAsyncClient;
 import software.amazon.awssdk.services.fms.FmsClient;
 import software.amazon.awssdk.services.fms.model.GetPolicyRequest;
 import software.amazon.awssdk.services.fms.model.GetPolicyResponse;
 import software.amazon.awssdk.services.fms.model.ListTagsForResourceRequest;
 import software.amazon.awssdk.services.fms.model.ListTagsForResourceResponse;
-import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.Logger;
 import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
 import software.amazon.fms.policy.helpers.CfnHelper;
+import software.amazon.fms.policy.helpers.FmsApiInvoker;
+import software.amazon.fms.policy.helpers.FmsHelper;
+
+import java.util.concurrent.CompletableFuture;
 
 public class ReadHandler extends PolicyHandler<GetPolicyResponse> {
 
@@ -21,9 +25,56 @@ public class ReadHandler extends PolicyHandler<GetPolicyResponse> {
         super(client);
     }
 
+    ReadHandler(final FmsClient client, final FmsAsyncClient asyncClient) {
+        super(client, asyncClient);
+    }
+
+    @Override
+    protected CompletableFuture<ProgressEvent<ResourceModel, CallbackContext>> makeAsyncRequest(
+            final FmsApiInvoker invoker,
+            final ResourceHandlerRequest<ResourceModel> request,
+            final Logger logger) {
+
+        // the tags can only be listed alongside the read request if the policy ARN can be derived
+        final String policyArn = FmsHelper.buildPolicyArn(
+                request.getAwsPartition(),
+                request.getRegion(),
+                request.getAwsAccountId(),
+                request.getDesiredResourceState().getId());
+        if (policyArn == null) {
+            return null;
+        }
+
+        // make the read and list tags requests concurrently
+        final GetPolicyRequest getPolicyRequest = GetPolicyRequest.builder()
+                .policyId(request.getDesiredResourceState().getId())
+                .build();
+        final CompletableFuture<GetPolicyResponse> getPolicyFuture = invoker.invokeAsync(
+                getPolicyRequest,
+                asyncClient::getPolicy);
+        final ListTagsForResourceRequest listTagsForResourceRequest = ListTagsForResourceRequest.builder()
+                .resourceArn(policyArn)
+                .build();
+        final CompletableFuture<ListTagsForResourceResponse> listTagsFuture = invoker.invokeAsync(
+                listTagsForResourceRequest,
+                asyncClient::listTagsForResource);
+
+        // convert the responses to a resource model, a read failure takes precedence over a list tags failure
+        return getPolicyFuture.thenCombine(listTagsFuture, (getPolicyResponse, listTagsForResourceResponse) -> {
+            logRequest(getPolicyResponse, logger);
+            return invoker.getTracer().trace("ModelConstruction", () -> ProgressEvent.defaultSuccessHandler(
+                    CfnHelper.convertFMSPolicyToCFNResourceModel(
+                            getPolicyResponse.policy(),
+                            getPolicyResponse.policyArn(),
+                            listTagsForResourceResponse.tagList(),
+                            request.getDesiredResourceState(),
+                            request.getPreviousResourceState())));
+        });
+    }
+
     @Override
     protected GetPolicyResponse makeRequest(
-            final AmazonWebServicesClientProxy proxy,
+            final FmsApiInvoker invoker,
             final ResourceHandlerRequest<ResourceModel> request,
             final Logger logger) {
 
@@ -31,7 +82,7 @@ public class ReadHandler extends PolicyHandler<GetPolicyResponse> {
         final GetPolicyRequest getPolicyRequest = GetPolicyRequest.builder()
                 .policyId(request.getDesiredResourceState().getId())
                 .build();
-        final GetPolicyResponse response = proxy.injectCredentialsAndInvokeV2(
+        final GetPolicyResponse response = invoker.invoke(
                 getPolicyRequest,
                 client::getPolicy);
         logRequest(response, logger);
@@ -42,20 +93,20 @@ public class ReadHandler extends PolicyHandler<GetPolicyResponse> {
     protected ProgressEvent<ResourceModel, CallbackContext> constructSuccessProgressEvent(
             final GetPolicyResponse response,
             final ResourceHandlerRequest<ResourceModel> request,
-            final AmazonWebServicesClientProxy proxy) {
-        return ProgressEvent.defaultSuccessHandler(constructSuccessResourceModel(response, request, proxy));
+            final FmsApiInvoker invoker) {
+        return ProgressEvent.defaultSuccessHandler(constructSuccessResourceModel(response, request, invoker));
     }
 
     private ResourceModel constructSuccessResourceModel(
             final GetPolicyResponse response,
             final ResourceHandlerRequest<ResourceModel> request,
-            final AmazonWebServicesClientProxy proxy) {
+            final FmsApiInvoker invoker) {
 
         // list the tags for the policy and add them to the resource model
         final ListTagsForResourceRequest listTagsForResourceRequest = ListTagsForResourceRequest.builder()
                 .resourceArn(response.policyArn())
                 .build();
-        final ListTagsForResourceResponse listTagsForResourceResponse = proxy.injectCredentialsAndInvokeV2(
+        final ListTagsForResourceResponse listTagsForResourceResponse = invoker.invoke(
                 listTagsForResourceRequest,
                 client::listTagsForResource);
 
@@ -63,6 +114,8 @@ public class ReadHandler extends PolicyHandler<GetPolicyResponse> {
         return CfnHelper.convertFMSPolicyToCFNResourceModel(
                 response.policy(),
                 response.policyArn(),
-                listTagsForResourceResponse.tagList());
+                listTagsForResourceResponse.tagList(),
+                request.getDesiredResourceState(),
+                request.getPreviousResourceState());
     }
 }
@@ -1,11 +1,13 @@
 package software.amazon.fms.policy;
 
 import org.apache.commons.lang3.StringUtils;
+import software.amazon.awssdk.services.fms.FmsAsyncClient;
 import software.amazon.awssdk.services.fms.FmsClient;
 import software.amazon.awssdk.services.fms.model.GetPolicyRequest;
 import software.amazon.awssdk.services.fms.model.GetPolicyResponse;
 import software.amazon.awssdk.services.fms.model.ListTagsForResourceRequest;
 import software.amazon.awssdk.services.fms.model.ListTagsForResourceResponse;
+import software.amazon.awssdk.services.fms.model.Policy;
 import software.amazon.awssdk.services.fms.model.PutPolicyRequest;
 import software.amazon.awssdk.services.fms.model.PutPolicyResponse;
 import software.amazon.awssdk.services.fms.model.ResourceNotFoundException;
@@ -14,14 +16,19 @@ import software.amazon.awssdk.services.fms.model.TagResourceRequest;
 import software.amazon.awssdk.services.fms.model.TagResourceResponse;
 import software.amazon.awssdk.services.fms.model.UntagResourceRequest;
 import software.amazon.awssdk.services.fms.model.UntagResourceResponse;
-import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.Logger;
 import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
 import software.amazon.fms.policy.helpers.CfnHelper;
+import software.amazon.fms.policy.helpers.FmsApiInvoker;
 import software.amazon.fms.policy.helpers.FmsHelper;
+import software.amazon.fms.policy.helpers.PolicyDiff;
+import software.amazon.fms.policy.helpers.Span;
 
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 public class UpdateHandler extends PolicyHandler<PutPolicyResponse> {
 
@@ -33,50 +40,108 @@ public class UpdateHandler extends PolicyHandler<PutPolicyResponse> {
         super(client);
     }
 
+    UpdateHandler(final FmsClient client, final FmsAsyncClient asyncClient) {
+        super(client, asyncClient);
+    }
+
+    UpdateHandler(
+            final FmsClient client,
+            final Supplier<FmsAsyncClient> asyncClient,
+            final Map<String, String> environment) {
+        super(client, asyncClient, environment);
+    }
+
     @Override
-    protected PutPolicyResponse makeRequest(
-            final AmazonWebServicesClientProxy proxy,
+    protected CompletableFuture<ProgressEvent<ResourceModel, CallbackContext>> makeAsyncRequest(
+            final FmsApiInvoker invoker,
             final ResourceHandlerRequest<ResourceModel> request,
             final Logger logger) {
 
-        // make a read request to retrieve an up-to-date PolicyUpdateToken
-        logger.log("Retrieving existing policy");
         if (StringUtils.isBlank(request.getDesiredResourceState().getId())) {
             throw ResourceNotFoundException.builder()
                     .message("Firewall manager policy with the provided reference ID does not exist").build();
         }
+
+        // the tags can only be listed alongside the read request if the policy ARN can be derived
+        final String policyArn = FmsHelper.buildPolicyArn(
+                request.getAwsPartition(),
+                request.getRegion(),
+                request.getAwsAccountId(),
+                request.getDesiredResourceState().getId());
+        if (policyArn == null) {
+            return null;
+        }
+
+        // make a read request to retrieve an up-to-date PolicyUpdateToken while listing the current tags
+        logger.log("Retrieving existing policy and policy tags");
         final GetPolicyRequest getPolicyRequest = GetPolicyRequest.builder()
                 .policyId(request.getDesiredResourceState().getId())
                 .build();
-        final GetPolicyResponse getPolicyResponse = proxy.injectCredentialsAndInvokeV2(
+        final CompletableFuture<GetPolicyResponse> getPolicyFuture = invoker.invokeAsync(
                 getPolicyRequest,
-                client::getPolicy);
-        logger.log("Policy retrieved successfully");
-        logRequest(getPolicyResponse, logger);
-
-        // make the update request
-        logger.log("Updating existing policy");
-        final PutPolicyRequest putPolicyRequest = PutPolicyRequest.builder()
-                .policy(FmsHelper.convertCFNResourceModelToFMSPolicy(
-                        request.getDesiredResourceState(),
-                        getPolicyResponse.policy().policyUpdateToken()))
-                .build();
-        final PutPolicyResponse putPolicyResponse = proxy.injectCredentialsAndInvokeV2(
-                putPolicyRequest,
-                client::putPolicy);
-        logger.log("Policy updated successfully");
-        logRequest(putPolicyResponse, logger);
-
-        // make a list request to get the current tags on the policy
-        logger.log("Retrieving policy tags");
+                asyncClient::getPolicy);
+        final Span tagReconciliationSpan = invoker.getTracer().startSpan("TagReconciliation");
         final ListTagsForResourceRequest listTagsForResourceRequest = ListTagsForResourceRequest.builder()
-                .resourceArn(getPolicyResponse.policyArn())
+                .resourceArn(policyArn)
                 .build();
-        final ListTagsForResourceResponse listTagsForResourceResponse = proxy.injectCredentialsAndInvokeV2(
+        final CompletableFuture<ListTagsForResourceResponse> listTagsFuture = invoker.invokeAsync(
                 listTagsForResourceRequest,
-                client::listTagsForResource);
-        logger.log("Policy tags retrieved successfully");
-        logRequest(listTagsForResourceResponse, logger);
+                asyncClient::listTagsForResource);
+
+        // make the update request once the PolicyUpdateToken is known, unless nothing material changed
+        final CompletableFuture<PutPolicyResponse> putPolicyFuture = getPolicyFuture.thenCompose(getPolicyResponse -> {
+            logger.log("Policy retrieved successfully");
+            logRequest(getPolicyResponse, logger);
+            final PutPolicyRequest putPolicyRequest = buildPutPolicyRequest(invoker, request, getPolicyResponse);
+            if (isUnchanged(invoker, getPolicyResponse, putPolicyRequest, logger)) {
+                return CompletableFuture.completedFuture(unchangedPolicyResponse(getPolicyResponse, putPolicyRequest));
+            }
+            return invoker.invokeAsync(putPolicyRequest, asyncClient::putPolicy).thenApply(putPolicyResponse -> {
+                logger.log("Policy updated successfully");
+                logRequest(putPolicyResponse, logger);
+                return putPolicyResponse;
+            });
+        });
+
+        // reconcile the tags once the policy is written, so that a rejected update leaves the tags untouched, the
+        // tags are still listed alongside the read request
+        final CompletableFuture<Void> tagsFuture = putPolicyFuture
+                .thenCombine(listTagsFuture, (putPolicyResponse, listTagsForResourceResponse) -> {
+                    logger.log("Policy tags retrieved successfully");
+                    logRequest(listTagsForResourceResponse, logger);
+                    return listTagsForResourceResponse;
+                })
+                .thenCompose(listTagsForResourceResponse -> reconcileTagsAsync(
+                        invoker, request, policyArn, listTagsForResourceResponse, tagReconciliationSpan, logger))
+                .whenComplete((tagsReconciled, e) -> {
+                    if (e != null) {
+                        tagReconciliationSpan.setError(e);
+                    }
+                    tagReconciliationSpan.end();
+                });
+
+        return tagsFuture.thenCombine(putPolicyFuture, (tagsReconciled, putPolicyResponse) -> invoker.getTracer().trace(
+                "ModelConstruction",
+                () -> constructSuccessProgressEvent(putPolicyResponse, request, invoker)));
+    }
+
+    /**
+     * Make the untag and tag requests that bring the tags on a policy to the desired tags.
+     * @param invoker Invoker to make FMS API requests.
+     * @param request CloudFormation's handler request.
+     * @param policyArn ARN of the policy.
+     * @param listTagsForResourceResponse Response listing the current tags on the policy.
+     * @param span Span of the tag reconciliation.
+     * @param logger CloudWatch logger.
+     * @return Future completing when the tags are reconciled.
+     */
+    private CompletableFuture<Void> reconcileTagsAsync(
+            final FmsApiInvoker invoker,
+            final ResourceHandlerRequest<ResourceModel> request,
+            final String policyArn,
+            final ListTagsForResourceResponse listTagsForResourceResponse,
+            final Span span,
+            final Logger logger) {
 
         // determine tags to remove and add
         final List<String> removeTags = FmsHelper.tagsToRemove(
@@ -85,60 +150,255 @@ public class UpdateHandler extends PolicyHandler<PutPolicyResponse> {
         final List<Tag> addTags = FmsHelper.tagsToAdd(
                 listTagsForResourceResponse.tagList(),
                 request.getDesiredResourceTags());
+        span.setAttribute("fms.tags.removed", removeTags.size()).setAttribute("fms.tags.added", addTags.size());
 
         // make an untag request
+        CompletableFuture<Void> tagsReconciled = CompletableFuture.completedFuture(null);
         if (!removeTags.isEmpty()) {
             logger.log(String.format("Removing %d tag/s", removeTags.size()));
             final UntagResourceRequest untagResourceRequest = UntagResourceRequest.builder()
-                    .resourceArn(getPolicyResponse.policyArn())
+                    .resourceArn(policyArn)
                     .tagKeys(removeTags)
                     .build();
-            final UntagResourceResponse untagResourceResponse = proxy.injectCredentialsAndInvokeV2(
-                    untagResourceRequest,
-                    client::untagResource);
-            logger.log("Tags removed successfully");
-            logRequest(untagResourceResponse, logger);
+            tagsReconciled = invoker.invokeAsync(untagResourceRequest, asyncClient::untagResource)
+                    .thenAccept(untagResourceResponse -> {
+                        logger.log("Tags removed successfully");
+                        logRequest(untagResourceResponse, logger);
+                    });
         } else {
             logger.log("No tags to remove");
         }
 
-        // make a tag request
+        // make a tag request after the untag request, tag keys may be in both when only their value changes
         if (!addTags.isEmpty()) {
             logger.log(String.format("Adding %d tag/s", addTags.size()));
             final TagResourceRequest tagResourceRequest = TagResourceRequest.builder()
-                    .resourceArn(getPolicyResponse.policyArn())
+                    .resourceArn(policyArn)
                     .tagList(addTags)
                     .build();
-            final TagResourceResponse tagResourceResponse = proxy.injectCredentialsAndInvokeV2(
-                    tagResourceRequest,
-                    client::tagResource);
-            logger.log("Tags added successfully");
-            logRequest(tagResourceResponse, logger);
+            tagsReconciled = tagsReconciled
+                    .thenCompose(untagged -> invoker.invokeAsync(
+                            tagResourceRequest,
+                            asyncClient::tagResource))
+                    .thenAccept(tagResourceResponse -> {
+                        logger.log("Tags added successfully");
+                        logRequest(tagResourceResponse, logger);
+                    });
         } else {
             logger.log("No tags to add");
         }
+        return tagsReconciled;
+    }
+
+    @Override
+    protected List<String> validateRequest(final ResourceHandlerRequest<ResourceModel> request) {
+
+        return validateDesiredResourceState(request.getDesiredResourceState());
+    }
+
+    @Override
+    protected PutPolicyResponse makeRequest(
+            final FmsApiInvoker invoker,
+            final ResourceHandlerRequest<ResourceModel> request,
+            final Logger logger) {
+
+        // make a read request to retrieve an up-to-date PolicyUpdateToken
+        logger.log("Retrieving existing policy");
+        if (StringUtils.isBlank(request.getDesiredResourceState().getId())) {
+            throw ResourceNotFoundException.builder()
+                    .message("Firewall manager policy with the provided reference ID does not exist").build();
+        }
+
+        // list the current tags in the background while reading the policy if the policy ARN can be derived, the tags
+        // are still only reconciled once the policy is written
+        final String policyArn = FmsHelper.buildPolicyArn(
+                request.getAwsPartition(),
+                request.getRegion(),
+                request.getAwsAccountId(),
+                request.getDesiredResourceState().getId());
+        final CompletableFuture<ListTagsForResourceResponse> listTagsFuture = policyArn == null
+                ? null
+                : invoker.invokeInBackground(
+                        ListTagsForResourceRequest.builder().resourceArn(policyArn).build(),
+                        client::listTagsForResource);
+        final GetPolicyRequest getPolicyRequest = GetPolicyRequest.builder()
+                .policyId(request.getDesiredResourceState().getId())
+                .build();
+        final GetPolicyResponse getPolicyResponse = invoker.invoke(
+                getPolicyRequest,
+                client::getPolicy);
+        logger.log("Policy retrieved successfully");
+        logRequest(getPolicyResponse, logger);
+
+        // make the update request, unless nothing material changed
+        final PutPolicyRequest putPolicyRequest = buildPutPolicyRequest(invoker, request, getPolicyResponse);
+        final PutPolicyResponse putPolicyResponse;
+        if (isUnchanged(invoker, getPolicyResponse, putPolicyRequest, logger)) {
+            putPolicyResponse = unchangedPolicyResponse(getPolicyResponse, putPolicyRequest);
+        } else {
+            putPolicyResponse = invoker.invoke(
+                    putPolicyRequest,
+                    client::putPolicy);
+            logger.log("Policy updated successfully");
+            logRequest(putPolicyResponse, logger);
+        }
+
+        // reconcile the tags on the policy with the desired tags
+        try (Span tagReconciliationSpan = invoker.getTracer().startSpan("TagReconciliation")) {
+            // make a list request to get the current tags on the policy, unless they were listed alongside the read
+            logger.log("Retrieving policy tags");
+            final ListTagsForResourceResponse listTagsForResourceResponse;
+            if (listTagsFuture == null) {
+                final ListTagsForResourceRequest listTagsForResourceRequest = ListTagsForResourceRequest.builder()
+                        .resourceArn(getPolicyResponse.policyArn())
+                        .build();
+                listTagsForResourceResponse = invoker.invoke(
+                        listTagsForResourceRequest,
+                        client::listTagsForResource);
+            } else {
+                listTagsForResourceResponse = join(listTagsFuture);
+            }
+            logger.log("Policy tags retrieved successfully");
+            logRequest(listTagsForResourceResponse, logger);
+
+            // determine tags to remove and add
+            final List<String> removeTags = FmsHelper.tagsToRemove(
+                    listTagsForResourceResponse.tagList(),
+                    request.getDesiredResourceTags());
+            final List<Tag> addTags = FmsHelper.tagsToAdd(
+                    listTagsForResourceResponse.tagList(),
+                    request.getDesiredResourceTags());
+            tagReconciliationSpan.setAttribute("fms.tags.removed", removeTags.size())
+                    .setAttribute("fms.tags.added", addTags.size());
+
+            // make an untag request
+            if (!removeTags.isEmpty()) {
+                logger.log(String.format("Removing %d tag/s", removeTags.size()));
+                final UntagResourceRequest untagResourceRequest = UntagResourceRequest.builder()
+                        .resourceArn(getPolicyResponse.policyArn())
+                        .tagKeys(removeTags)
+                        .build();
+                final UntagResourceResponse untagResourceResponse = invoker.invoke(
+                        untagResourceRequest,
+                        client::untagResource);
+                logger.log("Tags removed successfully");
+                logRequest(untagResourceResponse, logger);
+            } else {
+                logger.log("No tags to remove");
+            }
+
+            // make a tag request
+            if (!addTags.isEmpty()) {
+                logger.log(String.format("Adding %d tag/s", addTags.size()));
+                final TagResourceRequest tagResourceRequest = TagResourceRequest.builder()
+                        .resourceArn(getPolicyResponse.policyArn())
+                        .tagList(addTags)
+                        .build();
+                final TagResourceResponse tagResourceResponse = invoker.invoke(
+                        tagResourceRequest,
+                        client::tagResource);
+                logger.log("Tags added successfully");
+                logRequest(tagResourceResponse, logger);
+            } else {
+                logger.log("No tags to add");
+            }
+        }
 
         // return the status of the policy update
         return putPolicyResponse;
     }
 
+    /**
+     * Build the update request of a policy from the desired resource model.
+     * @param invoker Invoker to make FMS API requests.
+     * @param request CloudFormation's handler request.
+     * @param getPolicyResponse Response of the read request of the live policy.
+     * @return The update request.
+     */
+    private PutPolicyRequest buildPutPolicyRequest(
+            final FmsApiInvoker invoker,
+            final ResourceHandlerRequest<ResourceModel> request,
+            final GetPolicyResponse getPolicyResponse) {
+
+        final Policy desiredPolicy = invoker.getTracer().trace("Conversion", () ->
+                FmsHelper.convertCFNResourceModelToFMSPolicy(
+                        request.getDesiredResourceState(),
+                        getPolicyResponse.policy().policyUpdateToken()));
+        return PutPolicyRequest.builder()
+                .policy(desiredPolicy)
+                .build();
+    }
+
+    /**
+     * Determine whether the desired policy does not materially differ from the live policy, so that the update
+     * request can be skipped. Every update makes FMS re-evaluate the policy across all member accounts, so e.g. an
+     * update of the stack tags alone does not make one.
+     * @param invoker Invoker to make FMS API requests.
+     * @param getPolicyResponse Response of the read request of the live policy.
+     * @param putPolicyRequest Update request of the desired policy.
+     * @param logger CloudWatch logger.
+     * @return Whether the update can be skipped.
+     */
+    private boolean isUnchanged(
+            final FmsApiInvoker invoker,
+            final GetPolicyResponse getPolicyResponse,
+            final PutPolicyRequest putPolicyRequest,
+            final Logger logger) {
+
+        final PolicyDiff policyDiff = invoker.getTracer().trace("PolicyDiff", () ->
+                PolicyDiff.between(getPolicyResponse.policy(), putPolicyRequest.policy()));
+        if (policyDiff.isEmpty()) {
+            logger.log("Policy unchanged, skipping the update request");
+            return true;
+        }
+        logger.log(String.format("Updating existing policy, changed: %s", policyDiff));
+        return false;
+    }
+
+    /**
+     * Stand in the live policy for the response of an update request that was skipped. The lists FMS does not keep
+     * in order are taken from the desired policy, so that the returned model keeps the order of the template and a
+     * reorder alone does not show up as drift.
+     * @param getPolicyResponse Response of the read request of the live policy.
+     * @param putPolicyRequest Update request of the desired policy that was skipped.
+     * @return The update response.
+     */
+    private static PutPolicyResponse unchangedPolicyResponse(
+            final GetPolicyResponse getPolicyResponse,
+            final PutPolicyRequest putPolicyRequest) {
+
+        final Policy desiredPolicy = putPolicyRequest.policy();
+        return PutPolicyResponse.builder()
+                .policy(getPolicyResponse.policy().toBuilder()
+                        .includeMapWithStrings(desiredPolicy.includeMapAsStrings())
+                        .excludeMapWithStrings(desiredPolicy.excludeMapAsStrings())
+                        .resourceTypeList(desiredPolicy.resourceTypeList())
+                        .resourceTags(desiredPolicy.resourceTags())
+                        .resourceSetIds(desiredPolicy.resourceSetIds())
+                        .build())
+                .policyArn(getPolicyResponse.policyArn())
+                .build();
+    }
+
     @Override
     protected ProgressEvent<ResourceModel, CallbackContext> constructSuccessProgressEvent(
             final PutPolicyResponse response,
             final ResourceHandlerRequest<ResourceModel> request,
-            final AmazonWebServicesClientProxy proxy) {
-        return ProgressEvent.defaultSuccessHandler(constructSuccessResourceModel(response, request, proxy));
+            final FmsApiInvoker invoker) {
+        return ProgressEvent.defaultSuccessHandler(constructSuccessResourceModel(response, request, invoker));
     }
 
     private ResourceModel constructSuccessResourceModel(
             final PutPolicyResponse response,
             final ResourceHandlerRequest<ResourceModel> request,
-            final AmazonWebServicesClientProxy proxy) {
+            final FmsApiInvoker invoker) {
 
         // convert the update request response to a resource model
         return CfnHelper.convertFMSPolicyToCFNResourceModel(
                 response.policy(),
                 response.policyArn(),
-                FmsHelper.convertCFNTagMapToFMSTagSet(request.getDesiredResourceTags()));
+                FmsHelper.convertCFNTagMapToFMSTagSet(request.getDesiredResourceTags()),
+                request.getDesiredResourceState(),
+                request.getPreviousResourceState());
     }
 }
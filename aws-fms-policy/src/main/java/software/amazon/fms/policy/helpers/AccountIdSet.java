@@ -0,0 +1,119 @@
+package software.amazon.fms.policy.helpers;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Sorted set of AWS account IDs packed as primitive longs, for comparing the account scopes of policies that carry
+ * thousands of accounts without hashing a string per account. Each 12 digit ID is parsed in place into a long, the
+ * longs are sorted and deduplicated, and two sets are compared by a single merge of their arrays. The IDs are never
+ * materialized back to strings, so the set only serves comparisons: the account lists of the resource model and the
+ * FMS policy keep their own order, which CloudFormation compares.
+ */
+public final class AccountIdSet {
+
+    /** Number of digits of an AWS account ID. */
+    private static final int ACCOUNT_ID_LENGTH = 12;
+
+    /** Account IDs, sorted in ascending order and without duplicates. */
+    private final long[] accountIds;
+
+    private AccountIdSet(final long[] accountIds) {
+
+        this.accountIds = accountIds;
+    }
+
+    /**
+     * Pack a collection of account IDs.
+     * @param accountIds Account IDs, in any order and possibly with duplicates, null for none.
+     * @return The set of account IDs, or null if one of them is not 12 digits, so that the caller can fall back to
+     *         comparing the IDs as strings.
+     */
+    public static AccountIdSet pack(final Collection<String> accountIds) {
+
+        if (accountIds == null) {
+            return new AccountIdSet(new long[0]);
+        }
+        final long[] packed = new long[accountIds.size()];
+        int size = 0;
+        for (final String accountId : accountIds) {
+            final long value = parse(accountId);
+            if (value < 0) {
+                return null;
+            }
+            packed[size++] = value;
+        }
+        Arrays.sort(packed);
+
+        // drop the duplicates, which are adjacent once sorted
+        int unique = 0;
+        for (int i = 0; i < size; i++) {
+            if (unique == 0 || packed[i] != packed[unique - 1]) {
+                packed[unique++] = packed[i];
+            }
+        }
+        return new AccountIdSet(unique == packed.length ? packed : Arrays.copyOf(packed, unique));
+    }
+
+    /**
+     * Get the number of distinct account IDs in the set.
+     * @return The size of the set.
+     */
+    public int size() {
+
+        return accountIds.length;
+    }
+
+    /**
+     * Count the account IDs of this set that are not in another one, by merging the sorted arrays of both sets.
+     * @param other Set to compare with.
+     * @return Number of account IDs only in this set.
+     */
+    public int countNotIn(final AccountIdSet other) {
+
+        int count = 0;
+        int j = 0;
+        for (final long accountId : accountIds) {
+            while (j < other.accountIds.length && other.accountIds[j] < accountId) {
+                j++;
+            }
+            if (j == other.accountIds.length || other.accountIds[j] != accountId) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+
+        return this == other
+                || other instanceof AccountIdSet && Arrays.equals(accountIds, ((AccountIdSet) other).accountIds);
+    }
+
+    @Override
+    public int hashCode() {
+
+        return Arrays.hashCode(accountIds);
+    }
+
+    /**
+     * Parse an account ID without allocating.
+     * @return The account ID as a long, or -1 if it is not 12 digits.
+     */
+    private static long parse(final String accountId) {
+
+        if (accountId == null || accountId.length() != ACCOUNT_ID_LENGTH) {
+            return -1;
+        }
+        long value = 0;
+        for (int i = 0; i < ACCOUNT_ID_LENGTH; i++) {
+            final char digit = accountId.charAt(i);
+            if (digit < '0' || digit > '9') {
+                return -1;
+            }
+            value = value * 10 + (digit - '0');
+        }
+        return value;
+    }
+}
@@ -25,20 +25,23 @@ public class CfnHelper {
     /**
      * Convert an FMS policy (from the FMS SDK) to a CFN resource model (from the resource provider).
      *
-     * @param policy    FMS policy that was converted from.
-     * @param policyArn Policy ARN to add to the resource model.
-     * @param tags      FMS tags to add to the resource model.
+     * @param policy        FMS policy that was converted from.
+     * @param policyArn     Policy ARN to add to the resource model.
+     * @param tags          FMS tags to add to the resource model.
+     * @param requestModels Desired and previous resource models of the request, whose ManagedServiceData is kept
+     *                      when equivalent to that of the FMS policy, null entries are skipped.
      * @return CFN resource model that was converted to.
      */
-    public static ResourceModel convertFMSPolicyToCFNResourceModel(software.amazon.awssdk.services.fms.model.Policy policy, String policyArn, List<Tag> tags) {
+    public static ResourceModel convertFMSPolicyToCFNResourceModel(software.amazon.awssdk.services.fms.model.Policy policy, String policyArn, List<Tag> tags, ResourceModel... requestModels) {
 
         // assemble the security service policy data
         final SecurityServicePolicyData.SecurityServicePolicyDataBuilder securityServicePolicyData =
                 SecurityServicePolicyData.builder().type(policy.securityServicePolicyData().typeAsString());
 
-        // add the managed service data if it exists
+        // add the managed service data if it exists, as the request gave it if FMS only reformatted it
         if (!policy.securityServicePolicyData().managedServiceData().isEmpty()) {
-            securityServicePolicyData.managedServiceData(policy.securityServicePolicyData().managedServiceData());
+            securityServicePolicyData.managedServiceData(convertFmsManagedServiceData(
+                    policy.securityServicePolicyData().managedServiceData(), requestModels));
         }
 
         if (policy.securityServicePolicyData().policyOption() != null) {
@@ -102,6 +105,30 @@ public class CfnHelper {
         return resourceModelBuilder.build();
     }
 
+    /**
+     * Get the ManagedServiceData to report for an FMS policy. FMS returns the JSON it was given with its own key order,
+     * whitespace and defaults, so the JSON of a request resource model is reported instead when it is equivalent, see
+     * {@link ManagedServiceDataCanonicalizer}, and CloudFormation sees neither a change nor drift. The JSON of FMS is
+     * reported as is otherwise, e.g. when the policy was changed outside of CloudFormation.
+     *
+     * @param managedServiceData ManagedServiceData of the FMS policy.
+     * @param requestModels      Resource models of the request, null entries are skipped.
+     * @return The ManagedServiceData of the first equivalent request model, that of the FMS policy if there is none.
+     */
+    static String convertFmsManagedServiceData(final String managedServiceData, final ResourceModel... requestModels) {
+
+        for (final ResourceModel requestModel : requestModels) {
+            if (requestModel == null || requestModel.getSecurityServicePolicyData() == null) {
+                continue;
+            }
+            final String requestData = requestModel.getSecurityServicePolicyData().getManagedServiceData();
+            if (requestData != null && ManagedServiceDataCanonicalizer.equivalent(managedServiceData, requestData)) {
+                return requestData;
+            }
+        }
+        return managedServiceData;
+    }
+
     /**
      * Convert a list of FMS policies (from the FMS SDK) to a list of CFN resource models (from the resource provider).
      *
@@ -0,0 +1,263 @@
+package software.amazon.fms.policy.helpers;
+
+import software.amazon.awssdk.core.retry.RetryPolicy;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.fms.FmsAsyncClient;
+import software.amazon.awssdk.services.fms.FmsAsyncClientBuilder;
+import software.amazon.awssdk.services.fms.FmsClient;
+import software.amazon.awssdk.services.fms.FmsClientBuilder;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+public class FmsClientRegistry {
+
+    /** Environment variable holding the region the handlers run in, set by the Lambda runtime. */
+    static final String REGION_ENV = "AWS_REGION";
+
+    /** Environment variable that overrides the FMS endpoint, e.g. to point the handlers at a local FMS stand-in. */
+    static final String ENDPOINT_OVERRIDE_ENV = "FMS_ENDPOINT_OVERRIDE";
+
+    /** Key used for the region and endpoint when none is configured, letting the SDK resolve them itself. */
+    private static final String DEFAULT_KEY = "default";
+
+    /** FMS clients built so far, keyed by region and endpoint. */
+    private static final ConcurrentMap<String, FmsClient> CLIENTS = new ConcurrentHashMap<>();
+
+    /** FMS async clients built so far, keyed by region and endpoint. */
+    private static final ConcurrentMap<String, FmsAsyncClient> ASYNC_CLIENTS = new ConcurrentHashMap<>();
+
+    /**
+     * HTTP client shared by every FMS client so that all handler types reuse the same connection pool. Its transport
+     * is selected through the environment, see {@link HttpTransportConfiguration}, and its connections can be closed
+     * and reopened without rebuilding the FMS clients, see {@link #closeConnections()}.
+     */
+    private static ReopenableHttpClient httpClient;
+
+    /** Asynchronous HTTP client shared by every FMS async client, built from the same transport configuration. */
+    private static ReopenableAsyncHttpClient asyncHttpClient;
+
+    /**
+     * Interceptor recording the FMS interactions, or null when recording is off. A single interceptor is shared by
+     * every client of the registry so that their exchanges are appended to the recording under the same lock.
+     */
+    private static final RecordingInterceptor RECORDER = RecordingInterceptor.fromEnvironment();
+
+    /** Flag indicating if the JVM shutdown hook closing the registry has been registered. */
+    private static boolean shutdownHookRegistered;
+
+    private FmsClientRegistry() {
+    }
+
+    /**
+     * Get the FMS client for the region and endpoint the handlers are running against, building it on first use.
+     * @return The shared FMS client.
+     */
+    public static FmsClient getClient() {
+
+        final String region = System.getenv(REGION_ENV);
+        final String endpointOverride = System.getenv(ENDPOINT_OVERRIDE_ENV);
+        return getClient(
+                region == null || region.isEmpty() ? null : Region.of(region),
+                endpointOverride == null || endpointOverride.isEmpty() ? null : URI.create(endpointOverride));
+    }
+
+    /**
+     * Get the FMS client for a region and endpoint, building it on first use.
+     * @param region Region of the client, or null to let the SDK resolve it.
+     * @param endpointOverride Endpoint of the client, or null to use the regional FMS endpoint.
+     * @return The shared FMS client.
+     */
+    public static FmsClient getClient(final Region region, final URI endpointOverride) {
+
+        final String key = registryKey(region, endpointOverride);
+        final FmsClient client = CLIENTS.get(key);
+        return client != null ? client : buildClient(key, region, endpointOverride);
+    }
+
+    /**
+     * Get the FMS async client for the region and endpoint the handlers are running against, building it on first use.
+     * @return The shared FMS async client.
+     */
+    public static FmsAsyncClient getAsyncClient() {
+
+        final String region = System.getenv(REGION_ENV);
+        final String endpointOverride = System.getenv(ENDPOINT_OVERRIDE_ENV);
+        return getAsyncClient(
+                region == null || region.isEmpty() ? null : Region.of(region),
+                endpointOverride == null || endpointOverride.isEmpty() ? null : URI.create(endpointOverride));
+    }
+
+    /**
+     * Get the FMS async client for a region and endpoint, building it on first use.
+     * @param region Region of the client, or null to let the SDK resolve it.
+     * @param endpointOverride Endpoint of the client, or null to use the regional FMS endpoint.
+     * @return The shared FMS async client.
+     */
+    public static FmsAsyncClient getAsyncClient(final Region region, final URI endpointOverride) {
+
+        final String key = registryKey(region, endpointOverride);
+        final FmsAsyncClient client = ASYNC_CLIENTS.get(key);
+        return client != null ? client : buildAsyncClient(key, region, endpointOverride);
+    }
+
+    /**
+     * Close every FMS client in the registry along with the shared HTTP client, when the JVM shuts down. Handlers keep
+     * the FMS client they were constructed with, so closing it while the process lives on would leave every handler
+     * with a closed client: this is only run by the shutdown hook, and by tests resetting the registry. Before the
+     * process is frozen or snapshotted, call {@link #closeConnections()} instead.
+     */
+    static synchronized void close() {
+
+        final List<FmsClient> clients = new ArrayList<>(CLIENTS.values());
+        CLIENTS.clear();
+        clients.forEach(FmsClient::close);
+
+        final List<FmsAsyncClient> asyncClients = new ArrayList<>(ASYNC_CLIENTS.values());
+        ASYNC_CLIENTS.clear();
+        asyncClients.forEach(FmsAsyncClient::close);
+
+        if (httpClient != null) {
+            httpClient.close();
+            httpClient = null;
+        }
+        if (asyncHttpClient != null) {
+            asyncHttpClient.close();
+            asyncHttpClient = null;
+        }
+    }
+
+    /**
+     * Close the connections of the shared HTTP clients, keeping the FMS clients built on top of them. Called before
+     * the process is snapshotted, since the handlers hold on to their FMS client and pooled connections would not
+     * survive the restore. The next request, or {@link #reopenConnections()}, opens new connections.
+     */
+    public static synchronized void closeConnections() {
+
+        if (httpClient != null) {
+            httpClient.closeConnections();
+        }
+        if (asyncHttpClient != null) {
+            asyncHttpClient.closeConnections();
+        }
+    }
+
+    /**
+     * Rebuild the transports of the shared HTTP clients closed by {@link #closeConnections()}, so that the first
+     * request after a restore does not pay for it.
+     */
+    public static synchronized void reopenConnections() {
+
+        if (httpClient != null) {
+            httpClient.open();
+        }
+        if (asyncHttpClient != null) {
+            asyncHttpClient.open();
+        }
+    }
+
+    private static String registryKey(final Region region, final URI endpointOverride) {
+
+        return String.format("%s|%s",
+                region == null ? DEFAULT_KEY : region.id(),
+                endpointOverride == null ? DEFAULT_KEY : endpointOverride.toString());
+    }
+
+    /**
+     * Build a new FMS client on top of the shared HTTP client, unless another thread got there first. The SDK does
+     * not retry the requests of the client, so that {@link FmsApiInvoker} is the only retry layer and its retry budget
+     * and metrics see every attempt. The client records its interactions with FMS when a recording file is
+     * configured, see {@link RecordingInterceptor}.
+     * @param key Registry key of the client.
+     * @param region Region of the client, or null to let the SDK resolve it.
+     * @param endpointOverride Endpoint of the client, or null to use the regional FMS endpoint.
+     * @return The FMS client registered under the key.
+     */
+    private static synchronized FmsClient buildClient(
+            final String key,
+            final Region region,
+            final URI endpointOverride) {
+
+        final FmsClient existingClient = CLIENTS.get(key);
+        if (existingClient != null) {
+            return existingClient;
+        }
+
+        if (httpClient == null) {
+            httpClient = new ReopenableHttpClient(() -> HttpTransportConfiguration.fromEnvironment().buildHttpClient());
+        }
+        registerShutdownHook();
+
+        final FmsClientBuilder builder = FmsClient.builder().httpClient(httpClient);
+        if (region != null) {
+            builder.region(region);
+        }
+        if (endpointOverride != null) {
+            builder.endpointOverride(endpointOverride);
+        }
+        builder.overrideConfiguration(configuration -> {
+            // the invoker retries throttled and failed requests itself, see FmsApiInvoker
+            configuration.retryPolicy(RetryPolicy.none());
+            if (RECORDER != null) {
+                configuration.addExecutionInterceptor(RECORDER);
+            }
+        });
+        final FmsClient client = builder.build();
+        CLIENTS.put(key, client);
+        return client;
+    }
+
+    /**
+     * Build a new FMS async client on top of the shared asynchronous HTTP client, unless another thread got there
+     * first. As for the FMS client, the SDK does not retry its requests, and they are recorded when a recording file
+     * is configured.
+     * @param key Registry key of the client.
+     * @param region Region of the client, or null to let the SDK resolve it.
+     * @param endpointOverride Endpoint of the client, or null to use the regional FMS endpoint.
+     * @return The FMS async client registered under the key.
+     */
+    private static synchronized FmsAsyncClient buildAsyncClient(
+            final String key,
+            final Region region,
+            final URI endpointOverride) {
+
+        final FmsAsyncClient existingClient = ASYNC_CLIENTS.get(key);
+        if (existingClient != null) {
+            return existingClient;
+        }
+
+        if (asyncHttpClient == null) {
+            asyncHttpClient = new ReopenableAsyncHttpClient(
+                    () -> HttpTransportConfiguration.fromEnvironment().buildAsyncHttpClient());
+        }
+        registerShutdownHook();
+
+        final FmsAsyncClientBuilder builder = FmsAsyncClient.builder().httpClient(asyncHttpClient);
+        if (region != null) {
+            builder.region(region);
+        }
+        if (endpointOverride != null) {
+            builder.endpointOverride(endpointOverride);
+        }
+        builder.overrideConfiguration(configuration -> {
+            configuration.retryPolicy(RetryPolicy.none());
+            if (RECORDER != null) {
+                configuration.addExecutionInterceptor(RECORDER);
+            }
+        });
+        final FmsAsyncClient client = builder.build();
+        ASYNC_CLIENTS.put(key, client);
+        return client;
+    }
+
+    private static synchronized void registerShutdownHook() {
+
+        if (!shutdownHookRegistered) {
+            Runtime.getRuntime().addShutdownHook(new Thread(FmsClientRegistry::close, "fms-client-registry-close"));
+            shutdownHookRegistered = true;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package software.amazon.fms.policy.helpers;
 
+import org.apache.commons.lang3.StringUtils;
 import software.amazon.awssdk.services.fms.model.CustomerPolicyScopeIdType;
 import software.amazon.awssdk.services.fms.model.NetworkAclCommonPolicy;
 import software.amazon.awssdk.services.fms.model.NetworkAclEntry;
@@ -33,12 +34,13 @@ public class FmsHelper {
      * @return The converted include/exclude map.
      */
     static Map<CustomerPolicyScopeIdType, ? extends List<String>> convertCFNIEMapToFMSIEMap(final IEMap cfnIEMap) {
+        // the lists are not copied here, as the policy builder takes its own copy of the map and of its lists
         final HashMap<CustomerPolicyScopeIdType, List<String>> fmsIEMap = new HashMap<>();
         if (cfnIEMap.getACCOUNT() != null) {
-            fmsIEMap.put(CustomerPolicyScopeIdType.ACCOUNT, new ArrayList<>(cfnIEMap.getACCOUNT()));
+            fmsIEMap.put(CustomerPolicyScopeIdType.ACCOUNT, cfnIEMap.getACCOUNT());
         }
         if (cfnIEMap.getORGUNIT() != null) {
-            fmsIEMap.put(CustomerPolicyScopeIdType.ORG_UNIT, new ArrayList<>(cfnIEMap.getORGUNIT()));
+            fmsIEMap.put(CustomerPolicyScopeIdType.ORG_UNIT, cfnIEMap.getORGUNIT());
         }
         return fmsIEMap;
     }
@@ -278,4 +280,22 @@ public class FmsHelper {
                 .filter(tag -> !existingTagList.contains(tag))
                 .collect(Collectors.toList());
     }
+
+    /**
+     * Build the ARN of a policy from the location of the handler request, so that calls which only need the ARN do
+     * not have to wait for a read of the policy.
+     *
+     * @param partition Partition the policy is in.
+     * @param region    Region the policy is in.
+     * @param accountId Account the policy belongs to.
+     * @param policyId  Id of the policy.
+     * @return The policy ARN, or null if any part of it is missing.
+     */
+    public static String buildPolicyArn(String partition, String region, String accountId, String policyId) {
+
+        if (StringUtils.isAnyBlank(partition, region, accountId, policyId)) {
+            return null;
+        }
+        return String.format("arn:%s:fms:%s:%s:policy/%s", partition, region, accountId, policyId);
+    }
 }
@@ -0,0 +1,309 @@
+package software.amazon.fms.policy.helpers;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import software.amazon.cloudformation.exceptions.BaseHandlerException;
+import software.amazon.cloudformation.proxy.HandlerErrorCode;
+import software.amazon.cloudformation.proxy.Logger;
+import software.amazon.cloudformation.proxy.ProgressEvent;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Metrics of a single handler invocation: latency, retries, hedges and failures per FMS operation, and the outcome of
+ * the invocation. The latency of every call is reported as is, so that CloudWatch computes its percentiles across
+ * invocations. They are flushed once at the end of the invocation as CloudWatch Embedded Metric Format documents
+ * through the handler logger, so CloudWatch extracts them from the logs without any extra API calls. The number of
+ * calls made to each FMS operation, the main cost and latency driver of a handler, is also logged as a plain summary
+ * line so it can be read from the logs of a single invocation.
+ */
+public class HandlerMetrics {
+
+    /** Environment variable disabling the metrics when set to false. */
+    static final String ENABLED_ENV = "FMS_METRICS_ENABLED";
+
+    /** Environment variable setting the CloudWatch namespace of the metrics. */
+    static final String NAMESPACE_ENV = "FMS_METRICS_NAMESPACE";
+
+    /** Default CloudWatch namespace of the metrics. */
+    private static final String DEFAULT_NAMESPACE = "FMS/CloudFormation";
+
+    /** Most values EMF accepts in the array of a metric, further latencies go to additional documents. */
+    static final int MAX_METRIC_VALUES = 100;
+
+    private final String resourceType;
+    private final String action;
+    private final long startNanos;
+
+    /** Metrics per FMS operation, sorted by operation so that flushes are deterministic. */
+    private final ConcurrentMap<String, OperationMetrics> operations = new ConcurrentSkipListMap<>();
+
+    /** Outcome of the invocation, a HandlerErrorCode name or the OperationStatus of a successful invocation. */
+    private volatile String outcome;
+
+    /**
+     * Metrics of a single FMS operation, updated concurrently without locks.
+     */
+    private static class OperationMetrics {
+        private final Queue<Long> latenciesMs = new ConcurrentLinkedQueue<>();
+        private final LongAdder retries = new LongAdder();
+        private final LongAdder throttles = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder hedges = new LongAdder();
+        private final LongAdder hedgeWins = new LongAdder();
+    }
+
+    /**
+     * Start recording the metrics of a handler invocation.
+     * @param resourceType CloudFormation resource type, e.g. AWS::FMS::Policy.
+     * @param action Handler action, e.g. Create.
+     */
+    public HandlerMetrics(final String resourceType, final String action) {
+
+        this.resourceType = resourceType;
+        this.action = action;
+        this.startNanos = System.nanoTime();
+    }
+
+    /**
+     * Record a call made to an FMS operation.
+     * @param operation FMS operation, e.g. GetPolicy.
+     * @param latencyNanos Latency of the call in nanoseconds.
+     */
+    public void recordCall(final String operation, final long latencyNanos) {
+
+        operation(operation).latenciesMs.add(TimeUnit.NANOSECONDS.toMillis(latencyNanos));
+    }
+
+    /**
+     * Record a retry of a call to an FMS operation.
+     * @param operation FMS operation.
+     * @param throttled Whether the retried call was throttled.
+     */
+    public void recordRetry(final String operation, final boolean throttled) {
+
+        final OperationMetrics metrics = operation(operation);
+        metrics.retries.increment();
+        if (throttled) {
+            metrics.throttles.increment();
+        }
+    }
+
+    /**
+     * Record a call to an FMS operation that failed for good.
+     * @param operation FMS operation.
+     */
+    public void recordFailure(final String operation) {
+
+        operation(operation).failures.increment();
+    }
+
+    /**
+     * Record a duplicate request sent to hedge a slow call to an FMS operation.
+     * @param operation FMS operation.
+     */
+    public void recordHedge(final String operation) {
+
+        operation(operation).hedges.increment();
+    }
+
+    /**
+     * Record a hedged call to an FMS operation whose duplicate request responded first.
+     * @param operation FMS operation.
+     */
+    public void recordHedgeWin(final String operation) {
+
+        operation(operation).hedgeWins.increment();
+    }
+
+    /**
+     * Record the outcome of the invocation from the progress event it returned.
+     * @param progressEvent Progress event returned by the handler.
+     */
+    public void recordOutcome(final ProgressEvent<?, ?> progressEvent) {
+
+        outcome = progressEvent.getErrorCode() != null
+                ? progressEvent.getErrorCode().name()
+                : String.valueOf(progressEvent.getStatus());
+    }
+
+    /**
+     * Record the outcome of an invocation that threw an exception.
+     * @param e Exception thrown by the handler.
+     */
+    public void recordOutcome(final RuntimeException e) {
+
+        outcome = e instanceof BaseHandlerException && ((BaseHandlerException) e).getErrorCode() != null
+                ? ((BaseHandlerException) e).getErrorCode().name()
+                : HandlerErrorCode.InternalFailure.name();
+    }
+
+    /**
+     * Get the number of calls made to each FMS operation during the invocation, retried attempts included.
+     * @return Calls per FMS operation, sorted by operation.
+     */
+    public Map<String, Long> getCallCounts() {
+
+        final Map<String, Long> callCounts = new LinkedHashMap<>();
+        operations.forEach((operation, metrics) -> {
+            final long calls = metrics.latenciesMs.size();
+            if (calls > 0) {
+                callCounts.put(operation, calls);
+            }
+        });
+        return callCounts;
+    }
+
+    /**
+     * Get the total number of calls made to FMS during the invocation, retried attempts included.
+     * @return The number of calls.
+     */
+    public long getTotalCalls() {
+
+        return getCallCounts().values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    /**
+     * Write the call summary and the metrics to the logs, the metrics unless they are disabled through the environment.
+     * @param logger CloudWatch logger.
+     */
+    public void flush(final Logger logger) {
+
+        logger.log(callSummary());
+        if ("false".equalsIgnoreCase(System.getenv(ENABLED_ENV))) {
+            return;
+        }
+        final String namespace = System.getenv(NAMESPACE_ENV);
+        toEmfDocuments(namespace == null || namespace.isEmpty() ? DEFAULT_NAMESPACE : namespace,
+                System.currentTimeMillis()).forEach(logger::log);
+    }
+
+    /**
+     * Summarize the calls made to FMS during the invocation, e.g. "Update FMS API calls: 2 (GetPolicy=1, PutPolicy=1)".
+     * @return The call summary.
+     */
+    String callSummary() {
+
+        final Map<String, Long> callCounts = getCallCounts();
+        final String breakdown = callCounts.isEmpty()
+                ? ""
+                : callCounts.entrySet().stream().map(Object::toString).collect(Collectors.joining(", ", " (", ")"));
+        return String.format("%s FMS API calls: %d%s", action, getTotalCalls(), breakdown);
+    }
+
+    /**
+     * Build the Embedded Metric Format documents of the invocation, one per FMS operation and one for the outcome.
+     * @param namespace CloudWatch namespace of the metrics.
+     * @param timestamp Timestamp of the metrics in epoch milliseconds.
+     * @return The EMF documents as JSON strings.
+     */
+    List<String> toEmfDocuments(final String namespace, final long timestamp) {
+
+        final List<String> documents = new ArrayList<>();
+        for (final Map.Entry<String, OperationMetrics> entry : operations.entrySet()) {
+            final OperationMetrics metrics = entry.getValue();
+            final List<Long> latenciesMs = new ArrayList<>(metrics.latenciesMs);
+            final ObjectNode document = operationDocument(namespace, timestamp, entry.getKey());
+            final ArrayNode definitions = (ArrayNode) document.findValue("Metrics");
+            putMetric(document, definitions, "Calls", "Count", latenciesMs.size());
+            putMetric(document, definitions, "Retries", "Count", metrics.retries.sum());
+            putMetric(document, definitions, "Throttles", "Count", metrics.throttles.sum());
+            putMetric(document, definitions, "Failures", "Count", metrics.failures.sum());
+            putMetric(document, definitions, "Hedges", "Count", metrics.hedges.sum());
+            putMetric(document, definitions, "HedgeWins", "Count", metrics.hedgeWins.sum());
+            putLatencies(document, definitions,
+                    latenciesMs.subList(0, Math.min(MAX_METRIC_VALUES, latenciesMs.size())));
+            documents.add(document.toString());
+
+            // the latencies beyond the first array are published on their own
+            for (int from = MAX_METRIC_VALUES; from < latenciesMs.size(); from += MAX_METRIC_VALUES) {
+                final ObjectNode latencyDocument = operationDocument(namespace, timestamp, entry.getKey());
+                putLatencies(latencyDocument, (ArrayNode) latencyDocument.findValue("Metrics"),
+                        latenciesMs.subList(from, Math.min(from + MAX_METRIC_VALUES, latenciesMs.size())));
+                documents.add(latencyDocument.toString());
+            }
+        }
+
+        if (outcome != null) {
+            final ObjectNode document = emfDocument(namespace, timestamp, "Action", "Outcome");
+            final ArrayNode definitions = (ArrayNode) document.findValue("Metrics");
+            document.put("Action", action);
+            document.put("Outcome", outcome);
+            putMetric(document, definitions, "Invocations", "Count", 1);
+            putMetric(document, definitions, "ApiCalls", "Count", getTotalCalls());
+            putMetric(document, definitions, "Duration", "Milliseconds",
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+            documents.add(document.toString());
+        }
+        return documents;
+    }
+
+    private OperationMetrics operation(final String operation) {
+
+        return operations.computeIfAbsent(operation, key -> new OperationMetrics());
+    }
+
+    private ObjectNode operationDocument(final String namespace, final long timestamp, final String operation) {
+
+        final ObjectNode document = emfDocument(namespace, timestamp, "Operation");
+        document.put("Operation", operation);
+        document.put("Action", action);
+        return document;
+    }
+
+    private ObjectNode emfDocument(final String namespace, final long timestamp, final String... dimensions) {
+
+        final ObjectNode document = JsonNodeFactory.instance.objectNode();
+        final ObjectNode aws = document.putObject("_aws");
+        aws.put("Timestamp", timestamp);
+        final ObjectNode directive = aws.putArray("CloudWatchMetrics").addObject();
+        directive.put("Namespace", namespace);
+        final ArrayNode dimensionSet = directive.putArray("Dimensions").addArray();
+        dimensionSet.add("ResourceType");
+        for (final String dimension : dimensions) {
+            dimensionSet.add(dimension);
+        }
+        directive.putArray("Metrics");
+        document.put("ResourceType", resourceType);
+        return document;
+    }
+
+    private static void putMetric(
+            final ObjectNode document,
+            final ArrayNode definitions,
+            final String name,
+            final String unit,
+            final long value) {
+
+        definitions.addObject().put("Name", name).put("Unit", unit);
+        document.put(name, value);
+    }
+
+    /**
+     * Put the latencies of calls to an operation as a metric holding one value per call, so that CloudWatch computes
+     * their percentiles across invocations. Nothing is put when there are no latencies.
+     */
+    private static void putLatencies(
+            final ObjectNode document,
+            final ArrayNode definitions,
+            final List<Long> latenciesMs) {
+
+        if (latenciesMs.isEmpty()) {
+            return;
+        }
+        definitions.addObject().put("Name", "Latency").put("Unit", "Milliseconds");
+        final ArrayNode values = document.putArray("Latency");
+        latenciesMs.forEach(values::add);
+    }
+}
@@ -0,0 +1,180 @@
+package software.amazon.fms.policy.helpers;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoublePredicate;
+
+/**
+ * Opt-in hedging of the idempotent FMS reads. Once a read has been outstanding for longer than a percentile of the
+ * latencies of its operation, a duplicate request is sent and whichever response arrives first is used, so that a
+ * single stalled request does not stall the whole handler. The latencies are recorded per operation and shared by
+ * every invocation in the process, and hedging only starts once an operation has enough of them. The extra requests
+ * are capped to a ratio of the hedged reads: each read earns a fraction of a hedge, and a hedge is only sent when a
+ * whole one has been earned.
+ */
+class HedgingPolicy {
+
+    /** Environment variable enabling hedging at a latency percentile above 0 and below 100, disabled when unset. */
+    static final String PERCENTILE_ENV = "FMS_API_HEDGE_PERCENTILE";
+
+    /** Environment variable setting the most hedges sent per hedgeable read, above 0 and at most 1. */
+    static final String MAX_RATIO_ENV = "FMS_API_HEDGE_MAX_RATIO";
+
+    /** Default most hedges sent per hedgeable read. */
+    private static final double DEFAULT_MAX_RATIO = 0.05;
+
+    /** Latencies an operation must have recorded before its reads are hedged. */
+    static final int MIN_SAMPLES = 20;
+
+    /** Most hedges that can be earned ahead of a burst of slow reads. */
+    private static final double MAX_EARNED_HEDGES = 10;
+
+    /** Read-only FMS operations that are safe to send twice. */
+    static final Set<String> HEDGED_OPERATIONS =
+            Collections.unmodifiableSet(new HashSet<>(Arrays.asList("GetPolicy", "ListTagsForResource")));
+
+    /** Latency percentile after which a read is hedged, 0 when hedging is disabled. */
+    private final double percentile;
+
+    /** Most hedges sent per hedgeable read. */
+    private final double maxRatio;
+
+    /** Latencies of the hedgeable operations, keyed by FMS operation. */
+    private final ConcurrentMap<String, LatencyHistogram> latencies = new ConcurrentHashMap<>();
+
+    /** Hedges earned and not yet sent. */
+    private double earnedHedges;
+
+    /**
+     * Create a hedging policy.
+     * @param percentile Latency percentile after which a read is hedged, 0 to disable hedging.
+     * @param maxRatio Most hedges sent per hedgeable read.
+     */
+    HedgingPolicy(final double percentile, final double maxRatio) {
+
+        this.percentile = percentile;
+        this.maxRatio = maxRatio;
+    }
+
+    /**
+     * Create the hedging policy configured through the environment. A setting that is not a number within its bounds
+     * is ignored with a warning, leaving hedging disabled or the ratio at its default, since the policy is created as
+     * the invoker class is initialized and failing there would fail every invocation.
+     * @param environment Environment variables to read.
+     * @return The hedging policy, disabled unless a valid percentile is set.
+     */
+    static HedgingPolicy fromEnvironment(final Map<String, String> environment) {
+
+        final String percentile = environment.get(PERCENTILE_ENV);
+        if (percentile == null || percentile.trim().isEmpty()) {
+            return disabled();
+        }
+        final double parsedPercentile = parse(PERCENTILE_ENV, percentile, value -> value > 0 && value < 100, 0);
+        if (parsedPercentile == 0) {
+            return disabled();
+        }
+        final String maxRatio = environment.get(MAX_RATIO_ENV);
+        return new HedgingPolicy(
+                parsedPercentile,
+                maxRatio == null || maxRatio.trim().isEmpty()
+                        ? DEFAULT_MAX_RATIO
+                        : parse(MAX_RATIO_ENV, maxRatio, value -> value > 0 && value <= 1, DEFAULT_MAX_RATIO));
+    }
+
+    /**
+     * Parse a number set through the environment.
+     * @param name Name of the environment variable.
+     * @param value Value of the environment variable.
+     * @param bounds Bounds the number must be within.
+     * @param defaultValue Number used instead of an invalid one.
+     * @return The number, the default if it is not a number within its bounds.
+     */
+    private static double parse(
+            final String name,
+            final String value,
+            final DoublePredicate bounds,
+            final double defaultValue) {
+
+        try {
+            final double parsed = Double.parseDouble(value.trim());
+            if (bounds.test(parsed)) {
+                return parsed;
+            }
+        } catch (NumberFormatException e) {
+            // reported below along with the numbers out of bounds
+        }
+        System.err.printf("Ignoring %s=%s, it is not a number within its bounds, using %s%n",
+                name, value, defaultValue);
+        return defaultValue;
+    }
+
+    /**
+     * Create a hedging policy that never hedges.
+     * @return The hedging policy.
+     */
+    static HedgingPolicy disabled() {
+
+        return new HedgingPolicy(0, 0);
+    }
+
+    /**
+     * Determine whether the requests to an operation are hedged.
+     * @param operation FMS operation.
+     * @return Whether hedging is enabled and the operation is a hedgeable read.
+     */
+    boolean appliesTo(final String operation) {
+
+        return percentile > 0 && HEDGED_OPERATIONS.contains(operation);
+    }
+
+    /**
+     * Start a request to an operation, earning its fraction of a hedge if the operation is hedged.
+     * @param operation FMS operation.
+     * @return Nanoseconds after which the request should be hedged, negative if it should not be.
+     */
+    long startRequest(final String operation) {
+
+        if (!appliesTo(operation)) {
+            return -1;
+        }
+        synchronized (this) {
+            earnedHedges = Math.min(MAX_EARNED_HEDGES, earnedHedges + maxRatio);
+        }
+        final LatencyHistogram histogram = latencies.get(operation);
+        return histogram == null || histogram.getCount() < MIN_SAMPLES
+                ? -1
+                : TimeUnit.MILLISECONDS.toNanos(histogram.getPercentileMs(percentile));
+    }
+
+    /**
+     * Record the latency of a successful request to an operation.
+     * @param operation FMS operation.
+     * @param latencyNanos Latency of the request in nanoseconds.
+     */
+    void recordLatency(final String operation, final long latencyNanos) {
+
+        if (appliesTo(operation)) {
+            latencies.computeIfAbsent(operation, key -> new LatencyHistogram())
+                    .record(TimeUnit.NANOSECONDS.toMillis(latencyNanos));
+        }
+    }
+
+    /**
+     * Spend an earned hedge.
+     * @return Whether a hedge had been earned and may be sent.
+     */
+    synchronized boolean tryHedge() {
+
+        if (earnedHedges < 1) {
+            return false;
+        }
+        earnedHedges -= 1;
+        return true;
+    }
+}
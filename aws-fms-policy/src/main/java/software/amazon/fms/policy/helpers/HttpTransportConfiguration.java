@@ -0,0 +1,190 @@
+package software.amazon.fms.policy.helpers;
+
+import lombok.Builder;
+import lombok.Value;
+import software.amazon.awssdk.http.SdkHttpClient;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
+import software.amazon.awssdk.http.async.SdkAsyncHttpClient;
+import software.amazon.awssdk.http.crt.AwsCrtAsyncHttpClient;
+import software.amazon.awssdk.http.crt.AwsCrtHttpClient;
+import software.amazon.awssdk.http.crt.TcpKeepAliveConfiguration;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
+import software.amazon.awssdk.http.urlconnection.UrlConnectionHttpClient;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+
+@Value
+@Builder
+public class HttpTransportConfiguration {
+
+    /** Environment variable selecting the transport profile, see {@link Profile}. */
+    static final String PROFILE_ENV = "FMS_HTTP_TRANSPORT";
+
+    /** Environment variable setting the maximum number of pooled connections. */
+    static final String MAX_CONNECTIONS_ENV = "FMS_HTTP_MAX_CONNECTIONS";
+
+    /** Environment variable setting the connect timeout in milliseconds. */
+    static final String CONNECT_TIMEOUT_ENV = "FMS_HTTP_CONNECT_TIMEOUT_MS";
+
+    /** Environment variable setting the socket (read) timeout in milliseconds. */
+    static final String SOCKET_TIMEOUT_ENV = "FMS_HTTP_SOCKET_TIMEOUT_MS";
+
+    /** Environment variable enabling or disabling TCP keep-alive on pooled connections. */
+    static final String TCP_KEEP_ALIVE_ENV = "FMS_HTTP_TCP_KEEP_ALIVE";
+
+    /** Environment variable setting how long an idle pooled connection is kept open, in milliseconds. */
+    static final String CONNECTION_MAX_IDLE_TIME_ENV = "FMS_HTTP_CONNECTION_MAX_IDLE_MS";
+
+    /** Interval between TCP keep-alive probes for the CRT transport. */
+    private static final Duration CRT_KEEP_ALIVE_INTERVAL = Duration.ofSeconds(30);
+
+    /** Timeout of a single TCP keep-alive probe for the CRT transport. */
+    private static final Duration CRT_KEEP_ALIVE_TIMEOUT = Duration.ofSeconds(5);
+
+    /**
+     * HTTP transports the FMS client can be built on.
+     */
+    public enum Profile {
+
+        /** Pooled Apache client, best throughput under bursts of calls. */
+        APACHE,
+
+        /** JDK URLConnection client, fewest classes to load and fastest to initialize. */
+        URL_CONNECTION,
+
+        /** AWS Common Runtime client, requires the aws-crt-client artifact which the crt build profile packages. */
+        CRT
+    }
+
+    @Builder.Default
+    Profile profile = Profile.APACHE;
+
+    @Builder.Default
+    int maxConnections = 50;
+
+    @Builder.Default
+    Duration connectTimeout = Duration.ofSeconds(2);
+
+    @Builder.Default
+    Duration socketTimeout = Duration.ofSeconds(30);
+
+    @Builder.Default
+    boolean tcpKeepAlive = true;
+
+    @Builder.Default
+    Duration connectionMaxIdleTime = Duration.ofSeconds(60);
+
+    /**
+     * Read the transport configuration of the handlers from the process environment.
+     * @return The transport configuration.
+     */
+    public static HttpTransportConfiguration fromEnvironment() {
+
+        return fromEnvironment(System.getenv());
+    }
+
+    /**
+     * Read the transport configuration from a set of environment variables, unset variables keep their defaults.
+     * @param environment Environment variables to read.
+     * @return The transport configuration.
+     */
+    static HttpTransportConfiguration fromEnvironment(final Map<String, String> environment) {
+
+        final HttpTransportConfigurationBuilder builder = HttpTransportConfiguration.builder();
+        if (isSet(environment, PROFILE_ENV)) {
+            builder.profile(Profile.valueOf(environment.get(PROFILE_ENV).trim().toUpperCase(Locale.ROOT)));
+        }
+        if (isSet(environment, MAX_CONNECTIONS_ENV)) {
+            builder.maxConnections(Integer.parseInt(environment.get(MAX_CONNECTIONS_ENV).trim()));
+        }
+        if (isSet(environment, CONNECT_TIMEOUT_ENV)) {
+            builder.connectTimeout(Duration.ofMillis(Long.parseLong(environment.get(CONNECT_TIMEOUT_ENV).trim())));
+        }
+        if (isSet(environment, SOCKET_TIMEOUT_ENV)) {
+            builder.socketTimeout(Duration.ofMillis(Long.parseLong(environment.get(SOCKET_TIMEOUT_ENV).trim())));
+        }
+        if (isSet(environment, TCP_KEEP_ALIVE_ENV)) {
+            builder.tcpKeepAlive(Boolean.parseBoolean(environment.get(TCP_KEEP_ALIVE_ENV).trim()));
+        }
+        if (isSet(environment, CONNECTION_MAX_IDLE_TIME_ENV)) {
+            builder.connectionMaxIdleTime(
+                    Duration.ofMillis(Long.parseLong(environment.get(CONNECTION_MAX_IDLE_TIME_ENV).trim())));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Build an HTTP client for the configured profile. The URLConnection transport has no connection pool of its
+     * own, so max connections, TCP keep-alive and idle time do not apply to it; the CRT transport has no socket
+     * timeout, so only its connect timeout is set.
+     * @return The HTTP client, to be closed by the caller.
+     */
+    public SdkHttpClient buildHttpClient() {
+
+        switch (profile) {
+            case URL_CONNECTION:
+                return UrlConnectionHttpClient.builder()
+                        .connectionTimeout(connectTimeout)
+                        .socketTimeout(socketTimeout)
+                        .build();
+            case CRT:
+                final AwsCrtHttpClient.Builder crtBuilder = AwsCrtHttpClient.builder()
+                        .maxConcurrency(maxConnections)
+                        .connectionTimeout(connectTimeout)
+                        .connectionMaxIdleTime(connectionMaxIdleTime);
+                if (tcpKeepAlive) {
+                    crtBuilder.tcpKeepAliveConfiguration(TcpKeepAliveConfiguration.builder()
+                            .keepAliveInterval(CRT_KEEP_ALIVE_INTERVAL)
+                            .keepAliveTimeout(CRT_KEEP_ALIVE_TIMEOUT)
+                            .build());
+                }
+                return crtBuilder.build();
+            case APACHE:
+            default:
+                return ApacheHttpClient.builder()
+                        .maxConnections(maxConnections)
+                        .connectionTimeout(connectTimeout)
+                        .socketTimeout(socketTimeout)
+                        .tcpKeepAlive(tcpKeepAlive)
+                        .connectionMaxIdleTime(connectionMaxIdleTime)
+                        .build();
+        }
+    }
+
+    /**
+     * Build an asynchronous HTTP client for the configured profile. The CRT profile uses the CRT async client, every
+     * other profile uses the Netty client since the Apache and URLConnection transports are blocking only.
+     * @return The asynchronous HTTP client, to be closed by the caller.
+     */
+    public SdkAsyncHttpClient buildAsyncHttpClient() {
+
+        if (profile == Profile.CRT) {
+            final AwsCrtAsyncHttpClient.Builder crtBuilder = AwsCrtAsyncHttpClient.builder()
+                    .maxConcurrency(maxConnections)
+                    .connectionTimeout(connectTimeout)
+                    .connectionMaxIdleTime(connectionMaxIdleTime);
+            if (tcpKeepAlive) {
+                crtBuilder.tcpKeepAliveConfiguration(TcpKeepAliveConfiguration.builder()
+                        .keepAliveInterval(CRT_KEEP_ALIVE_INTERVAL)
+                        .keepAliveTimeout(CRT_KEEP_ALIVE_TIMEOUT)
+                        .build());
+            }
+            return crtBuilder.build();
+        }
+        return NettyNioAsyncHttpClient.builder()
+                .maxConcurrency(maxConnections)
+                .connectionTimeout(connectTimeout)
+                .readTimeout(socketTimeout)
+                .tcpKeepAlive(tcpKeepAlive)
+                .connectionMaxIdleTime(connectionMaxIdleTime)
+                .build();
+    }
+
+    private static boolean isSet(final Map<String, String> environment, final String name) {
+
+        final String value = environment.get(name);
+        return value != null && !value.trim().isEmpty();
+    }
+}
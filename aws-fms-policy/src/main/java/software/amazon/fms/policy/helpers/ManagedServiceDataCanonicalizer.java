@@ -0,0 +1,310 @@
+package software.amazon.fms.policy.helpers;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Canonical form of the ManagedServiceData of a policy. FMS returns the JSON it was given with its own key order,
+ * whitespace and defaults, so comparing the raw strings reports changes (and CloudFormation drift) where there are
+ * none. The canonical form has no whitespace, sorted keys, no null members, no members left at the default FMS adds
+ * for the policy type, and the arrays whose order is not significant for the policy type sorted. The JSON is read
+ * token by token rather than into a tree: each value is written out in its canonical form as soon as it is read, and
+ * only the members of the object being read are held to sort them. The canonical forms and their hashes are cached,
+ * as the same ManagedServiceData is typically compared and converted several times per invocation.
+ */
+public final class ManagedServiceDataCanonicalizer {
+
+    /** Most canonical forms cached, the ManagedServiceData is at most 8192 characters. */
+    static final int CACHE_SIZE = 128;
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    /** Rule group references carry their own priority, the default and custom actions are sets. */
+    private static final TypeRules NETWORK_FIREWALL_RULES = new TypeRules(
+            Set.of(
+                    "networkFirewallStatelessRuleGroupReferences",
+                    "networkFirewallStatefulRuleGroupReferences",
+                    "networkFirewallStatelessDefaultActions",
+                    "networkFirewallStatelessFragmentDefaultActions",
+                    "networkFirewallStatelessCustomActions",
+                    "networkFirewallStatefulDefaultActions"),
+            Map.of());
+
+    /** Arrays whose order is not significant and members FMS adds with their default values, per policy type. */
+    private static final Map<String, TypeRules> TYPE_RULES = Map.of(
+            // the rule groups are evaluated in order, but the rules excluded from a rule group are not
+            "WAFV2", new TypeRules(
+                    Set.of("excludeRules"),
+                    Map.of("overrideCustomerWebACLAssociation", "false")),
+            "SHIELD_ADVANCED", new TypeRules(
+                    Set.of(),
+                    Map.of(
+                            "automaticResponseConfiguration", "{\"automaticResponseStatus\":\"DISABLED\"}",
+                            "overrideCustomerWebaclClassic", "false")),
+            "NETWORK_FIREWALL", NETWORK_FIREWALL_RULES,
+            "IMPORT_NETWORK_FIREWALL", NETWORK_FIREWALL_RULES,
+            "DNS_FIREWALL", new TypeRules(
+                    Set.of("preProcessRuleGroups", "postProcessRuleGroups"),
+                    Map.of()));
+
+    private static final TypeRules NO_RULES = new TypeRules(Set.of(), Map.of());
+
+    /** Canonical forms keyed by the raw ManagedServiceData, least recently used first. */
+    private static final Map<String, Canonical> CACHE = Collections.synchronizedMap(new LruCache());
+
+    private ManagedServiceDataCanonicalizer() {
+    }
+
+    /**
+     * Get the canonical form of ManagedServiceData.
+     * @param managedServiceData ManagedServiceData of a policy, possibly null.
+     * @return The canonical form, or the ManagedServiceData unchanged if it is blank or not valid JSON.
+     */
+    public static String canonicalize(final String managedServiceData) {
+
+        return StringUtils.isBlank(managedServiceData) ? managedServiceData : canonical(managedServiceData).json;
+    }
+
+    /**
+     * Get the hash of the canonical form of ManagedServiceData, equal for equivalent ManagedServiceData.
+     * @param managedServiceData ManagedServiceData of a policy, possibly null.
+     * @return The hex SHA-256 hash of the canonical form, empty if the ManagedServiceData is blank.
+     */
+    public static String hash(final String managedServiceData) {
+
+        return StringUtils.isBlank(managedServiceData) ? "" : canonical(managedServiceData).hash;
+    }
+
+    /**
+     * Determine whether two ManagedServiceData are equivalent, blank ones being equivalent to each other.
+     * @param live ManagedServiceData read from FMS.
+     * @param desired ManagedServiceData of the desired resource model.
+     * @return Whether their canonical forms are equal.
+     */
+    public static boolean equivalent(final String live, final String desired) {
+
+        return hash(live).equals(hash(desired));
+    }
+
+    private static Canonical canonical(final String managedServiceData) {
+
+        final Canonical cached = CACHE.get(managedServiceData);
+        if (cached != null) {
+            return cached;
+        }
+        String json;
+        try {
+            final String policyType = policyType(managedServiceData);
+            final TypeRules rules = policyType == null ? NO_RULES : TYPE_RULES.getOrDefault(policyType, NO_RULES);
+            json = canonicalJson(managedServiceData, rules);
+        } catch (IOException e) {
+            // FMS rejects invalid JSON, leave it for the request to fail on
+            json = managedServiceData;
+        }
+        final Canonical canonical = new Canonical(json, sha256(json));
+        CACHE.put(managedServiceData, canonical);
+        return canonical;
+    }
+
+    /**
+     * Find the policy type of ManagedServiceData, skipping over the other root members.
+     */
+    private static String policyType(final String managedServiceData) throws IOException {
+
+        try (JsonParser parser = JSON_FACTORY.createParser(managedServiceData)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String field = parser.getText();
+                if (parser.nextToken() == JsonToken.VALUE_STRING && "type".equals(field)) {
+                    return parser.getText();
+                }
+                parser.skipChildren();
+            }
+            return null;
+        }
+    }
+
+    private static String canonicalJson(final String managedServiceData, final TypeRules rules) throws IOException {
+
+        try (JsonParser parser = JSON_FACTORY.createParser(managedServiceData)) {
+            final StringBuilder json = new StringBuilder(managedServiceData.length());
+            appendValue(parser, parser.nextToken(), rules, 0, null, json);
+            if (parser.nextToken() != null) {
+                throw new IOException("Unexpected content after the ManagedServiceData");
+            }
+            return json.toString();
+        }
+    }
+
+    /**
+     * Append the canonical form of the value at the current token.
+     * @param field Name of the member holding the value, null for array elements and the root.
+     */
+    private static void appendValue(
+            final JsonParser parser,
+            final JsonToken token,
+            final TypeRules rules,
+            final int depth,
+            final String field,
+            final StringBuilder json) throws IOException {
+
+        if (token == null) {
+            throw new IOException("Unexpected end of the ManagedServiceData");
+        }
+        switch (token) {
+            case START_OBJECT:
+                appendObject(parser, rules, depth, json);
+                break;
+            case START_ARRAY:
+                appendArray(parser, rules, depth, field != null && rules.unorderedArrays.contains(field), json);
+                break;
+            case VALUE_STRING:
+                json.append('"').append(JsonStringEncoder.getInstance().quoteAsString(parser.getText())).append('"');
+                break;
+            case VALUE_NUMBER_FLOAT:
+                json.append(parser.getDecimalValue().stripTrailingZeros().toPlainString());
+                break;
+            case VALUE_NUMBER_INT:
+            case VALUE_TRUE:
+            case VALUE_FALSE:
+            case VALUE_NULL:
+                json.append(parser.getText());
+                break;
+            default:
+                throw new IOException("Unexpected token in the ManagedServiceData: " + token);
+        }
+    }
+
+    private static void appendObject(
+            final JsonParser parser,
+            final TypeRules rules,
+            final int depth,
+            final StringBuilder json) throws IOException {
+
+        final TreeMap<String, String> members = new TreeMap<>();
+        for (JsonToken token = parser.nextToken(); token != JsonToken.END_OBJECT; token = parser.nextToken()) {
+            if (token != JsonToken.FIELD_NAME) {
+                throw new IOException("Unexpected token in the ManagedServiceData: " + token);
+            }
+            final String field = parser.getText();
+            final StringBuilder value = new StringBuilder();
+            appendValue(parser, parser.nextToken(), rules, depth + 1, field, value);
+            final String canonicalValue = value.toString();
+
+            // the defaults FMS adds are members of the root object
+            if (!"null".equals(canonicalValue) && !(depth == 0 && canonicalValue.equals(rules.defaults.get(field)))) {
+                members.put(field, canonicalValue);
+            }
+        }
+        json.append('{');
+        String separator = "";
+        for (final Map.Entry<String, String> member : members.entrySet()) {
+            json.append(separator)
+                    .append('"').append(JsonStringEncoder.getInstance().quoteAsString(member.getKey())).append("\":")
+                    .append(member.getValue());
+            separator = ",";
+        }
+        json.append('}');
+    }
+
+    private static void appendArray(
+            final JsonParser parser,
+            final TypeRules rules,
+            final int depth,
+            final boolean unordered,
+            final StringBuilder json) throws IOException {
+
+        final List<String> elements = new ArrayList<>();
+        for (JsonToken token = parser.nextToken(); token != JsonToken.END_ARRAY; token = parser.nextToken()) {
+            final StringBuilder element = new StringBuilder();
+            appendValue(parser, token, rules, depth + 1, null, element);
+            elements.add(element.toString());
+        }
+
+        // any order will do for an unordered array, as long as it is the same for equivalent elements
+        if (unordered) {
+            Collections.sort(elements);
+        }
+        json.append('[').append(String.join(",", elements)).append(']');
+    }
+
+    private static String sha256(final String json) {
+
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(json.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Canonicalization rules of a policy type.
+     */
+    private static final class TypeRules {
+
+        /** Names of the members holding arrays whose order is not significant. */
+        private final Set<String> unorderedArrays;
+
+        /** Canonical default values of the root members that FMS adds, keyed by member name. */
+        private final Map<String, String> defaults;
+
+        TypeRules(final Set<String> unorderedArrays, final Map<String, String> defaults) {
+
+            this.unorderedArrays = unorderedArrays;
+            this.defaults = defaults;
+        }
+    }
+
+    /**
+     * Cached canonical form of ManagedServiceData and its hash.
+     */
+    private static final class Canonical {
+
+        private final String json;
+        private final String hash;
+
+        Canonical(final String json, final String hash) {
+
+            this.json = json;
+            this.hash = hash;
+        }
+    }
+
+    /**
+     * Bounded cache evicting the least recently used canonical form.
+     */
+    private static final class LruCache extends LinkedHashMap<String, Canonical> {
+
+        private static final long serialVersionUID = 1L;
+
+        LruCache() {
+
+            super(16, 0.75f, true);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, Canonical> eldest) {
+
+            return size() > CACHE_SIZE;
+        }
+    }
+}
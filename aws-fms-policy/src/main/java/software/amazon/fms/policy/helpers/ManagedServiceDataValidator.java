@@ -0,0 +1,180 @@
+package software.amazon.fms.policy.helpers;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import software.amazon.fms.policy.SecurityServicePolicyData;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Local validation of the ManagedServiceData of a policy against its policy type, so that a malformed or inconsistent
+ * ManagedServiceData fails the handler before any FMS API request rather than after a PutPolicy round trip (and, on
+ * create, a compensating DeletePolicy). The schema of each policy type is compiled once into the expected JSON kind
+ * of each of its root members, and the ManagedServiceData is checked in a single pass of the streaming parser: the
+ * root members are matched against the schema and their contents are only tokenized, which still rejects malformed
+ * JSON. Only what FMS is known to reject is checked; members the schema does not know are left for FMS to judge.
+ */
+public final class ManagedServiceDataValidator {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    /** JSON kinds of the root members of a ManagedServiceData. */
+    private enum Kind {
+        OBJECT, ARRAY, STRING, NUMBER, BOOLEAN;
+
+        /**
+         * Determine whether a value token is of this kind, a null value being of any kind.
+         */
+        boolean matches(final JsonToken token) {
+
+            switch (token) {
+                case START_OBJECT:
+                    return this == OBJECT;
+                case START_ARRAY:
+                    return this == ARRAY;
+                case VALUE_STRING:
+                    return this == STRING;
+                case VALUE_NUMBER_INT:
+                case VALUE_NUMBER_FLOAT:
+                    return this == NUMBER;
+                case VALUE_TRUE:
+                case VALUE_FALSE:
+                    return this == BOOLEAN;
+                default:
+                    return token == JsonToken.VALUE_NULL;
+            }
+        }
+    }
+
+    private static final Map<String, Kind> NETWORK_FIREWALL_SCHEMA = Map.of(
+            "networkFirewallStatelessRuleGroupReferences", Kind.ARRAY,
+            "networkFirewallStatelessDefaultActions", Kind.ARRAY,
+            "networkFirewallStatelessFragmentDefaultActions", Kind.ARRAY,
+            "networkFirewallStatelessCustomActions", Kind.ARRAY,
+            "networkFirewallStatefulRuleGroupReferences", Kind.ARRAY,
+            "networkFirewallStatefulDefaultActions", Kind.ARRAY,
+            "networkFirewallStatefulEngineOptions", Kind.OBJECT,
+            "networkFirewallOrchestrationConfig", Kind.OBJECT,
+            "networkFirewallLoggingConfiguration", Kind.OBJECT);
+
+    /** Expected kinds of the root members of the ManagedServiceData, per policy type. */
+    private static final Map<String, Map<String, Kind>> SCHEMAS = Map.ofEntries(
+            Map.entry("WAF", Map.of(
+                    "ruleGroups", Kind.ARRAY,
+                    "defaultAction", Kind.OBJECT,
+                    "overrideCustomerWebACLAssociation", Kind.BOOLEAN)),
+            Map.entry("WAFV2", Map.of(
+                    "preProcessRuleGroups", Kind.ARRAY,
+                    "postProcessRuleGroups", Kind.ARRAY,
+                    "defaultAction", Kind.OBJECT,
+                    "overrideCustomerWebACLAssociation", Kind.BOOLEAN,
+                    "loggingConfiguration", Kind.OBJECT,
+                    "sampledRequestsEnabledForDefaultActions", Kind.BOOLEAN,
+                    "customRequestHandling", Kind.OBJECT,
+                    "customResponse", Kind.OBJECT,
+                    "tokenDomains", Kind.ARRAY)),
+            Map.entry("SHIELD_ADVANCED", Map.of(
+                    "automaticResponseConfiguration", Kind.OBJECT,
+                    "overrideCustomerWebaclClassic", Kind.BOOLEAN)),
+            Map.entry("SECURITY_GROUPS_COMMON", Map.of(
+                    "securityGroups", Kind.ARRAY,
+                    "revertManualSecurityGroupChanges", Kind.BOOLEAN,
+                    "exclusiveResourceSecurityGroupManagement", Kind.BOOLEAN,
+                    "applyToAllEC2InstanceENIs", Kind.BOOLEAN,
+                    "includeSharedVPC", Kind.BOOLEAN,
+                    "enableSecurityGroupReferencesDistribution", Kind.BOOLEAN)),
+            Map.entry("SECURITY_GROUPS_CONTENT_AUDIT", Map.of(
+                    "securityGroups", Kind.ARRAY,
+                    "securityGroupAction", Kind.OBJECT,
+                    "preManagedOptions", Kind.ARRAY)),
+            Map.entry("SECURITY_GROUPS_USAGE_AUDIT", Map.of(
+                    "deleteUnusedSecurityGroups", Kind.BOOLEAN,
+                    "coalesceRedundantSecurityGroups", Kind.BOOLEAN,
+                    "optionalDelayForUnusedInMinutes", Kind.NUMBER)),
+            Map.entry("NETWORK_FIREWALL", NETWORK_FIREWALL_SCHEMA),
+            Map.entry("IMPORT_NETWORK_FIREWALL", NETWORK_FIREWALL_SCHEMA),
+            Map.entry("THIRD_PARTY_FIREWALL", Map.of(
+                    "thirdPartyFirewall", Kind.STRING,
+                    "thirdPartyFirewallConfig", Kind.OBJECT,
+                    "firewallDeploymentModel", Kind.OBJECT)),
+            Map.entry("DNS_FIREWALL", Map.of(
+                    "preProcessRuleGroups", Kind.ARRAY,
+                    "postProcessRuleGroups", Kind.ARRAY)),
+            Map.entry("NETWORK_ACL_COMMON", Map.of(
+                    "networkAclEntrySet", Kind.OBJECT)));
+
+    private ManagedServiceDataValidator() {
+    }
+
+    /**
+     * Validate the ManagedServiceData of the security service policy data of a resource model.
+     * @param securityServicePolicyData Security service policy data of the desired resource model, possibly null.
+     * @return The violations found, empty if the ManagedServiceData is valid or not set.
+     */
+    public static List<String> validate(final SecurityServicePolicyData securityServicePolicyData) {
+
+        if (securityServicePolicyData == null || securityServicePolicyData.getManagedServiceData() == null) {
+            return Collections.emptyList();
+        }
+        return validate(securityServicePolicyData.getType(), securityServicePolicyData.getManagedServiceData());
+    }
+
+    /**
+     * Validate ManagedServiceData against a policy type.
+     * @param policyType Type of the security service policy data.
+     * @param managedServiceData ManagedServiceData to validate.
+     * @return The violations found, empty if the ManagedServiceData is valid.
+     */
+    static List<String> validate(final String policyType, final String managedServiceData) {
+
+        final List<String> violations = new ArrayList<>();
+        final Map<String, Kind> schema = policyType == null ? null : SCHEMAS.get(policyType);
+        try (JsonParser parser = JSON_FACTORY.createParser(managedServiceData)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                violations.add("ManagedServiceData must be a JSON object");
+                return violations;
+            }
+            final Set<String> members = new HashSet<>();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String member = parser.getText();
+                final JsonToken value = parser.nextToken();
+                if (!members.add(member)) {
+                    violations.add(String.format("ManagedServiceData.%s is duplicated", member));
+                }
+                if ("type".equals(member)) {
+                    if (value != JsonToken.VALUE_STRING || !parser.getText().equals(policyType)) {
+                        violations.add(String.format("ManagedServiceData.type must be %s", policyType));
+                    }
+                } else if (schema != null && schema.containsKey(member) && !schema.get(member).matches(value)) {
+                    violations.add(String.format("ManagedServiceData.%s must be a JSON %s",
+                            member,
+                            schema.get(member).name().toLowerCase(Locale.ROOT)));
+                }
+
+                // the contents of the member are only checked to be well-formed
+                parser.skipChildren();
+            }
+            if (parser.nextToken() != null) {
+                violations.add("ManagedServiceData has content after its JSON object");
+            }
+            if (!members.contains("type")) {
+                violations.add(String.format("ManagedServiceData.type is required and must be %s", policyType));
+            }
+        } catch (JsonProcessingException e) {
+            // malformed JSON, the parser cannot go any further
+            violations.add("ManagedServiceData is not valid JSON: " + e.getOriginalMessage());
+        } catch (IOException e) {
+            violations.add("ManagedServiceData could not be read: " + e.getMessage());
+        }
+        return violations;
+    }
+}
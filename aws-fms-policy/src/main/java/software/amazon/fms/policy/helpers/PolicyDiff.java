@@ -0,0 +1,253 @@
+package software.amazon.fms.policy.helpers;
+
+import org.apache.commons.lang3.StringUtils;
+import software.amazon.awssdk.services.fms.model.CustomerPolicyScopeIdType;
+import software.amazon.awssdk.services.fms.model.NetworkAclCommonPolicy;
+import software.amazon.awssdk.services.fms.model.NetworkAclEntry;
+import software.amazon.awssdk.services.fms.model.NetworkAclEntrySet;
+import software.amazon.awssdk.services.fms.model.NetworkFirewallPolicy;
+import software.amazon.awssdk.services.fms.model.Policy;
+import software.amazon.awssdk.services.fms.model.PolicyOption;
+import software.amazon.awssdk.services.fms.model.ResourceTag;
+import software.amazon.awssdk.services.fms.model.SecurityServicePolicyData;
+import software.amazon.awssdk.services.fms.model.ThirdPartyFirewallPolicy;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Structural diff of a live FMS policy against the desired one. Every PutPolicy makes FMS re-evaluate the scope and
+ * remediation of the policy across all member accounts, so the update handler only makes one when a field of the
+ * resource model materially differs. Fields are compared after normalizing what FMS does not preserve or treats as
+ * equivalent: the order of the include/exclude map lists, resource tags, resource types and resource sets, null and
+ * empty collections or strings, unset and false flags, policy options left at their defaults and the managed service
+ * data up to its canonical form. The identifiers and update token of the policies are not compared.
+ */
+public final class PolicyDiff {
+
+    /** Differences found, one per field, e.g. "IncludeMap.ACCOUNT: 2 added, 0 removed". */
+    private final List<String> differences = new ArrayList<>();
+
+    private PolicyDiff() {
+    }
+
+    /**
+     * Compare a live policy with the desired one.
+     * @param live Policy read from FMS.
+     * @param desired Policy converted from the desired resource model.
+     * @return The differences between the policies.
+     */
+    public static PolicyDiff between(final Policy live, final Policy desired) {
+
+        final PolicyDiff diff = new PolicyDiff();
+        diff.compare("PolicyName", live.policyName(), desired.policyName());
+        diff.compare("PolicyDescription",
+                StringUtils.defaultString(live.policyDescription()),
+                StringUtils.defaultString(desired.policyDescription()));
+        diff.compare("RemediationEnabled", isTrue(live.remediationEnabled()), isTrue(desired.remediationEnabled()));
+        diff.compare("ResourceType", live.resourceType(), desired.resourceType());
+        diff.compareSets("ResourceTypeList", live.resourceTypeList(), desired.resourceTypeList());
+        diff.compareSets("ResourceSetIds", live.resourceSetIds(), desired.resourceSetIds());
+        diff.compareSets("ResourceTags", resourceTags(live.resourceTags()), resourceTags(desired.resourceTags()));
+        diff.compare("ExcludeResourceTags",
+                isTrue(live.excludeResourceTags()),
+                isTrue(desired.excludeResourceTags()));
+        diff.compare("ResourcesCleanUp",
+                isTrue(live.deleteUnusedFMManagedResources()),
+                isTrue(desired.deleteUnusedFMManagedResources()));
+        diff.compareScopes("IncludeMap", live.includeMapAsStrings(), desired.includeMapAsStrings());
+        diff.compareScopes("ExcludeMap", live.excludeMapAsStrings(), desired.excludeMapAsStrings());
+        diff.compareSecurityServicePolicyData(live.securityServicePolicyData(), desired.securityServicePolicyData());
+        return diff;
+    }
+
+    /**
+     * Determine whether nothing material differs, so that the update can be skipped.
+     * @return Whether the policies are equivalent.
+     */
+    public boolean isEmpty() {
+
+        return differences.isEmpty();
+    }
+
+    /**
+     * Get the differences found, one per field.
+     * @return The differences, empty if the policies are equivalent.
+     */
+    public List<String> getDifferences() {
+
+        return Collections.unmodifiableList(differences);
+    }
+
+    @Override
+    public String toString() {
+
+        return isEmpty() ? "no changes" : String.join("; ", differences);
+    }
+
+    private void compareSecurityServicePolicyData(
+            final SecurityServicePolicyData live,
+            final SecurityServicePolicyData desired) {
+
+        final SecurityServicePolicyData liveData = live == null ? SecurityServicePolicyData.builder().build() : live;
+        final SecurityServicePolicyData desiredData =
+                desired == null ? SecurityServicePolicyData.builder().build() : desired;
+        compare("SecurityServicePolicyData.Type", liveData.typeAsString(), desiredData.typeAsString());
+        compareManagedServiceData(liveData.managedServiceData(), desiredData.managedServiceData());
+
+        // policy options left at their defaults are equivalent to no policy option
+        final PolicyOption liveOption = liveData.policyOption() == null
+                ? PolicyOption.builder().build()
+                : liveData.policyOption();
+        final PolicyOption desiredOption = desiredData.policyOption() == null
+                ? PolicyOption.builder().build()
+                : desiredData.policyOption();
+        compare("PolicyOption.NetworkFirewallPolicy.FirewallDeploymentModel",
+                deploymentModel(liveOption.networkFirewallPolicy()),
+                deploymentModel(desiredOption.networkFirewallPolicy()));
+        compare("PolicyOption.ThirdPartyFirewallPolicy.FirewallDeploymentModel",
+                deploymentModel(liveOption.thirdPartyFirewallPolicy()),
+                deploymentModel(desiredOption.thirdPartyFirewallPolicy()));
+        final NetworkAclEntrySet liveEntrySet = entrySet(liveOption.networkAclCommonPolicy());
+        final NetworkAclEntrySet desiredEntrySet = entrySet(desiredOption.networkAclCommonPolicy());
+        compareOpaque("PolicyOption.NetworkAclCommonPolicy.FirstEntries",
+                entries(liveEntrySet.firstEntries()),
+                entries(desiredEntrySet.firstEntries()));
+        compareOpaque("PolicyOption.NetworkAclCommonPolicy.LastEntries",
+                entries(liveEntrySet.lastEntries()),
+                entries(desiredEntrySet.lastEntries()));
+        compare("PolicyOption.NetworkAclCommonPolicy.ForceRemediateForFirstEntries",
+                isTrue(liveEntrySet.forceRemediateForFirstEntries()),
+                isTrue(desiredEntrySet.forceRemediateForFirstEntries()));
+        compare("PolicyOption.NetworkAclCommonPolicy.ForceRemediateForLastEntries",
+                isTrue(liveEntrySet.forceRemediateForLastEntries()),
+                isTrue(desiredEntrySet.forceRemediateForLastEntries()));
+    }
+
+    /**
+     * Compare the scopes of an include or exclude map, ignoring the order of their lists.
+     */
+    private void compareScopes(
+            final String field,
+            final Map<String, ? extends Collection<String>> live,
+            final Map<String, ? extends Collection<String>> desired) {
+
+        final Set<String> scopeTypes = new TreeSet<>(live.keySet());
+        scopeTypes.addAll(desired.keySet());
+        for (final String scopeType : scopeTypes) {
+            if (CustomerPolicyScopeIdType.ACCOUNT.toString().equals(scopeType)) {
+                compareAccounts(field + "." + scopeType, live.get(scopeType), desired.get(scopeType));
+            } else {
+                compareSets(field + "." + scopeType, live.get(scopeType), desired.get(scopeType));
+            }
+        }
+    }
+
+    /**
+     * Compare account scopes, which may carry thousands of accounts, as packed account ID sets. Scopes with an ID
+     * that is not an account ID are compared as sets of strings.
+     */
+    private void compareAccounts(final String field, final Collection<String> live, final Collection<String> desired) {
+
+        final AccountIdSet liveAccounts = AccountIdSet.pack(live);
+        final AccountIdSet desiredAccounts = AccountIdSet.pack(desired);
+        if (liveAccounts == null || desiredAccounts == null) {
+            compareSets(field, live, desired);
+        } else if (!liveAccounts.equals(desiredAccounts)) {
+            differences.add(String.format("%s: %d added, %d removed",
+                    field,
+                    desiredAccounts.countNotIn(liveAccounts),
+                    liveAccounts.countNotIn(desiredAccounts)));
+        }
+    }
+
+    private void compareSets(final String field, final Collection<String> live, final Collection<String> desired) {
+
+        final Set<String> liveSet = live == null ? Collections.emptySet() : new HashSet<>(live);
+        final Set<String> desiredSet = desired == null ? Collections.emptySet() : new HashSet<>(desired);
+        if (!liveSet.equals(desiredSet)) {
+            final long added = desiredSet.stream().filter(element -> !liveSet.contains(element)).count();
+            final long removed = liveSet.stream().filter(element -> !desiredSet.contains(element)).count();
+            differences.add(String.format("%s: %d added, %d removed", field, added, removed));
+        }
+    }
+
+    private void compare(final String field, final Object live, final Object desired) {
+
+        if (!Objects.equals(live, desired)) {
+            differences.add(String.format("%s: %s -> %s", field, live, desired));
+        }
+    }
+
+    /**
+     * Compare a field whose values are too large to log.
+     */
+    private void compareOpaque(final String field, final Object live, final Object desired) {
+
+        if (!Objects.equals(live, desired)) {
+            differences.add(field + ": changed");
+        }
+    }
+
+    /**
+     * Compare managed service data by the hashes of their canonical forms, which are logged instead of the data.
+     */
+    private void compareManagedServiceData(final String live, final String desired) {
+
+        if (!ManagedServiceDataCanonicalizer.equivalent(live, desired)) {
+            differences.add(String.format("SecurityServicePolicyData.ManagedServiceData: %s -> %s",
+                    shortHash(live),
+                    shortHash(desired)));
+        }
+    }
+
+    private static String shortHash(final String managedServiceData) {
+
+        return StringUtils.left(ManagedServiceDataCanonicalizer.hash(managedServiceData), 8);
+    }
+
+    private static boolean isTrue(final Boolean value) {
+
+        return Boolean.TRUE.equals(value);
+    }
+
+    private static List<String> resourceTags(final List<ResourceTag> resourceTags) {
+
+        return resourceTags.stream()
+                .map(resourceTag -> resourceTag.key() + "=" + StringUtils.defaultString(resourceTag.value()))
+                .collect(Collectors.toList());
+    }
+
+    private static String deploymentModel(final NetworkFirewallPolicy policy) {
+
+        return policy == null ? null : policy.firewallDeploymentModelAsString();
+    }
+
+    private static String deploymentModel(final ThirdPartyFirewallPolicy policy) {
+
+        return policy == null ? null : policy.firewallDeploymentModelAsString();
+    }
+
+    private static NetworkAclEntrySet entrySet(final NetworkAclCommonPolicy policy) {
+
+        return policy == null || policy.networkAclEntrySet() == null
+                ? NetworkAclEntrySet.builder().build()
+                : policy.networkAclEntrySet();
+    }
+
+    /**
+     * Normalize the entries of a network ACL, whose order is significant, so that unset and empty lists are equal.
+     */
+    private static List<NetworkAclEntry> entries(final List<NetworkAclEntry> entries) {
+
+        return entries == null ? Collections.emptyList() : entries;
+    }
+}
@@ -0,0 +1,175 @@
+package software.amazon.fms.policy.helpers;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttribute;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.ExecutionInterceptor;
+import software.amazon.awssdk.core.interceptor.SdkExecutionAttribute;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.utils.IoUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+/**
+ * Interceptor of the FMS client recording every HTTP exchange with FMS, so that the interactions of the handlers with
+ * a real account can be replayed offline, e.g. to compare the performance of handler changes against real pagination
+ * shapes. Each exchange, retried attempts included, is appended to the recording as a line of JSON holding the
+ * operation, the request and response bodies, the HTTP status and the latency from sending the request to reading the
+ * whole response. Headers, and so credentials and signatures, are not recorded.
+ * The shared FMS clients, synchronous and asynchronous, are built with the interceptor when the recording file is set
+ * in the environment.
+ */
+public class RecordingInterceptor implements ExecutionInterceptor {
+
+    /** Environment variable holding the file the FMS interactions are appended to, recording is off when unset. */
+    static final String RECORDING_FILE_ENV = "FMS_RECORDING_FILE";
+
+    private static final ExecutionAttribute<String> REQUEST_BODY = new ExecutionAttribute<>("FmsRecordedRequestBody");
+    private static final ExecutionAttribute<Long> SENT_AT = new ExecutionAttribute<>("FmsRecordedSentAt");
+
+    private final Path recording;
+
+    /**
+     * Record the FMS interactions to a file, appending to it if it exists.
+     * @param recording File the interactions are appended to.
+     */
+    public RecordingInterceptor(final Path recording) {
+
+        this.recording = recording;
+    }
+
+    /**
+     * Build the interceptor configured through the environment.
+     * @return The interceptor, or null when recording is off.
+     */
+    static RecordingInterceptor fromEnvironment() {
+
+        final String recordingFile = System.getenv(RECORDING_FILE_ENV);
+        return recordingFile == null || recordingFile.trim().isEmpty()
+                ? null
+                : new RecordingInterceptor(Paths.get(recordingFile.trim()));
+    }
+
+    @Override
+    public void beforeTransmission(final Context.BeforeTransmission context, final ExecutionAttributes attributes) {
+
+        final Optional<RequestBody> requestBody = context.requestBody();
+        attributes.putAttribute(REQUEST_BODY, requestBody.isPresent()
+                ? new String(read(requestBody.get().contentStreamProvider().newStream()), StandardCharsets.UTF_8)
+                : "");
+        attributes.putAttribute(SENT_AT, System.nanoTime());
+    }
+
+    @Override
+    public Optional<InputStream> modifyHttpResponseContent(
+            final Context.ModifyHttpResponse context,
+            final ExecutionAttributes attributes) {
+
+        final Optional<InputStream> responseBody = context.responseBody();
+        if (context.responsePublisher().isPresent()) {
+            // the response of the async client is recorded as it streams, see modifyAsyncHttpResponseContent
+            return responseBody;
+        }
+        final byte[] response = responseBody.isPresent() ? read(responseBody.get()) : new byte[0];
+        record(context, attributes, response);
+
+        return responseBody.isPresent() ? Optional.of(new ByteArrayInputStream(response)) : responseBody;
+    }
+
+    @Override
+    public Optional<Publisher<ByteBuffer>> modifyAsyncHttpResponseContent(
+            final Context.ModifyHttpResponse context,
+            final ExecutionAttributes attributes) {
+
+        final Optional<Publisher<ByteBuffer>> responsePublisher = context.responsePublisher();
+        if (!responsePublisher.isPresent()) {
+            return responsePublisher;
+        }
+        final ByteArrayOutputStream response = new ByteArrayOutputStream();
+        return Optional.of(subscriber -> responsePublisher.get().subscribe(new Subscriber<ByteBuffer>() {
+
+            @Override
+            public void onSubscribe(final Subscription subscription) {
+
+                subscriber.onSubscribe(subscription);
+            }
+
+            @Override
+            public void onNext(final ByteBuffer buffer) {
+
+                final ByteBuffer content = buffer.asReadOnlyBuffer();
+                final byte[] bytes = new byte[content.remaining()];
+                content.get(bytes);
+                response.write(bytes, 0, bytes.length);
+                subscriber.onNext(buffer);
+            }
+
+            @Override
+            public void onError(final Throwable t) {
+
+                subscriber.onError(t);
+            }
+
+            @Override
+            public void onComplete() {
+
+                record(context, attributes, response.toByteArray());
+                subscriber.onComplete();
+            }
+        }));
+    }
+
+    /**
+     * Append an exchange with FMS to the recording, once its whole response has been read.
+     */
+    private void record(
+            final Context.ModifyHttpResponse context,
+            final ExecutionAttributes attributes,
+            final byte[] response) {
+
+        final long latencyNanos = System.nanoTime() - attributes.getAttribute(SENT_AT);
+
+        final ObjectNode interaction = JsonNodeFactory.instance.objectNode();
+        interaction.put("operation", attributes.getAttribute(SdkExecutionAttribute.OPERATION_NAME));
+        interaction.put("request", attributes.getAttribute(REQUEST_BODY));
+        interaction.put("status", context.httpResponse().statusCode());
+        interaction.put("response", new String(response, StandardCharsets.UTF_8));
+        interaction.put("latencyNanos", latencyNanos);
+        append(interaction.toString() + System.lineSeparator());
+    }
+
+    private synchronized void append(final String line) {
+
+        try {
+            Files.write(recording, line.getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not record the FMS interaction to " + recording, e);
+        }
+    }
+
+    private static byte[] read(final InputStream stream) {
+
+        try (InputStream content = stream) {
+            return IoUtils.toByteArray(content);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read the FMS interaction to record", e);
+        }
+    }
+}
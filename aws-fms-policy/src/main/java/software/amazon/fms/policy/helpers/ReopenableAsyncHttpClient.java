@@ -0,0 +1,76 @@
+package software.amazon.fms.policy.helpers;
+
+import software.amazon.awssdk.http.async.AsyncExecuteRequest;
+import software.amazon.awssdk.http.async.SdkAsyncHttpClient;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Asynchronous counterpart of {@link ReopenableHttpClient}, for the transport shared by the FMS async clients.
+ */
+class ReopenableAsyncHttpClient implements SdkAsyncHttpClient {
+
+    /** Builds the underlying transport, on first use and again after the connections were closed. */
+    private final Supplier<SdkAsyncHttpClient> factory;
+
+    /** Underlying transport, null until first use and after the connections were closed. */
+    private volatile SdkAsyncHttpClient delegate;
+
+    ReopenableAsyncHttpClient(final Supplier<SdkAsyncHttpClient> factory) {
+
+        this.factory = factory;
+    }
+
+    @Override
+    public CompletableFuture<Void> execute(final AsyncExecuteRequest request) {
+
+        return delegate().execute(request);
+    }
+
+    @Override
+    public String clientName() {
+
+        return delegate().clientName();
+    }
+
+    /**
+     * Build the underlying transport now rather than on the next request.
+     */
+    void open() {
+
+        delegate();
+    }
+
+    /**
+     * Close the underlying transport along with its pooled connections and event loops, the next request builds a new
+     * one.
+     */
+    synchronized void closeConnections() {
+
+        if (delegate != null) {
+            delegate.close();
+            delegate = null;
+        }
+    }
+
+    @Override
+    public void close() {
+
+        closeConnections();
+    }
+
+    private SdkAsyncHttpClient delegate() {
+
+        final SdkAsyncHttpClient current = delegate;
+        return current != null ? current : buildDelegate();
+    }
+
+    private synchronized SdkAsyncHttpClient buildDelegate() {
+
+        if (delegate == null) {
+            delegate = factory.get();
+        }
+        return delegate;
+    }
+}
@@ -0,0 +1,77 @@
+package software.amazon.fms.policy.helpers;
+
+import software.amazon.awssdk.http.ExecutableHttpRequest;
+import software.amazon.awssdk.http.HttpExecuteRequest;
+import software.amazon.awssdk.http.SdkHttpClient;
+
+import java.util.function.Supplier;
+
+/**
+ * HTTP client whose underlying transport can be closed and rebuilt while the FMS clients built on top of it stay in
+ * place. The handlers keep their FMS client for the lifetime of the process, so this is what lets the connections be
+ * dropped before a snapshot is taken and opened again after it is restored.
+ */
+class ReopenableHttpClient implements SdkHttpClient {
+
+    /** Builds the underlying transport, on first use and again after the connections were closed. */
+    private final Supplier<SdkHttpClient> factory;
+
+    /** Underlying transport, null until first use and after the connections were closed. */
+    private volatile SdkHttpClient delegate;
+
+    ReopenableHttpClient(final Supplier<SdkHttpClient> factory) {
+
+        this.factory = factory;
+    }
+
+    @Override
+    public ExecutableHttpRequest prepareRequest(final HttpExecuteRequest request) {
+
+        return delegate().prepareRequest(request);
+    }
+
+    @Override
+    public String clientName() {
+
+        return delegate().clientName();
+    }
+
+    /**
+     * Build the underlying transport now rather than on the next request.
+     */
+    void open() {
+
+        delegate();
+    }
+
+    /**
+     * Close the underlying transport along with its pooled connections, the next request builds a new one.
+     */
+    synchronized void closeConnections() {
+
+        if (delegate != null) {
+            delegate.close();
+            delegate = null;
+        }
+    }
+
+    @Override
+    public void close() {
+
+        closeConnections();
+    }
+
+    private SdkHttpClient delegate() {
+
+        final SdkHttpClient current = delegate;
+        return current != null ? current : buildDelegate();
+    }
+
+    private synchronized SdkHttpClient buildDelegate() {
+
+        if (delegate == null) {
+            delegate = factory.get();
+        }
+        return delegate;
+    }
+}
@@ -0,0 +1,276 @@
+package software.amazon.fms.policy.helpers;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.crac.Context;
+import org.crac.Core;
+import org.crac.Resource;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.http.AbortableInputStream;
+import software.amazon.awssdk.http.ExecutableHttpRequest;
+import software.amazon.awssdk.http.HttpExecuteRequest;
+import software.amazon.awssdk.http.HttpExecuteResponse;
+import software.amazon.awssdk.http.SdkHttpClient;
+import software.amazon.awssdk.http.SdkHttpResponse;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.fms.FmsClient;
+import software.amazon.awssdk.services.fms.model.Policy;
+import software.amazon.awssdk.services.fms.model.Tag;
+import software.amazon.cloudformation.resource.Serializer;
+import software.amazon.fms.policy.IEMap;
+import software.amazon.fms.policy.NetworkAclCommonPolicy;
+import software.amazon.fms.policy.NetworkAclEntry;
+import software.amazon.fms.policy.NetworkAclEntrySet;
+import software.amazon.fms.policy.NetworkFirewallPolicy;
+import software.amazon.fms.policy.PolicyOption;
+import software.amazon.fms.policy.PolicyTag;
+import software.amazon.fms.policy.PortRange;
+import software.amazon.fms.policy.ResourceModel;
+import software.amazon.fms.policy.ResourceTag;
+import software.amazon.fms.policy.SecurityServicePolicyData;
+import software.amazon.fms.policy.ThirdPartyFirewallPolicy;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Priming of the handler code paths before the process is snapshotted, e.g. by Lambda SnapStart or a CRaC JVM. The
+ * handlers register it once they have built the shared FMS client; before the checkpoint it converts synthetic
+ * policies of each type through FmsHelper and CfnHelper, round-trips them through the serializer of the handler
+ * wrapper and marshals each FMS request the handlers make through a client whose transport never leaves the process,
+ * so that the first invocation after the restore finds those classes loaded, initialized and compiled. It then closes
+ * the connections of the shared HTTP clients, which are reopened after the restore. On a JVM without checkpoint
+ * support the hooks are never called.
+ */
+public final class SnapshotPriming implements Resource {
+
+    /** Times each code path is run, enough for the hottest methods to be compiled before the checkpoint. */
+    static final int PRIMING_ITERATIONS = 250;
+
+    /**
+     * Registered instance. Held here since the checkpoint context is free to keep only weak references to the
+     * resources registered with it.
+     */
+    private static final SnapshotPriming INSTANCE = new SnapshotPriming();
+
+    /** Canned FMS response of the priming transport, every response shape unmarshals it. */
+    private static final byte[] PRIMING_RESPONSE = "{}".getBytes(StandardCharsets.UTF_8);
+
+    private static final TypeReference<ResourceModel> MODEL_TYPE = new TypeReference<ResourceModel>() { };
+
+    /** Flag indicating if the instance has been registered with the checkpoint context. */
+    private static boolean registered;
+
+    private SnapshotPriming() {
+    }
+
+    /**
+     * Register the priming hooks with the global checkpoint context, once per process.
+     */
+    public static synchronized void register() {
+
+        if (!registered) {
+            Core.getGlobalContext().register(INSTANCE);
+            registered = true;
+        }
+    }
+
+    @Override
+    public void beforeCheckpoint(final Context<? extends Resource> context) throws IOException {
+
+        prime(PRIMING_ITERATIONS);
+        FmsClientRegistry.closeConnections();
+    }
+
+    @Override
+    public void afterRestore(final Context<? extends Resource> context) {
+
+        FmsClientRegistry.reopenConnections();
+    }
+
+    /**
+     * Run each code path once, as the training run of an AppCDS archive of the classes the handlers load. Only the
+     * handler jar has to be on the classpath, so that the archive is written for the classpath the handlers run with.
+     * @param args Unused.
+     * @throws IOException If a model could not be serialized or deserialized.
+     */
+    public static void main(final String[] args) throws IOException {
+
+        System.out.printf("Marshalled %d FMS requests%n", prime(1));
+    }
+
+    /**
+     * Run the conversions, serialization and request marshalling of the handlers without reaching FMS.
+     * @param iterations Times each code path is run.
+     * @return Number of FMS requests marshalled.
+     * @throws IOException If a model could not be serialized or deserialized.
+     */
+    static int prime(final int iterations) throws IOException {
+
+        final AtomicInteger marshalled = new AtomicInteger();
+        final Serializer serializer = new Serializer();
+        final List<ResourceModel> models = primingModels();
+
+        try (FmsClient client = primingClient(marshalled)) {
+            for (int i = 0; i < iterations; i++) {
+                for (final ResourceModel model : models) {
+                    final ResourceModel desiredModel =
+                            serializer.deserialize(serializer.serialize(model), MODEL_TYPE);
+                    ResourceModelValidator.validate(desiredModel);
+                    final Policy policy = FmsHelper.convertCFNResourceModelToFMSPolicy(desiredModel);
+                    final List<Tag> tags = FmsHelper.convertCFNTagMapToFMSTagSet(
+                            Collections.singletonMap("key", "value"));
+                    final String policyArn = FmsHelper.buildPolicyArn("aws", Region.US_EAST_1.id(),
+                            "123456789012", model.getId());
+                    final ResourceModel resultModel = CfnHelper.convertFMSPolicyToCFNResourceModel(
+                            policy, policyArn, tags);
+                    serializer.serialize(resultModel);
+
+                    client.putPolicy(request -> request.policy(policy).tagList(tags));
+                    client.getPolicy(request -> request.policyId(model.getId()));
+                    client.listTagsForResource(request -> request.resourceArn(policyArn));
+                    client.tagResource(request -> request.resourceArn(policyArn).tagList(tags));
+                    client.untagResource(request -> request.resourceArn(policyArn).tagKeys("key"));
+                    client.deletePolicy(request -> request.policyId(model.getId()).deleteAllPolicyResources(true));
+                }
+                client.listPolicies(request -> request.maxResults(100));
+            }
+        }
+        return marshalled.get();
+    }
+
+    /**
+     * Synthetic policies covering each branch of the converters.
+     */
+    private static List<ResourceModel> primingModels() {
+
+        final IEMap accounts = IEMap.builder()
+                .aCCOUNT(Collections.singletonList("123456789012"))
+                .oRGUNIT(Collections.singletonList("ou-0000-00000000"))
+                .build();
+        final ResourceModel allParameters = primingModel("SHIELD_ADVANCED", null);
+        allParameters.setPolicyDescription("priming");
+        allParameters.setIncludeMap(accounts);
+        allParameters.setExcludeMap(accounts);
+        allParameters.setResourceTags(Collections.singletonList(
+                ResourceTag.builder().key("key").value("value").build()));
+        allParameters.setResourceType("ResourceTypeList");
+        allParameters.setResourceTypeList(Collections.singletonList("AWS::ElasticLoadBalancingV2::LoadBalancer"));
+        allParameters.setResourceSetIds(Collections.singletonList("0000000000000000000000"));
+        allParameters.setResourcesCleanUp(true);
+
+        return Arrays.asList(
+                allParameters,
+                primingModel("THIRD_PARTY_FIREWALL", PolicyOption.builder()
+                        .thirdPartyFirewallPolicy(ThirdPartyFirewallPolicy.builder()
+                                .firewallDeploymentModel("CENTRALIZED")
+                                .build())
+                        .build()),
+                primingModel("NETWORK_FIREWALL", PolicyOption.builder()
+                        .networkFirewallPolicy(NetworkFirewallPolicy.builder()
+                                .firewallDeploymentModel("CENTRALIZED")
+                                .build())
+                        .build()),
+                primingModel("NETWORK_ACL_COMMON", PolicyOption.builder()
+                        .networkAclCommonPolicy(NetworkAclCommonPolicy.builder()
+                                .networkAclEntrySet(NetworkAclEntrySet.builder()
+                                        .firstEntries(Collections.singletonList(NetworkAclEntry.builder()
+                                                .cidrBlock("10.0.0.0/24")
+                                                .egress(false)
+                                                .protocol("tcp")
+                                                .portRange(PortRange.builder().from(443).to(443).build())
+                                                .ruleAction("allow")
+                                                .build()))
+                                        .lastEntries(Collections.emptyList())
+                                        .forceRemediateForFirstEntries(true)
+                                        .forceRemediateForLastEntries(false)
+                                        .build())
+                                .build())
+                        .build()));
+    }
+
+    private static ResourceModel primingModel(final String type, final PolicyOption policyOption) {
+
+        return ResourceModel.builder()
+                .id("00000000-0000-0000-0000-000000000000")
+                .policyName(String.format("priming-%s", type))
+                .excludeResourceTags(false)
+                .remediationEnabled(false)
+                .resourceType("AWS::ElasticLoadBalancingV2::LoadBalancer")
+                .securityServicePolicyData(SecurityServicePolicyData.builder()
+                        .managedServiceData(String.format("{\"type\":\"%s\"}", type))
+                        .type(type)
+                        .policyOption(policyOption)
+                        .build())
+                .tags(Collections.singletonList(PolicyTag.builder().key("key").value("value").build()))
+                .build();
+    }
+
+    /**
+     * Build an FMS client that marshals and signs its requests as the shared one does, but answers them in process.
+     * @param marshalled Counter of the requests the client marshalled.
+     * @return The priming FMS client.
+     */
+    private static FmsClient primingClient(final AtomicInteger marshalled) {
+
+        final String region = System.getenv(FmsClientRegistry.REGION_ENV);
+        return FmsClient.builder()
+                .region(region == null || region.isEmpty() ? Region.US_EAST_1 : Region.of(region))
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("priming", "priming")))
+                .httpClient(new PrimingHttpClient(marshalled))
+                .build();
+    }
+
+    /**
+     * Transport answering every request with an empty JSON document without opening a connection.
+     */
+    private static final class PrimingHttpClient implements SdkHttpClient {
+
+        private static final Map<String, List<String>> HEADERS =
+                Collections.singletonMap("Content-Type", Collections.singletonList("application/x-amz-json-1.1"));
+
+        private final AtomicInteger marshalled;
+
+        PrimingHttpClient(final AtomicInteger marshalled) {
+
+            this.marshalled = marshalled;
+        }
+
+        @Override
+        public ExecutableHttpRequest prepareRequest(final HttpExecuteRequest request) {
+
+            marshalled.incrementAndGet();
+            return new ExecutableHttpRequest() {
+
+                @Override
+                public HttpExecuteResponse call() {
+
+                    return HttpExecuteResponse.builder()
+                            .response(SdkHttpResponse.builder().statusCode(200).headers(HEADERS).build())
+                            .responseBody(AbortableInputStream.create(new ByteArrayInputStream(PRIMING_RESPONSE)))
+                            .build();
+                }
+
+                @Override
+                public void abort() {
+                }
+            };
+        }
+
+        @Override
+        public String clientName() {
+
+            return "Priming";
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package software.amazon.fms.policy.helpers;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Client-side token bucket limiting the rate of requests made to a single FMS operation.
+ */
+class TokenBucket {
+
+    /** Nanoseconds it takes to add a token to the bucket. */
+    private final double nanosPerToken;
+
+    /** Maximum number of tokens the bucket holds, i.e. the burst of requests allowed after an idle period. */
+    private final double capacity;
+
+    /** Tokens currently in the bucket, negative when requests are queued waiting for tokens. */
+    private double tokens;
+
+    /** Time of the last refill, in nanoseconds. */
+    private long lastRefillNanos;
+
+    /**
+     * Create a full token bucket.
+     * @param tokensPerSecond Sustained rate of requests allowed.
+     * @param capacity Burst of requests allowed.
+     * @param nowNanos Current time in nanoseconds.
+     */
+    TokenBucket(final double tokensPerSecond, final int capacity, final long nowNanos) {
+
+        this.nanosPerToken = TimeUnit.SECONDS.toNanos(1) / tokensPerSecond;
+        this.capacity = capacity;
+        this.tokens = capacity;
+        this.lastRefillNanos = nowNanos;
+    }
+
+    /**
+     * Take a token from the bucket, borrowing against future refills if it is empty.
+     * @param nowNanos Current time in nanoseconds.
+     * @return Nanoseconds to wait before the token may be used, 0 if it may be used immediately.
+     */
+    synchronized long take(final long nowNanos) {
+
+        // refill the bucket for the time elapsed since the last take
+        tokens = Math.min(capacity, tokens + (nowNanos - lastRefillNanos) / nanosPerToken);
+        lastRefillNanos = nowNanos;
+
+        // take a token and wait for the refill if the bucket was empty
+        tokens -= 1;
+        return tokens >= 0 ? 0 : (long) Math.ceil(-tokens * nanosPerToken);
+    }
+
+    /**
+     * Return a token that was taken but not used.
+     */
+    synchronized void giveBack() {
+
+        tokens = Math.min(capacity, tokens + 1);
+    }
+}
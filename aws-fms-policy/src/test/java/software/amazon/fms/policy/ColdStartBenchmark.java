@@ -0,0 +1,185 @@
+package software.amazon.fms.policy;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import software.amazon.awssdk.services.fms.FmsClient;
+import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.Logger;
+import software.amazon.cloudformation.proxy.LoggerProxy;
+import software.amazon.cloudformation.proxy.OperationStatus;
+import software.amazon.cloudformation.proxy.ProgressEvent;
+import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+import software.amazon.cloudformation.resource.Serializer;
+import software.amazon.fms.policy.helpers.InMemoryFmsClient;
+import software.amazon.fms.policy.helpers.LocalFmsEndpoint;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Cold start of the policy handlers with and without an AppCDS archive of the classes they load. The archive is
+ * trained by running SnapshotPriming from the handler jar alone, so that it is valid for the classpath the handlers
+ * run with. The benchmark starts fresh JVMs on that classpath followed by the test classes, with and without the
+ * archive, each making a Create against the in-memory FMS stand-in mirrored onto a local endpoint, and reports the
+ * median time from JVM start to the first response. Run with: mvn package -P startup
+ */
+public class ColdStartBenchmark {
+
+    /** Number of fresh JVMs started with and without the archive. */
+    private static final int SAMPLES = 10;
+
+    private static final TypeReference<ResourceModel> MODEL_TYPE = new TypeReference<ResourceModel>() { };
+
+    public static void main(final String[] args) throws Exception {
+
+        if (args.length == 2 && "probe".equals(args[0])) {
+            probe(URI.create(args[1]));
+        } else if (args.length == 1) {
+            compare(Paths.get(args[0]));
+        } else {
+            System.err.println("usage: ColdStartBenchmark probe <endpoint> | <archive>");
+            System.exit(2);
+        }
+    }
+
+    /**
+     * Make a single Create invocation, the first one of a fresh JVM, and print the milliseconds since JVM start.
+     * @param endpoint Local FMS endpoint started by the benchmark.
+     */
+    private static void probe(final URI endpoint) throws IOException {
+
+        final long jvmStart = ManagementFactory.getRuntimeMXBean().getStartTime();
+        final FmsClient client = LocalFmsEndpoint.mirror(InMemoryFmsClient.builder().build(), endpoint);
+        invoke(new CreateHandler(client), InMemoryFmsClient.newProxy(), new Configuration(), new Serializer(),
+                policy(), new LoggerProxy());
+        System.out.println(System.currentTimeMillis() - jvmStart);
+    }
+
+    /**
+     * Assemble a Shield Advanced policy with the required parameters. The model is assembled here rather than by the
+     * sample helpers, whose dependencies are not in the minimized jar.
+     * @return The policy.
+     */
+    private static ResourceModel policy() {
+
+        return ResourceModel.builder()
+                .policyName("cold-start-SHIELD_ADVANCED")
+                .excludeResourceTags(false)
+                .remediationEnabled(false)
+                .resourceType("AWS::ElasticLoadBalancingV2::LoadBalancer")
+                .securityServicePolicyData(SecurityServicePolicyData.builder()
+                        .managedServiceData("{\"type\":\"SHIELD_ADVANCED\"}")
+                        .type("SHIELD_ADVANCED")
+                        .build())
+                .tags(Collections.singletonList(PolicyTag.builder().key("created").value("value").build()))
+                .build();
+    }
+
+    /**
+     * Invoke a handler the way the handler wrapper does, deserializing the desired model and serializing the event.
+     */
+    private static ProgressEvent<ResourceModel, CallbackContext> invoke(
+            final PolicyHandler<?> handler,
+            final AmazonWebServicesClientProxy proxy,
+            final Configuration configuration,
+            final Serializer serializer,
+            final ResourceModel model,
+            final Logger logger) throws IOException {
+
+        final ResourceModel desiredModel = serializer.deserialize(serializer.serialize(model), MODEL_TYPE);
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(desiredModel)
+                .desiredResourceTags(configuration.resourceDefinedTags(desiredModel))
+                .awsPartition(InMemoryFmsClient.PARTITION)
+                .region(InMemoryFmsClient.REGION)
+                .awsAccountId(InMemoryFmsClient.ACCOUNT_ID)
+                .build();
+        final ProgressEvent<ResourceModel, CallbackContext> event =
+                handler.handleRequest(proxy, request, null, logger);
+        serializer.serialize(event);
+        if (event.getStatus() != OperationStatus.SUCCESS) {
+            throw new IllegalStateException(String.format("%s failed: %s", handler.getClass().getSimpleName(),
+                    event.getMessage()));
+        }
+        return event;
+    }
+
+    /**
+     * Start fresh JVMs probing the cold start, alternating between runs without and with the archive.
+     * @param archive AppCDS archive written by the training run.
+     */
+    private static void compare(final Path archive) throws IOException, InterruptedException {
+
+        if (!Files.isRegularFile(archive)) {
+            System.err.printf("no AppCDS archive at %s, run the training first%n", archive);
+            System.exit(1);
+        }
+
+        try (LocalFmsEndpoint endpoint = LocalFmsEndpoint.start()) {
+            final List<Long> withoutArchive = new ArrayList<>();
+            final List<Long> withArchive = new ArrayList<>();
+            for (int i = 0; i < SAMPLES; i++) {
+                withoutArchive.add(runProbe(endpoint.getUri(), null));
+                withArchive.add(runProbe(endpoint.getUri(), archive));
+            }
+
+            final long medianWithout = median(withoutArchive);
+            final long medianWith = median(withArchive);
+            System.out.println("archive                     first response (ms, median)");
+            System.out.printf("%-27s %d%n", "none", medianWithout);
+            System.out.printf("%-27s %d%n", archive.getFileName(), medianWith);
+            System.out.printf("cold start reduced by %d%%%n", 100 * (medianWithout - medianWith) / medianWithout);
+        }
+    }
+
+    /**
+     * Start a fresh JVM making a single Create invocation.
+     * @param endpoint Local FMS endpoint.
+     * @param archive AppCDS archive to start the JVM with, or null to start it without.
+     * @return The milliseconds from JVM start until the first response.
+     */
+    private static long runProbe(final URI endpoint, final Path archive) throws IOException, InterruptedException {
+
+        final List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        if (archive != null) {
+            command.add("-XX:SharedArchiveFile=" + archive);
+        }
+        command.addAll(Arrays.asList(
+                "-classpath", System.getProperty("java.class.path"),
+                ColdStartBenchmark.class.getName(),
+                "probe",
+                endpoint.toString()));
+        final Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+
+        final List<String> output = new ArrayList<>();
+        try (BufferedReader lines = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = lines.readLine()) != null) {
+                output.add(line);
+            }
+        }
+        if (process.waitFor() != 0 || output.isEmpty()) {
+            throw new IllegalStateException("cold start probe failed: " + String.join("\n", output));
+        }
+        return Long.parseLong(output.get(output.size() - 1).trim());
+    }
+
+    private static long median(final List<Long> samples) {
+
+        final List<Long> sorted = new ArrayList<>(samples);
+        Collections.sort(sorted);
+        return sorted.get(sorted.size() / 2);
+    }
+}
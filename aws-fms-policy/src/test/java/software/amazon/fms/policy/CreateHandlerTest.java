@@ -30,6 +30,8 @@ import software.amazon.cloudformation.proxy.Logger;
 import software.amazon.cloudformation.proxy.OperationStatus;
 import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+import software.amazon.fms.policy.helpers.AllocationBudget;
+import software.amazon.fms.policy.helpers.ApiCallBudget;
 import software.amazon.fms.policy.helpers.FmsSampleHelper;
 import software.amazon.fms.policy.helpers.CfnSampleHelper;
 
@@ -42,6 +44,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -106,6 +109,12 @@ class CreateHandlerTest {
                 FmsSampleHelper.samplePutPolicyRequiredParametersRequest(false, false, false)
         );
 
+        // verify the api call budget
+        ApiCallBudget.budget()
+                .allow("PutPolicy", 1)
+                .total(1)
+                .assertWithin(proxy);
+
         // assertions
         assertThat(response).isNotNull();
         assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
@@ -322,6 +331,38 @@ class CreateHandlerTest {
         assertThat(response.getErrorCode()).isNull();
     }
 
+    @Test
+    void handleRequestLargeOrganizationWithinAllocationBudget() {
+        final List<String> ouList = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            ouList.add(String.format("ou-0000-%08d", i));
+        }
+
+        // stub the response for the create request
+        final PutPolicyResponse describeResponse = FmsSampleHelper.samplePutPolicyAllParametersResponse(ouList);
+        doReturn(describeResponse)
+                .when(proxy)
+                .injectCredentialsAndInvokeV2(
+                        ArgumentMatchers.isA(PutPolicyRequest.class),
+                        ArgumentMatchers.any()
+                );
+
+        // model the pre-request resource state
+        final ResourceModel requestModel = CfnSampleHelper.sampleAllParametersResourceModel(false, false, false, ouList);
+
+        // create the create request and send it, measuring the allocations of the handler
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(requestModel)
+                .build();
+        final ProgressEvent<ResourceModel, CallbackContext> response = AllocationBudget.megabytes(2)
+                .assertWithin(() -> handler.handleRequest(proxy, request, null, message -> { }));
+
+        // assertions
+        assertThat(response).isNotNull();
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getResourceModel().getIncludeMap().getORGUNIT()).isEqualTo(ouList);
+    }
+
     @Test
     void handlerRequestPolicyTags() {
 
@@ -358,6 +399,12 @@ class CreateHandlerTest {
                 FmsSampleHelper.samplePutPolicyRequiredParametersRequest(false, true, false)
         );
 
+        // verify the api call budget
+        ApiCallBudget.budget()
+                .allow("PutPolicy", 1)
+                .total(1)
+                .assertWithin(proxy);
+
         // assertions
         assertThat(response).isNotNull();
         assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
@@ -368,6 +415,59 @@ class CreateHandlerTest {
         assertThat(response.getErrorCode()).isNull();
     }
 
+    @Test
+    void handleRequestInvalidManagedServiceDataFailsBeforeCreate() {
+
+        // model a policy whose managed service data does not match its type
+        final ResourceModel requestModel = CfnSampleHelper.sampleRequiredParametersResourceModel(false, false, false);
+        requestModel.getSecurityServicePolicyData().setManagedServiceData("{\"type\":\"WAFV2\"}");
+
+        // create the create request and send it
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(requestModel)
+                .build();
+        final ProgressEvent<ResourceModel, CallbackContext> response =
+                handler.handleRequest(proxy, request, null, logger);
+
+        // verify no request was made
+        verify(proxy, never()).injectCredentialsAndInvokeV2(ArgumentMatchers.any(), ArgumentMatchers.any());
+
+        // assertions
+        assertThat(response).isNotNull();
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.FAILED);
+        assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.InvalidRequest);
+        assertThat(response.getMessage()).isEqualTo("ManagedServiceData.type must be SHIELD_ADVANCED");
+    }
+
+    @Test
+    void handleRequestSchemaViolationsFailBeforeCreate() {
+
+        // model a policy violating the resource schema in several places, and its managed service data its type
+        final ResourceModel requestModel = CfnSampleHelper.sampleAllParametersResourceModel(false, true, false);
+        requestModel.setPolicyName("TEST!");
+        requestModel.setIncludeMap(IEMap.builder().aCCOUNT(Arrays.asList("000000000000", "0000")).build());
+        requestModel.getSecurityServicePolicyData().setManagedServiceData("{\"type\":\"WAFV2\"}");
+
+        // create the create request and send it
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(requestModel)
+                .build();
+        final ProgressEvent<ResourceModel, CallbackContext> response =
+                handler.handleRequest(proxy, request, null, logger);
+
+        // verify no request was made
+        verify(proxy, never()).injectCredentialsAndInvokeV2(ArgumentMatchers.any(), ArgumentMatchers.any());
+
+        // assertions
+        assertThat(response).isNotNull();
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.FAILED);
+        assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.InvalidRequest);
+        assertThat(response.getMessage()).isEqualTo(String.join("; ",
+                "IncludeMap.ACCOUNT[1] must be at least 12 characters long",
+                "PolicyName must match pattern ^([a-zA-Z0-9_.:/=+\\-@\\s]+)$",
+                "ManagedServiceData.type must be SHIELD_ADVANCED"));
+    }
+
     @Test
     void handleRequestResourceNotFoundException() {
 
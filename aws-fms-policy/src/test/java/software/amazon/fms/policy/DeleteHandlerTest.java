@@ -21,6 +21,7 @@ import software.amazon.cloudformation.proxy.Logger;
 import software.amazon.cloudformation.proxy.OperationStatus;
 import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+import software.amazon.fms.policy.helpers.ApiCallBudget;
 import software.amazon.fms.policy.helpers.CfnSampleHelper;
 import software.amazon.fms.policy.helpers.FmsSampleHelper;
 
@@ -88,6 +89,12 @@ class DeleteHandlerTest {
                 FmsSampleHelper.sampleDeletePolicyRequest()
         );
 
+        // verify the api call budget
+        ApiCallBudget.budget()
+                .allow("DeletePolicy", 1)
+                .total(1)
+                .assertWithin(proxy);
+
         // assertions
         assertThat(response).isNotNull();
         assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
@@ -0,0 +1,272 @@
+package software.amazon.fms.policy;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.services.fms.FmsAsyncClient;
+import software.amazon.awssdk.services.fms.model.InvalidInputException;
+import software.amazon.awssdk.services.fms.model.PutPolicyRequest;
+import software.amazon.awssdk.services.fms.model.PutPolicyResponse;
+import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.HandlerErrorCode;
+import software.amazon.cloudformation.proxy.Logger;
+import software.amazon.cloudformation.proxy.OperationStatus;
+import software.amazon.cloudformation.proxy.ProgressEvent;
+import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+import software.amazon.fms.policy.helpers.CfnSampleHelper;
+import software.amazon.fms.policy.helpers.InMemoryFmsAsyncClient;
+import software.amazon.fms.policy.helpers.InMemoryFmsClient;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Runs the handlers through the lifecycle of a policy against the in-memory FMS stand-in, rather than against
+ * responses stubbed call by call.
+ */
+@ExtendWith(MockitoExtension.class)
+class HandlerLifecycleTest {
+
+    @Mock
+    private Logger logger;
+
+    private Configuration configuration;
+    private AmazonWebServicesClientProxy proxy;
+
+    @BeforeEach
+    void setup() {
+
+        logger = mock(Logger.class);
+        configuration = new Configuration();
+        proxy = InMemoryFmsClient.newProxy();
+    }
+
+    @Test
+    void policyLifecycle() {
+
+        final InMemoryFmsClient client = InMemoryFmsClient.builder().build();
+
+        // create the policy with tag 1
+        final ResourceModel createModel = CfnSampleHelper.sampleRequiredParametersResourceModel(false, true, false);
+        final ProgressEvent<ResourceModel, CallbackContext> created = new CreateHandler(client)
+                .handleRequest(proxy, request(createModel), null, logger);
+        assertThat(created.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        final String policyId = created.getResourceModel().getId();
+        assertThat(client.getPolicies()).containsOnlyKeys(policyId);
+
+        // update the policy to replace tag 1 by tag 2
+        final ResourceModel updateModel = CfnSampleHelper.sampleRequiredParametersResourceModel(false, false, true);
+        updateModel.setId(policyId);
+        final ProgressEvent<ResourceModel, CallbackContext> updated = new UpdateHandler(client)
+                .handleRequest(proxy, request(updateModel), null, logger);
+        assertThat(updated.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+
+        // only the tags changed, so the policy itself is not updated
+        assertThat(client.getPolicies().get(policyId).policyUpdateToken()).isEqualTo("1");
+
+        // read the policy back with its tags
+        final ProgressEvent<ResourceModel, CallbackContext> read = new ReadHandler(client)
+                .handleRequest(proxy, request(bareModel(policyId)), null, logger);
+        assertThat(read.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(read.getResourceModel().getId()).isEqualTo(policyId);
+        assertThat(read.getResourceModel().getTags())
+                .isEqualTo(CfnSampleHelper.sampleRequiredParametersResourceModel(false, false, true).getTags());
+
+        // list the policies
+        final ProgressEvent<ResourceModel, CallbackContext> listed = new ListHandler(client)
+                .handleRequest(proxy, request(CfnSampleHelper.sampleBareResourceModel(false)), null, logger);
+        assertThat(listed.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(listed.getResourceModels()).extracting(ResourceModel::getId).containsExactly(policyId);
+
+        // delete the policy, it can no longer be read
+        final ProgressEvent<ResourceModel, CallbackContext> deleted = new DeleteHandler(client)
+                .handleRequest(proxy, request(bareModel(policyId)), null, logger);
+        assertThat(deleted.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        final ProgressEvent<ResourceModel, CallbackContext> readDeleted = new ReadHandler(client)
+                .handleRequest(proxy, request(bareModel(policyId)), null, logger);
+        assertThat(readDeleted.getErrorCode()).isEqualTo(HandlerErrorCode.NotFound);
+
+        // assertions
+        assertThat(client.getPolicies()).isEmpty();
+        assertThat(client.getCallCounts())
+                .containsEntry("PutPolicy", 1L)
+                .containsEntry("GetPolicy", 3L)
+                .containsEntry("UntagResource", 1L)
+                .containsEntry("TagResource", 1L);
+    }
+
+    @Test
+    void asyncUpdateWithLatency() {
+
+        final InMemoryFmsClient client = InMemoryFmsClient.builder()
+                .uniformLatency(Duration.ofMillis(5), Duration.ofMillis(20))
+                .build();
+        final ProgressEvent<ResourceModel, CallbackContext> created = new CreateHandler(client).handleRequest(
+                proxy,
+                request(CfnSampleHelper.sampleRequiredParametersResourceModel(false, true, false)),
+                null,
+                logger);
+
+        // update the policy on the asynchronous path, concurrently with the tag reconciliation
+        final ResourceModel updateModel = CfnSampleHelper.sampleRequiredParametersResourceModel(false, false, true);
+        updateModel.setId(created.getResourceModel().getId());
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(updateModel)
+                .desiredResourceTags(configuration.resourceDefinedTags(updateModel))
+                .awsPartition(InMemoryFmsClient.PARTITION)
+                .region(InMemoryFmsClient.REGION)
+                .awsAccountId(InMemoryFmsClient.ACCOUNT_ID)
+                .build();
+        final UpdateHandler handler = new UpdateHandler(client, new InMemoryFmsAsyncClient(client));
+        final ProgressEvent<ResourceModel, CallbackContext> updated =
+                handler.handleRequest(proxy, request, null, logger);
+
+        // assertions
+        assertThat(updated.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(client.getPolicies().get(updateModel.getId()).policyUpdateToken()).isEqualTo("1");
+    }
+
+    @Test
+    void asyncExecutionEnabledByEnvironment() {
+
+        final InMemoryFmsClient client = InMemoryFmsClient.builder()
+                .uniformLatency(Duration.ofMillis(5), Duration.ofMillis(20))
+                .build();
+        final ProgressEvent<ResourceModel, CallbackContext> created = new CreateHandler(client).handleRequest(
+                proxy,
+                request(CfnSampleHelper.sampleRequiredParametersResourceModel(false, true, false)),
+                null,
+                logger);
+
+        // the async client is only built when the environment enables the asynchronous path
+        final AtomicInteger asyncClientsBuilt = new AtomicInteger();
+        final Supplier<FmsAsyncClient> asyncClient = () -> {
+            asyncClientsBuilt.incrementAndGet();
+            return new InMemoryFmsAsyncClient(client);
+        };
+        new UpdateHandler(client, asyncClient, Collections.emptyMap());
+        assertThat(asyncClientsBuilt).hasValue(0);
+
+        // update the policy description and replace tag 1 by tag 2 on the asynchronous path
+        final ResourceModel updateModel = CfnSampleHelper.sampleRequiredParametersResourceModel(false, false, true);
+        updateModel.setId(created.getResourceModel().getId());
+        updateModel.setPolicyDescription("updated");
+        final UpdateHandler handler = new UpdateHandler(
+                client,
+                asyncClient,
+                Collections.singletonMap(PolicyHandler.ASYNC_EXECUTION_ENV, "true"));
+        final ProgressEvent<ResourceModel, CallbackContext> updated =
+                handler.handleRequest(proxy, requestWithPolicyArn(updateModel), null, logger);
+
+        // read the policy back with its tags
+        final ProgressEvent<ResourceModel, CallbackContext> read = new ReadHandler(client)
+                .handleRequest(proxy, request(bareModel(updateModel.getId())), null, logger);
+
+        // assertions
+        assertThat(asyncClientsBuilt).hasValue(1);
+        assertThat(updated.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(client.getPolicies().get(updateModel.getId()).policyUpdateToken()).isEqualTo("2");
+        assertThat(read.getResourceModel().getPolicyDescription()).isEqualTo("updated");
+        assertThat(read.getResourceModel().getTags()).isEqualTo(updateModel.getTags());
+    }
+
+    @Test
+    void asyncUpdateRejectedLeavesTagsUntouched() {
+
+        final InMemoryFmsClient client = InMemoryFmsClient.builder().build();
+        final ProgressEvent<ResourceModel, CallbackContext> created = new CreateHandler(client).handleRequest(
+                proxy,
+                request(CfnSampleHelper.sampleRequiredParametersResourceModel(false, true, false)),
+                null,
+                logger);
+
+        // FMS rejects the update of the policy
+        final InMemoryFmsAsyncClient asyncClient = new InMemoryFmsAsyncClient(client) {
+            @Override
+            public CompletableFuture<PutPolicyResponse> putPolicy(final PutPolicyRequest request) {
+
+                return CompletableFuture.failedFuture(InvalidInputException.builder()
+                        .message("Rejected update")
+                        .build());
+            }
+        };
+
+        // update the policy description and replace tag 1 by tag 2 on the asynchronous path
+        final ResourceModel updateModel = CfnSampleHelper.sampleRequiredParametersResourceModel(false, false, true);
+        updateModel.setId(created.getResourceModel().getId());
+        updateModel.setPolicyDescription("updated");
+        final ProgressEvent<ResourceModel, CallbackContext> updated = new UpdateHandler(client, asyncClient)
+                .handleRequest(proxy, requestWithPolicyArn(updateModel), null, logger);
+
+        // read the policy back with its tags
+        final ProgressEvent<ResourceModel, CallbackContext> read = new ReadHandler(client)
+                .handleRequest(proxy, request(bareModel(updateModel.getId())), null, logger);
+
+        // assertions
+        assertThat(updated.getStatus()).isEqualTo(OperationStatus.FAILED);
+        assertThat(updated.getErrorCode()).isEqualTo(HandlerErrorCode.InvalidRequest);
+        assertThat(client.getCallCounts()).doesNotContainKeys("UntagResource", "TagResource");
+        assertThat(read.getResourceModel().getTags())
+                .isEqualTo(CfnSampleHelper.sampleRequiredParametersResourceModel(false, true, false).getTags());
+    }
+
+    @Test
+    void throttledCallsRetried() {
+
+        // throttle a third of the calls, the invoker retries them within its budget
+        final InMemoryFmsClient client = InMemoryFmsClient.builder()
+                .seed(42)
+                .throttleRate(0.3)
+                .build();
+        final ProgressEvent<ResourceModel, CallbackContext> created = new CreateHandler(client).handleRequest(
+                proxy,
+                request(CfnSampleHelper.sampleRequiredParametersResourceModel(false, true, false)),
+                null,
+                logger);
+        final ProgressEvent<ResourceModel, CallbackContext> read = new ReadHandler(client).handleRequest(
+                proxy,
+                request(bareModel(created.getResourceModel().getId())),
+                null,
+                logger);
+
+        // assertions
+        assertThat(created.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(read.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(client.getPolicies()).hasSize(1);
+    }
+
+    private static ResourceModel bareModel(final String policyId) {
+
+        return ResourceModel.builder().id(policyId).build();
+    }
+
+    private ResourceHandlerRequest<ResourceModel> request(final ResourceModel model) {
+
+        return ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(model)
+                .desiredResourceTags(configuration.resourceDefinedTags(model))
+                .build();
+    }
+
+    /**
+     * Assemble a request from which the handlers can derive the ARN of the policy, as the asynchronous path needs it.
+     */
+    private ResourceHandlerRequest<ResourceModel> requestWithPolicyArn(final ResourceModel model) {
+
+        return ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(model)
+                .desiredResourceTags(configuration.resourceDefinedTags(model))
+                .awsPartition(InMemoryFmsClient.PARTITION)
+                .region(InMemoryFmsClient.REGION)
+                .awsAccountId(InMemoryFmsClient.ACCOUNT_ID)
+                .build();
+    }
+}
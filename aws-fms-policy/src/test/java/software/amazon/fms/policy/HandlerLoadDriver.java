@@ -0,0 +1,141 @@
+package software.amazon.fms.policy;
+
+import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.Logger;
+import software.amazon.cloudformation.proxy.ProgressEvent;
+import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+import software.amazon.fms.policy.helpers.CfnSampleHelper;
+import software.amazon.fms.policy.helpers.InMemoryFmsClient;
+import software.amazon.fms.policy.helpers.LoadHarness;
+import software.amazon.fms.policy.helpers.WorkloadGenerator;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Drives thousands of concurrent Create, Read, Update, List and Delete invocations of the policy handlers against the
+ * in-memory FMS stand-in, and reports the throughput, latency, FMS API calls and heap usage of each action. The
+ * policies cycle through a plain Shield Advanced policy, a policy including thousands of accounts and a network ACL
+ * policy with full first and last entry lists, whose accounts and entries come from the {@link WorkloadGenerator}.
+ * Run with: mvn test-compile -P load-test [-Dload.invocations=2000] [-Dload.concurrency=64]
+ */
+public class HandlerLoadDriver {
+
+    /** Number of accounts in the include map of the large policies. */
+    private static final int INCLUDE_MAP_ACCOUNTS = 5000;
+
+    /** Invocations per List invocation of the other actions, a List invocation reads a page of policies. */
+    private static final int INVOCATIONS_PER_LIST = 10;
+
+    private static final WorkloadGenerator GENERATOR = new WorkloadGenerator(WorkloadGenerator.DEFAULT_SEED);
+    private static final List<String> ACCOUNTS = GENERATOR.accountIds(INCLUDE_MAP_ACCOUNTS);
+    private static final NetworkAclEntrySet NETWORK_ACL_ENTRY_SET = GENERATOR.networkAclEntrySet();
+
+    public static void main(final String[] args) {
+
+        final int invocations = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        final int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+
+        final InMemoryFmsClient client = InMemoryFmsClient.builder()
+                .seed(1)
+                .logNormalLatency(Duration.ofMillis(20), 0.5)
+                .throttleRate(0.01)
+                .build();
+        final AmazonWebServicesClientProxy proxy = InMemoryFmsClient.newProxy();
+        final Logger logger = message -> { };
+        final Configuration configuration = new Configuration();
+        final AtomicReferenceArray<String> policyIds = new AtomicReferenceArray<>(invocations);
+
+        final LoadHarness harness = new LoadHarness(concurrency, System.out);
+        System.out.printf("%d invocations per action, %d concurrent%n", invocations, concurrency);
+        harness.printHeader();
+        long failures = 0;
+
+        final CreateHandler createHandler = new CreateHandler(client);
+        failures += harness.run("Create", invocations, i -> {
+            final ResourceModel model = model(i, true);
+            final ProgressEvent<ResourceModel, CallbackContext> event =
+                    createHandler.handleRequest(proxy, request(configuration, model), null, logger);
+            if (event.getResourceModel() != null) {
+                policyIds.set(i, event.getResourceModel().getId());
+            }
+            return event;
+        }, client::getCallCounts);
+
+        final ReadHandler readHandler = new ReadHandler(client);
+        failures += harness.run("Read", invocations, i -> readHandler.handleRequest(
+                proxy,
+                request(configuration, ResourceModel.builder().id(policyIds.get(i)).build()),
+                null,
+                logger), client::getCallCounts);
+
+        final UpdateHandler updateHandler = new UpdateHandler(client);
+        failures += harness.run("Update", invocations, i -> {
+            final ResourceModel model = model(i, false);
+            model.setId(policyIds.get(i));
+            return updateHandler.handleRequest(proxy, request(configuration, model), null, logger);
+        }, client::getCallCounts);
+
+        final ListHandler listHandler = new ListHandler(client);
+        final int listInvocations = Math.max(1, invocations / INVOCATIONS_PER_LIST);
+        failures += harness.run("List", listInvocations, i -> listHandler.handleRequest(
+                proxy,
+                request(configuration, CfnSampleHelper.sampleBareResourceModel(false)),
+                null,
+                logger), client::getCallCounts);
+
+        final DeleteHandler deleteHandler = new DeleteHandler(client);
+        failures += harness.run("Delete", invocations, i -> deleteHandler.handleRequest(
+                proxy,
+                request(configuration, ResourceModel.builder().id(policyIds.get(i)).build()),
+                null,
+                logger), client::getCallCounts);
+
+        if (failures > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Assemble the policy of an invocation, cycling through the payload shapes.
+     * @param index Index of the invocation.
+     * @param created Whether the policy is the created or the updated one, the two have different tags.
+     * @return The policy.
+     */
+    private static ResourceModel model(final int index, final boolean created) {
+
+        final ResourceModel model;
+        switch (index % 3) {
+            case 1:
+                model = CfnSampleHelper.sampleAllParametersResourceModel(false, created, !created);
+                model.setExcludeMap(null);
+                model.setIncludeMap(IEMap.builder().aCCOUNT(ACCOUNTS).build());
+                break;
+            case 2:
+                model = CfnSampleHelper.sampleRequiredParametersResourceModelForNetworkAcl(false, created, !created);
+                final NetworkAclEntrySet entrySet = model.getSecurityServicePolicyData()
+                        .getPolicyOption()
+                        .getNetworkAclCommonPolicy()
+                        .getNetworkAclEntrySet();
+                entrySet.setFirstEntries(NETWORK_ACL_ENTRY_SET.getFirstEntries());
+                entrySet.setLastEntries(NETWORK_ACL_ENTRY_SET.getLastEntries());
+                break;
+            default:
+                model = CfnSampleHelper.sampleRequiredParametersResourceModel(false, created, !created);
+                break;
+        }
+        model.setPolicyName(String.format("load-test-%d", index));
+        return model;
+    }
+
+    private static ResourceHandlerRequest<ResourceModel> request(
+            final Configuration configuration,
+            final ResourceModel model) {
+
+        return ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(model)
+                .desiredResourceTags(configuration.resourceDefinedTags(model))
+                .build();
+    }
+}
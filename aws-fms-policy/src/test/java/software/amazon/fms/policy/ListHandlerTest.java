@@ -21,6 +21,7 @@ import software.amazon.cloudformation.proxy.Logger;
 import software.amazon.cloudformation.proxy.OperationStatus;
 import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+import software.amazon.fms.policy.helpers.ApiCallBudget;
 import software.amazon.fms.policy.helpers.CfnSampleHelper;
 import software.amazon.fms.policy.helpers.FmsSampleHelper;
 
@@ -92,6 +93,12 @@ public class ListHandlerTest {
                 .build();
 //        assertThat(captor.getValue()).isEqualTo(listPoliciesRequest);
 
+        // verify the api call budget
+        ApiCallBudget.budget()
+                .allow("ListPolicies", 1)
+                .total(1)
+                .assertWithin(proxy);
+
         // assertions
         assertThat(response).isNotNull();
         assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
@@ -141,6 +148,12 @@ public class ListHandlerTest {
                 .build();
 //        assertThat(captor.getValue()).isEqualTo(listPoliciesRequest);
 
+        // verify the api call budget
+        ApiCallBudget.budget()
+                .allow("ListPolicies", 1)
+                .total(1)
+                .assertWithin(proxy);
+
         // assertions
         assertThat(response).isNotNull();
         assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
@@ -3,6 +3,8 @@ package software.amazon.fms.policy;
 import org.mockito.ArgumentCaptor;
 import org.mockito.ArgumentMatchers;
 import org.mockito.Captor;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.services.fms.FmsAsyncClient;
 import software.amazon.awssdk.services.fms.FmsClient;
 import software.amazon.awssdk.services.fms.model.FmsRequest;
 import software.amazon.awssdk.services.fms.model.GetPolicyRequest;
@@ -18,21 +20,28 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.cloudformation.exceptions.CfnThrottlingException;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.HandlerErrorCode;
 import software.amazon.cloudformation.proxy.Logger;
 import software.amazon.cloudformation.proxy.OperationStatus;
 import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+import software.amazon.fms.policy.helpers.AllocationBudget;
+import software.amazon.fms.policy.helpers.ApiCallBudget;
 import software.amazon.fms.policy.helpers.FmsSampleHelper;
 import software.amazon.fms.policy.helpers.CfnSampleHelper;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -45,6 +54,9 @@ class ReadHandlerTest {
     @Mock
     private FmsClient client;
 
+    @Mock
+    private FmsAsyncClient asyncClient;
+
     @Mock
     private Logger logger;
 
@@ -104,6 +116,13 @@ class ReadHandlerTest {
                 FmsSampleHelper.sampleListTagsForResourceRequest()
         ));
 
+        // verify the api call budget
+        ApiCallBudget.budget()
+                .allow("GetPolicy", 1)
+                .allow("ListTagsForResource", 1)
+                .total(2)
+                .assertWithin(proxy);
+
         // assertions
         assertThat(response).isNotNull();
         assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
@@ -167,6 +186,45 @@ class ReadHandlerTest {
         assertThat(response.getErrorCode()).isNull();
     }
 
+    @Test
+    void handleRequestLargeOrganizationWithinAllocationBudget() {
+        final List<String> ouList = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            ouList.add(String.format("ou-0000-%08d", i));
+        }
+
+        // stub the response for the read request
+        final GetPolicyResponse describeResponse = FmsSampleHelper.sampleGetPolicyAllParametersResponse(ouList);
+        doReturn(describeResponse)
+                .when(proxy)
+                .injectCredentialsAndInvokeV2(
+                        ArgumentMatchers.isA(GetPolicyRequest.class),
+                        ArgumentMatchers.any()
+                );
+
+        // stub the response for the list tags request
+        final ListTagsForResourceResponse describeListResponse =
+                FmsSampleHelper.sampleListTagsForResourceResponse(false, false);
+        doReturn(describeListResponse)
+                .when(proxy)
+                .injectCredentialsAndInvokeV2(
+                        ArgumentMatchers.isA(ListTagsForResourceRequest.class),
+                        ArgumentMatchers.any()
+                );
+
+        // create the read request and send it, measuring the allocations of the handler
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(CfnSampleHelper.sampleBareResourceModel(true))
+                .build();
+        final ProgressEvent<ResourceModel, CallbackContext> response = AllocationBudget.megabytes(2)
+                .assertWithin(() -> handler.handleRequest(proxy, request, null, message -> { }));
+
+        // assertions
+        assertThat(response).isNotNull();
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getResourceModel().getIncludeMap().getORGUNIT()).isEqualTo(ouList);
+    }
+
     @Test
     void handleRequestRetrievePolicyTags() {
 
@@ -210,6 +268,13 @@ class ReadHandlerTest {
                 FmsSampleHelper.sampleListTagsForResourceRequest()
         ));
 
+        // verify the api call budget
+        ApiCallBudget.budget()
+                .allow("GetPolicy", 1)
+                .allow("ListTagsForResource", 1)
+                .total(2)
+                .assertWithin(proxy);
+
         // assertions
         assertThat(response).isNotNull();
         assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
@@ -379,4 +444,262 @@ class ReadHandlerTest {
         assertThat(response.getResourceModels()).isNull();
         assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.ServiceInternalError);
     }
+
+    @Test
+    void handleRequestThrottlingException() {
+
+        // mock the retry budget running out on throttled requests
+        doThrow(new CfnThrottlingException("GetPolicy"))
+                .when(proxy)
+                .injectCredentialsAndInvokeV2(
+                        ArgumentMatchers.isA(GetPolicyRequest.class),
+                        ArgumentMatchers.any()
+                );
+
+        // create the read request and send it
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(CfnSampleHelper.sampleBareResourceModel(true))
+                .build();
+        final ProgressEvent<ResourceModel, CallbackContext> response =
+                handler.handleRequest(proxy, request, null, logger);
+
+        // assertions
+        assertThat(response).isNotNull();
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.FAILED);
+        assertThat(response.getResourceModel()).isNull();
+        assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.Throttling);
+    }
+
+    @Test
+    void handleRequestNetworkFailure() {
+
+        // mock a non transient SdkClientException from the SDK
+        doThrow(SdkClientException.builder().message("Unable to execute HTTP request").build())
+                .when(proxy)
+                .injectCredentialsAndInvokeV2(
+                        ArgumentMatchers.isA(GetPolicyRequest.class),
+                        ArgumentMatchers.any()
+                );
+
+        // create the read request and send it
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(CfnSampleHelper.sampleBareResourceModel(true))
+                .build();
+        final ProgressEvent<ResourceModel, CallbackContext> response =
+                handler.handleRequest(proxy, request, null, logger);
+
+        // verify the request was not retried
+        verify(proxy, times(1)).injectCredentialsAndInvokeV2(
+                ArgumentMatchers.isA(GetPolicyRequest.class),
+                ArgumentMatchers.any()
+        );
+
+        // assertions
+        assertThat(response).isNotNull();
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.FAILED);
+        assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.NetworkFailure);
+    }
+
+    @Test
+    void handleRequestAsyncRetrievePolicyTags() {
+
+        // stub the responses for the concurrent read and list tags requests
+        doReturn(CompletableFuture.completedFuture(FmsSampleHelper.sampleGetPolicyRequiredParametersResponse()))
+                .when(proxy)
+                .injectCredentialsAndInvokeV2Async(
+                        ArgumentMatchers.isA(GetPolicyRequest.class),
+                        ArgumentMatchers.any()
+                );
+        doReturn(CompletableFuture.completedFuture(FmsSampleHelper.sampleListTagsForResourceResponse(true, false)))
+                .when(proxy)
+                .injectCredentialsAndInvokeV2Async(
+                        ArgumentMatchers.isA(ListTagsForResourceRequest.class),
+                        ArgumentMatchers.any()
+                );
+
+        // model the pre-request and post-request resource state
+        final ResourceModel requestModel = CfnSampleHelper.sampleBareResourceModel(true);
+        final ResourceModel expectedModel = CfnSampleHelper.sampleRequiredParametersResourceModel(true, true, false);
+
+        // create the read request and send it
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(requestModel)
+                .awsPartition("aws")
+                .region("us-east-1")
+                .awsAccountId(CfnSampleHelper.sampleAccountId)
+                .build();
+        final ProgressEvent<ResourceModel, CallbackContext> response =
+                new ReadHandler(client, asyncClient).handleRequest(proxy, request, null, logger);
+
+        // verify stub calls
+        verify(proxy, times(2)).injectCredentialsAndInvokeV2Async(
+                captor.capture(),
+                ArgumentMatchers.any()
+        );
+        assertThat(captor.getAllValues()).isEqualTo(Arrays.asList(
+                FmsSampleHelper.sampleGetPolicyRequest(),
+                FmsSampleHelper.sampleListTagsForResourceRequest()
+        ));
+        verify(proxy, never()).injectCredentialsAndInvokeV2(ArgumentMatchers.any(), ArgumentMatchers.any());
+
+        // verify the api call budget
+        ApiCallBudget.budget()
+                .allow("GetPolicy", 1)
+                .allow("ListTagsForResource", 1)
+                .total(2)
+                .assertWithin(proxy);
+
+        // assertions
+        assertThat(response).isNotNull();
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getCallbackContext()).isNull();
+        assertThat(response.getCallbackDelaySeconds()).isEqualTo(0);
+        assertThat(response.getResourceModel()).isEqualTo(expectedModel);
+        assertThat(response.getResourceModels()).isNull();
+        assertThat(response.getErrorCode()).isNull();
+    }
+
+    @Test
+    void handleRequestAsyncResourceNotFoundException() {
+
+        // mock a ResourceNotFoundException from both concurrent requests
+        final CompletableFuture<GetPolicyResponse> getPolicyFuture = new CompletableFuture<>();
+        getPolicyFuture.completeExceptionally(ResourceNotFoundException.builder().build());
+        doReturn(getPolicyFuture)
+                .when(proxy)
+                .injectCredentialsAndInvokeV2Async(
+                        ArgumentMatchers.isA(GetPolicyRequest.class),
+                        ArgumentMatchers.any()
+                );
+        final CompletableFuture<ListTagsForResourceResponse> listTagsFuture = new CompletableFuture<>();
+        listTagsFuture.completeExceptionally(InvalidOperationException.builder().build());
+        doReturn(listTagsFuture)
+                .when(proxy)
+                .injectCredentialsAndInvokeV2Async(
+                        ArgumentMatchers.isA(ListTagsForResourceRequest.class),
+                        ArgumentMatchers.any()
+                );
+
+        // create the read request and send it
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(CfnSampleHelper.sampleBareResourceModel(true))
+                .awsPartition("aws")
+                .region("us-east-1")
+                .awsAccountId(CfnSampleHelper.sampleAccountId)
+                .build();
+        final ProgressEvent<ResourceModel, CallbackContext> response =
+                new ReadHandler(client, asyncClient).handleRequest(proxy, request, null, logger);
+
+        // assertions, the read failure takes precedence over the list tags failure
+        assertThat(response).isNotNull();
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.FAILED);
+        assertThat(response.getResourceModel()).isNull();
+        assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.NotFound);
+    }
+
+    @Test
+    void handleRequestAsyncWithoutPolicyArnRunsSynchronously() {
+
+        // stub the response for the read request
+        doReturn(FmsSampleHelper.sampleGetPolicyRequiredParametersResponse())
+                .when(proxy)
+                .injectCredentialsAndInvokeV2(
+                        ArgumentMatchers.isA(GetPolicyRequest.class),
+                        ArgumentMatchers.any()
+                );
+
+        // stub the response for the list tags request
+        doReturn(FmsSampleHelper.sampleListTagsForResourceResponse(false, false))
+                .when(proxy)
+                .injectCredentialsAndInvokeV2(
+                        ArgumentMatchers.isA(ListTagsForResourceRequest.class),
+                        ArgumentMatchers.any()
+                );
+
+        // create the read request without the account and region of the policy and send it
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(CfnSampleHelper.sampleBareResourceModel(true))
+                .build();
+        final ProgressEvent<ResourceModel, CallbackContext> response =
+                new ReadHandler(client, asyncClient).handleRequest(proxy, request, null, logger);
+
+        // verify stub calls
+        verify(proxy, times(2)).injectCredentialsAndInvokeV2(
+                captor.capture(),
+                ArgumentMatchers.any()
+        );
+        verify(proxy, never()).injectCredentialsAndInvokeV2Async(ArgumentMatchers.any(), ArgumentMatchers.any());
+
+        // assertions
+        assertThat(response).isNotNull();
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getErrorCode()).isNull();
+    }
+
+    @Test
+    void handleRequestKeepsEquivalentManagedServiceData() {
+
+        // FMS returns the managed service data of the template reformatted and with its defaults
+        final String templateManagedServiceData = "{ \"type\": \"SHIELD_ADVANCED\" }";
+        final String fmsManagedServiceData = "{\"automaticResponseConfiguration\":"
+                + "{\"automaticResponseStatus\":\"DISABLED\"},\"type\":\"SHIELD_ADVANCED\"}";
+
+        // assertions
+        assertThat(readManagedServiceData(templateManagedServiceData, fmsManagedServiceData))
+                .isEqualTo(templateManagedServiceData);
+    }
+
+    @Test
+    void handleRequestReportsManagedServiceDataChangedOutOfBand() {
+
+        // FMS returns managed service data changed outside of CloudFormation
+        final String templateManagedServiceData = "{ \"type\": \"SHIELD_ADVANCED\" }";
+        final String fmsManagedServiceData = "{\"automaticResponseConfiguration\":"
+                + "{\"automaticResponseStatus\":\"ENABLED\"},\"type\":\"SHIELD_ADVANCED\"}";
+
+        // assertions
+        assertThat(readManagedServiceData(templateManagedServiceData, fmsManagedServiceData))
+                .isEqualTo(fmsManagedServiceData);
+    }
+
+    /**
+     * Read a policy whose managed service data in FMS differs in its string from the one of the request model.
+     * @return The managed service data of the resource model read.
+     */
+    private String readManagedServiceData(final String requestManagedServiceData, final String fmsManagedServiceData) {
+
+        // stub the responses for the read and list tags requests
+        final GetPolicyResponse sampleResponse = FmsSampleHelper.sampleGetPolicyRequiredParametersResponse();
+        final GetPolicyResponse describeResponse = sampleResponse.toBuilder()
+                .policy(sampleResponse.policy().toBuilder()
+                        .securityServicePolicyData(sampleResponse.policy().securityServicePolicyData().toBuilder()
+                                .managedServiceData(fmsManagedServiceData)
+                                .build())
+                        .build())
+                .build();
+        doReturn(describeResponse)
+                .when(proxy)
+                .injectCredentialsAndInvokeV2(
+                        ArgumentMatchers.isA(GetPolicyRequest.class),
+                        ArgumentMatchers.any()
+                );
+        doReturn(FmsSampleHelper.sampleListTagsForResourceResponse(false, false))
+                .when(proxy)
+                .injectCredentialsAndInvokeV2(
+                        ArgumentMatchers.isA(ListTagsForResourceRequest.class),
+                        ArgumentMatchers.any()
+                );
+
+        // create the read request and send it
+        final ResourceModel requestModel = CfnSampleHelper.sampleRequiredParametersResourceModel(true, false, false);
+        requestModel.getSecurityServicePolicyData().setManagedServiceData(requestManagedServiceData);
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(requestModel)
+                .build();
+        final ProgressEvent<ResourceModel, CallbackContext> response =
+                handler.handleRequest(proxy, request, null, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        return response.getResourceModel().getSecurityServicePolicyData().getManagedServiceData();
+    }
 }
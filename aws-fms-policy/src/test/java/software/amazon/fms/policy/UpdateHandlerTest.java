@@ -3,6 +3,7 @@ package software.amazon.fms.policy;
 import org.mockito.ArgumentCaptor;
 import org.mockito.ArgumentMatchers;
 import org.mockito.Captor;
+import software.amazon.awssdk.services.fms.FmsAsyncClient;
 import software.amazon.awssdk.services.fms.FmsClient;
 import software.amazon.awssdk.services.fms.model.FmsRequest;
 import software.amazon.awssdk.services.fms.model.GetPolicyRequest;
@@ -32,18 +33,27 @@ import software.amazon.cloudformation.proxy.Logger;
 import software.amazon.cloudformation.proxy.OperationStatus;
 import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+import software.amazon.fms.policy.helpers.AllocationBudget;
+import software.amazon.fms.policy.helpers.ApiCallBudget;
 import software.amazon.fms.policy.helpers.FmsSampleHelper;
 import software.amazon.fms.policy.helpers.CfnSampleHelper;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -56,6 +66,9 @@ class UpdateHandlerTest {
     @Mock
     private FmsClient client;
 
+    @Mock
+    private FmsAsyncClient asyncClient;
+
     @Mock
     private Logger logger;
 
@@ -79,7 +92,8 @@ class UpdateHandlerTest {
     void handleRequestRequiredParametersSuccess() {
 
         // stub the response for the read request
-        final GetPolicyResponse describeGetResponse = FmsSampleHelper.sampleGetPolicyRequiredParametersResponse();
+        final GetPolicyResponse describeGetResponse =
+                stale(FmsSampleHelper.sampleGetPolicyRequiredParametersResponse());
         doReturn(describeGetResponse)
                 .when(proxy)
                 .injectCredentialsAndInvokeV2(
@@ -127,6 +141,14 @@ class UpdateHandlerTest {
                 FmsSampleHelper.sampleListTagsForResourceRequest()
         ));
 
+        // verify the api call budget
+        ApiCallBudget.budget()
+                .allow("GetPolicy", 1)
+                .allow("PutPolicy", 1)
+                .allow("ListTagsForResource", 1)
+                .total(3)
+                .assertWithin(proxy);
+
         // assertions
         assertThat(response).isNotNull();
         assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
@@ -141,7 +163,7 @@ class UpdateHandlerTest {
     void handleRequestAllParametersSuccess() {
 
         // stub the response for the read request
-        final GetPolicyResponse describeGetResponse = FmsSampleHelper.sampleGetPolicyAllParametersResponse();
+        final GetPolicyResponse describeGetResponse = stale(FmsSampleHelper.sampleGetPolicyAllParametersResponse());
         doReturn(describeGetResponse)
                 .when(proxy)
                 .injectCredentialsAndInvokeV2(
@@ -206,7 +228,8 @@ class UpdateHandlerTest {
         ouList.add(sampleOUId);
 
         // stub the response for the read request
-        final GetPolicyResponse describeGetResponse = FmsSampleHelper.sampleGetPolicyAllParametersResponse(ouList);
+        final GetPolicyResponse describeGetResponse =
+                stale(FmsSampleHelper.sampleGetPolicyAllParametersResponse(ouList));
         doReturn(describeGetResponse)
                 .when(proxy)
                 .injectCredentialsAndInvokeV2(
@@ -265,11 +288,64 @@ class UpdateHandlerTest {
         assertThat(response.getErrorCode()).isNull();
     }
 
+    @Test
+    void handleRequestLargeOrganizationWithinAllocationBudget() {
+        final List<String> ouList = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            ouList.add(String.format("ou-0000-%08d", i));
+        }
+
+        // stub the response for the read request
+        final GetPolicyResponse describeGetResponse =
+                stale(FmsSampleHelper.sampleGetPolicyAllParametersResponse(ouList));
+        doReturn(describeGetResponse)
+                .when(proxy)
+                .injectCredentialsAndInvokeV2(
+                        ArgumentMatchers.isA(GetPolicyRequest.class),
+                        ArgumentMatchers.any()
+                );
+
+        // stub the response for the update request
+        final PutPolicyResponse describePutResponse = FmsSampleHelper.samplePutPolicyAllParametersResponse(ouList);
+        doReturn(describePutResponse)
+                .when(proxy)
+                .injectCredentialsAndInvokeV2(
+                        ArgumentMatchers.isA(PutPolicyRequest.class),
+                        ArgumentMatchers.any()
+                );
+
+        // stub the response for the list tags request
+        final ListTagsForResourceResponse describeListResponse =
+                FmsSampleHelper.sampleListTagsForResourceResponse(false, false);
+        doReturn(describeListResponse)
+                .when(proxy)
+                .injectCredentialsAndInvokeV2(
+                        ArgumentMatchers.isA(ListTagsForResourceRequest.class),
+                        ArgumentMatchers.any()
+                );
+
+        // model the pre-request resource state
+        final ResourceModel requestModel = CfnSampleHelper.sampleAllParametersResourceModel(true, false, false, ouList);
+
+        // create the update request and send it, measuring the allocations of the handler
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(requestModel)
+                .build();
+        final ProgressEvent<ResourceModel, CallbackContext> response = AllocationBudget.megabytes(3)
+                .assertWithin(() -> handler.handleRequest(proxy, request, null, message -> { }));
+
+        // assertions
+        assertThat(response).isNotNull();
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getResourceModel().getIncludeMap().getORGUNIT()).isEqualTo(ouList);
+    }
+
     @Test
     void handlerRequestDeletePolicyTags() {
 
         // stub the response for the read request
-        final GetPolicyResponse describeGetResponse = FmsSampleHelper.sampleGetPolicyRequiredParametersResponse();
+        final GetPolicyResponse describeGetResponse =
+                stale(FmsSampleHelper.sampleGetPolicyRequiredParametersResponse());
         doReturn(describeGetResponse)
                 .when(proxy)
                 .injectCredentialsAndInvokeV2(
@@ -341,7 +417,8 @@ class UpdateHandlerTest {
     void handlerRequestAddPolicyTags() {
 
         // stub the response for the read request
-        final GetPolicyResponse describeGetResponse = FmsSampleHelper.sampleGetPolicyRequiredParametersResponse();
+        final GetPolicyResponse describeGetResponse =
+                stale(FmsSampleHelper.sampleGetPolicyRequiredParametersResponse());
         doReturn(describeGetResponse)
                 .when(proxy)
                 .injectCredentialsAndInvokeV2(
@@ -417,7 +494,8 @@ class UpdateHandlerTest {
     void handlerRequestAddDeletePolicyTags() {
 
         // stub the response for the read request
-        final GetPolicyResponse describeGetResponse = FmsSampleHelper.sampleGetPolicyRequiredParametersResponse();
+        final GetPolicyResponse describeGetResponse =
+                stale(FmsSampleHelper.sampleGetPolicyRequiredParametersResponse());
         doReturn(describeGetResponse)
                 .when(proxy)
                 .injectCredentialsAndInvokeV2(
@@ -489,6 +567,16 @@ class UpdateHandlerTest {
                 FmsSampleHelper.sampleTagResourceRequest(false, true)
         ));
 
+        // verify the api call budget
+        ApiCallBudget.budget()
+                .allow("GetPolicy", 1)
+                .allow("PutPolicy", 1)
+                .allow("ListTagsForResource", 1)
+                .allow("UntagResource", 1)
+                .allow("TagResource", 1)
+                .total(5)
+                .assertWithin(proxy);
+
         // assertions
         assertThat(response).isNotNull();
         assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
@@ -503,7 +591,7 @@ class UpdateHandlerTest {
     void handleRequestResourceNotFoundException() {
 
         // stub the response for the read request
-        final GetPolicyResponse describeGetResponse = FmsSampleHelper.sampleGetPolicyAllParametersResponse();
+        final GetPolicyResponse describeGetResponse = stale(FmsSampleHelper.sampleGetPolicyAllParametersResponse());
         doReturn(describeGetResponse)
                 .when(proxy)
                 .injectCredentialsAndInvokeV2(
@@ -553,7 +641,7 @@ class UpdateHandlerTest {
     void handleRequestInvalidOperationException() {
 
         // stub the response for the read request
-        final GetPolicyResponse describeGetResponse = FmsSampleHelper.sampleGetPolicyAllParametersResponse();
+        final GetPolicyResponse describeGetResponse = stale(FmsSampleHelper.sampleGetPolicyAllParametersResponse());
         doReturn(describeGetResponse)
                 .when(proxy)
                 .injectCredentialsAndInvokeV2(
@@ -603,7 +691,7 @@ class UpdateHandlerTest {
     void handleRequestInvalidInputException() {
 
         // stub the response for the read request
-        final GetPolicyResponse describeGetResponse = FmsSampleHelper.sampleGetPolicyAllParametersResponse();
+        final GetPolicyResponse describeGetResponse = stale(FmsSampleHelper.sampleGetPolicyAllParametersResponse());
         doReturn(describeGetResponse)
                 .when(proxy)
                 .injectCredentialsAndInvokeV2(
@@ -653,7 +741,7 @@ class UpdateHandlerTest {
     void handleRequestInvalidTypeException() {
 
         // stub the response for the read request
-        final GetPolicyResponse describeGetResponse = FmsSampleHelper.sampleGetPolicyAllParametersResponse();
+        final GetPolicyResponse describeGetResponse = stale(FmsSampleHelper.sampleGetPolicyAllParametersResponse());
         doReturn(describeGetResponse)
                 .when(proxy)
                 .injectCredentialsAndInvokeV2(
@@ -703,7 +791,7 @@ class UpdateHandlerTest {
     void handleRequestLimitExceededException() {
 
         // stub the response for the read request
-        final GetPolicyResponse describeGetResponse = FmsSampleHelper.sampleGetPolicyAllParametersResponse();
+        final GetPolicyResponse describeGetResponse = stale(FmsSampleHelper.sampleGetPolicyAllParametersResponse());
         doReturn(describeGetResponse)
                 .when(proxy)
                 .injectCredentialsAndInvokeV2(
@@ -753,7 +841,7 @@ class UpdateHandlerTest {
     void handleRequestInternalErrorException() {
 
         // stub the response for the read request
-        final GetPolicyResponse describeGetResponse = FmsSampleHelper.sampleGetPolicyAllParametersResponse();
+        final GetPolicyResponse describeGetResponse = stale(FmsSampleHelper.sampleGetPolicyAllParametersResponse());
         doReturn(describeGetResponse)
                 .when(proxy)
                 .injectCredentialsAndInvokeV2(
@@ -798,4 +886,540 @@ class UpdateHandlerTest {
         assertThat(response.getResourceModels()).isNull();
         assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.ServiceInternalError);
     }
+
+    @Test
+    void handleRequestMalformedManagedServiceDataFailsBeforeRead() {
+
+        // model a policy whose managed service data is not valid JSON
+        final ResourceModel requestModel = CfnSampleHelper.sampleRequiredParametersResourceModel(true, false, false);
+        requestModel.getSecurityServicePolicyData().setManagedServiceData("{\"type\":\"SHIELD_ADVANCED\"");
+
+        // create the update request and send it on the asynchronous path
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(requestModel)
+                .build();
+        final ProgressEvent<ResourceModel, CallbackContext> response =
+                new UpdateHandler(client, asyncClient).handleRequest(proxy, request, null, logger);
+
+        // verify no request was made
+        verify(proxy, never()).injectCredentialsAndInvokeV2(ArgumentMatchers.any(), ArgumentMatchers.any());
+        verify(proxy, never()).injectCredentialsAndInvokeV2Async(ArgumentMatchers.any(), ArgumentMatchers.any());
+
+        // assertions
+        assertThat(response).isNotNull();
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.FAILED);
+        assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.InvalidRequest);
+        assertThat(response.getMessage()).startsWith("ManagedServiceData is not valid JSON");
+    }
+
+    @Test
+    void handleRequestListsTagsAlongsideRead() {
+
+        // hold the read request until the list tags request is made, which only happens if they overlap
+        final CountDownLatch tagsListed = new CountDownLatch(1);
+        final AtomicBoolean overlapped = new AtomicBoolean();
+        doAnswer(invocation -> {
+            overlapped.set(tagsListed.await(5, TimeUnit.SECONDS));
+            return stale(FmsSampleHelper.sampleGetPolicyRequiredParametersResponse());
+        })
+                .when(proxy)
+                .injectCredentialsAndInvokeV2(
+                        ArgumentMatchers.isA(GetPolicyRequest.class),
+                        ArgumentMatchers.any()
+                );
+        doAnswer(invocation -> {
+            tagsListed.countDown();
+            return FmsSampleHelper.sampleListTagsForResourceResponse(true, false);
+        })
+                .when(proxy)
+                .injectCredentialsAndInvokeV2(
+                        ArgumentMatchers.isA(ListTagsForResourceRequest.class),
+                        ArgumentMatchers.any()
+                );
+
+        // stub the responses for the update, untag and tag requests
+        doReturn(FmsSampleHelper.samplePutPolicyRequiredParametersResponse())
+                .when(proxy)
+                .injectCredentialsAndInvokeV2(
+                        ArgumentMatchers.isA(PutPolicyRequest.class),
+                        ArgumentMatchers.any()
+                );
+        doReturn(FmsSampleHelper.sampleUntagResourceResponse())
+                .when(proxy)
+                .injectCredentialsAndInvokeV2(
+                        ArgumentMatchers.isA(UntagResourceRequest.class),
+                        ArgumentMatchers.any()
+                );
+        doReturn(FmsSampleHelper.sampleTagResourceResponse())
+                .when(proxy)
+                .injectCredentialsAndInvokeV2(
+                        ArgumentMatchers.isA(TagResourceRequest.class),
+                        ArgumentMatchers.any()
+                );
+
+        // create the update request, from which the policy ARN can be derived, and send it
+        final ResourceModel requestExpectedModel = CfnSampleHelper.sampleRequiredParametersResourceModel(true, false, true);
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(requestExpectedModel)
+                .desiredResourceTags(configuration.resourceDefinedTags(requestExpectedModel))
+                .awsPartition("aws")
+                .region("us-east-1")
+                .awsAccountId(CfnSampleHelper.sampleAccountId)
+                .build();
+        final ProgressEvent<ResourceModel, CallbackContext> response =
+                handler.handleRequest(proxy, request, null, logger);
+
+        // verify stub calls, the tags are reconciled after the update
+        verify(proxy, times(5)).injectCredentialsAndInvokeV2(
+                captor.capture(),
+                ArgumentMatchers.any()
+        );
+        assertThat(captor.getAllValues()).containsExactlyInAnyOrder(
+                FmsSampleHelper.sampleGetPolicyRequest(),
+                FmsSampleHelper.samplePutPolicyRequiredParametersRequest(true, false, false),
+                FmsSampleHelper.sampleListTagsForResourceRequest(),
+                FmsSampleHelper.sampleUntagResourceRequest(true, false),
+                FmsSampleHelper.sampleTagResourceRequest(false, true)
+        );
+        assertThat(captor.getAllValues().subList(2, 5)).containsExactly(
+                FmsSampleHelper.samplePutPolicyRequiredParametersRequest(true, false, false),
+                FmsSampleHelper.sampleUntagResourceRequest(true, false),
+                FmsSampleHelper.sampleTagResourceRequest(false, true)
+        );
+
+        // assertions
+        assertThat(overlapped).isTrue();
+        assertThat(response).isNotNull();
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getErrorCode()).isNull();
+    }
+
+    @Test
+    void handleRequestAsyncAddDeletePolicyTags() {
+
+        // stub the responses for the read, update, list tags, untag and tag requests
+        doReturn(CompletableFuture.completedFuture(stale(FmsSampleHelper.sampleGetPolicyRequiredParametersResponse())))
+                .when(proxy)
+                .injectCredentialsAndInvokeV2Async(
+                        ArgumentMatchers.isA(GetPolicyRequest.class),
+                        ArgumentMatchers.any()
+                );
+        doReturn(CompletableFuture.completedFuture(FmsSampleHelper.samplePutPolicyRequiredParametersResponse()))
+                .when(proxy)
+                .injectCredentialsAndInvokeV2Async(
+                        ArgumentMatchers.isA(PutPolicyRequest.class),
+                        ArgumentMatchers.any()
+                );
+        doReturn(CompletableFuture.completedFuture(FmsSampleHelper.sampleListTagsForResourceResponse(true, false)))
+                .when(proxy)
+                .injectCredentialsAndInvokeV2Async(
+                        ArgumentMatchers.isA(ListTagsForResourceRequest.class),
+                        ArgumentMatchers.any()
+                );
+        doReturn(CompletableFuture.completedFuture(FmsSampleHelper.sampleUntagResourceResponse()))
+                .when(proxy)
+                .injectCredentialsAndInvokeV2Async(
+                        ArgumentMatchers.isA(UntagResourceRequest.class),
+                        ArgumentMatchers.any()
+                );
+        doReturn(CompletableFuture.completedFuture(FmsSampleHelper.sampleTagResourceResponse()))
+                .when(proxy)
+                .injectCredentialsAndInvokeV2Async(
+                        ArgumentMatchers.isA(TagResourceRequest.class),
+                        ArgumentMatchers.any()
+                );
+
+        // model the pre-request and post-request resource state
+        final ResourceModel requestExpectedModel = CfnSampleHelper.sampleRequiredParametersResourceModel(true, false, true);
+
+        // create the update request and send it
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(requestExpectedModel)
+                .desiredResourceTags(configuration.resourceDefinedTags(requestExpectedModel))
+                .awsPartition("aws")
+                .region("us-east-1")
+                .awsAccountId(CfnSampleHelper.sampleAccountId)
+                .build();
+        final ProgressEvent<ResourceModel, CallbackContext> response =
+                new UpdateHandler(client, asyncClient).handleRequest(proxy, request, null, logger);
+
+        // verify stub calls
+        verify(proxy, times(5)).injectCredentialsAndInvokeV2Async(
+                captor.capture(),
+                ArgumentMatchers.any()
+        );
+        assertThat(captor.getAllValues()).containsExactlyInAnyOrder(
+                FmsSampleHelper.sampleGetPolicyRequest(),
+                FmsSampleHelper.samplePutPolicyRequiredParametersRequest(true, false, false),
+                FmsSampleHelper.sampleListTagsForResourceRequest(),
+                FmsSampleHelper.sampleUntagResourceRequest(true, false),
+                FmsSampleHelper.sampleTagResourceRequest(false, true)
+        );
+        assertThat(captor.getAllValues().indexOf(FmsSampleHelper.sampleUntagResourceRequest(true, false)))
+                .isLessThan(captor.getAllValues().indexOf(FmsSampleHelper.sampleTagResourceRequest(false, true)));
+        verify(proxy, never()).injectCredentialsAndInvokeV2(ArgumentMatchers.any(), ArgumentMatchers.any());
+
+        // verify the api call budget
+        ApiCallBudget.budget()
+                .allow("GetPolicy", 1)
+                .allow("PutPolicy", 1)
+                .allow("ListTagsForResource", 1)
+                .allow("UntagResource", 1)
+                .allow("TagResource", 1)
+                .total(5)
+                .assertWithin(proxy);
+
+        // assertions
+        assertThat(response).isNotNull();
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getCallbackContext()).isNull();
+        assertThat(response.getCallbackDelaySeconds()).isEqualTo(0);
+        assertThat(response.getResourceModels()).isNull();
+        assertThat(response.getErrorCode()).isNull();
+    }
+
+    @Test
+    void handleRequestAsyncResourceNotFoundException() {
+
+        // stub the response for the read request and mock a ResourceNotFoundException from the update request
+        doReturn(CompletableFuture.completedFuture(stale(FmsSampleHelper.sampleGetPolicyAllParametersResponse())))
+                .when(proxy)
+                .injectCredentialsAndInvokeV2Async(
+                        ArgumentMatchers.isA(GetPolicyRequest.class),
+                        ArgumentMatchers.any()
+                );
+        final CompletableFuture<PutPolicyResponse> putPolicyFuture = new CompletableFuture<>();
+        putPolicyFuture.completeExceptionally(ResourceNotFoundException.builder().build());
+        doReturn(putPolicyFuture)
+                .when(proxy)
+                .injectCredentialsAndInvokeV2Async(
+                        ArgumentMatchers.isA(PutPolicyRequest.class),
+                        ArgumentMatchers.any()
+                );
+        doReturn(CompletableFuture.completedFuture(FmsSampleHelper.sampleListTagsForResourceResponse(false, false)))
+                .when(proxy)
+                .injectCredentialsAndInvokeV2Async(
+                        ArgumentMatchers.isA(ListTagsForResourceRequest.class),
+                        ArgumentMatchers.any()
+                );
+
+        // create the update request and send it
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(CfnSampleHelper.sampleRequiredParametersResourceModel(true, false, false))
+                .awsPartition("aws")
+                .region("us-east-1")
+                .awsAccountId(CfnSampleHelper.sampleAccountId)
+                .build();
+        final ProgressEvent<ResourceModel, CallbackContext> response =
+                new UpdateHandler(client, asyncClient).handleRequest(proxy, request, null, logger);
+
+        // verify no tags were changed, the policy has no tags to reconcile
+        verify(proxy, never()).injectCredentialsAndInvokeV2Async(
+                ArgumentMatchers.isA(UntagResourceRequest.class),
+                ArgumentMatchers.any()
+        );
+        verify(proxy, never()).injectCredentialsAndInvokeV2Async(
+                ArgumentMatchers.isA(TagResourceRequest.class),
+                ArgumentMatchers.any()
+        );
+
+        // assertions
+        assertThat(response).isNotNull();
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.FAILED);
+        assertThat(response.getResourceModel()).isNull();
+        assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.NotFound);
+    }
+
+    @Test
+    void handleRequestAsyncTagFailureAfterSuccessfulUpdate() {
+
+        // stub the responses for the read, update and list tags requests
+        doReturn(CompletableFuture.completedFuture(stale(FmsSampleHelper.sampleGetPolicyRequiredParametersResponse())))
+                .when(proxy)
+                .injectCredentialsAndInvokeV2Async(
+                        ArgumentMatchers.isA(GetPolicyRequest.class),
+                        ArgumentMatchers.any()
+                );
+        doReturn(CompletableFuture.completedFuture(FmsSampleHelper.samplePutPolicyRequiredParametersResponse()))
+                .when(proxy)
+                .injectCredentialsAndInvokeV2Async(
+                        ArgumentMatchers.isA(PutPolicyRequest.class),
+                        ArgumentMatchers.any()
+                );
+        doReturn(CompletableFuture.completedFuture(FmsSampleHelper.sampleListTagsForResourceResponse(false, false)))
+                .when(proxy)
+                .injectCredentialsAndInvokeV2Async(
+                        ArgumentMatchers.isA(ListTagsForResourceRequest.class),
+                        ArgumentMatchers.any()
+                );
+
+        // mock a LimitExceededException from the tag request
+        final CompletableFuture<TagResourceResponse> tagFuture = new CompletableFuture<>();
+        tagFuture.completeExceptionally(LimitExceededException.builder().build());
+        doReturn(tagFuture)
+                .when(proxy)
+                .injectCredentialsAndInvokeV2Async(
+                        ArgumentMatchers.isA(TagResourceRequest.class),
+                        ArgumentMatchers.any()
+                );
+
+        // create the update request with a tag to add and send it
+        final ResourceModel requestModel = CfnSampleHelper.sampleRequiredParametersResourceModel(true, true, false);
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(requestModel)
+                .desiredResourceTags(configuration.resourceDefinedTags(requestModel))
+                .awsPartition("aws")
+                .region("us-east-1")
+                .awsAccountId(CfnSampleHelper.sampleAccountId)
+                .build();
+        final ProgressEvent<ResourceModel, CallbackContext> response =
+                new UpdateHandler(client, asyncClient).handleRequest(proxy, request, null, logger);
+
+        // verify the policy was updated alongside the failed tag request
+        verify(proxy, times(1)).injectCredentialsAndInvokeV2Async(
+                ArgumentMatchers.isA(PutPolicyRequest.class),
+                ArgumentMatchers.any()
+        );
+
+        // assertions
+        assertThat(response).isNotNull();
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.FAILED);
+        assertThat(response.getResourceModel()).isNull();
+        assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.ServiceLimitExceeded);
+    }
+
+    @Test
+    void handleRequestAsyncUpdateFailureTakesPrecedenceOverTagFailure() {
+
+        // stub the response for the read request
+        doReturn(CompletableFuture.completedFuture(stale(FmsSampleHelper.sampleGetPolicyRequiredParametersResponse())))
+                .when(proxy)
+                .injectCredentialsAndInvokeV2Async(
+                        ArgumentMatchers.isA(GetPolicyRequest.class),
+                        ArgumentMatchers.any()
+                );
+
+        // mock an InvalidInputException from the update request and an InternalErrorException from the tags request
+        final CompletableFuture<PutPolicyResponse> putPolicyFuture = new CompletableFuture<>();
+        putPolicyFuture.completeExceptionally(InvalidInputException.builder().build());
+        doReturn(putPolicyFuture)
+                .when(proxy)
+                .injectCredentialsAndInvokeV2Async(
+                        ArgumentMatchers.isA(PutPolicyRequest.class),
+                        ArgumentMatchers.any()
+                );
+        final CompletableFuture<ListTagsForResourceResponse> listTagsFuture = new CompletableFuture<>();
+        listTagsFuture.completeExceptionally(InternalErrorException.builder().build());
+        doReturn(listTagsFuture)
+                .when(proxy)
+                .injectCredentialsAndInvokeV2Async(
+                        ArgumentMatchers.isA(ListTagsForResourceRequest.class),
+                        ArgumentMatchers.any()
+                );
+
+        // create the update request and send it
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(CfnSampleHelper.sampleRequiredParametersResourceModel(true, false, false))
+                .awsPartition("aws")
+                .region("us-east-1")
+                .awsAccountId(CfnSampleHelper.sampleAccountId)
+                .build();
+        final ProgressEvent<ResourceModel, CallbackContext> response =
+                new UpdateHandler(client, asyncClient).handleRequest(proxy, request, null, logger);
+
+        // assertions
+        assertThat(response).isNotNull();
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.FAILED);
+        assertThat(response.getResourceModel()).isNull();
+        assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.InvalidRequest);
+    }
+
+    @Test
+    void handleRequestUnchangedPolicySkipsUpdate() {
+
+        // stub the response for the read request with a policy already matching the desired model
+        doReturn(FmsSampleHelper.sampleGetPolicyRequiredParametersResponse())
+                .when(proxy)
+                .injectCredentialsAndInvokeV2(
+                        ArgumentMatchers.isA(GetPolicyRequest.class),
+                        ArgumentMatchers.any()
+                );
+
+        // stub the response for the list tags request
+        doReturn(FmsSampleHelper.sampleListTagsForResourceResponse(false, false))
+                .when(proxy)
+                .injectCredentialsAndInvokeV2(
+                        ArgumentMatchers.isA(ListTagsForResourceRequest.class),
+                        ArgumentMatchers.any()
+                );
+
+        // stub the response for the tag resource request
+        doReturn(FmsSampleHelper.sampleTagResourceResponse())
+                .when(proxy)
+                .injectCredentialsAndInvokeV2(
+                        ArgumentMatchers.isA(TagResourceRequest.class),
+                        ArgumentMatchers.any()
+                );
+
+        // model the pre-request and post-request resource state
+        final ResourceModel requestExpectedModel = CfnSampleHelper.sampleRequiredParametersResourceModel(true, true, false);
+
+        // create the update request and send it
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(requestExpectedModel)
+                .desiredResourceTags(configuration.resourceDefinedTags(requestExpectedModel))
+                .build();
+        final ProgressEvent<ResourceModel, CallbackContext> response =
+                handler.handleRequest(proxy, request, null, logger);
+
+        // verify stub calls
+        verify(proxy, times(3)).injectCredentialsAndInvokeV2(
+                captor.capture(),
+                ArgumentMatchers.any()
+        );
+        assertThat(captor.getAllValues()).isEqualTo(Arrays.asList(
+                FmsSampleHelper.sampleGetPolicyRequest(),
+                FmsSampleHelper.sampleListTagsForResourceRequest(),
+                FmsSampleHelper.sampleTagResourceRequest(true, false)
+        ));
+        verify(proxy, never()).injectCredentialsAndInvokeV2(
+                ArgumentMatchers.isA(PutPolicyRequest.class),
+                ArgumentMatchers.any()
+        );
+
+        // verify the api call budget
+        ApiCallBudget.budget()
+                .allow("GetPolicy", 1)
+                .allow("ListTagsForResource", 1)
+                .allow("TagResource", 1)
+                .total(3)
+                .assertWithin(proxy);
+
+        // assertions
+        assertThat(response).isNotNull();
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getCallbackContext()).isNull();
+        assertThat(response.getCallbackDelaySeconds()).isEqualTo(0);
+        assertThat(response.getResourceModels()).isNull();
+        assertThat(response.getErrorCode()).isNull();
+    }
+
+    @Test
+    void handleRequestAsyncUnchangedPolicySkipsUpdate() {
+
+        // stub the responses for the read and list tags requests with a policy already matching the desired model
+        doReturn(CompletableFuture.completedFuture(FmsSampleHelper.sampleGetPolicyRequiredParametersResponse()))
+                .when(proxy)
+                .injectCredentialsAndInvokeV2Async(
+                        ArgumentMatchers.isA(GetPolicyRequest.class),
+                        ArgumentMatchers.any()
+                );
+        doReturn(CompletableFuture.completedFuture(FmsSampleHelper.sampleListTagsForResourceResponse(false, false)))
+                .when(proxy)
+                .injectCredentialsAndInvokeV2Async(
+                        ArgumentMatchers.isA(ListTagsForResourceRequest.class),
+                        ArgumentMatchers.any()
+                );
+
+        // create the update request and send it
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(CfnSampleHelper.sampleRequiredParametersResourceModel(true, false, false))
+                .awsPartition("aws")
+                .region("us-east-1")
+                .awsAccountId(CfnSampleHelper.sampleAccountId)
+                .build();
+        final ProgressEvent<ResourceModel, CallbackContext> response =
+                new UpdateHandler(client, asyncClient).handleRequest(proxy, request, null, logger);
+
+        // verify stub calls
+        verify(proxy, never()).injectCredentialsAndInvokeV2Async(
+                ArgumentMatchers.isA(PutPolicyRequest.class),
+                ArgumentMatchers.any()
+        );
+        ApiCallBudget.budget()
+                .allow("GetPolicy", 1)
+                .allow("ListTagsForResource", 1)
+                .total(2)
+                .assertWithin(proxy);
+
+        // assertions
+        assertThat(response).isNotNull();
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getErrorCode()).isNull();
+    }
+
+    @Test
+    void handleRequestReorderedPolicySkipsUpdateAndKeepsDesiredOrder() {
+        final List<String> liveOUList = Arrays.asList(sampleOUId, "ou-0000-99999999");
+        final List<String> liveResourceTypeList =
+                Arrays.asList("AWS::ElasticLoadBalancingV2::LoadBalancer", "AWS::EC2::Instance");
+
+        // stub the response for the read request with a policy matching the desired model but for the list order
+        final GetPolicyResponse getPolicyResponse = FmsSampleHelper.sampleGetPolicyAllParametersResponse(liveOUList);
+        doReturn(getPolicyResponse.toBuilder()
+                .policy(getPolicyResponse.policy().toBuilder().resourceTypeList(liveResourceTypeList).build())
+                .build())
+                .when(proxy)
+                .injectCredentialsAndInvokeV2(
+                        ArgumentMatchers.isA(GetPolicyRequest.class),
+                        ArgumentMatchers.any()
+                );
+
+        // stub the response for the list tags request
+        doReturn(FmsSampleHelper.sampleListTagsForResourceResponse(false, false))
+                .when(proxy)
+                .injectCredentialsAndInvokeV2(
+                        ArgumentMatchers.isA(ListTagsForResourceRequest.class),
+                        ArgumentMatchers.any()
+                );
+
+        // model the desired resource state with the lists in reverse order
+        final List<String> desiredOUList = new ArrayList<>(liveOUList);
+        Collections.reverse(desiredOUList);
+        final List<String> desiredResourceTypeList = new ArrayList<>(liveResourceTypeList);
+        Collections.reverse(desiredResourceTypeList);
+        final ResourceModel requestModel =
+                CfnSampleHelper.sampleAllParametersResourceModel(true, false, false, desiredOUList);
+        requestModel.setResourceTypeList(desiredResourceTypeList);
+        final ResourceModel expectedModel =
+                CfnSampleHelper.sampleAllParametersResourceModel(true, false, false, desiredOUList);
+        expectedModel.setResourceTypeList(desiredResourceTypeList);
+
+        // create the update request and send it
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(requestModel)
+                .build();
+        final ProgressEvent<ResourceModel, CallbackContext> response =
+                handler.handleRequest(proxy, request, null, logger);
+
+        // verify stub calls
+        verify(proxy, never()).injectCredentialsAndInvokeV2(
+                ArgumentMatchers.isA(PutPolicyRequest.class),
+                ArgumentMatchers.any()
+        );
+        ApiCallBudget.budget()
+                .allow("GetPolicy", 1)
+                .allow("ListTagsForResource", 1)
+                .total(2)
+                .assertWithin(proxy);
+
+        // assertions, a reorder alone is not written but the model keeps the order of the template
+        assertThat(response).isNotNull();
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getResourceModel()).isEqualTo(expectedModel);
+        assertThat(response.getResourceModel().getIncludeMap().getORGUNIT()).isEqualTo(desiredOUList);
+        assertThat(response.getErrorCode()).isNull();
+    }
+
+    /**
+     * Make a sample GetPolicy response differ from the desired model, so that the update request is sent.
+     * @param response Sample GetPolicy response.
+     * @return The response with a previous policy description.
+     */
+    private static GetPolicyResponse stale(final GetPolicyResponse response) {
+
+        return response.toBuilder()
+                .policy(response.policy().toBuilder().policyDescription("Previous description").build())
+                .build();
+    }
 }
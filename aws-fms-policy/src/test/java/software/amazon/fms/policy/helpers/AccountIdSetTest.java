@@ -0,0 +1,67 @@
+package software.amazon.fms.policy.helpers;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AccountIdSetTest {
+
+    @Test
+    void orderAndDuplicatesAreIgnored() {
+
+        final AccountIdSet accounts = AccountIdSet.pack(Arrays.asList("222222222222", "000000000001", "222222222222"));
+        final AccountIdSet sameAccounts = AccountIdSet.pack(Arrays.asList("000000000001", "222222222222"));
+
+        // assertions
+        assertThat(accounts).isNotNull();
+        assertThat(accounts.size()).isEqualTo(2);
+        assertThat(accounts).isEqualTo(sameAccounts).hasSameHashCodeAs(sameAccounts);
+        assertThat(accounts.countNotIn(sameAccounts)).isZero();
+    }
+
+    @Test
+    void missingAndEmptyScopesAreEqual() {
+
+        // assertions
+        assertThat(AccountIdSet.pack(null)).isEqualTo(AccountIdSet.pack(Collections.emptyList()));
+        assertThat(AccountIdSet.pack(null).size()).isZero();
+    }
+
+    @Test
+    void idsOtherThanAccountIdsAreNotPacked() {
+
+        // assertions
+        assertThat(AccountIdSet.pack(Arrays.asList("000000000001", "12345"))).isNull();
+        assertThat(AccountIdSet.pack(Arrays.asList("000000000001", "00000000000a"))).isNull();
+        assertThat(AccountIdSet.pack(Arrays.asList("000000000001", "-00000000001"))).isNull();
+        assertThat(AccountIdSet.pack(Collections.singletonList(null))).isNull();
+    }
+
+    @Test
+    void countNotInMatchesSetDifference() {
+
+        final List<String> accountIds = new WorkloadGenerator(WorkloadGenerator.DEFAULT_SEED).accountIds(5000);
+        final List<String> live = accountIds.subList(0, 3000);
+        final List<String> desired = new ArrayList<>(accountIds.subList(1000, 5000));
+        Collections.reverse(desired);
+        final AccountIdSet liveAccounts = AccountIdSet.pack(live);
+        final AccountIdSet desiredAccounts = AccountIdSet.pack(desired);
+
+        final Set<String> added = new HashSet<>(desired);
+        added.removeAll(live);
+        final Set<String> removed = new HashSet<>(live);
+        removed.removeAll(desired);
+
+        // assertions
+        assertThat(liveAccounts).isNotEqualTo(desiredAccounts);
+        assertThat(desiredAccounts.countNotIn(liveAccounts)).isEqualTo(added.size()).isEqualTo(2000);
+        assertThat(liveAccounts.countNotIn(desiredAccounts)).isEqualTo(removed.size()).isEqualTo(1000);
+    }
+}
@@ -5,7 +5,6 @@ import software.amazon.awssdk.services.fms.model.SecurityServiceType;
 class BaseSampleHelper {
 
     public final static String sampleAccountId = "000000000000";
-    public final static String sampleManagedServiceData = "{\"type\":\"SHIELD_ADVANCED\"}";
 
     public final static SecurityServiceType sampleSecurityServiceType = SecurityServiceType.SHIELD_ADVANCED;
     public final static boolean sampleExcludeResourceTags = false;
@@ -18,6 +17,16 @@ class BaseSampleHelper {
     public final static String sampleTagValue = "value";
     public final static String sampleResourceType = "ResourceTypeList";
     public final static String sampleResourceTypeListElement = "AWS::ElasticLoadBalancingV2::LoadBalancer";
-    public final static String sampleResourceSetIdsElement = "11100000-0000-0000-0000-000000000111";
+    public final static String sampleResourceSetIdsElement = "1110000000000000000111";
     public final static String samplePolicyArn = "arn:aws:fms:us-east-1:000000000000:policy/00000000-0000-0000-0000-000000000000";
+
+    /**
+     * Assembles sample managed service data matching the type of the security service policy data.
+     * @param securityServiceType Type of the security service policy data.
+     * @return The managed service data.
+     */
+    static String sampleManagedServiceData(final SecurityServiceType securityServiceType) {
+
+        return String.format("{\"type\":\"%s\"}", securityServiceType);
+    }
 }
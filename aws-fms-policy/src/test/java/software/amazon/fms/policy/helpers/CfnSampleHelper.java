@@ -40,7 +40,7 @@ public class CfnSampleHelper extends BaseSampleHelper {
 
         if(securityServiceType.equals(SecurityServiceType.THIRD_PARTY_FIREWALL)) {
             securityServicePolicyData = SecurityServicePolicyData.builder()
-                    .managedServiceData(sampleManagedServiceData)
+                    .managedServiceData(sampleManagedServiceData(securityServiceType))
                     .type(securityServiceType.toString())
                     .policyOption(PolicyOption.builder()
                             .thirdPartyFirewallPolicy(ThirdPartyFirewallPolicy.builder()
@@ -51,7 +51,7 @@ public class CfnSampleHelper extends BaseSampleHelper {
         } else if(securityServiceType.equals(SecurityServiceType.IMPORT_NETWORK_FIREWALL)
             || securityServiceType.equals(SecurityServiceType.NETWORK_FIREWALL)) {
             securityServicePolicyData = SecurityServicePolicyData.builder()
-                    .managedServiceData(sampleManagedServiceData)
+                    .managedServiceData(sampleManagedServiceData(securityServiceType))
                     .type(securityServiceType.toString())
                     .policyOption(PolicyOption.builder()
                             .networkFirewallPolicy(NetworkFirewallPolicy.builder()
@@ -61,7 +61,7 @@ public class CfnSampleHelper extends BaseSampleHelper {
                     .build();
         } else if (securityServiceType.equals(SecurityServiceType.NETWORK_ACL_COMMON)){
             securityServicePolicyData = SecurityServicePolicyData.builder()
-                    .managedServiceData(sampleManagedServiceData)
+                    .managedServiceData(sampleManagedServiceData(securityServiceType))
                     .type(securityServiceType.toString())
                     .policyOption(PolicyOption.builder()
                             .networkAclCommonPolicy(NetworkAclCommonPolicy.builder()
@@ -80,7 +80,7 @@ public class CfnSampleHelper extends BaseSampleHelper {
                     .build();
         } else {
             securityServicePolicyData = SecurityServicePolicyData.builder()
-                    .managedServiceData(sampleManagedServiceData)
+                    .managedServiceData(sampleManagedServiceData(securityServiceType))
                     .type(securityServiceType.toString())
                     .build();
         }
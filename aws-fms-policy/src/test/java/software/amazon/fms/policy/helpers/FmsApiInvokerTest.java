@@ -0,0 +1,383 @@
+package software.amazon.fms.policy.helpers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.services.fms.FmsAsyncClient;
+import software.amazon.awssdk.services.fms.FmsClient;
+import software.amazon.awssdk.services.fms.model.FmsException;
+import software.amazon.awssdk.services.fms.model.GetPolicyRequest;
+import software.amazon.awssdk.services.fms.model.GetPolicyResponse;
+import software.amazon.awssdk.services.fms.model.InternalErrorException;
+import software.amazon.awssdk.services.fms.model.ListTagsForResourceRequest;
+import software.amazon.awssdk.services.fms.model.ListTagsForResourceResponse;
+import software.amazon.cloudformation.exceptions.CfnThrottlingException;
+import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.Logger;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class FmsApiInvokerTest {
+
+    @Mock
+    private AmazonWebServicesClientProxy proxy;
+
+    @Mock
+    private FmsClient client;
+
+    @Mock
+    private FmsAsyncClient asyncClient;
+
+    @Mock
+    private Logger logger;
+
+    private HandlerMetrics metrics;
+
+    private Tracer tracer;
+
+    private FmsApiInvoker invoker;
+
+    @BeforeEach
+    void setup() {
+
+        metrics = new HandlerMetrics("AWS::FMS::Policy", "Read");
+        tracer = new Tracer("AWS::FMS::Policy", "Read");
+        invoker = new FmsApiInvoker(
+                proxy, logger, metrics, tracer, Duration.ofSeconds(5), Duration.ofMillis(1), Duration.ofMillis(2));
+    }
+
+    @Test
+    void invokeReturnsResponse() {
+
+        // stub the response for the read request
+        final GetPolicyResponse getPolicyResponse = FmsSampleHelper.sampleGetPolicyRequiredParametersResponse();
+        doReturn(getPolicyResponse)
+                .when(proxy)
+                .injectCredentialsAndInvokeV2(
+                        ArgumentMatchers.isA(GetPolicyRequest.class),
+                        ArgumentMatchers.any()
+                );
+
+        // assertions
+        assertThat(invoker.invoke(FmsSampleHelper.sampleGetPolicyRequest(), client::getPolicy))
+                .isEqualTo(getPolicyResponse);
+    }
+
+    @Test
+    void invokeRetriesThrottledRequest() throws IOException {
+
+        // throttle the first two read requests
+        final GetPolicyResponse getPolicyResponse = FmsSampleHelper.sampleGetPolicyRequiredParametersResponse();
+        doThrow(sampleThrottlingException(), sampleThrottlingException())
+                .doReturn(getPolicyResponse)
+                .when(proxy)
+                .injectCredentialsAndInvokeV2(
+                        ArgumentMatchers.isA(GetPolicyRequest.class),
+                        ArgumentMatchers.any()
+                );
+
+        // assertions
+        assertThat(invoker.invoke(FmsSampleHelper.sampleGetPolicyRequest(), client::getPolicy))
+                .isEqualTo(getPolicyResponse);
+        verify(proxy, times(3)).injectCredentialsAndInvokeV2(
+                ArgumentMatchers.isA(GetPolicyRequest.class),
+                ArgumentMatchers.any()
+        );
+
+        // the retries are recorded in the metrics of the invocation
+        final JsonNode document = new ObjectMapper().readTree(metrics.toEmfDocuments("FMS", 0L).get(0));
+        assertThat(document.get("Operation").asText()).isEqualTo("GetPolicy");
+        assertThat(document.get("Calls").asLong()).isEqualTo(3);
+        assertThat(document.get("Retries").asLong()).isEqualTo(2);
+        assertThat(document.get("Throttles").asLong()).isEqualTo(2);
+        assertThat(document.get("Failures").asLong()).isEqualTo(0);
+    }
+
+    @Test
+    void invokeRetriesTransientNetworkFailure() {
+
+        // fail the first read request on the network
+        final GetPolicyResponse getPolicyResponse = FmsSampleHelper.sampleGetPolicyRequiredParametersResponse();
+        doThrow(SdkClientException.builder().cause(new IOException("Connection reset")).build())
+                .doReturn(getPolicyResponse)
+                .when(proxy)
+                .injectCredentialsAndInvokeV2(
+                        ArgumentMatchers.isA(GetPolicyRequest.class),
+                        ArgumentMatchers.any()
+                );
+
+        // assertions
+        assertThat(invoker.invoke(FmsSampleHelper.sampleGetPolicyRequest(), client::getPolicy))
+                .isEqualTo(getPolicyResponse);
+        verify(proxy, times(2)).injectCredentialsAndInvokeV2(
+                ArgumentMatchers.isA(GetPolicyRequest.class),
+                ArgumentMatchers.any()
+        );
+    }
+
+    @Test
+    void invokeDoesNotRetryServiceError() {
+
+        // mock an InternalErrorException from the FMS API
+        doThrow(InternalErrorException.builder().build())
+                .when(proxy)
+                .injectCredentialsAndInvokeV2(
+                        ArgumentMatchers.isA(GetPolicyRequest.class),
+                        ArgumentMatchers.any()
+                );
+
+        // assertions
+        assertThrows(InternalErrorException.class,
+                () -> invoker.invoke(FmsSampleHelper.sampleGetPolicyRequest(), client::getPolicy));
+        verify(proxy, times(1)).injectCredentialsAndInvokeV2(
+                ArgumentMatchers.isA(GetPolicyRequest.class),
+                ArgumentMatchers.any()
+        );
+    }
+
+    @Test
+    void invokeThrowsThrottlingWhenRetryBudgetRunsOut() {
+
+        // throttle every read request
+        doThrow(sampleThrottlingException())
+                .when(proxy)
+                .injectCredentialsAndInvokeV2(
+                        ArgumentMatchers.isA(GetPolicyRequest.class),
+                        ArgumentMatchers.any()
+                );
+        final FmsApiInvoker shortBudgetInvoker = new FmsApiInvoker(
+                proxy, logger, metrics, tracer, Duration.ofMillis(20), Duration.ofMillis(5), Duration.ofMillis(10));
+
+        // assertions
+        final CfnThrottlingException e = assertThrows(CfnThrottlingException.class,
+                () -> shortBudgetInvoker.invoke(FmsSampleHelper.sampleGetPolicyRequest(), client::getPolicy));
+        assertThat(e.getCause()).isInstanceOf(FmsException.class);
+    }
+
+    @Test
+    void invokeAsyncRetriesThrottledRequest() {
+
+        // throttle the first read request
+        final GetPolicyResponse getPolicyResponse = FmsSampleHelper.sampleGetPolicyRequiredParametersResponse();
+        final CompletableFuture<GetPolicyResponse> throttledFuture = new CompletableFuture<>();
+        throttledFuture.completeExceptionally(sampleThrottlingException());
+        doReturn(throttledFuture)
+                .doReturn(CompletableFuture.completedFuture(getPolicyResponse))
+                .when(proxy)
+                .injectCredentialsAndInvokeV2Async(
+                        ArgumentMatchers.isA(GetPolicyRequest.class),
+                        ArgumentMatchers.any()
+                );
+
+        // assertions
+        assertThat(invoker.invokeAsync(FmsSampleHelper.sampleGetPolicyRequest(), asyncClient::getPolicy).join())
+                .isEqualTo(getPolicyResponse);
+        verify(proxy, times(2)).injectCredentialsAndInvokeV2Async(
+                ArgumentMatchers.isA(GetPolicyRequest.class),
+                ArgumentMatchers.any()
+        );
+    }
+
+    @Test
+    void invokeAsyncDoesNotRetryServiceError() {
+
+        // mock an InternalErrorException from the FMS API
+        final CompletableFuture<GetPolicyResponse> failedFuture = new CompletableFuture<>();
+        failedFuture.completeExceptionally(InternalErrorException.builder().build());
+        doReturn(failedFuture)
+                .when(proxy)
+                .injectCredentialsAndInvokeV2Async(
+                        ArgumentMatchers.isA(GetPolicyRequest.class),
+                        ArgumentMatchers.any()
+                );
+
+        // assertions
+        final CompletionException e = assertThrows(CompletionException.class,
+                () -> invoker.invokeAsync(FmsSampleHelper.sampleGetPolicyRequest(), asyncClient::getPolicy).join());
+        assertThat(e.getCause()).isInstanceOf(InternalErrorException.class);
+    }
+
+    @Test
+    void invokeAsyncDoesNotBlockOnRateLimit() {
+
+        // record the threads the requests are made on, past the burst of their rate limit
+        final Set<Thread> requestThreads = ConcurrentHashMap.newKeySet();
+        doAnswer(invocation -> {
+            requestThreads.add(Thread.currentThread());
+            return CompletableFuture.completedFuture(ListTagsForResourceResponse.builder().build());
+        })
+                .when(proxy)
+                .injectCredentialsAndInvokeV2Async(
+                        ArgumentMatchers.isA(ListTagsForResourceRequest.class),
+                        ArgumentMatchers.any()
+                );
+        final ListTagsForResourceRequest request = ListTagsForResourceRequest.builder()
+                .resourceArn(BaseSampleHelper.samplePolicyArn)
+                .build();
+        final List<CompletableFuture<ListTagsForResourceResponse>> responses = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            responses.add(invoker.invokeAsync(request, asyncClient::listTagsForResource));
+        }
+        responses.forEach(CompletableFuture::join);
+
+        // assertions, the requests waiting on the rate limit are made once their wait is over on another thread
+        assertThat(requestThreads).anyMatch(thread -> thread != Thread.currentThread());
+    }
+
+    @Test
+    void invokeHedgesSlowRead() throws IOException, InterruptedException {
+
+        // stall the first read request until the end of the test, its hedge responds immediately
+        final CountDownLatch stalled = new CountDownLatch(1);
+        final GetPolicyResponse getPolicyResponse = FmsSampleHelper.sampleGetPolicyRequiredParametersResponse();
+        doAnswer(invocation -> {
+            stalled.await();
+            return getPolicyResponse;
+        })
+                .doReturn(getPolicyResponse)
+                .when(proxy)
+                .injectCredentialsAndInvokeV2(
+                        ArgumentMatchers.isA(GetPolicyRequest.class),
+                        ArgumentMatchers.any()
+                );
+        final FmsApiInvoker hedgingInvoker = new FmsApiInvoker(proxy, logger, metrics, tracer,
+                Duration.ofSeconds(5), Duration.ofMillis(1), Duration.ofMillis(2), warmHedgingPolicy(1));
+
+        // assertions
+        try {
+            assertThat(hedgingInvoker.invoke(FmsSampleHelper.sampleGetPolicyRequest(), client::getPolicy))
+                    .isEqualTo(getPolicyResponse);
+        } finally {
+            stalled.countDown();
+        }
+        verify(proxy, times(2)).injectCredentialsAndInvokeV2(
+                ArgumentMatchers.isA(GetPolicyRequest.class),
+                ArgumentMatchers.any()
+        );
+
+        // the hedge and its win are recorded in the metrics of the invocation
+        final JsonNode document = new ObjectMapper().readTree(metrics.toEmfDocuments("FMS", 0L).get(0));
+        assertThat(document.get("Calls").asLong()).isEqualTo(1);
+        assertThat(document.get("Hedges").asLong()).isEqualTo(1);
+        assertThat(document.get("HedgeWins").asLong()).isEqualTo(1);
+    }
+
+    @Test
+    void invokeDoesNotHedgeBeyondMaxRatio() throws IOException {
+
+        // slow down the read request past the hedging delay
+        final GetPolicyResponse getPolicyResponse = FmsSampleHelper.sampleGetPolicyRequiredParametersResponse();
+        doAnswer(invocation -> {
+            Thread.sleep(100);
+            return getPolicyResponse;
+        })
+                .when(proxy)
+                .injectCredentialsAndInvokeV2(
+                        ArgumentMatchers.isA(GetPolicyRequest.class),
+                        ArgumentMatchers.any()
+                );
+        final FmsApiInvoker hedgingInvoker = new FmsApiInvoker(proxy, logger, metrics, tracer,
+                Duration.ofSeconds(5), Duration.ofMillis(1), Duration.ofMillis(2), warmHedgingPolicy(0));
+
+        // assertions
+        assertThat(hedgingInvoker.invoke(FmsSampleHelper.sampleGetPolicyRequest(), client::getPolicy))
+                .isEqualTo(getPolicyResponse);
+        verify(proxy, times(1)).injectCredentialsAndInvokeV2(
+                ArgumentMatchers.isA(GetPolicyRequest.class),
+                ArgumentMatchers.any()
+        );
+        final JsonNode document = new ObjectMapper().readTree(metrics.toEmfDocuments("FMS", 0L).get(0));
+        assertThat(document.get("Hedges").asLong()).isEqualTo(0);
+    }
+
+    @Test
+    void invokeAsyncHedgesSlowRead() throws IOException {
+
+        // never respond to the first read request, its hedge responds immediately
+        final GetPolicyResponse getPolicyResponse = FmsSampleHelper.sampleGetPolicyRequiredParametersResponse();
+        doReturn(new CompletableFuture<GetPolicyResponse>())
+                .doReturn(CompletableFuture.completedFuture(getPolicyResponse))
+                .when(proxy)
+                .injectCredentialsAndInvokeV2Async(
+                        ArgumentMatchers.isA(GetPolicyRequest.class),
+                        ArgumentMatchers.any()
+                );
+        final FmsApiInvoker hedgingInvoker = new FmsApiInvoker(proxy, logger, metrics, tracer,
+                Duration.ofSeconds(5), Duration.ofMillis(1), Duration.ofMillis(2), warmHedgingPolicy(1));
+
+        // assertions
+        assertThat(hedgingInvoker.invokeAsync(FmsSampleHelper.sampleGetPolicyRequest(), asyncClient::getPolicy).join())
+                .isEqualTo(getPolicyResponse);
+        verify(proxy, times(2)).injectCredentialsAndInvokeV2Async(
+                ArgumentMatchers.isA(GetPolicyRequest.class),
+                ArgumentMatchers.any()
+        );
+        final JsonNode document = new ObjectMapper().readTree(metrics.toEmfDocuments("FMS", 0L).get(0));
+        assertThat(document.get("Hedges").asLong()).isEqualTo(1);
+        assertThat(document.get("HedgeWins").asLong()).isEqualTo(1);
+    }
+
+    @Test
+    void operationName() {
+
+        // assertions
+        assertThat(FmsApiInvoker.operationName(FmsSampleHelper.sampleGetPolicyRequest())).isEqualTo("GetPolicy");
+    }
+
+    @Test
+    void retryBudgetFromEnvironment() {
+
+        // assertions
+        assertThat(FmsApiInvoker.retryBudgetFromEnvironment(Collections.emptyMap()))
+                .isEqualTo(Duration.ofSeconds(30));
+        assertThat(FmsApiInvoker.retryBudgetFromEnvironment(
+                Collections.singletonMap(FmsApiInvoker.RETRY_BUDGET_ENV, "1500")))
+                .isEqualTo(Duration.ofMillis(1500));
+    }
+
+    /**
+     * Create a hedging policy that has recorded enough latencies of 50 ms to hedge reads after 50 ms.
+     */
+    private static HedgingPolicy warmHedgingPolicy(final double maxRatio) {
+
+        final HedgingPolicy hedging = new HedgingPolicy(50, maxRatio);
+        for (int i = 0; i < HedgingPolicy.MIN_SAMPLES; i++) {
+            hedging.recordLatency("GetPolicy", TimeUnit.MILLISECONDS.toNanos(50));
+        }
+        return hedging;
+    }
+
+    private static FmsException sampleThrottlingException() {
+
+        return FmsException.builder()
+                .awsErrorDetails(AwsErrorDetails.builder().errorCode("ThrottlingException").build())
+                .statusCode(400)
+                .build();
+    }
+}
@@ -48,7 +48,7 @@ public class FmsSampleHelper extends BaseSampleHelper {
 
         if (securityServiceType.equals(SecurityServiceType.THIRD_PARTY_FIREWALL)) {
             sampleSecurityServicePolicyData = SecurityServicePolicyData.builder()
-                    .managedServiceData(sampleManagedServiceData)
+                    .managedServiceData(sampleManagedServiceData(securityServiceType))
                     .type(securityServiceType)
                     .policyOption(PolicyOption.builder()
                             .thirdPartyFirewallPolicy(ThirdPartyFirewallPolicy.builder()
@@ -59,7 +59,7 @@ public class FmsSampleHelper extends BaseSampleHelper {
         } else if (securityServiceType.equals(SecurityServiceType.IMPORT_NETWORK_FIREWALL)
                 || securityServiceType.equals(SecurityServiceType.NETWORK_FIREWALL)) {
             sampleSecurityServicePolicyData = SecurityServicePolicyData.builder()
-                    .managedServiceData(sampleManagedServiceData)
+                    .managedServiceData(sampleManagedServiceData(securityServiceType))
                     .type(securityServiceType)
                     .policyOption(PolicyOption.builder()
                             .networkFirewallPolicy(NetworkFirewallPolicy.builder()
@@ -69,7 +69,7 @@ public class FmsSampleHelper extends BaseSampleHelper {
                     .build();
         } else if(securityServiceType.equals(SecurityServiceType.NETWORK_ACL_COMMON)) {
             sampleSecurityServicePolicyData = SecurityServicePolicyData.builder()
-                    .managedServiceData(sampleManagedServiceData)
+                    .managedServiceData(sampleManagedServiceData(securityServiceType))
                     .type(securityServiceType)
                     .policyOption(PolicyOption.builder()
                             .networkAclCommonPolicy(NetworkAclCommonPolicy.builder()
@@ -88,7 +88,7 @@ public class FmsSampleHelper extends BaseSampleHelper {
                     .build();
         } else {
             sampleSecurityServicePolicyData = SecurityServicePolicyData.builder()
-                    .managedServiceData(sampleManagedServiceData)
+                    .managedServiceData(sampleManagedServiceData(securityServiceType))
                     .type(securityServiceType)
                     .build();
         }
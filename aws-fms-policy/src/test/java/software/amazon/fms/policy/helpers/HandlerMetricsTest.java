@@ -0,0 +1,167 @@
+package software.amazon.fms.policy.helpers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.cloudformation.exceptions.CfnThrottlingException;
+import software.amazon.cloudformation.proxy.HandlerErrorCode;
+import software.amazon.cloudformation.proxy.Logger;
+import software.amazon.cloudformation.proxy.ProgressEvent;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class HandlerMetricsTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Mock
+    private Logger logger;
+
+    @Test
+    void flushOperationAndOutcomeDocuments() throws IOException {
+
+        final HandlerMetrics metrics = new HandlerMetrics("AWS::FMS::Policy", "Update");
+        metrics.recordCall("PutPolicy", TimeUnit.MILLISECONDS.toNanos(120));
+        metrics.recordCall("GetPolicy", TimeUnit.MILLISECONDS.toNanos(30));
+        metrics.recordRetry("GetPolicy", true);
+        metrics.recordCall("GetPolicy", TimeUnit.MILLISECONDS.toNanos(40));
+        metrics.recordOutcome(ProgressEvent.defaultFailureHandler(
+                new IllegalStateException(), HandlerErrorCode.ServiceLimitExceeded));
+        metrics.flush(logger);
+
+        // verify the documents flushed
+        final ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+        verify(logger, times(4)).log(captor.capture());
+        final List<String> documents = captor.getAllValues().subList(1, 4);
+
+        // assertions
+        assertThat(captor.getAllValues().get(0)).isEqualTo("Update FMS API calls: 3 (GetPolicy=2, PutPolicy=1)");
+        final JsonNode getPolicy = MAPPER.readTree(documents.get(0));
+        final JsonNode directive = getPolicy.get("_aws").get("CloudWatchMetrics").get(0);
+        assertThat(directive.get("Dimensions").get(0).toString()).isEqualTo("[\"ResourceType\",\"Operation\"]");
+        assertThat(directive.get("Metrics").findValuesAsText("Name"))
+                .contains("Calls", "Retries", "Throttles", "Failures", "Latency")
+                .contains("Hedges", "HedgeWins");
+        assertThat(getPolicy.get("ResourceType").asText()).isEqualTo("AWS::FMS::Policy");
+        assertThat(getPolicy.get("Operation").asText()).isEqualTo("GetPolicy");
+        assertThat(getPolicy.get("Calls").asLong()).isEqualTo(2);
+        assertThat(getPolicy.get("Retries").asLong()).isEqualTo(1);
+        assertThat(getPolicy.get("Throttles").asLong()).isEqualTo(1);
+        assertThat(getPolicy.get("Latency").toString()).isEqualTo("[30,40]");
+
+        final JsonNode putPolicy = MAPPER.readTree(documents.get(1));
+        assertThat(putPolicy.get("Operation").asText()).isEqualTo("PutPolicy");
+        assertThat(putPolicy.get("Calls").asLong()).isEqualTo(1);
+
+        final JsonNode outcome = MAPPER.readTree(documents.get(2));
+        assertThat(outcome.get("_aws").get("CloudWatchMetrics").get(0).get("Dimensions").get(0).toString())
+                .isEqualTo("[\"ResourceType\",\"Action\",\"Outcome\"]");
+        assertThat(outcome.get("Action").asText()).isEqualTo("Update");
+        assertThat(outcome.get("Outcome").asText()).isEqualTo("ServiceLimitExceeded");
+        assertThat(outcome.get("Invocations").asLong()).isEqualTo(1);
+        assertThat(outcome.get("ApiCalls").asLong()).isEqualTo(3);
+    }
+
+    @Test
+    void callCountsExcludeOperationsNeverCalled() {
+
+        final HandlerMetrics metrics = new HandlerMetrics("AWS::FMS::Policy", "Read");
+        metrics.recordFailure("ListTagsForResource");
+        metrics.recordCall("GetPolicy", TimeUnit.MILLISECONDS.toNanos(10));
+
+        // assertions
+        assertThat(metrics.getCallCounts()).containsOnlyKeys("GetPolicy");
+        assertThat(metrics.getTotalCalls()).isEqualTo(1);
+        assertThat(metrics.callSummary()).isEqualTo("Read FMS API calls: 1 (GetPolicy=1)");
+        assertThat(new HandlerMetrics("AWS::FMS::Policy", "List").callSummary()).isEqualTo("List FMS API calls: 0");
+    }
+
+    @Test
+    void recordOutcomeSuccess() throws IOException {
+
+        final HandlerMetrics metrics = new HandlerMetrics("AWS::FMS::Policy", "Read");
+        metrics.recordOutcome(ProgressEvent.defaultSuccessHandler(null));
+
+        // assertions
+        final List<String> documents = metrics.toEmfDocuments("FMS", 0L);
+        assertThat(documents).hasSize(1);
+        assertThat(MAPPER.readTree(documents.get(0)).get("Outcome").asText()).isEqualTo("SUCCESS");
+    }
+
+    @Test
+    void recordOutcomeFromException() throws IOException {
+
+        final HandlerMetrics metrics = new HandlerMetrics("AWS::FMS::Policy", "Read");
+
+        // assertions
+        metrics.recordOutcome(new CfnThrottlingException("GetPolicy"));
+        assertThat(MAPPER.readTree(metrics.toEmfDocuments("FMS", 0L).get(0)).get("Outcome").asText())
+                .isEqualTo("Throttling");
+        metrics.recordOutcome(new IllegalStateException());
+        assertThat(MAPPER.readTree(metrics.toEmfDocuments("FMS", 0L).get(0)).get("Outcome").asText())
+                .isEqualTo("InternalFailure");
+    }
+
+    @Test
+    void latenciesAreReportedAsArrays() throws IOException {
+
+        final HandlerMetrics metrics = new HandlerMetrics("AWS::FMS::Policy", "Read");
+        metrics.recordCall("GetPolicy", TimeUnit.MILLISECONDS.toNanos(25));
+        metrics.recordCall("GetPolicy", TimeUnit.MILLISECONDS.toNanos(10));
+        metrics.recordCall("GetPolicy", TimeUnit.MILLISECONDS.toNanos(25));
+        metrics.recordFailure("ListTagsForResource");
+
+        // assertions
+        final List<String> documents = metrics.toEmfDocuments("FMS", 0L);
+        final JsonNode failedOperation = MAPPER.readTree(documents.get(1));
+        assertThat(failedOperation.has("Latency")).isFalse();
+        assertThat(failedOperation.get("_aws").findValuesAsText("Name")).doesNotContain("Latency");
+        final JsonNode latency = MAPPER.readTree(documents.get(0)).get("Latency");
+        assertThat(latency.isArray()).isTrue();
+        assertThat(latency.toString()).isEqualTo("[25,10,25]");
+    }
+
+    @Test
+    void latenciesBeyondMaxMetricValuesAreSplitAcrossDocuments() throws IOException {
+
+        final HandlerMetrics metrics = new HandlerMetrics("AWS::FMS::Policy", "Read");
+        final int calls = 2 * HandlerMetrics.MAX_METRIC_VALUES + 50;
+        for (int i = 0; i < calls; i++) {
+            metrics.recordCall("GetPolicy", TimeUnit.MILLISECONDS.toNanos(i));
+        }
+
+        // assertions
+        final List<String> documents = metrics.toEmfDocuments("FMS", 0L);
+        assertThat(documents).hasSize(3);
+        final JsonNode first = MAPPER.readTree(documents.get(0));
+        assertThat(first.get("Calls").asLong()).isEqualTo(calls);
+        assertThat(first.get("Latency")).hasSize(HandlerMetrics.MAX_METRIC_VALUES);
+        final JsonNode last = MAPPER.readTree(documents.get(2));
+        assertThat(last.has("Calls")).isFalse();
+        assertThat(last.get("Operation").asText()).isEqualTo("GetPolicy");
+        assertThat(last.get("_aws").findValuesAsText("Name")).containsExactly("Latency");
+        assertThat(last.get("Latency")).hasSize(50);
+        assertThat(last.get("Latency").get(49).asLong()).isEqualTo(calls - 1);
+    }
+
+    @Test
+    void noOutcomeDocumentBeforeOutcome() {
+
+        final HandlerMetrics metrics = new HandlerMetrics("AWS::FMS::Policy", "Read");
+        metrics.recordFailure("GetPolicy");
+
+        // assertions
+        assertThat(metrics.toEmfDocuments("FMS", 0L)).hasSize(1);
+    }
+}
@@ -0,0 +1,120 @@
+package software.amazon.fms.policy.helpers;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.http.SdkHttpClient;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
+import software.amazon.awssdk.http.async.SdkAsyncHttpClient;
+import software.amazon.awssdk.http.crt.AwsCrtAsyncHttpClient;
+import software.amazon.awssdk.http.crt.AwsCrtHttpClient;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
+import software.amazon.awssdk.http.urlconnection.UrlConnectionHttpClient;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HttpTransportConfigurationTest {
+
+    @Test
+    void fromEnvironmentDefaults() {
+
+        final HttpTransportConfiguration configuration =
+                HttpTransportConfiguration.fromEnvironment(Collections.emptyMap());
+
+        // assertions
+        assertThat(configuration).isEqualTo(HttpTransportConfiguration.builder().build());
+        assertThat(configuration.getProfile()).isEqualTo(HttpTransportConfiguration.Profile.APACHE);
+    }
+
+    @Test
+    void fromEnvironmentAllSettings() {
+
+        final Map<String, String> environment = new HashMap<>();
+        environment.put(HttpTransportConfiguration.PROFILE_ENV, "url_connection");
+        environment.put(HttpTransportConfiguration.MAX_CONNECTIONS_ENV, "8");
+        environment.put(HttpTransportConfiguration.CONNECT_TIMEOUT_ENV, "500");
+        environment.put(HttpTransportConfiguration.SOCKET_TIMEOUT_ENV, "5000");
+        environment.put(HttpTransportConfiguration.TCP_KEEP_ALIVE_ENV, "false");
+        environment.put(HttpTransportConfiguration.CONNECTION_MAX_IDLE_TIME_ENV, "10000");
+
+        final HttpTransportConfiguration configuration = HttpTransportConfiguration.fromEnvironment(environment);
+
+        // assertions
+        assertThat(configuration).isEqualTo(HttpTransportConfiguration.builder()
+                .profile(HttpTransportConfiguration.Profile.URL_CONNECTION)
+                .maxConnections(8)
+                .connectTimeout(Duration.ofMillis(500))
+                .socketTimeout(Duration.ofMillis(5000))
+                .tcpKeepAlive(false)
+                .connectionMaxIdleTime(Duration.ofMillis(10000))
+                .build());
+    }
+
+    @Test
+    void buildHttpClientApache() {
+
+        try (SdkHttpClient httpClient = HttpTransportConfiguration.builder()
+                .profile(HttpTransportConfiguration.Profile.APACHE)
+                .build()
+                .buildHttpClient()) {
+
+            // assertions
+            assertThat(httpClient).isInstanceOf(ApacheHttpClient.class);
+        }
+    }
+
+    @Test
+    void buildHttpClientUrlConnection() {
+
+        try (SdkHttpClient httpClient = HttpTransportConfiguration.builder()
+                .profile(HttpTransportConfiguration.Profile.URL_CONNECTION)
+                .build()
+                .buildHttpClient()) {
+
+            // assertions
+            assertThat(httpClient).isInstanceOf(UrlConnectionHttpClient.class);
+        }
+    }
+
+    @Test
+    void buildHttpClientCrt() {
+
+        try (SdkHttpClient httpClient = HttpTransportConfiguration.builder()
+                .profile(HttpTransportConfiguration.Profile.CRT)
+                .build()
+                .buildHttpClient()) {
+
+            // assertions
+            assertThat(httpClient).isInstanceOf(AwsCrtHttpClient.class);
+        }
+    }
+
+    @Test
+    void buildAsyncHttpClientNetty() {
+
+        try (SdkAsyncHttpClient httpClient = HttpTransportConfiguration.builder()
+                .profile(HttpTransportConfiguration.Profile.APACHE)
+                .build()
+                .buildAsyncHttpClient()) {
+
+            // assertions
+            assertThat(httpClient).isInstanceOf(NettyNioAsyncHttpClient.class);
+        }
+    }
+
+    @Test
+    void buildAsyncHttpClientCrt() {
+
+        try (SdkAsyncHttpClient httpClient = HttpTransportConfiguration.builder()
+                .profile(HttpTransportConfiguration.Profile.CRT)
+                .build()
+                .buildAsyncHttpClient()) {
+
+            // assertions
+            assertThat(httpClient).isInstanceOf(AwsCrtAsyncHttpClient.class);
+        }
+    }
+}
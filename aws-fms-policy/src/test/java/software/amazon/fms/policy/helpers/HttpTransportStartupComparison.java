@@ -0,0 +1,143 @@
+package software.amazon.fms.policy.helpers;
+
+import com.sun.net.httpserver.HttpServer;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.http.SdkHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.fms.FmsClient;
+import software.amazon.awssdk.services.fms.model.GetNotificationChannelRequest;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Compares the startup time of the HTTP transport profiles. Each sample is a fresh JVM that builds an FMS client on
+ * the profile and makes one call to a local endpoint, so class loading and initialization are part of the numbers.
+ * Run with: mvn test-compile -P transport-comparison
+ */
+public class HttpTransportStartupComparison {
+
+    /** Number of fresh JVMs started per profile. */
+    private static final int SAMPLES_PER_PROFILE = 5;
+
+    /** Canned FMS response served by the local endpoint. */
+    private static final byte[] RESPONSE_BODY = "{}".getBytes(StandardCharsets.UTF_8);
+
+    public static void main(final String[] args) throws Exception {
+
+        if (args.length == 2) {
+            probe(HttpTransportConfiguration.Profile.valueOf(args[0]), URI.create(args[1]));
+            return;
+        }
+
+        final HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            exchange.getResponseHeaders().add("Content-Type", "application/x-amz-json-1.1");
+            exchange.sendResponseHeaders(200, RESPONSE_BODY.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(RESPONSE_BODY);
+            }
+        });
+        server.start();
+        final String endpoint = String.format("http://localhost:%d", server.getAddress().getPort());
+
+        try {
+            System.out.println("profile         client built (ms, median)   first response (ms, median)");
+            for (final HttpTransportConfiguration.Profile profile : HttpTransportConfiguration.Profile.values()) {
+                final List<Long> clientBuilt = new ArrayList<>();
+                final List<Long> firstResponse = new ArrayList<>();
+                for (int i = 0; i < SAMPLES_PER_PROFILE; i++) {
+                    final long[] sample = runProbe(profile, endpoint);
+                    if (sample == null) {
+                        break;
+                    }
+                    clientBuilt.add(sample[0]);
+                    firstResponse.add(sample[1]);
+                }
+                if (clientBuilt.isEmpty()) {
+                    System.out.printf("%-15s unavailable%n", profile);
+                } else {
+                    System.out.printf("%-15s %-27d %d%n", profile, median(clientBuilt), median(firstResponse));
+                }
+            }
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    /**
+     * Start a fresh JVM probing a profile.
+     * @param profile Transport profile to probe.
+     * @param endpoint Local FMS endpoint.
+     * @return The milliseconds from JVM start until the client was built and until the first response arrived, or
+     *     null if the probe failed (e.g. the CRT client is not on the classpath).
+     */
+    private static long[] runProbe(final HttpTransportConfiguration.Profile profile, final String endpoint)
+            throws IOException, InterruptedException {
+
+        final Process process = new ProcessBuilder(
+                Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+                "-classpath", System.getProperty("java.class.path"),
+                HttpTransportStartupComparison.class.getName(),
+                profile.name(),
+                endpoint)
+                .redirectErrorStream(true)
+                .start();
+
+        String result = null;
+        try (BufferedReader output = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = output.readLine()) != null) {
+                result = line;
+            }
+        }
+        if (process.waitFor() != 0 || result == null) {
+            return null;
+        }
+        final String[] fields = result.split(" ");
+        return new long[] {Long.parseLong(fields[0]), Long.parseLong(fields[1])};
+    }
+
+    /**
+     * Build a client on a profile and make one call, printing the elapsed times since JVM start.
+     * @param profile Transport profile to probe.
+     * @param endpoint Local FMS endpoint.
+     */
+    private static void probe(final HttpTransportConfiguration.Profile profile, final URI endpoint) {
+
+        final long jvmStart = ManagementFactory.getRuntimeMXBean().getStartTime();
+        final SdkHttpClient httpClient = HttpTransportConfiguration.builder().profile(profile).build().buildHttpClient();
+        try (FmsClient client = FmsClient.builder()
+                .httpClient(httpClient)
+                .region(Region.US_EAST_1)
+                .endpointOverride(endpoint)
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("akid", "secret")))
+                .build()) {
+            final long clientBuilt = System.currentTimeMillis() - jvmStart;
+            client.getNotificationChannel(GetNotificationChannelRequest.builder().build());
+            final long firstResponse = System.currentTimeMillis() - jvmStart;
+            System.out.printf("%d %d%n", clientBuilt, firstResponse);
+        } finally {
+            httpClient.close();
+        }
+    }
+
+    private static long median(final List<Long> samples) {
+
+        final List<Long> sorted = new ArrayList<>(samples);
+        Collections.sort(sorted);
+        return sorted.get(sorted.size() / 2);
+    }
+}
@@ -0,0 +1,101 @@
+package software.amazon.fms.policy.helpers;
+
+import software.amazon.awssdk.services.fms.FmsAsyncClient;
+import software.amazon.awssdk.services.fms.model.DeletePolicyRequest;
+import software.amazon.awssdk.services.fms.model.DeletePolicyResponse;
+import software.amazon.awssdk.services.fms.model.GetPolicyRequest;
+import software.amazon.awssdk.services.fms.model.GetPolicyResponse;
+import software.amazon.awssdk.services.fms.model.ListPoliciesRequest;
+import software.amazon.awssdk.services.fms.model.ListPoliciesResponse;
+import software.amazon.awssdk.services.fms.model.ListTagsForResourceRequest;
+import software.amazon.awssdk.services.fms.model.ListTagsForResourceResponse;
+import software.amazon.awssdk.services.fms.model.PutPolicyRequest;
+import software.amazon.awssdk.services.fms.model.PutPolicyResponse;
+import software.amazon.awssdk.services.fms.model.TagResourceRequest;
+import software.amazon.awssdk.services.fms.model.TagResourceResponse;
+import software.amazon.awssdk.services.fms.model.UntagResourceRequest;
+import software.amazon.awssdk.services.fms.model.UntagResourceResponse;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Asynchronous view of an {@link InMemoryFmsClient}, sharing its state. Calls run on daemon threads of their own, so
+ * the latency of the stand-in does not hold up the calling thread or the common pool.
+ */
+public class InMemoryFmsAsyncClient implements FmsAsyncClient {
+
+    private final InMemoryFmsClient client;
+    private final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+        final Thread thread = new Thread(runnable, "in-memory-fms");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public InMemoryFmsAsyncClient(final InMemoryFmsClient client) {
+
+        this.client = client;
+    }
+
+    @Override
+    public String serviceName() {
+
+        return SERVICE_NAME;
+    }
+
+    @Override
+    public void close() {
+
+        executor.shutdown();
+    }
+
+    @Override
+    public CompletableFuture<PutPolicyResponse> putPolicy(final PutPolicyRequest request) {
+
+        return supply(() -> client.putPolicy(request));
+    }
+
+    @Override
+    public CompletableFuture<GetPolicyResponse> getPolicy(final GetPolicyRequest request) {
+
+        return supply(() -> client.getPolicy(request));
+    }
+
+    @Override
+    public CompletableFuture<DeletePolicyResponse> deletePolicy(final DeletePolicyRequest request) {
+
+        return supply(() -> client.deletePolicy(request));
+    }
+
+    @Override
+    public CompletableFuture<ListPoliciesResponse> listPolicies(final ListPoliciesRequest request) {
+
+        return supply(() -> client.listPolicies(request));
+    }
+
+    @Override
+    public CompletableFuture<ListTagsForResourceResponse> listTagsForResource(
+            final ListTagsForResourceRequest request) {
+
+        return supply(() -> client.listTagsForResource(request));
+    }
+
+    @Override
+    public CompletableFuture<TagResourceResponse> tagResource(final TagResourceRequest request) {
+
+        return supply(() -> client.tagResource(request));
+    }
+
+    @Override
+    public CompletableFuture<UntagResourceResponse> untagResource(final UntagResourceRequest request) {
+
+        return supply(() -> client.untagResource(request));
+    }
+
+    private <T> CompletableFuture<T> supply(final Supplier<T> call) {
+
+        return CompletableFuture.supplyAsync(call, executor);
+    }
+}
@@ -0,0 +1,377 @@
+package software.amazon.fms.policy.helpers;
+
+import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
+import software.amazon.awssdk.core.exception.AbortedException;
+import software.amazon.awssdk.services.fms.FmsClient;
+import software.amazon.awssdk.services.fms.model.DeletePolicyRequest;
+import software.amazon.awssdk.services.fms.model.DeletePolicyResponse;
+import software.amazon.awssdk.services.fms.model.FmsException;
+import software.amazon.awssdk.services.fms.model.GetPolicyRequest;
+import software.amazon.awssdk.services.fms.model.GetPolicyResponse;
+import software.amazon.awssdk.services.fms.model.InvalidOperationException;
+import software.amazon.awssdk.services.fms.model.ListPoliciesRequest;
+import software.amazon.awssdk.services.fms.model.ListPoliciesResponse;
+import software.amazon.awssdk.services.fms.model.ListTagsForResourceRequest;
+import software.amazon.awssdk.services.fms.model.ListTagsForResourceResponse;
+import software.amazon.awssdk.services.fms.model.Policy;
+import software.amazon.awssdk.services.fms.model.PolicySummary;
+import software.amazon.awssdk.services.fms.model.PutPolicyRequest;
+import software.amazon.awssdk.services.fms.model.PutPolicyResponse;
+import software.amazon.awssdk.services.fms.model.ResourceNotFoundException;
+import software.amazon.awssdk.services.fms.model.Tag;
+import software.amazon.awssdk.services.fms.model.TagResourceRequest;
+import software.amazon.awssdk.services.fms.model.TagResourceResponse;
+import software.amazon.awssdk.services.fms.model.UntagResourceRequest;
+import software.amazon.awssdk.services.fms.model.UntagResourceResponse;
+import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.Credentials;
+import software.amazon.cloudformation.proxy.LoggerProxy;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Stateful in-memory stand-in for the FMS policy and tagging APIs, to run the real handlers through multi-call flows
+ * offline. Every call can be delayed by a latency distribution and throttled at a configurable rate, both drawn from
+ * a seeded random source so that runs are repeatable. The stand-in is thread safe, the latency of concurrent calls
+ * overlaps as it would against the service.
+ */
+public class InMemoryFmsClient implements FmsClient {
+
+    public static final String PARTITION = "aws";
+    public static final String REGION = "us-east-1";
+    public static final String ACCOUNT_ID = "000000000000";
+
+    private final LongSupplier latencyMillis;
+    private final double throttleRate;
+    private final Random random;
+
+    private final Map<String, Policy> policies = new TreeMap<>();
+    private final Map<String, Map<String, String>> tags = new TreeMap<>();
+    private final Map<String, Long> callCounts = new ConcurrentSkipListMap<>();
+
+    private InMemoryFmsClient(final Builder builder) {
+
+        this.random = new Random(builder.seed);
+        this.latencyMillis = builder.latencyMillis == null ? () -> 0 : builder.latencyMillis.apply(random);
+        this.throttleRate = builder.throttleRate;
+    }
+
+    public static Builder builder() {
+
+        return new Builder();
+    }
+
+    /**
+     * Create a CloudFormation proxy that makes the requests of the handlers against a stand-in, the way the proxy
+     * given to the handlers in Lambda does.
+     * @return The proxy.
+     */
+    public static AmazonWebServicesClientProxy newProxy() {
+
+        return new AmazonWebServicesClientProxy(
+                new LoggerProxy(),
+                new Credentials("accessKeyId", "secretAccessKey", "sessionToken"),
+                () -> Long.MAX_VALUE);
+    }
+
+    /**
+     * Get the number of calls made to each FMS operation, throttled calls included.
+     * @return Calls per FMS operation, sorted by operation.
+     */
+    public Map<String, Long> getCallCounts() {
+
+        return new TreeMap<>(callCounts);
+    }
+
+    /**
+     * Get the policies currently stored, keyed by policy ID.
+     * @return The stored policies.
+     */
+    public synchronized Map<String, Policy> getPolicies() {
+
+        return new TreeMap<>(policies);
+    }
+
+    @Override
+    public String serviceName() {
+
+        return SERVICE_NAME;
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public PutPolicyResponse putPolicy(final PutPolicyRequest request) {
+
+        return call("PutPolicy", () -> {
+            final Policy policy = request.policy();
+            final String policyId;
+            final long updateToken;
+            if (policy.policyId() == null) {
+                policyId = UUID.randomUUID().toString();
+                updateToken = 1;
+            } else {
+                final Policy current = policies.get(policy.policyId());
+                if (current == null) {
+                    throw notFound("Policy " + policy.policyId());
+                }
+                if (!current.policyUpdateToken().equals(policy.policyUpdateToken())) {
+                    throw InvalidOperationException.builder()
+                            .message("The policy update token is out of date")
+                            .awsErrorDetails(errorDetails("InvalidOperationException"))
+                            .statusCode(400)
+                            .build();
+                }
+                policyId = policy.policyId();
+                updateToken = Long.parseLong(current.policyUpdateToken()) + 1;
+            }
+
+            final Policy stored = policy.toBuilder()
+                    .policyId(policyId)
+                    .policyUpdateToken(String.valueOf(updateToken))
+                    .build();
+            policies.put(policyId, stored);
+            final String policyArn = policyArn(policyId);
+            if (updateToken == 1) {
+                tags.put(policyArn, new TreeMap<>());
+            }
+            if (request.hasTagList()) {
+                request.tagList().forEach(tag -> tags.get(policyArn).put(tag.key(), tag.value()));
+            }
+            return PutPolicyResponse.builder().policy(stored).policyArn(policyArn).build();
+        });
+    }
+
+    @Override
+    public GetPolicyResponse getPolicy(final GetPolicyRequest request) {
+
+        return call("GetPolicy", () -> {
+            final Policy policy = policies.get(request.policyId());
+            if (policy == null) {
+                throw notFound("Policy " + request.policyId());
+            }
+            return GetPolicyResponse.builder().policy(policy).policyArn(policyArn(policy.policyId())).build();
+        });
+    }
+
+    @Override
+    public DeletePolicyResponse deletePolicy(final DeletePolicyRequest request) {
+
+        return call("DeletePolicy", () -> {
+            if (policies.remove(request.policyId()) == null) {
+                throw notFound("Policy " + request.policyId());
+            }
+            tags.remove(policyArn(request.policyId()));
+            return DeletePolicyResponse.builder().build();
+        });
+    }
+
+    @Override
+    public ListPoliciesResponse listPolicies(final ListPoliciesRequest request) {
+
+        return call("ListPolicies", () -> {
+            final List<Policy> all = new ArrayList<>(policies.values());
+            final int from = request.nextToken() == null ? 0 : Integer.parseInt(request.nextToken());
+            final int pageSize = request.maxResults() == null ? 100 : request.maxResults();
+            final int to = Math.min(all.size(), from + pageSize);
+            final List<PolicySummary> page = all.subList(from, to).stream()
+                    .map(policy -> PolicySummary.builder()
+                            .policyArn(policyArn(policy.policyId()))
+                            .policyId(policy.policyId())
+                            .policyName(policy.policyName())
+                            .resourceType(policy.resourceType())
+                            .securityServiceType(policy.securityServicePolicyData().type())
+                            .remediationEnabled(policy.remediationEnabled())
+                            .build())
+                    .collect(Collectors.toList());
+            return ListPoliciesResponse.builder()
+                    .policyList(page)
+                    .nextToken(to < all.size() ? String.valueOf(to) : null)
+                    .build();
+        });
+    }
+
+    @Override
+    public ListTagsForResourceResponse listTagsForResource(final ListTagsForResourceRequest request) {
+
+        return call("ListTagsForResource", () -> ListTagsForResourceResponse.builder()
+                .tagList(tagsOf(request.resourceArn()).entrySet().stream()
+                        .map(tag -> Tag.builder().key(tag.getKey()).value(tag.getValue()).build())
+                        .collect(Collectors.toList()))
+                .build());
+    }
+
+    @Override
+    public TagResourceResponse tagResource(final TagResourceRequest request) {
+
+        return call("TagResource", () -> {
+            final Map<String, String> resourceTags = tagsOf(request.resourceArn());
+            request.tagList().forEach(tag -> resourceTags.put(tag.key(), tag.value()));
+            return TagResourceResponse.builder().build();
+        });
+    }
+
+    @Override
+    public UntagResourceResponse untagResource(final UntagResourceRequest request) {
+
+        return call("UntagResource", () -> {
+            tagsOf(request.resourceArn()).keySet().removeAll(request.tagKeys());
+            return UntagResourceResponse.builder().build();
+        });
+    }
+
+    /**
+     * Make a call against the stand-in: wait for the latency of the call, throttle it or run it on the state.
+     * @param operation FMS operation.
+     * @param body Effect of the call on the state.
+     * @param <T> Type of the response.
+     * @return The response.
+     */
+    private <T> T call(final String operation, final Supplier<T> body) {
+
+        callCounts.merge(operation, 1L, Long::sum);
+        final long latency;
+        final boolean throttled;
+        synchronized (random) {
+            latency = latencyMillis.getAsLong();
+            throttled = random.nextDouble() < throttleRate;
+        }
+        sleep(latency);
+        if (throttled) {
+            throw FmsException.builder()
+                    .message("Rate exceeded")
+                    .awsErrorDetails(errorDetails("ThrottlingException"))
+                    .statusCode(400)
+                    .build();
+        }
+        synchronized (this) {
+            return body.get();
+        }
+    }
+
+    private Map<String, String> tagsOf(final String resourceArn) {
+
+        final Map<String, String> resourceTags = tags.get(resourceArn);
+        if (resourceTags == null) {
+            throw notFound("Resource " + resourceArn);
+        }
+        return resourceTags;
+    }
+
+    private static String policyArn(final String policyId) {
+
+        return String.format("arn:%s:fms:%s:%s:policy/%s", PARTITION, REGION, ACCOUNT_ID, policyId);
+    }
+
+    private static ResourceNotFoundException notFound(final String resource) {
+
+        return ResourceNotFoundException.builder()
+                .message(resource + " does not exist")
+                .awsErrorDetails(errorDetails("ResourceNotFoundException"))
+                .statusCode(400)
+                .build();
+    }
+
+    private static AwsErrorDetails errorDetails(final String errorCode) {
+
+        return AwsErrorDetails.builder().errorCode(errorCode).serviceName(SERVICE_NAME).build();
+    }
+
+    private static void sleep(final long millis) {
+
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw AbortedException.builder().message("Interrupted while waiting for the stand-in").cause(e).build();
+        }
+    }
+
+    public static class Builder {
+
+        private long seed = 0;
+        private Function<Random, LongSupplier> latencyMillis;
+        private double throttleRate = 0;
+
+        /**
+         * Seed the random source of the latencies and throttling.
+         * @param seed Seed of the random source.
+         * @return This builder.
+         */
+        public Builder seed(final long seed) {
+
+            this.seed = seed;
+            return this;
+        }
+
+        /**
+         * Delay every call by the same latency.
+         * @param latency Latency of the calls.
+         * @return This builder.
+         */
+        public Builder fixedLatency(final Duration latency) {
+
+            this.latencyMillis = random -> latency::toMillis;
+            return this;
+        }
+
+        /**
+         * Delay the calls by latencies drawn uniformly between two bounds.
+         * @param min Lower bound of the latencies.
+         * @param max Upper bound of the latencies.
+         * @return This builder.
+         */
+        public Builder uniformLatency(final Duration min, final Duration max) {
+
+            this.latencyMillis = random ->
+                    () -> min.toMillis() + (long) (random.nextDouble() * (max.toMillis() - min.toMillis()));
+            return this;
+        }
+
+        /**
+         * Delay the calls by log-normally distributed latencies, the long tail typical of service calls.
+         * @param median Median latency of the calls.
+         * @param sigma Standard deviation of the logarithm of the latencies, 0.5 gives a p99 around 3x the median.
+         * @return This builder.
+         */
+        public Builder logNormalLatency(final Duration median, final double sigma) {
+
+            this.latencyMillis = random ->
+                    () -> Math.round(median.toMillis() * Math.exp(sigma * random.nextGaussian()));
+            return this;
+        }
+
+        /**
+         * Throttle a fraction of the calls with a ThrottlingException.
+         * @param throttleRate Fraction of the calls throttled, between 0 and 1.
+         * @return This builder.
+         */
+        public Builder throttleRate(final double throttleRate) {
+
+            this.throttleRate = throttleRate;
+            return this;
+        }
+
+        public InMemoryFmsClient build() {
+
+            return new InMemoryFmsClient(this);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package software.amazon.fms.policy.helpers;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ManagedServiceDataCanonicalizerTest {
+
+    @Test
+    void keyOrderWhitespaceAndNullsAreCanonicalized() {
+
+        final String managedServiceData = "{ \"type\" : \"SECURITY_GROUPS_COMMON\",\n"
+                + "  \"securityGroups\" : [ { \"id\" : \"sg-2\" }, { \"id\" : \"sg-1\" } ],\n"
+                + "  \"revertManualSecurityGroupChanges\" : false, \"applyToAllEC2InstanceENIs\" : null }";
+
+        // assertions
+        assertThat(ManagedServiceDataCanonicalizer.canonicalize(managedServiceData)).isEqualTo(
+                "{\"revertManualSecurityGroupChanges\":false,"
+                        + "\"securityGroups\":[{\"id\":\"sg-2\"},{\"id\":\"sg-1\"}],"
+                        + "\"type\":\"SECURITY_GROUPS_COMMON\"}");
+    }
+
+    @Test
+    void shieldAdvancedDefaultsAreRemoved() {
+
+        final String managedServiceData = "{\"type\":\"SHIELD_ADVANCED\","
+                + "\"automaticResponseConfiguration\":{\"automaticResponseStatus\":\"DISABLED\"},"
+                + "\"overrideCustomerWebaclClassic\":false}";
+
+        // assertions
+        assertThat(ManagedServiceDataCanonicalizer.canonicalize(managedServiceData))
+                .isEqualTo("{\"type\":\"SHIELD_ADVANCED\"}");
+        assertThat(ManagedServiceDataCanonicalizer.equivalent(managedServiceData, "{\"type\":\"SHIELD_ADVANCED\"}"))
+                .isTrue();
+        assertThat(ManagedServiceDataCanonicalizer.canonicalize(
+                "{\"type\":\"SHIELD_ADVANCED\",\"overrideCustomerWebaclClassic\":true}"))
+                .isEqualTo("{\"overrideCustomerWebaclClassic\":true,\"type\":\"SHIELD_ADVANCED\"}");
+    }
+
+    @Test
+    void wafv2RuleGroupOrderIsKeptAndExcludedRulesAreSorted() {
+
+        final String managedServiceData = "{\"type\":\"WAFV2\",\"preProcessRuleGroups\":["
+                + "{\"ruleGroupArn\":\"arn-b\",\"excludeRules\":[{\"name\":\"rule-2\"},{\"name\":\"rule-1\"}]},"
+                + "{\"ruleGroupArn\":\"arn-a\",\"excludeRules\":[]}]}";
+        final String reordered = "{\"type\":\"WAFV2\",\"preProcessRuleGroups\":["
+                + "{\"ruleGroupArn\":\"arn-a\",\"excludeRules\":[]},"
+                + "{\"ruleGroupArn\":\"arn-b\",\"excludeRules\":[{\"name\":\"rule-1\"},{\"name\":\"rule-2\"}]}]}";
+
+        // assertions
+        assertThat(ManagedServiceDataCanonicalizer.canonicalize(managedServiceData)).isEqualTo(
+                "{\"preProcessRuleGroups\":["
+                        + "{\"excludeRules\":[{\"name\":\"rule-1\"},{\"name\":\"rule-2\"}],\"ruleGroupArn\":\"arn-b\"},"
+                        + "{\"excludeRules\":[],\"ruleGroupArn\":\"arn-a\"}],"
+                        + "\"type\":\"WAFV2\"}");
+        assertThat(ManagedServiceDataCanonicalizer.equivalent(managedServiceData, reordered)).isFalse();
+    }
+
+    @Test
+    void dnsFirewallRuleGroupsAreUnordered() {
+
+        final String managedServiceData = "{\"type\":\"DNS_FIREWALL\",\"preProcessRuleGroups\":["
+                + "{\"ruleGroupId\":\"rslvr-frg-2\",\"priority\":11},"
+                + "{\"ruleGroupId\":\"rslvr-frg-1\",\"priority\":10}]}";
+        final String reordered = "{\"preProcessRuleGroups\":["
+                + "{\"priority\":10,\"ruleGroupId\":\"rslvr-frg-1\"},"
+                + "{\"priority\":11,\"ruleGroupId\":\"rslvr-frg-2\"}],"
+                + "\"type\":\"DNS_FIREWALL\"}";
+
+        // assertions
+        assertThat(ManagedServiceDataCanonicalizer.equivalent(managedServiceData, reordered)).isTrue();
+        assertThat(ManagedServiceDataCanonicalizer.hash(managedServiceData))
+                .isEqualTo(ManagedServiceDataCanonicalizer.hash(reordered))
+                .hasSize(64);
+    }
+
+    @Test
+    void networkFirewallActionsAreUnordered() {
+
+        final String managedServiceData = "{\"type\":\"NETWORK_FIREWALL\","
+                + "\"networkFirewallStatelessDefaultActions\":[\"custom\",\"aws:forward_to_sfe\"]}";
+        final String reordered = "{\"type\":\"NETWORK_FIREWALL\","
+                + "\"networkFirewallStatelessDefaultActions\":[\"aws:forward_to_sfe\",\"custom\"]}";
+
+        // assertions
+        assertThat(ManagedServiceDataCanonicalizer.equivalent(managedServiceData, reordered)).isTrue();
+        assertThat(ManagedServiceDataCanonicalizer.equivalent(
+                managedServiceData.replace("NETWORK_FIREWALL", "IMPORT_NETWORK_FIREWALL"),
+                reordered.replace("NETWORK_FIREWALL", "IMPORT_NETWORK_FIREWALL")))
+                .isTrue();
+    }
+
+    @Test
+    void invalidOrBlankDataIsLeftUnchanged() {
+
+        // assertions
+        assertThat(ManagedServiceDataCanonicalizer.canonicalize("{\"type\":")).isEqualTo("{\"type\":");
+        assertThat(ManagedServiceDataCanonicalizer.canonicalize("{} {}")).isEqualTo("{} {}");
+        assertThat(ManagedServiceDataCanonicalizer.canonicalize(null)).isNull();
+        assertThat(ManagedServiceDataCanonicalizer.hash("")).isEmpty();
+        assertThat(ManagedServiceDataCanonicalizer.equivalent(null, " ")).isTrue();
+    }
+
+    @Test
+    void canonicalFormIsCached() {
+
+        final String managedServiceData = "{ \"type\" : \"NETWORK_FIREWALL\" }";
+
+        // assertions
+        assertThat(ManagedServiceDataCanonicalizer.canonicalize(managedServiceData))
+                .isSameAs(ManagedServiceDataCanonicalizer.canonicalize(managedServiceData));
+    }
+}
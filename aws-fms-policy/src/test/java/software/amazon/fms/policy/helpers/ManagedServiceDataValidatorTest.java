@@ -0,0 +1,78 @@
+package software.amazon.fms.policy.helpers;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.fms.policy.ResourceModel;
+import software.amazon.fms.policy.SecurityServicePolicyData;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ManagedServiceDataValidatorTest {
+
+    @Test
+    void generatedManagedServiceDataOfEveryTypeIsValid() {
+
+        final WorkloadGenerator generator = new WorkloadGenerator(WorkloadGenerator.DEFAULT_SEED);
+        final int types = WorkloadGenerator.securityServiceTypes().length;
+        for (final ResourceModel policy : generator.policies(types, 1, 1)) {
+
+            // assertions
+            assertThat(ManagedServiceDataValidator.validate(policy.getSecurityServicePolicyData()))
+                    .as(policy.getSecurityServicePolicyData().getType())
+                    .isEmpty();
+        }
+    }
+
+    @Test
+    void unsetManagedServiceDataIsNotValidated() {
+
+        // assertions
+        assertThat(ManagedServiceDataValidator.validate(null)).isEmpty();
+        assertThat(ManagedServiceDataValidator.validate(SecurityServicePolicyData.builder()
+                .type("SHIELD_ADVANCED")
+                .build()))
+                .isEmpty();
+    }
+
+    @Test
+    void typeMustMatchThePolicyType() {
+
+        // assertions
+        assertThat(ManagedServiceDataValidator.validate("WAFV2", "{\"type\":\"WAF\"}"))
+                .containsExactly("ManagedServiceData.type must be WAFV2");
+        assertThat(ManagedServiceDataValidator.validate("WAFV2", "{\"defaultAction\":{\"type\":\"ALLOW\"}}"))
+                .containsExactly("ManagedServiceData.type is required and must be WAFV2");
+    }
+
+    @Test
+    void memberKindsAreCheckedAgainstThePolicyTypeSchema() {
+
+        final String managedServiceData = "{\"type\":\"SECURITY_GROUPS_COMMON\",\"securityGroups\":{\"id\":\"sg-1\"},"
+                + "\"revertManualSecurityGroupChanges\":\"true\",\"applyToAllEC2InstanceENIs\":null,"
+                + "\"unknownMember\":[1]}";
+
+        // assertions
+        assertThat(ManagedServiceDataValidator.validate("SECURITY_GROUPS_COMMON", managedServiceData))
+                .containsExactly(
+                        "ManagedServiceData.securityGroups must be a JSON array",
+                        "ManagedServiceData.revertManualSecurityGroupChanges must be a JSON boolean");
+        assertThat(ManagedServiceDataValidator.validate("DNS_FIREWALL",
+                "{\"type\":\"DNS_FIREWALL\",\"preProcessRuleGroups\":[],\"type\":\"DNS_FIREWALL\"}"))
+                .containsExactly("ManagedServiceData.type is duplicated");
+    }
+
+    @Test
+    void malformedJsonIsRejected() {
+
+        // assertions
+        assertThat(ManagedServiceDataValidator.validate("WAFV2", "[\"WAFV2\"]"))
+                .containsExactly("ManagedServiceData must be a JSON object");
+        final List<String> violations =
+                ManagedServiceDataValidator.validate("WAFV2", "{\"type\":\"WAFV2\",\"preProcessRuleGroups\":[}");
+        assertThat(violations).hasSize(1);
+        assertThat(violations.get(0)).startsWith("ManagedServiceData is not valid JSON");
+        assertThat(ManagedServiceDataValidator.validate("WAFV2", "{\"type\":\"WAFV2\"} {}"))
+                .containsExactly("ManagedServiceData has content after its JSON object");
+    }
+}
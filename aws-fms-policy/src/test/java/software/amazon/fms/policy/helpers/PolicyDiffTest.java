@@ -0,0 +1,146 @@
+package software.amazon.fms.policy.helpers;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.fms.model.NetworkAclCommonPolicy;
+import software.amazon.awssdk.services.fms.model.NetworkAclEntrySet;
+import software.amazon.awssdk.services.fms.model.Policy;
+import software.amazon.awssdk.services.fms.model.PolicyOption;
+import software.amazon.awssdk.services.fms.model.ResourceTag;
+import software.amazon.awssdk.services.fms.model.SecurityServicePolicyData;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PolicyDiffTest {
+
+    @Test
+    void equivalentPoliciesHaveNoDifferences() {
+
+        final Policy live = samplePolicy()
+                .policyId("policy-id")
+                .policyUpdateToken("3")
+                .build();
+        final Policy desired = samplePolicy()
+                .policyUpdateToken("3")
+                .build();
+
+        // assertions
+        final PolicyDiff diff = PolicyDiff.between(live, desired);
+        assertThat(diff.isEmpty()).isTrue();
+        assertThat(diff.getDifferences()).isEmpty();
+        assertThat(diff).hasToString("no changes");
+    }
+
+    @Test
+    void orderAndFormattingAreIgnored() {
+
+        final Map<String, List<String>> includeMap = new HashMap<>();
+        includeMap.put("ACCOUNT", Arrays.asList("222222222222", "111111111111"));
+        final Policy live = samplePolicy()
+                .policyDescription("")
+                .includeMapWithStrings(includeMap)
+                .resourceTypeList("AWS::EC2::Instance", "AWS::EC2::NetworkInterface")
+                .resourceTags(
+                        ResourceTag.builder().key("b").value("2").build(),
+                        ResourceTag.builder().key("a").value("1").build())
+                .securityServicePolicyData(SecurityServicePolicyData.builder()
+                        .type("SECURITY_GROUPS_CONTENT_AUDIT")
+                        .managedServiceData("{ \"type\" : \"SECURITY_GROUPS_CONTENT_AUDIT\", \"rules\" : [ ] }")
+                        .policyOption(PolicyOption.builder()
+                                .networkAclCommonPolicy(NetworkAclCommonPolicy.builder()
+                                        .networkAclEntrySet(NetworkAclEntrySet.builder()
+                                                .forceRemediateForFirstEntries(false)
+                                                .build())
+                                        .build())
+                                .build())
+                        .build())
+                .build();
+        final Policy desired = samplePolicy()
+                .remediationEnabled(null)
+                .includeMapWithStrings(Collections.singletonMap(
+                        "ACCOUNT",
+                        Arrays.asList("111111111111", "222222222222")))
+                .resourceTypeList("AWS::EC2::NetworkInterface", "AWS::EC2::Instance")
+                .resourceTags(
+                        ResourceTag.builder().key("a").value("1").build(),
+                        ResourceTag.builder().key("b").value("2").build())
+                .build();
+
+        // assertions
+        assertThat(PolicyDiff.between(live, desired).isEmpty()).isTrue();
+    }
+
+    @Test
+    void materialChangesAreReported() {
+
+        final Policy live = samplePolicy()
+                .includeMapWithStrings(Collections.singletonMap("ACCOUNT", Arrays.asList("111111111111")))
+                .build();
+        final Policy desired = samplePolicy()
+                .remediationEnabled(true)
+                .includeMapWithStrings(Collections.singletonMap(
+                        "ACCOUNT",
+                        Arrays.asList("222222222222", "333333333333")))
+                .securityServicePolicyData(SecurityServicePolicyData.builder()
+                        .type("SECURITY_GROUPS_CONTENT_AUDIT")
+                        .managedServiceData("{\"type\":\"SECURITY_GROUPS_CONTENT_AUDIT\",\"rules\":[{}]}")
+                        .build())
+                .build();
+
+        // assertions
+        final PolicyDiff diff = PolicyDiff.between(live, desired);
+        assertThat(diff.isEmpty()).isFalse();
+        assertThat(diff.getDifferences()).containsExactly(
+                "RemediationEnabled: false -> true",
+                "IncludeMap.ACCOUNT: 2 added, 1 removed",
+                String.format("SecurityServicePolicyData.ManagedServiceData: %s -> %s",
+                        ManagedServiceDataCanonicalizer.hash(live.securityServicePolicyData().managedServiceData())
+                                .substring(0, 8),
+                        ManagedServiceDataCanonicalizer.hash(desired.securityServicePolicyData().managedServiceData())
+                                .substring(0, 8)));
+        assertThat(diff).hasToString(String.join("; ", diff.getDifferences()));
+    }
+
+    @Test
+    void accountScopesAreComparedAsSets() {
+
+        final Policy live = samplePolicy()
+                .excludeMapWithStrings(Collections.singletonMap(
+                        "ACCOUNT",
+                        Arrays.asList("111111111111", "222222222222", "111111111111")))
+                .includeMapWithStrings(Collections.singletonMap("ACCOUNT", Arrays.asList("111111111111", "1111")))
+                .build();
+        final Policy desired = samplePolicy()
+                .excludeMapWithStrings(Collections.singletonMap(
+                        "ACCOUNT",
+                        Arrays.asList("222222222222", "111111111111", "333333333333")))
+                .includeMapWithStrings(Collections.singletonMap("ACCOUNT", Arrays.asList("1111", "111111111111")))
+                .build();
+
+        // assertions, an ID that is not an account ID is still compared
+        assertThat(PolicyDiff.between(live, desired).getDifferences())
+                .containsExactly("ExcludeMap.ACCOUNT: 1 added, 0 removed");
+    }
+
+    /**
+     * Assembles a minimal policy shared by the live and desired sides.
+     * @return The policy builder.
+     */
+    private static Policy.Builder samplePolicy() {
+
+        return Policy.builder()
+                .policyName("policy")
+                .remediationEnabled(false)
+                .excludeResourceTags(false)
+                .resourceType("AWS::EC2::Instance")
+                .securityServicePolicyData(SecurityServicePolicyData.builder()
+                        .type("SECURITY_GROUPS_CONTENT_AUDIT")
+                        .managedServiceData("{\"type\":\"SECURITY_GROUPS_CONTENT_AUDIT\",\"rules\":[]}")
+                        .build());
+    }
+}
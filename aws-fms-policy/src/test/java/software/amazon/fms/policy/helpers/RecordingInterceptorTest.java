@@ -0,0 +1,170 @@
+package software.amazon.fms.policy.helpers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.fms.FmsAsyncClient;
+import software.amazon.awssdk.services.fms.FmsClient;
+import software.amazon.awssdk.services.fms.model.ListPoliciesRequest;
+import software.amazon.awssdk.services.fms.model.PolicySummary;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RecordingInterceptorTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void recordsEachInteraction() throws IOException {
+
+        final Path recording = tempDir.resolve("recording.jsonl");
+        try (LocalFmsEndpoint endpoint = LocalFmsEndpoint.start();
+             FmsClient client = FmsClient.builder()
+                     .region(Region.US_EAST_1)
+                     .endpointOverride(endpoint.getUri())
+                     .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("id", "key")))
+                     .httpClient(HttpTransportConfiguration.builder().build().buildHttpClient())
+                     .overrideConfiguration(configuration -> configuration
+                             .addExecutionInterceptor(new RecordingInterceptor(recording)))
+                     .build()) {
+            client.listPolicies(request -> request.maxResults(10));
+            client.getPolicy(request -> request.policyId("policy"));
+        }
+
+        final ObjectMapper mapper = new ObjectMapper();
+        final List<String> lines = Files.readAllLines(recording, StandardCharsets.UTF_8);
+        final JsonNode listPolicies = mapper.readTree(lines.get(0));
+        final JsonNode getPolicy = mapper.readTree(lines.get(1));
+
+        // assertions
+        assertThat(lines).hasSize(2);
+        assertThat(listPolicies.get("operation").asText()).isEqualTo("ListPolicies");
+        assertThat(mapper.readTree(listPolicies.get("request").asText()).get("MaxResults").asInt()).isEqualTo(10);
+        assertThat(listPolicies.get("status").asInt()).isEqualTo(200);
+        assertThat(listPolicies.get("response").asText()).isEqualTo("{}");
+        assertThat(listPolicies.get("latencyNanos").asLong()).isPositive();
+        assertThat(getPolicy.get("operation").asText()).isEqualTo("GetPolicy");
+        assertThat(mapper.readTree(getPolicy.get("request").asText()).get("PolicyId").asText()).isEqualTo("policy");
+    }
+
+    @Test
+    void recordsEachAsyncInteraction() throws IOException {
+
+        final Path recording = tempDir.resolve("recording.jsonl");
+        try (LocalFmsEndpoint endpoint = LocalFmsEndpoint.start();
+             FmsAsyncClient client = FmsAsyncClient.builder()
+                     .region(Region.US_EAST_1)
+                     .endpointOverride(endpoint.getUri())
+                     .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("id", "key")))
+                     .httpClient(HttpTransportConfiguration.builder().build().buildAsyncHttpClient())
+                     .overrideConfiguration(configuration -> configuration
+                             .addExecutionInterceptor(new RecordingInterceptor(recording)))
+                     .build()) {
+            client.listPolicies(request -> request.maxResults(10)).join();
+        }
+
+        final ObjectMapper mapper = new ObjectMapper();
+        final List<String> lines = Files.readAllLines(recording, StandardCharsets.UTF_8);
+        final JsonNode listPolicies = mapper.readTree(lines.get(0));
+
+        // assertions
+        assertThat(lines).hasSize(1);
+        assertThat(listPolicies.get("operation").asText()).isEqualTo("ListPolicies");
+        assertThat(mapper.readTree(listPolicies.get("request").asText()).get("MaxResults").asInt()).isEqualTo(10);
+        assertThat(listPolicies.get("status").asInt()).isEqualTo(200);
+        assertThat(listPolicies.get("response").asText()).isEqualTo("{}");
+        assertThat(listPolicies.get("latencyNanos").asLong()).isPositive();
+    }
+
+    @Test
+    void replayServesRecordedPagesInOrder() throws IOException {
+
+        final Path recording = record(
+                interaction("ListPolicies", "{\"PolicyList\":[{\"PolicyId\":\"first\"}],\"NextToken\":\"next\"}", 0),
+                interaction("ListPolicies", "{\"PolicyList\":[{\"PolicyId\":\"second\"}]}", 0));
+
+        try (FmsClient client = ReplayHttpClient.newClient(recording, false)) {
+            final List<String> policyIds = client.listPoliciesPaginator(ListPoliciesRequest.builder().build())
+                    .policyList()
+                    .stream()
+                    .map(PolicySummary::policyId)
+                    .collect(Collectors.toList());
+
+            // assertions
+            assertThat(policyIds).containsExactly("first", "second");
+        }
+    }
+
+    @Test
+    void replayPrefersResponseToSameRequest() throws IOException {
+
+        final Path recording = record(
+                interaction("GetPolicy", "{\"PolicyId\":\"first\"}", "{\"Policy\":{\"PolicyName\":\"first\"}}", 0),
+                interaction("GetPolicy", "{\"PolicyId\":\"second\"}", "{\"Policy\":{\"PolicyName\":\"second\"}}", 0));
+
+        try (FmsClient client = ReplayHttpClient.newClient(recording, false)) {
+
+            // assertions
+            assertThat(client.getPolicy(request -> request.policyId("second")).policy().policyName())
+                    .isEqualTo("second");
+            assertThat(client.getPolicy(request -> request.policyId("first")).policy().policyName())
+                    .isEqualTo("first");
+        }
+    }
+
+    @Test
+    void replayReproducesRecordedLatency() throws IOException {
+
+        final long latencyNanos = TimeUnit.MILLISECONDS.toNanos(50);
+        final Path recording = record(interaction("ListPolicies", "{}", latencyNanos));
+
+        try (FmsClient client = ReplayHttpClient.newClient(recording, true)) {
+            final long start = System.nanoTime();
+            client.listPolicies(ListPoliciesRequest.builder().build());
+
+            // assertions
+            assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(latencyNanos);
+        }
+    }
+
+    private Path record(final String... interactions) throws IOException {
+
+        final Path recording = tempDir.resolve("replay.jsonl");
+        Files.write(recording, Arrays.asList(interactions), StandardCharsets.UTF_8);
+        return recording;
+    }
+
+    private static String interaction(final String operation, final String response, final long latencyNanos) {
+
+        return interaction(operation, "{}", response, latencyNanos);
+    }
+
+    private static String interaction(
+            final String operation,
+            final String request,
+            final String response,
+            final long latencyNanos) {
+
+        return new ObjectMapper().createObjectNode()
+                .put("operation", operation)
+                .put("request", request)
+                .put("status", 200)
+                .put("response", response)
+                .put("latencyNanos", latencyNanos)
+                .toString();
+    }
+}
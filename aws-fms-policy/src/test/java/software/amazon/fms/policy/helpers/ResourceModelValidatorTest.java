@@ -0,0 +1,115 @@
+package software.amazon.fms.policy.helpers;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.fms.model.SecurityServiceType;
+import software.amazon.fms.policy.IEMap;
+import software.amazon.fms.policy.NetworkAclEntry;
+import software.amazon.fms.policy.NetworkAclEntrySet;
+import software.amazon.fms.policy.NetworkFirewallPolicy;
+import software.amazon.fms.policy.PolicyOption;
+import software.amazon.fms.policy.PortRange;
+import software.amazon.fms.policy.ResourceModel;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResourceModelValidatorTest {
+
+    private static final String NETWORK_ACL_ENTRY_SET =
+            "SecurityServicePolicyData.PolicyOption.NetworkAclCommonPolicy.NetworkAclEntrySet";
+
+    @Test
+    void sampleAndGeneratedPoliciesAreValid() {
+
+        final WorkloadGenerator generator = new WorkloadGenerator(WorkloadGenerator.DEFAULT_SEED);
+        final int types = WorkloadGenerator.securityServiceTypes().length;
+        for (final ResourceModel policy : generator.policies(types, 100, 10)) {
+
+            // assertions
+            assertThat(ResourceModelValidator.validate(policy))
+                    .as(policy.getSecurityServicePolicyData().getType())
+                    .isEmpty();
+        }
+        assertThat(ResourceModelValidator.validate(CfnSampleHelper.sampleAllParametersResourceModel(true, true, true)))
+                .isEmpty();
+        assertThat(ResourceModelValidator.validate(
+                CfnSampleHelper.sampleRequiredParametersResourceModelForNetworkAcl(true, false, false)))
+                .isEmpty();
+        assertThat(ResourceModelValidator.validate(null)).isEmpty();
+    }
+
+    @Test
+    void policyScopeViolationsAreCollectedInSchemaOrder() {
+
+        final ResourceModel model = CfnSampleHelper.sampleAllParametersResourceModel(false, false, false);
+        model.setPolicyName(null);
+        model.setIncludeMap(IEMap.builder()
+                .aCCOUNT(Arrays.asList(BaseSampleHelper.sampleAccountId, "12345"))
+                .oRGUNIT(Collections.singletonList("OU-1"))
+                .build());
+        model.setResourceSetIds(Collections.nCopies(2, BaseSampleHelper.sampleResourceSetIdsElement));
+
+        // assertions
+        assertThat(ResourceModelValidator.validate(model)).containsExactly(
+                "PolicyName is required",
+                "IncludeMap.ACCOUNT[1] must be at least 12 characters long",
+                "IncludeMap.ORGUNIT[0] must be at least 16 characters long",
+                "IncludeMap.ORGUNIT[0] must match pattern ^(ou-[0-9a-z]{4,32}-[a-z0-9]{8,32})$",
+                "ResourceSetIds[1] is a duplicate of an earlier item");
+    }
+
+    @Test
+    void networkAclEntriesAreValidated() {
+
+        final ResourceModel model = CfnSampleHelper.sampleRequiredParametersResourceModelForNetworkAcl(
+                false, false, false);
+        final NetworkAclEntrySet entrySet = model.getSecurityServicePolicyData()
+                .getPolicyOption()
+                .getNetworkAclCommonPolicy()
+                .getNetworkAclEntrySet();
+        entrySet.setFirstEntries(Collections.singletonList(NetworkAclEntry.builder()
+                .egress(true)
+                .protocol("tcp")
+                .cidrBlock("10.0.0.0/24")
+                .portRange(PortRange.builder().from(0).to(70000).build())
+                .ruleAction("accept")
+                .build()));
+
+        // assertions
+        assertThat(ResourceModelValidator.validate(model)).containsExactly(
+                NETWORK_ACL_ENTRY_SET + ".FirstEntries[0].PortRange.To must be at most 65535",
+                NETWORK_ACL_ENTRY_SET + ".FirstEntries[0].RuleAction must be one of allow, deny");
+    }
+
+    @Test
+    void policyOptionMustBeExactlyOneAlternative() {
+
+        final ResourceModel model = CfnSampleHelper.sampleRequiredParametersResourceModelForNetworkAcl(
+                false, false, false);
+        final PolicyOption policyOption = model.getSecurityServicePolicyData().getPolicyOption();
+        policyOption.getNetworkAclCommonPolicy().getNetworkAclEntrySet().setFirstEntries(null);
+        policyOption.getNetworkAclCommonPolicy().getNetworkAclEntrySet().setLastEntries(null);
+        policyOption.setNetworkFirewallPolicy(NetworkFirewallPolicy.builder()
+                .firewallDeploymentModel("CENTRALIZED")
+                .build());
+
+        // assertions
+        assertThat(ResourceModelValidator.validate(model)).containsExactly(
+                String.format("%s must satisfy at least one of: %s.FirstEntries is required or "
+                        + "%s.LastEntries is required", NETWORK_ACL_ENTRY_SET, NETWORK_ACL_ENTRY_SET,
+                        NETWORK_ACL_ENTRY_SET),
+                "SecurityServicePolicyData.PolicyOption must satisfy exactly one of its 3 alternatives, not 2");
+    }
+
+    @Test
+    void largeGeneratedPolicyIsValid() {
+
+        final ResourceModel model = new WorkloadGenerator(WorkloadGenerator.DEFAULT_SEED)
+                .policy(SecurityServiceType.NETWORK_ACL_COMMON, 5000, 500);
+
+        // assertions
+        assertThat(ResourceModelValidator.validate(model)).isEmpty();
+    }
+}
@@ -0,0 +1,20 @@
+package software.amazon.fms.policy.helpers;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SnapshotPrimingTest {
+
+    /** Requests marshalled per priming iteration, six for each of the four priming policies and a list. */
+    private static final int REQUESTS_PER_ITERATION = 4 * 6 + 1;
+
+    @Test
+    void primeMarshalsEveryRequestWithoutSendingIt() throws IOException {
+
+        // assertions
+        assertThat(SnapshotPriming.prime(2)).isEqualTo(2 * REQUESTS_PER_ITERATION);
+    }
+}
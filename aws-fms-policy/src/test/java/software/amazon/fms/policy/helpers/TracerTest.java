@@ -0,0 +1,162 @@
+package software.amazon.fms.policy.helpers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.cloudformation.proxy.HandlerErrorCode;
+import software.amazon.cloudformation.proxy.Logger;
+import software.amazon.cloudformation.proxy.ProgressEvent;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class TracerTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Mock
+    private Logger logger;
+
+    @Test
+    void flushSampledTrace() throws IOException {
+
+        final Tracer tracer = new Tracer("AWS::FMS::Policy", "Update", environment("1", null));
+        try (Span span = tracer.startSpan("TagReconciliation")) {
+            span.setAttribute("fms.tags.added", 2);
+        }
+        tracer.startSpan("FMS/PutPolicy", Span.Kind.CLIENT)
+                .setAttribute("rpc.method", "PutPolicy")
+                .end();
+        tracer.recordOutcome(ProgressEvent.defaultSuccessHandler(null));
+        tracer.flush(logger);
+
+        // verify the trace flushed
+        final ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+        verify(logger, times(1)).log(captor.capture());
+
+        // assertions
+        final JsonNode resourceSpans = MAPPER.readTree(captor.getValue()).get("resourceSpans").get(0);
+        assertThat(resourceSpans.get("resource").get("attributes").get(0).get("value").get("stringValue").asText())
+                .isEqualTo("AWS::FMS::Policy");
+        final JsonNode spans = resourceSpans.get("scopeSpans").get(0).get("spans");
+        assertThat(spans.size()).isEqualTo(3);
+
+        final JsonNode tagReconciliation = spans.get(0);
+        final JsonNode putCall = spans.get(1);
+        final JsonNode root = spans.get(2);
+        assertThat(tagReconciliation.get("name").asText()).isEqualTo("TagReconciliation");
+        assertThat(tagReconciliation.get("kind").asInt()).isEqualTo(1);
+        assertThat(tagReconciliation.get("attributes").get(0).get("key").asText()).isEqualTo("fms.tags.added");
+        assertThat(tagReconciliation.get("attributes").get(0).get("value").get("intValue").asText()).isEqualTo("2");
+        assertThat(putCall.get("name").asText()).isEqualTo("FMS/PutPolicy");
+        assertThat(putCall.get("kind").asInt()).isEqualTo(3);
+        assertThat(root.get("name").asText()).isEqualTo("Update");
+        assertThat(root.get("kind").asInt()).isEqualTo(2);
+        assertThat(root.has("parentSpanId")).isFalse();
+        assertThat(root.get("status").get("code").asInt()).isEqualTo(1);
+
+        // every span belongs to the same trace under the root span
+        assertThat(tagReconciliation.get("traceId").asText()).hasSize(32).isEqualTo(root.get("traceId").asText());
+        assertThat(tagReconciliation.get("parentSpanId").asText()).isEqualTo(root.get("spanId").asText());
+        assertThat(putCall.get("parentSpanId").asText()).isEqualTo(root.get("spanId").asText());
+        assertThat(Long.parseLong(root.get("endTimeUnixNano").asText()))
+                .isGreaterThanOrEqualTo(Long.parseLong(putCall.get("endTimeUnixNano").asText()));
+    }
+
+    @Test
+    void failedInvocationAlwaysSampled() throws IOException {
+
+        final Tracer tracer = new Tracer("AWS::FMS::Policy", "Create", environment("0", null));
+        tracer.recordOutcome(ProgressEvent.defaultFailureHandler(
+                new IllegalStateException("limit"), HandlerErrorCode.ServiceLimitExceeded));
+        tracer.flush(logger);
+
+        // verify the trace flushed
+        final ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+        verify(logger, times(1)).log(captor.capture());
+
+        // assertions
+        final JsonNode root = MAPPER.readTree(captor.getValue())
+                .get("resourceSpans").get(0).get("scopeSpans").get(0).get("spans").get(0);
+        assertThat(root.get("status").get("code").asInt()).isEqualTo(2);
+        assertThat(root.get("attributes").findValuesAsText("stringValue")).contains("ServiceLimitExceeded");
+    }
+
+    @Test
+    void slowInvocationAlwaysSampled() {
+
+        final Tracer tracer = new Tracer("AWS::FMS::Policy", "Read", environment("0", "0"));
+        tracer.flush(logger);
+
+        // assertions
+        verify(logger, times(1)).log(ArgumentMatchers.anyString());
+    }
+
+    @Test
+    void unsampledInvocationNotFlushed() {
+
+        final Tracer tracer = new Tracer("AWS::FMS::Policy", "Read", environment("0", null));
+        tracer.startSpan("Conversion").end();
+        tracer.flush(logger);
+
+        // assertions
+        verify(logger, never()).log(ArgumentMatchers.anyString());
+    }
+
+    @Test
+    void disabledTracerRecordsNothing() {
+
+        final Tracer tracer = new Tracer(
+                "AWS::FMS::Policy", "Read", Collections.singletonMap(Tracer.ENABLED_ENV, "false"));
+        try (Span span = tracer.startSpan("Conversion")) {
+            span.setAttribute("fms.batch.size", 1);
+        }
+        tracer.flush(logger);
+
+        // assertions
+        assertThat(tracer.toOtlpJson()).doesNotContain("Conversion");
+        verify(logger, never()).log(ArgumentMatchers.anyString());
+    }
+
+    @Test
+    void traceMarksFailedPhase() throws IOException {
+
+        final Tracer tracer = new Tracer("AWS::FMS::Policy", "Create", environment("1", null));
+
+        // assertions
+        assertThatThrownBy(() -> tracer.trace("Conversion", () -> {
+            throw new IllegalArgumentException("bad model");
+        })).isInstanceOf(IllegalArgumentException.class);
+        assertThat(tracer.<Integer>trace("ModelConstruction", () -> 1)).isEqualTo(1);
+
+        final JsonNode spans = MAPPER.readTree(tracer.toOtlpJson())
+                .get("resourceSpans").get(0).get("scopeSpans").get(0).get("spans");
+        assertThat(spans.get(0).get("status").get("code").asInt()).isEqualTo(2);
+        assertThat(spans.get(0).get("status").get("message").asText()).isEqualTo("bad model");
+        assertThat(spans.get(1).get("status").get("code").asInt()).isEqualTo(1);
+    }
+
+    private static Map<String, String> environment(final String sampleRate, final String slowThresholdMs) {
+
+        final Map<String, String> environment = new HashMap<>();
+        environment.put(Tracer.SAMPLE_RATE_ENV, sampleRate);
+        if (slowThresholdMs != null) {
+            environment.put(Tracer.SLOW_THRESHOLD_ENV, slowThresholdMs);
+        }
+        return environment;
+    }
+}
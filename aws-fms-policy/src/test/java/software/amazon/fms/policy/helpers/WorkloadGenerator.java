@@ -0,0 +1,459 @@
+package software.amazon.fms.policy.helpers;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import software.amazon.awssdk.services.fms.model.SecurityServiceType;
+import software.amazon.fms.policy.IEMap;
+import software.amazon.fms.policy.IcmpTypeCode;
+import software.amazon.fms.policy.NetworkAclCommonPolicy;
+import software.amazon.fms.policy.NetworkAclEntry;
+import software.amazon.fms.policy.NetworkAclEntrySet;
+import software.amazon.fms.policy.NetworkFirewallPolicy;
+import software.amazon.fms.policy.PolicyOption;
+import software.amazon.fms.policy.PolicyTag;
+import software.amazon.fms.policy.PortRange;
+import software.amazon.fms.policy.ResourceModel;
+import software.amazon.fms.policy.ResourceTag;
+import software.amazon.fms.policy.SecurityServicePolicyData;
+import software.amazon.fms.policy.ThirdPartyFirewallPolicy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Seeded generator of the policies of a large organization, for the tests, benchmarks and load drivers that need more
+ * than the fixed samples of {@link CfnSampleHelper}. It generates policies of every security service type with
+ * ManagedServiceData and policy options matching their type, include and exclude maps with thousands of accounts and
+ * organizational units, full network ACL entry sets and tags at the limits of the resource schema. The same seed always
+ * generates the same data, so runs can be compared, and the account and organizational unit IDs are generated the
+ * same way as those of the generators of the other modules.
+ */
+public class WorkloadGenerator {
+
+    /** Seed of the data shared by the benchmarks and load drivers. */
+    public static final long DEFAULT_SEED = 20180101L;
+
+    /** Most tags a CloudFormation resource can have. */
+    public static final int MAX_TAGS = 50;
+
+    /** Most resource tags a policy can scope its resources with. */
+    public static final int MAX_RESOURCE_TAGS = 8;
+
+    /** Longest tag key. */
+    public static final int MAX_TAG_KEY_LENGTH = 128;
+
+    /** Longest tag value. */
+    public static final int MAX_TAG_VALUE_LENGTH = 256;
+
+    /** Entries per direction in each of the first and last entry lists of a full network ACL entry set. */
+    public static final int NETWORK_ACL_ENTRIES_PER_DIRECTION = 5;
+
+    /** Regions the resources of the organization are spread over. */
+    static final List<String> REGIONS = Arrays.asList(
+            "us-east-1", "us-east-2", "us-west-1", "us-west-2", "ca-central-1", "sa-east-1",
+            "eu-west-1", "eu-west-2", "eu-central-1", "ap-south-1", "ap-southeast-1", "ap-northeast-1");
+
+    private static final String ALPHANUMERIC = "0123456789abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ";
+    private static final int LOWER_ALPHANUMERIC = 36;
+    private static final long ACCOUNT_IDS = 1_000_000_000_000L;
+    private static final List<String> PROTOCOLS = Arrays.asList("tcp", "udp", "icmp", "6", "17");
+
+    private final Random random;
+    private final String organizationRoot;
+
+    /**
+     * Generate the data of a seed.
+     * @param seed Seed of the data.
+     */
+    public WorkloadGenerator(final long seed) {
+
+        this.random = new Random(seed);
+        this.organizationRoot = lowerAlphanumeric(4);
+    }
+
+    /**
+     * Generate a policy of each security service type in turn.
+     * @param count Number of policies.
+     * @param accounts Number of accounts in each of the include and exclude maps.
+     * @param orgUnits Number of organizational units in each of the include and exclude maps.
+     * @return The policies.
+     */
+    public List<ResourceModel> policies(final int count, final int accounts, final int orgUnits) {
+
+        final SecurityServiceType[] types = securityServiceTypes();
+        final List<ResourceModel> policies = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            policies.add(policy(types[i % types.length], accounts, orgUnits));
+        }
+        return policies;
+    }
+
+    /**
+     * Generate a policy with every parameter set, without identifiers.
+     * @param type Security service type of the policy.
+     * @param accounts Number of accounts in each of the include and exclude maps, which do not overlap.
+     * @param orgUnits Number of organizational units in each of the include and exclude maps.
+     * @return The policy.
+     */
+    public ResourceModel policy(final SecurityServiceType type, final int accounts, final int orgUnits) {
+
+        final List<String> accountIds = accountIds(2 * accounts);
+        final List<String> orgUnitIds = orgUnitIds(2 * orgUnits);
+        final PolicyOption policyOption = policyOption(type);
+        final String typeName = type.toString().toLowerCase(Locale.ROOT).replace('_', '-');
+
+        return ResourceModel.builder()
+                .policyName(String.format("%s-%s", typeName, alphanumeric(8)))
+                .policyDescription(String.format("Generated %s policy", type))
+                .excludeResourceTags(random.nextBoolean())
+                .remediationEnabled(random.nextBoolean())
+                .resourcesCleanUp(random.nextBoolean())
+                .resourceType(resourceType(type))
+                .includeMap(IEMap.builder()
+                        .aCCOUNT(accountIds.subList(0, accounts))
+                        .oRGUNIT(orgUnitIds.subList(0, orgUnits))
+                        .build())
+                .excludeMap(IEMap.builder()
+                        .aCCOUNT(accountIds.subList(accounts, 2 * accounts))
+                        .oRGUNIT(orgUnitIds.subList(orgUnits, 2 * orgUnits))
+                        .build())
+                .resourceTags(resourceTags(MAX_RESOURCE_TAGS))
+                .securityServicePolicyData(SecurityServicePolicyData.builder()
+                        .type(type.toString())
+                        .managedServiceData(managedServiceData(type, policyOption))
+                        .policyOption(policyOption)
+                        .build())
+                .tags(tags(MAX_TAGS))
+                .build();
+    }
+
+    /**
+     * Generate distinct account IDs.
+     * @param count Number of accounts.
+     * @return The account IDs.
+     */
+    public List<String> accountIds(final int count) {
+
+        final Set<String> accountIds = new LinkedHashSet<>();
+        while (accountIds.size() < count) {
+            accountIds.add(String.format("%012d", Math.floorMod(random.nextLong(), ACCOUNT_IDS)));
+        }
+        return new ArrayList<>(accountIds);
+    }
+
+    /**
+     * Generate distinct IDs of organizational units under the root of the organization.
+     * @param count Number of organizational units.
+     * @return The organizational unit IDs.
+     */
+    public List<String> orgUnitIds(final int count) {
+
+        final Set<String> orgUnitIds = new LinkedHashSet<>();
+        while (orgUnitIds.size() < count) {
+            orgUnitIds.add(String.format("ou-%s-%s", organizationRoot, lowerAlphanumeric(8)));
+        }
+        return new ArrayList<>(orgUnitIds);
+    }
+
+    /**
+     * Generate a full network ACL entry set, with inbound and outbound entries in both the first and last lists.
+     * @return The network ACL entry set.
+     */
+    public NetworkAclEntrySet networkAclEntrySet() {
+
+        return NetworkAclEntrySet.builder()
+                .firstEntries(networkAclEntries(NETWORK_ACL_ENTRIES_PER_DIRECTION))
+                .forceRemediateForFirstEntries(random.nextBoolean())
+                .lastEntries(networkAclEntries(NETWORK_ACL_ENTRIES_PER_DIRECTION))
+                .forceRemediateForLastEntries(random.nextBoolean())
+                .build();
+    }
+
+    /**
+     * Generate network ACL entries.
+     * @param perDirection Number of inbound entries, and of outbound entries.
+     * @return The inbound entries followed by the outbound ones.
+     */
+    public List<NetworkAclEntry> networkAclEntries(final int perDirection) {
+
+        final List<NetworkAclEntry> entries = new ArrayList<>(2 * perDirection);
+        for (int i = 0; i < 2 * perDirection; i++) {
+            final String protocol = PROTOCOLS.get(random.nextInt(PROTOCOLS.size()));
+            final int port = 1 + random.nextInt(65535);
+            entries.add(NetworkAclEntry.builder()
+                    .egress(i >= perDirection)
+                    .protocol(protocol)
+                    .cidrBlock(String.format("10.%d.%d.0/24", random.nextInt(256), random.nextInt(256)))
+                    .portRange("icmp".equals(protocol)
+                            ? null
+                            : PortRange.builder().from(port).to(Math.min(65535, port + random.nextInt(100))).build())
+                    .icmpTypeCode("icmp".equals(protocol)
+                            ? IcmpTypeCode.builder().type(random.nextInt(16)).code(0).build()
+                            : null)
+                    .ruleAction(random.nextBoolean() ? "allow" : "deny")
+                    .build());
+        }
+        return entries;
+    }
+
+    /**
+     * Generate policy tags with keys and values of the longest length.
+     * @param count Number of tags.
+     * @return The tags, with distinct keys.
+     */
+    public List<PolicyTag> tags(final int count) {
+
+        final List<PolicyTag> tags = new ArrayList<>(count);
+        for (final String key : tagKeys(count)) {
+            tags.add(PolicyTag.builder().key(key).value(alphanumeric(MAX_TAG_VALUE_LENGTH)).build());
+        }
+        return tags;
+    }
+
+    /**
+     * Generate resource tags with keys and values of the longest length.
+     * @param count Number of tags.
+     * @return The tags, with distinct keys.
+     */
+    public List<ResourceTag> resourceTags(final int count) {
+
+        final List<ResourceTag> tags = new ArrayList<>(count);
+        for (final String key : tagKeys(count)) {
+            tags.add(ResourceTag.builder().key(key).value(alphanumeric(MAX_TAG_VALUE_LENGTH)).build());
+        }
+        return tags;
+    }
+
+    /**
+     * Generate the ManagedServiceData of a policy, referencing resources of the organization where the type needs
+     * them.
+     * @param type Security service type of the policy.
+     * @param policyOption Policy option of the policy, whose network ACL entry set the data repeats.
+     * @return The ManagedServiceData.
+     */
+    String managedServiceData(final SecurityServiceType type, final PolicyOption policyOption) {
+
+        final String region = region();
+        final String account = accountIds(1).get(0);
+        switch (type) {
+            case WAF:
+                return String.format("{\"type\":\"WAF\",\"ruleGroups\":[{\"id\":\"%s\",\"overrideAction\":"
+                        + "{\"type\":\"COUNT\"}}],\"defaultAction\":{\"type\":\"BLOCK\"}}", uuid());
+            case WAFV2:
+                return "{\"type\":\"WAFV2\",\"preProcessRuleGroups\":[{\"ruleGroupArn\":null,\"overrideAction\":"
+                        + "{\"type\":\"NONE\"},\"managedRuleGroupIdentifier\":{\"version\":null,\"vendorName\":\"AWS\","
+                        + "\"managedRuleGroupName\":\"AWSManagedRulesCommonRuleSet\"},\"ruleGroupType\":"
+                        + "\"ManagedRuleGroup\",\"excludeRules\":[]}],\"postProcessRuleGroups\":[],\"defaultAction\":"
+                        + "{\"type\":\"ALLOW\"},\"overrideCustomerWebACLAssociation\":false}";
+            case SHIELD_ADVANCED:
+                return "{\"type\":\"SHIELD_ADVANCED\",\"automaticResponseConfiguration\":"
+                        + "{\"automaticResponseStatus\":\"ENABLED\",\"automaticResponseAction\":\"COUNT\"}}";
+            case SECURITY_GROUPS_COMMON:
+                return String.format("{\"type\":\"SECURITY_GROUPS_COMMON\",\"revertManualSecurityGroupChanges\":%b,"
+                        + "\"exclusiveResourceSecurityGroupManagement\":false,\"applyToAllEC2InstanceENIs\":false,"
+                        + "\"securityGroups\":[{\"id\":\"sg-%s\"}]}", random.nextBoolean(), hex(17));
+            case SECURITY_GROUPS_CONTENT_AUDIT:
+                return String.format("{\"type\":\"SECURITY_GROUPS_CONTENT_AUDIT\",\"securityGroups\":"
+                        + "[{\"id\":\"sg-%s\"}],\"securityGroupAction\":{\"type\":\"ALLOW\"}}", hex(17));
+            case SECURITY_GROUPS_USAGE_AUDIT:
+                return "{\"type\":\"SECURITY_GROUPS_USAGE_AUDIT\",\"deleteUnusedSecurityGroups\":true,"
+                        + "\"coalesceRedundantSecurityGroups\":true}";
+            case NETWORK_FIREWALL:
+            case IMPORT_NETWORK_FIREWALL:
+                return String.format("{\"type\":\"%s\",\"networkFirewallStatelessRuleGroupReferences\":"
+                        + "[{\"resourceARN\":\"arn:aws:network-firewall:%s:%s:stateless-rulegroup/%s\","
+                        + "\"priority\":1}],"
+                        + "\"networkFirewallStatelessDefaultActions\":[\"aws:forward_to_sfe\"],"
+                        + "\"networkFirewallStatelessFragmentDefaultActions\":[\"aws:forward_to_sfe\"],"
+                        + "\"networkFirewallStatelessCustomActions\":[],"
+                        + "\"networkFirewallStatefulRuleGroupReferences\":"
+                        + "[{\"resourceARN\":\"arn:aws:network-firewall:%s:%s:stateful-rulegroup/%s\"}],"
+                        + "\"networkFirewallOrchestrationConfig\":{\"singleFirewallEndpointPerVPC\":false,"
+                        + "\"allowedIPV4CidrList\":[\"10.0.0.0/28\"]}}",
+                        type, region, account, alphanumeric(12), region, account, alphanumeric(12));
+            case THIRD_PARTY_FIREWALL:
+                return String.format("{\"type\":\"THIRD_PARTY_FIREWALL\",\"thirdPartyFirewall\":"
+                        + "\"PALO_ALTO_NETWORKS_CLOUD_NGFW\",\"thirdPartyFirewallConfig\":"
+                        + "{\"thirdPartyFirewallPolicyList\":[\"%s\"]},\"firewallDeploymentModel\":"
+                        + "{\"centralizedFirewallDeploymentModel\":{\"centralizedFirewallOrchestrationConfig\":"
+                        + "{\"inspectionVpcIds\":[{\"resourceId\":\"vpc-%s\",\"accountId\":\"%s\"}],"
+                        + "\"firewallCreationConfig\":{\"endpointLocation\":{\"availabilityZoneConfigList\":"
+                        + "[{\"availabilityZoneName\":\"%sa\"}]}}}}}}",
+                        alphanumeric(12), hex(17), account, region);
+            case DNS_FIREWALL:
+                return String.format("{\"type\":\"DNS_FIREWALL\",\"preProcessRuleGroups\":"
+                        + "[{\"ruleGroupId\":\"rslvr-frg-%s\",\"priority\":10}],\"postProcessRuleGroups\":"
+                        + "[{\"ruleGroupId\":\"rslvr-frg-%s\",\"priority\":9901}]}", hex(16), hex(16));
+            case NETWORK_ACL_COMMON:
+                return networkAclManagedServiceData(policyOption.getNetworkAclCommonPolicy().getNetworkAclEntrySet());
+            default:
+                throw new IllegalArgumentException("Unsupported security service type " + type);
+        }
+    }
+
+    /**
+     * Security service types a policy can have.
+     */
+    static SecurityServiceType[] securityServiceTypes() {
+
+        return Arrays.stream(SecurityServiceType.values())
+                .filter(type -> type != SecurityServiceType.UNKNOWN_TO_SDK_VERSION)
+                .toArray(SecurityServiceType[]::new);
+    }
+
+    private PolicyOption policyOption(final SecurityServiceType type) {
+
+        final String deploymentModel = random.nextBoolean() ? "CENTRALIZED" : "DISTRIBUTED";
+        switch (type) {
+            case NETWORK_FIREWALL:
+            case IMPORT_NETWORK_FIREWALL:
+                return PolicyOption.builder()
+                        .networkFirewallPolicy(NetworkFirewallPolicy.builder()
+                                .firewallDeploymentModel(deploymentModel)
+                                .build())
+                        .build();
+            case THIRD_PARTY_FIREWALL:
+                return PolicyOption.builder()
+                        .thirdPartyFirewallPolicy(ThirdPartyFirewallPolicy.builder()
+                                .firewallDeploymentModel(deploymentModel)
+                                .build())
+                        .build();
+            case NETWORK_ACL_COMMON:
+                return PolicyOption.builder()
+                        .networkAclCommonPolicy(NetworkAclCommonPolicy.builder()
+                                .networkAclEntrySet(networkAclEntrySet())
+                                .build())
+                        .build();
+            default:
+                return null;
+        }
+    }
+
+    private static String resourceType(final SecurityServiceType type) {
+
+        switch (type) {
+            case WAF:
+                return "AWS::CloudFront::Distribution";
+            case SECURITY_GROUPS_COMMON:
+                return "AWS::EC2::Instance";
+            case SECURITY_GROUPS_CONTENT_AUDIT:
+            case SECURITY_GROUPS_USAGE_AUDIT:
+                return "AWS::EC2::SecurityGroup";
+            case NETWORK_FIREWALL:
+            case IMPORT_NETWORK_FIREWALL:
+            case THIRD_PARTY_FIREWALL:
+            case DNS_FIREWALL:
+                return "AWS::EC2::VPC";
+            case NETWORK_ACL_COMMON:
+                return "AWS::EC2::Subnet";
+            default:
+                return "AWS::ElasticLoadBalancingV2::LoadBalancer";
+        }
+    }
+
+    /**
+     * Assemble the ManagedServiceData of a network ACL policy, which repeats its entry set in the FMS format.
+     */
+    private static String networkAclManagedServiceData(final NetworkAclEntrySet entrySet) {
+
+        final ObjectNode networkAclEntrySet = JsonNodeFactory.instance.objectNode();
+        networkAclEntrySet.set("firstEntries", networkAclEntries(entrySet.getFirstEntries()));
+        networkAclEntrySet.put("forceRemediateForFirstEntries", entrySet.getForceRemediateForFirstEntries());
+        networkAclEntrySet.set("lastEntries", networkAclEntries(entrySet.getLastEntries()));
+        networkAclEntrySet.put("forceRemediateForLastEntries", entrySet.getForceRemediateForLastEntries());
+
+        final ObjectNode managedServiceData = JsonNodeFactory.instance.objectNode();
+        managedServiceData.put("type", "NETWORK_ACL_COMMON");
+        managedServiceData.set("networkAclEntrySet", networkAclEntrySet);
+        return managedServiceData.toString();
+    }
+
+    private static ArrayNode networkAclEntries(final List<NetworkAclEntry> entries) {
+
+        final ArrayNode nodes = JsonNodeFactory.instance.arrayNode();
+        for (final NetworkAclEntry entry : entries) {
+            final ObjectNode node = nodes.addObject();
+            node.put("egress", entry.getEgress());
+            node.put("protocol", protocolNumber(entry.getProtocol()));
+            if (entry.getPortRange() != null) {
+                node.putObject("portRange")
+                        .put("from", entry.getPortRange().getFrom())
+                        .put("to", entry.getPortRange().getTo());
+            }
+            if (entry.getIcmpTypeCode() != null) {
+                node.putObject("icmpTypeCode")
+                        .put("type", entry.getIcmpTypeCode().getType())
+                        .put("code", entry.getIcmpTypeCode().getCode());
+            }
+            node.put("cidrBlock", entry.getCidrBlock());
+            node.put("ruleAction", entry.getRuleAction());
+        }
+        return nodes;
+    }
+
+    private static String protocolNumber(final String protocol) {
+
+        switch (protocol) {
+            case "tcp":
+                return "6";
+            case "udp":
+                return "17";
+            case "icmp":
+                return "1";
+            default:
+                return protocol;
+        }
+    }
+
+    private List<String> tagKeys(final int count) {
+
+        final Set<String> keys = new LinkedHashSet<>();
+        while (keys.size() < count) {
+            keys.add(alphanumeric(MAX_TAG_KEY_LENGTH));
+        }
+        return new ArrayList<>(keys);
+    }
+
+    private String region() {
+
+        return REGIONS.get(random.nextInt(REGIONS.size()));
+    }
+
+    private String uuid() {
+
+        return String.format("%s-%s-%s-%s-%s", hex(8), hex(4), hex(4), hex(4), hex(12));
+    }
+
+    private String hex(final int length) {
+
+        return randomString(16, length);
+    }
+
+    private String lowerAlphanumeric(final int length) {
+
+        return randomString(LOWER_ALPHANUMERIC, length);
+    }
+
+    private String alphanumeric(final int length) {
+
+        return randomString(ALPHANUMERIC.length(), length);
+    }
+
+    /**
+     * Generate a string from the first characters of the alphanumeric alphabet, e.g. 16 for hexadecimal.
+     */
+    private String randomString(final int alphabet, final int length) {
+
+        final char[] characters = new char[length];
+        for (int i = 0; i < length; i++) {
+            characters[i] = ALPHANUMERIC.charAt(random.nextInt(alphabet));
+        }
+        return new String(characters);
+    }
+}
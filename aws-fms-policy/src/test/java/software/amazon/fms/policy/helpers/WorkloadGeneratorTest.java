@@ -0,0 +1,118 @@
+package software.amazon.fms.policy.helpers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.fms.model.SecurityServiceType;
+import software.amazon.fms.policy.NetworkAclEntry;
+import software.amazon.fms.policy.NetworkAclEntrySet;
+import software.amazon.fms.policy.PolicyTag;
+import software.amazon.fms.policy.ResourceModel;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WorkloadGeneratorTest {
+
+    /** Patterns of the resource schema. */
+    private static final String ACCOUNT_ID_PATTERN = "^([0-9]*)$";
+    private static final String ORG_UNIT_ID_PATTERN = "^(ou-[0-9a-z]{4,32}-[a-z0-9]{8,32})$";
+    private static final String POLICY_NAME_PATTERN = "^([a-zA-Z0-9_.:/=+\\-@\\s]+)$";
+
+    @Test
+    void sameSeedGeneratesSameData() {
+
+        final List<ResourceModel> first = new WorkloadGenerator(1).policies(11, 100, 10);
+        final List<ResourceModel> second = new WorkloadGenerator(1).policies(11, 100, 10);
+        final List<ResourceModel> otherSeed = new WorkloadGenerator(2).policies(11, 100, 10);
+
+        // assertions
+        assertThat(second).isEqualTo(first);
+        assertThat(otherSeed).isNotEqualTo(first);
+    }
+
+    @Test
+    void policiesCoverEverySecurityServiceTypeWithMatchingManagedServiceData() throws IOException {
+
+        final SecurityServiceType[] types = WorkloadGenerator.securityServiceTypes();
+        final List<ResourceModel> policies = new WorkloadGenerator(1).policies(types.length, 1, 1);
+        final ObjectMapper mapper = new ObjectMapper();
+
+        // assertions
+        assertThat(policies.stream().map(policy -> policy.getSecurityServicePolicyData().getType()))
+                .containsExactlyInAnyOrder(Arrays.stream(types).map(Object::toString).toArray(String[]::new));
+        for (final ResourceModel policy : policies) {
+            final String type = policy.getSecurityServicePolicyData().getType();
+            final String managedServiceData = policy.getSecurityServicePolicyData().getManagedServiceData();
+            assertThat(policy.getPolicyName()).matches(POLICY_NAME_PATTERN);
+            assertThat(managedServiceData.length()).isLessThanOrEqualTo(8192);
+            assertThat(mapper.readTree(managedServiceData).get("type").asText()).isEqualTo(type);
+        }
+    }
+
+    @Test
+    void includeAndExcludeMapsHoldDistinctAccountsAndOrgUnits() {
+
+        final ResourceModel policy = new WorkloadGenerator(1).policy(SecurityServiceType.SHIELD_ADVANCED, 5000, 500);
+        final Set<String> accounts = new HashSet<>(policy.getIncludeMap().getACCOUNT());
+        accounts.addAll(policy.getExcludeMap().getACCOUNT());
+        final Set<String> orgUnits = new HashSet<>(policy.getIncludeMap().getORGUNIT());
+        orgUnits.addAll(policy.getExcludeMap().getORGUNIT());
+
+        // assertions
+        assertThat(policy.getIncludeMap().getACCOUNT()).hasSize(5000);
+        assertThat(policy.getExcludeMap().getACCOUNT()).hasSize(5000);
+        assertThat(accounts).hasSize(10000);
+        assertThat(accounts).allSatisfy(account -> assertThat(account).hasSize(12).matches(ACCOUNT_ID_PATTERN));
+        assertThat(policy.getIncludeMap().getORGUNIT()).hasSize(500);
+        assertThat(policy.getExcludeMap().getORGUNIT()).hasSize(500);
+        assertThat(orgUnits).hasSize(1000);
+        assertThat(orgUnits).allSatisfy(orgUnit -> assertThat(orgUnit).matches(ORG_UNIT_ID_PATTERN));
+    }
+
+    @Test
+    void networkAclPolicyHasFullEntrySetRepeatedInManagedServiceData() throws IOException {
+
+        final ResourceModel policy = new WorkloadGenerator(1).policy(SecurityServiceType.NETWORK_ACL_COMMON, 1, 1);
+        final NetworkAclEntrySet entrySet = policy.getSecurityServicePolicyData()
+                .getPolicyOption()
+                .getNetworkAclCommonPolicy()
+                .getNetworkAclEntrySet();
+        final JsonNode managedServiceData = new ObjectMapper()
+                .readTree(policy.getSecurityServicePolicyData().getManagedServiceData())
+                .get("networkAclEntrySet");
+        final int entries = 2 * WorkloadGenerator.NETWORK_ACL_ENTRIES_PER_DIRECTION;
+
+        // assertions
+        assertThat(entrySet.getFirstEntries()).hasSize(entries);
+        assertThat(entrySet.getLastEntries()).hasSize(entries);
+        assertThat(entrySet.getFirstEntries().stream().filter(NetworkAclEntry::getEgress))
+                .hasSize(WorkloadGenerator.NETWORK_ACL_ENTRIES_PER_DIRECTION);
+        assertThat(managedServiceData.get("firstEntries")).hasSize(entries);
+        assertThat(managedServiceData.get("lastEntries")).hasSize(entries);
+        assertThat(managedServiceData.get("forceRemediateForFirstEntries").asBoolean())
+                .isEqualTo(entrySet.getForceRemediateForFirstEntries());
+    }
+
+    @Test
+    void tagsAreAtTheirLimits() {
+
+        final ResourceModel policy = new WorkloadGenerator(1).policy(SecurityServiceType.WAFV2, 1, 1);
+
+        // assertions
+        assertThat(policy.getTags()).hasSize(WorkloadGenerator.MAX_TAGS);
+        assertThat(policy.getTags().stream().map(PolicyTag::getKey).collect(Collectors.toSet()))
+                .hasSize(WorkloadGenerator.MAX_TAGS);
+        assertThat(policy.getTags()).allSatisfy(tag -> {
+            assertThat(tag.getKey()).hasSize(WorkloadGenerator.MAX_TAG_KEY_LENGTH);
+            assertThat(tag.getValue()).hasSize(WorkloadGenerator.MAX_TAG_VALUE_LENGTH);
+        });
+        assertThat(policy.getResourceTags()).hasSize(WorkloadGenerator.MAX_RESOURCE_TAGS);
+    }
+}
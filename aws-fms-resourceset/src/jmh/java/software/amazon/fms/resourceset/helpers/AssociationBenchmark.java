@@ -0,0 +1,201 @@
+package software.amazon.fms.resourceset.helpers;
+
+import com.google.common.collect.Iterables;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import software.amazon.awssdk.services.fms.FmsClient;
+import software.amazon.awssdk.services.fms.model.BatchAssociateResourceRequest;
+import software.amazon.awssdk.services.fms.model.BatchAssociateResourceResponse;
+import software.amazon.awssdk.services.fms.model.BatchDisassociateResourceRequest;
+import software.amazon.awssdk.services.fms.model.BatchDisassociateResourceResponse;
+import software.amazon.awssdk.services.fms.model.ListResourceSetResourcesRequest;
+import software.amazon.awssdk.services.fms.model.ListResourceSetResourcesResponse;
+import software.amazon.awssdk.services.fms.model.Resource;
+import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.Logger;
+import software.amazon.fms.resourceset.ResourceModel;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time and allocations of the stages of {@link AssociationHelper#updateResourceAssociations}, separately and end to
+ * end, for resource sets of a thousand to a million members generated by the {@link WorkloadGenerator}. The update
+ * drops a tenth of the current members and adds as many new ones. The FMS API is a stub serving precomputed pages
+ * and batch responses, so the numbers are those of the handler side: listing, diffing, partitioning and building the
+ * batch requests through the proxy. Run with the gc profiler to get the bytes allocated per operation:
+ * mvn test-compile -P jmh -Djmh.args=AssociationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class AssociationBenchmark {
+
+    /** Number of resources per page of the resource listing. */
+    private static final int PAGE_SIZE = 100;
+
+    /** Average number of members of the resource sets per account owning them. */
+    private static final int RESOURCES_PER_ACCOUNT = 100;
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int resources;
+
+    private AmazonWebServicesClientProxy proxy;
+    private Logger logger;
+    private FmsClient client;
+    private Set<String> currentAssociations;
+    private Set<String> desiredAssociations;
+    private Set<String> resourcesToDisassociate;
+    private Set<String> resourcesToAssociate;
+
+    @Setup
+    public void setup() {
+
+        final WorkloadGenerator generator = new WorkloadGenerator(WorkloadGenerator.DEFAULT_SEED);
+        final List<String> uris = generator.resourceArns(
+                resources + resources / 10, generator.accountIds(Math.max(1, resources / RESOURCES_PER_ACCOUNT)));
+        currentAssociations = new HashSet<>(uris.subList(0, resources));
+        desiredAssociations = new HashSet<>(uris.subList(resources / 10, uris.size()));
+        resourcesToDisassociate =
+                AssociationHelper.calculateResourcesToDisassociate(currentAssociations, desiredAssociations);
+        resourcesToAssociate =
+                AssociationHelper.calculateResourcesToAssociate(currentAssociations, desiredAssociations);
+
+        proxy = InMemoryFmsClient.newProxy();
+        logger = message -> { };
+        client = new StubFmsClient(uris.subList(0, resources));
+    }
+
+    @Benchmark
+    public Set<String> listResourceAssociations() {
+
+        return AssociationHelper.listResourceAssociations(
+                BaseSampleHelper.sampleResourceSetId, client, newInvoker());
+    }
+
+    @Benchmark
+    public Set<String> calculateResourcesToDisassociate() {
+
+        return AssociationHelper.calculateResourcesToDisassociate(currentAssociations, desiredAssociations);
+    }
+
+    @Benchmark
+    public Set<String> calculateResourcesToAssociate() {
+
+        return AssociationHelper.calculateResourcesToAssociate(currentAssociations, desiredAssociations);
+    }
+
+    @Benchmark
+    public void partition(final Blackhole blackhole) {
+
+        for (final List<String> partition : Iterables.partition(
+                resourcesToAssociate, AssociationHelper.MAX_ASSOCIATION_CHANGES_PER_REQUEST)) {
+            blackhole.consume(partition);
+        }
+    }
+
+    @Benchmark
+    public void batchAssociateResources() {
+
+        AssociationHelper.batchAssociateResources(
+                BaseSampleHelper.sampleResourceSetId, resourcesToAssociate, client, newInvoker(), logger);
+    }
+
+    @Benchmark
+    public void batchDisassociateResources() {
+
+        AssociationHelper.batchDisassociateResources(
+                BaseSampleHelper.sampleResourceSetId, resourcesToDisassociate, client, newInvoker(), logger);
+    }
+
+    @Benchmark
+    public void updateResourceAssociations() {
+
+        AssociationHelper.updateResourceAssociations(
+                BaseSampleHelper.sampleResourceSetId, desiredAssociations, client, newInvoker(), logger);
+    }
+
+    /**
+     * Create the invoker of a handler invocation, with its own metrics and trace as in the handlers.
+     * @return The invoker.
+     */
+    private FmsApiInvoker newInvoker() {
+
+        return new FmsApiInvoker(
+                proxy,
+                logger,
+                new HandlerMetrics(ResourceModel.TYPE_NAME, "Update"),
+                new Tracer(ResourceModel.TYPE_NAME, "Update"));
+    }
+
+    /**
+     * FMS API stub serving the pages of a fixed resource listing and accepting every batch request.
+     */
+    private static class StubFmsClient implements FmsClient {
+
+        private final List<ListResourceSetResourcesResponse> pages = new ArrayList<>();
+
+        StubFmsClient(final List<String> uris) {
+
+            for (int from = 0; from < uris.size(); from += PAGE_SIZE) {
+                final int to = Math.min(uris.size(), from + PAGE_SIZE);
+                final List<Resource> items = new ArrayList<>();
+                uris.subList(from, to).forEach(uri -> items.add(Resource.builder().uri(uri).build()));
+                pages.add(ListResourceSetResourcesResponse.builder()
+                        .items(items)
+                        .nextToken(to < uris.size() ? String.valueOf(pages.size() + 1) : null)
+                        .build());
+            }
+        }
+
+        @Override
+        public String serviceName() {
+
+            return SERVICE_NAME;
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public ListResourceSetResourcesResponse listResourceSetResources(
+                final ListResourceSetResourcesRequest request) {
+
+            return pages.get(request.nextToken() == null ? 0 : Integer.parseInt(request.nextToken()));
+        }
+
+        @Override
+        public BatchAssociateResourceResponse batchAssociateResource(final BatchAssociateResourceRequest request) {
+
+            return BatchAssociateResourceResponse.builder()
+                    .resourceSetIdentifier(request.resourceSetIdentifier())
+                    .build();
+        }
+
+        @Override
+        public BatchDisassociateResourceResponse batchDisassociateResource(
+                final BatchDisassociateResourceRequest request) {
+
+            return BatchDisassociateResourceResponse.builder()
+                    .resourceSetIdentifier(request.resourceSetIdentifier())
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package software.amazon.fms.resourceset.helpers;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import software.amazon.awssdk.services.fms.model.ResourceSet;
+import software.amazon.awssdk.services.fms.model.Tag;
+import software.amazon.fms.resourceset.ResourceModel;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the conversions between the CloudFormation and FMS models of a resource set, which every handler
+ * invocation runs at least once. The minimal payload is the sample resource set with only the required parameters,
+ * the maximal one is generated by the {@link WorkloadGenerator}, with ten thousand members across a thousand accounts
+ * and tags at their limits. Run with the gc profiler to get the allocation rate alongside the throughput:
+ * mvn test-compile -P jmh -Djmh.args=ConverterBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConverterBenchmark {
+
+    /** Number of members of a maximal resource set. */
+    static final int MAX_RESOURCES = 10000;
+
+    /** Number of accounts the members of a maximal resource set are spread over. */
+    static final int MAX_RESOURCE_ACCOUNTS = 1000;
+
+    public enum Payload {
+        MINIMAL,
+        MAXIMAL
+    }
+
+    @Param({"MINIMAL", "MAXIMAL"})
+    public Payload payload;
+
+    private ResourceModel resourceModel;
+    private ResourceSet resourceSet;
+    private Set<String> resources;
+    private List<Tag> tags;
+    private Map<String, String> existingTags;
+    private Map<String, String> desiredTags;
+
+    @Setup
+    public void setup() {
+
+        if (payload == Payload.MINIMAL) {
+            resourceModel = CfnSampleHelper.sampleRequiredParametersResourceModel(true, false, true, false);
+            resources = new HashSet<>();
+        } else {
+            resourceModel = new WorkloadGenerator(WorkloadGenerator.DEFAULT_SEED)
+                    .resourceSet(MAX_RESOURCES, MAX_RESOURCE_ACCOUNTS);
+            resourceModel.setId(BaseSampleHelper.sampleResourceSetId);
+            resources = new HashSet<>(resourceModel.getResources());
+        }
+        resourceSet = FmsHelper.convertCFNResourceModelToFMSResourceSet(
+                resourceModel, BaseSampleHelper.sampleResourceSetUpdateToken);
+
+        // the existing and desired tags overlap by half, so each side has tags to add and to remove
+        final int tagCount = payload == Payload.MINIMAL ? 1 : WorkloadGenerator.MAX_TAGS;
+        final List<software.amazon.fms.resourceset.Tag> generatedTags =
+                new WorkloadGenerator(WorkloadGenerator.DEFAULT_SEED).tags(tagCount + tagCount / 2);
+        tags = new ArrayList<>();
+        existingTags = new LinkedHashMap<>();
+        desiredTags = new LinkedHashMap<>();
+        for (int i = 0; i < tagCount; i++) {
+            final software.amazon.fms.resourceset.Tag existing = generatedTags.get(i);
+            final software.amazon.fms.resourceset.Tag desired = generatedTags.get(i + tagCount / 2);
+            tags.add(Tag.builder().key(existing.getKey()).value(existing.getValue()).build());
+            existingTags.put(existing.getKey(), existing.getValue());
+            desiredTags.put(desired.getKey(), desired.getValue());
+        }
+    }
+
+    @Benchmark
+    public ResourceSet convertCFNResourceModelToFMSResourceSet() {
+
+        return FmsHelper.convertCFNResourceModelToFMSResourceSet(
+                resourceModel, BaseSampleHelper.sampleResourceSetUpdateToken);
+    }
+
+    @Benchmark
+    public ResourceModel convertResourceSetToCFNResourceModel() {
+
+        return CfnHelper.convertResourceSetToCFNResourceModel(resourceSet, resources, tags);
+    }
+
+    @Benchmark
+    public List<Tag> tagsToAdd() {
+
+        return FmsHelper.tagsToAdd(existingTags, desiredTags);
+    }
+
+    @Benchmark
+    public List<String> tagsToRemove() {
+
+        return FmsHelper.tagsToRemove(existingTags, desiredTags);
+    }
+}
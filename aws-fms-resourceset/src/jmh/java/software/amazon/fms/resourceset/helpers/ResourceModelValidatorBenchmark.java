@@ -0,0 +1,68 @@
+package software.amazon.fms.resourceset.helpers;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import software.amazon.awssdk.services.fms.model.ResourceSet;
+import software.amazon.fms.resourceset.ResourceModel;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the validation of a desired resource set against the resource schema, which the create and update
+ * handlers run before any FMS API request, next to the conversion of the same resource set to the FMS model. The
+ * payloads are those of the {@link ConverterBenchmark}, the maximal one with ten thousand members that are each
+ * checked against their pattern and length and for uniqueness:
+ * mvn test-compile -P jmh -Djmh.args=ResourceModelValidatorBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResourceModelValidatorBenchmark {
+
+    @Param({"MINIMAL", "MAXIMAL"})
+    public ConverterBenchmark.Payload payload;
+
+    private ResourceModel resourceModel;
+
+    @Setup
+    public void setup() {
+
+        if (payload == ConverterBenchmark.Payload.MINIMAL) {
+            resourceModel = CfnSampleHelper.sampleRequiredParametersResourceModel(true, false, true, false);
+        } else {
+            resourceModel = new WorkloadGenerator(WorkloadGenerator.DEFAULT_SEED)
+                    .resourceSet(ConverterBenchmark.MAX_RESOURCES, ConverterBenchmark.MAX_RESOURCE_ACCOUNTS);
+            resourceModel.setId(BaseSampleHelper.sampleResourceSetId);
+        }
+        final List<String> violations = ResourceModelValidator.validate(resourceModel);
+        if (!violations.isEmpty()) {
+            throw new IllegalStateException("Invalid benchmark payload: " + violations);
+        }
+    }
+
+    @Benchmark
+    public List<String> validate() {
+
+        return ResourceModelValidator.validate(resourceModel);
+    }
+
+    @Benchmark
+    public ResourceSet convertCFNResourceModelToFMSResourceSet() {
+
+        return FmsHelper.convertCFNResourceModelToFMSResourceSet(
+                resourceModel, BaseSampleHelper.sampleResourceSetUpdateToken);
+    }
+}
@@ -1,12 +1,25 @@
 package software.amazon.fms.resourceset;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+/**
+ * Progress of a Create or Update that ran out of invocation time, carried to the invocation resuming it.
+ */
 @Data
 @NoArgsConstructor
+@AllArgsConstructor
 @Builder
 class CallbackContext {
 
+    /** ID of the resource set once a Create has made it, so that the resumed invocation does not make another. */
+    private String resourceSetId;
+
+    /** Whether an Update has put the resource set and reconciled its tags, leaving only its resources to update. */
+    private boolean resourceSetUpdated;
+
+    /** Number of invocations the action has been resumed in. */
+    private int resumptions;
 }
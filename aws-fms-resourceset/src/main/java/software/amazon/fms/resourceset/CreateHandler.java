@@ -2,20 +2,25 @@ package software.amazon.fms.resourceset;
 
 import software.amazon.awssdk.services.fms.FmsClient;
 import software.amazon.awssdk.services.fms.model.DeleteResourceSetRequest;
+import software.amazon.awssdk.services.fms.model.GetResourceSetRequest;
+import software.amazon.awssdk.services.fms.model.GetResourceSetResponse;
 import software.amazon.awssdk.services.fms.model.PutResourceSetRequest;
 import software.amazon.awssdk.services.fms.model.PutResourceSetResponse;
 import software.amazon.awssdk.services.fms.model.Tag;
 import software.amazon.cloudformation.exceptions.CfnInternalFailureException;
-import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.Logger;
 import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
 import software.amazon.fms.resourceset.helpers.AssociationHelper;
 import software.amazon.fms.resourceset.helpers.CfnHelper;
+import software.amazon.fms.resourceset.helpers.FmsApiInvoker;
 import software.amazon.fms.resourceset.helpers.FmsHelper;
+import software.amazon.fms.resourceset.helpers.ResourceModelValidator;
+import software.amazon.fms.resourceset.helpers.TimeBudget;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Supplier;
 
 public class CreateHandler extends ResourceSetHandler<PutResourceSetResponse> {
 
@@ -27,50 +32,92 @@ public class CreateHandler extends ResourceSetHandler<PutResourceSetResponse> {
         super(client);
     }
 
+    CreateHandler(final FmsClient client, final Supplier<TimeBudget> timeBudgets) {
+        super(client, timeBudgets);
+    }
+
     @Override
     protected PutResourceSetResponse makeRequest(
-            final AmazonWebServicesClientProxy proxy,
+            final FmsApiInvoker invoker,
             final ResourceHandlerRequest<ResourceModel> request,
+            final CallbackContext callbackContext,
             final Logger logger
     ) {
 
-        // make the create request
-        final PutResourceSetRequest.Builder putResourceSetRequestBuilder = PutResourceSetRequest.builder()
-                .resourceSet(FmsHelper.convertCFNResourceModelToFMSResourceSet(request.getDesiredResourceState()));
-        final List<Tag> tags = FmsHelper.convertCFNTagMapToFMSTagSet(request.getDesiredResourceTags());
-
-        if (!tags.isEmpty()) {
-            putResourceSetRequestBuilder.tagList(tags);
+        final PutResourceSetResponse putResourceSetResponse;
+        if (callbackContext.getResourceSetId() == null) {
+            // make the create request
+            final PutResourceSetRequest putResourceSetRequest = invoker.getTracer().trace(
+                    "Conversion",
+                    () -> buildPutResourceSetRequest(request));
+            putResourceSetResponse = invoker.invoke(
+                    putResourceSetRequest,
+                    client::putResourceSet);
+            logRequest(putResourceSetResponse, logger);
+            callbackContext.setResourceSetId(putResourceSetResponse.resourceSet().id());
+        } else {
+            // an earlier invocation created the resource set and ran out of time associating its resources
+            logger.log(String.format("Resuming creation of ResourceSet %s", callbackContext.getResourceSetId()));
+            final GetResourceSetResponse getResourceSetResponse = invoker.invoke(
+                    GetResourceSetRequest.builder().identifier(callbackContext.getResourceSetId()).build(),
+                    client::getResourceSet);
+            logRequest(getResourceSetResponse, logger);
+            putResourceSetResponse = PutResourceSetResponse.builder()
+                    .resourceSet(getResourceSetResponse.resourceSet())
+                    .resourceSetArn(getResourceSetResponse.resourceSetArn())
+                    .build();
         }
-        final PutResourceSetResponse putResourceSetResponse = proxy.injectCredentialsAndInvokeV2(
-                putResourceSetRequestBuilder.build(),
-                client::putResourceSet);
-        logRequest(putResourceSetResponse, logger);
 
         AssociationHelper.updateResourceAssociations(
                 putResourceSetResponse.resourceSet().id(),
                 request.getDesiredResourceState().getResources(),
                 client,
-                proxy,
+                invoker,
                 logger
         );
 
         return putResourceSetResponse;
     }
 
+    @Override
+    protected List<String> validateRequest(final ResourceHandlerRequest<ResourceModel> request) {
+
+        return ResourceModelValidator.validate(request.getDesiredResourceState());
+    }
+
+    @Override
+    boolean isResumable() {
+
+        return true;
+    }
+
+    private static PutResourceSetRequest buildPutResourceSetRequest(
+            final ResourceHandlerRequest<ResourceModel> request
+    ) {
+
+        final PutResourceSetRequest.Builder putResourceSetRequestBuilder = PutResourceSetRequest.builder()
+                .resourceSet(FmsHelper.convertCFNResourceModelToFMSResourceSet(request.getDesiredResourceState()));
+        final List<Tag> tags = FmsHelper.convertCFNTagMapToFMSTagSet(request.getDesiredResourceTags());
+
+        if (!tags.isEmpty()) {
+            putResourceSetRequestBuilder.tagList(tags);
+        }
+        return putResourceSetRequestBuilder.build();
+    }
+
     @Override
     protected ProgressEvent<ResourceModel, CallbackContext> constructSuccessProgressEvent(
             final PutResourceSetResponse response,
             final ResourceHandlerRequest<ResourceModel> request,
-            final AmazonWebServicesClientProxy proxy
+            final FmsApiInvoker invoker
     ) {
-        return ProgressEvent.defaultSuccessHandler(constructSuccessResourceModel(response, request, proxy));
+        return ProgressEvent.defaultSuccessHandler(constructSuccessResourceModel(response, request, invoker));
     }
 
     private ResourceModel constructSuccessResourceModel(
             final PutResourceSetResponse response,
             final ResourceHandlerRequest<ResourceModel> request,
-            final AmazonWebServicesClientProxy proxy
+            final FmsApiInvoker invoker
     ) {
 
         try {
@@ -84,7 +131,7 @@ public class CreateHandler extends ResourceSetHandler<PutResourceSetResponse> {
             DeleteResourceSetRequest deleteResourceSetRequest = DeleteResourceSetRequest.builder()
                     .identifier(response.resourceSet().id())
                     .build();
-            proxy.injectCredentialsAndInvokeV2(deleteResourceSetRequest, client::deleteResourceSet);
+            invoker.invoke(deleteResourceSetRequest, client::deleteResourceSet);
 
             // raise an internal exception so CloudFormation knows resourceSet creation failed
             throw new CfnInternalFailureException(e);
@@ -3,10 +3,10 @@ package software.amazon.fms.resourceset;
 import software.amazon.awssdk.services.fms.FmsClient;
 import software.amazon.awssdk.services.fms.model.DeleteResourceSetRequest;
 import software.amazon.awssdk.services.fms.model.DeleteResourceSetResponse;
-import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.Logger;
 import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+import software.amazon.fms.resourceset.helpers.FmsApiInvoker;
 
 public class DeleteHandler extends ResourceSetHandler<DeleteResourceSetResponse> {
 
@@ -20,8 +20,9 @@ public class DeleteHandler extends ResourceSetHandler<DeleteResourceSetResponse>
 
     @Override
     protected DeleteResourceSetResponse makeRequest(
-            final AmazonWebServicesClientProxy proxy,
+            final FmsApiInvoker invoker,
             final ResourceHandlerRequest<ResourceModel> request,
+            final CallbackContext callbackContext,
             final Logger logger
     ) {
 
@@ -30,7 +31,7 @@ public class DeleteHandler extends ResourceSetHandler<DeleteResourceSetResponse>
                 .identifier(request.getDesiredResourceState().getId());
 
         // make the delete request
-        final DeleteResourceSetResponse response = proxy.injectCredentialsAndInvokeV2(
+        final DeleteResourceSetResponse response = invoker.invoke(
                 deletePolicyRequest.build(),
                 client::deleteResourceSet);
         logRequest(response, logger);
@@ -41,7 +42,7 @@ public class DeleteHandler extends ResourceSetHandler<DeleteResourceSetResponse>
     protected ProgressEvent<ResourceModel, CallbackContext> constructSuccessProgressEvent(
             final DeleteResourceSetResponse response,
             final ResourceHandlerRequest<ResourceModel> request,
-            final AmazonWebServicesClientProxy proxy
+            final FmsApiInvoker invoker
     ) {
         return ProgressEvent.defaultSuccessHandler(null);
     }
@@ -4,12 +4,12 @@ import software.amazon.awssdk.services.fms.FmsClient;
 import software.amazon.awssdk.services.fms.model.ListResourceSetsRequest;
 import software.amazon.awssdk.services.fms.model.ListResourceSetsResponse;
 import software.amazon.awssdk.services.fms.model.ResourceSetSummary;
-import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.Logger;
 import software.amazon.cloudformation.proxy.OperationStatus;
 import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
 import software.amazon.fms.resourceset.helpers.CfnHelper;
+import software.amazon.fms.resourceset.helpers.FmsApiInvoker;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -28,8 +28,9 @@ public class ListHandler extends ResourceSetHandler<ListResourceSetsResponse> {
 
     @Override
     protected ListResourceSetsResponse makeRequest(
-            final AmazonWebServicesClientProxy proxy,
+            final FmsApiInvoker invoker,
             final ResourceHandlerRequest<ResourceModel> request,
+            final CallbackContext callbackContext,
             final Logger logger
     ) {
 
@@ -39,7 +40,7 @@ public class ListHandler extends ResourceSetHandler<ListResourceSetsResponse> {
                 .maxResults(MAX_RESULTS)
                 .build();
 
-        ListResourceSetsResponse listResourceSetsResponse = proxy.injectCredentialsAndInvokeV2(
+        ListResourceSetsResponse listResourceSetsResponse = invoker.invoke(
                 listResourceSetsRequest,
                 client::listResourceSets);
         logRequest(listResourceSetsResponse, logger);
@@ -51,7 +52,7 @@ public class ListHandler extends ResourceSetHandler<ListResourceSetsResponse> {
     protected ProgressEvent<ResourceModel, CallbackContext> constructSuccessProgressEvent(
             final ListResourceSetsResponse response,
             final ResourceHandlerRequest<ResourceModel> request,
-            final AmazonWebServicesClientProxy proxy
+            final FmsApiInvoker invoker
     ) {
         List<ResourceModel> resourceModels = new ArrayList<>();
 
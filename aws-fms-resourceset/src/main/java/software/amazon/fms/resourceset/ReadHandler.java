@@ -8,14 +8,17 @@ import software.amazon.awssdk.services.fms.model.ListResourceSetResourcesRespons
 import software.amazon.awssdk.services.fms.model.ListTagsForResourceRequest;
 import software.amazon.awssdk.services.fms.model.ListTagsForResourceResponse;
 import software.amazon.awssdk.services.fms.model.Resource;
-import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.Logger;
 import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
 import software.amazon.fms.resourceset.helpers.CfnHelper;
+import software.amazon.fms.resourceset.helpers.FmsApiInvoker;
+import software.amazon.fms.resourceset.helpers.Span;
+import software.amazon.fms.resourceset.helpers.TimeBudget;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 public class ReadHandler extends ResourceSetHandler<GetResourceSetResponse> {
@@ -28,10 +31,15 @@ public class ReadHandler extends ResourceSetHandler<GetResourceSetResponse> {
         super(client);
     }
 
+    ReadHandler(final FmsClient client, final Supplier<TimeBudget> timeBudgets) {
+        super(client, timeBudgets);
+    }
+
     @Override
     protected GetResourceSetResponse makeRequest(
-            final AmazonWebServicesClientProxy proxy,
+            final FmsApiInvoker invoker,
             final ResourceHandlerRequest<ResourceModel> request,
+            final CallbackContext callbackContext,
             final Logger logger
     ) {
 
@@ -39,7 +47,7 @@ public class ReadHandler extends ResourceSetHandler<GetResourceSetResponse> {
         final GetResourceSetRequest getPolicyRequest = GetResourceSetRequest.builder()
                 .identifier(request.getDesiredResourceState().getId())
                 .build();
-        final GetResourceSetResponse response = proxy.injectCredentialsAndInvokeV2(
+        final GetResourceSetResponse response = invoker.invoke(
                 getPolicyRequest,
                 client::getResourceSet);
         logRequest(response, logger);
@@ -50,42 +58,48 @@ public class ReadHandler extends ResourceSetHandler<GetResourceSetResponse> {
     protected ProgressEvent<ResourceModel, CallbackContext> constructSuccessProgressEvent(
             final GetResourceSetResponse response,
             final ResourceHandlerRequest<ResourceModel> request,
-            final AmazonWebServicesClientProxy proxy
+            final FmsApiInvoker invoker
     ) {
-        return ProgressEvent.defaultSuccessHandler(constructSuccessResourceModel(response, request, proxy));
+        return ProgressEvent.defaultSuccessHandler(constructSuccessResourceModel(response, request, invoker));
     }
 
     private ResourceModel constructSuccessResourceModel(
             final GetResourceSetResponse response,
             final ResourceHandlerRequest<ResourceModel> request,
-            final AmazonWebServicesClientProxy proxy
+            final FmsApiInvoker invoker
     ) {
 
         // list the tags for the resourceSet
         final ListTagsForResourceRequest listTagsForResourceRequest = ListTagsForResourceRequest.builder()
                 .resourceArn(response.resourceSetArn())
                 .build();
-        final ListTagsForResourceResponse listTagsForResourceResponse = proxy.injectCredentialsAndInvokeV2(
+        final ListTagsForResourceResponse listTagsForResourceResponse = invoker.invoke(
                 listTagsForResourceRequest,
                 client::listTagsForResource);
 
         // list the resources for the resourceSet
         String nextToken = null;
         List<Resource> resources = new ArrayList<>();
+        int page = 0;
         do {
-            // list the resources for the resourceSet
-            ListResourceSetResourcesRequest resourceSetResourcesRequest = ListResourceSetResourcesRequest.builder()
-                    .identifier(response.resourceSet().id())
-                    .nextToken(nextToken)
-                    .build();
+            try (Span span = invoker.getTracer().startSpan("AssociationPage")) {
+                span.setAttribute("fms.page.number", ++page);
+
+                // list the resources for the resourceSet
+                ListResourceSetResourcesRequest resourceSetResourcesRequest = ListResourceSetResourcesRequest.builder()
+                        .identifier(response.resourceSet().id())
+                        .nextToken(nextToken)
+                        .build();
 
-            ListResourceSetResourcesResponse resourceSetResourcesResponse = proxy.injectCredentialsAndInvokeV2(
-                    resourceSetResourcesRequest,
-                    client::listResourceSetResources);
+                ListResourceSetResourcesResponse resourceSetResourcesResponse = invoker.invoke(
+                        resourceSetResourcesRequest,
+                        client::listResourceSetResources);
 
-            nextToken = resourceSetResourcesResponse.nextToken();
+                nextToken = resourceSetResourcesResponse.nextToken();
 
-            resources.addAll(resourceSetResourcesResponse.items());
+                resources.addAll(resourceSetResourcesResponse.items());
+                span.setAttribute("fms.page.size", resourceSetResourcesResponse.items().size());
+            }
         } while (nextToken != null);
 
         // convert the read request response to a resource model
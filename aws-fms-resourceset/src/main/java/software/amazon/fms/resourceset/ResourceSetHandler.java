@@ -1,5 +1,6 @@
 package software.amazon.fms.resourceset;
 
+import software.amazon.awssdk.core.exception.SdkClientException;
 import software.amazon.awssdk.services.fms.FmsClient;
 import software.amazon.awssdk.services.fms.model.FmsResponse;
 import software.amazon.awssdk.services.fms.model.InternalErrorException;
@@ -8,55 +9,116 @@ import software.amazon.awssdk.services.fms.model.InvalidOperationException;
 import software.amazon.awssdk.services.fms.model.InvalidTypeException;
 import software.amazon.awssdk.services.fms.model.LimitExceededException;
 import software.amazon.awssdk.services.fms.model.ResourceNotFoundException;
+import software.amazon.cloudformation.exceptions.CfnThrottlingException;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.HandlerErrorCode;
 import software.amazon.cloudformation.proxy.Logger;
 import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+import software.amazon.fms.resourceset.helpers.FmsApiInvoker;
+import software.amazon.fms.resourceset.helpers.FmsClientRegistry;
+import software.amazon.fms.resourceset.helpers.HandlerMetrics;
+import software.amazon.fms.resourceset.helpers.SnapshotPriming;
+import software.amazon.fms.resourceset.helpers.TimeBudget;
+import software.amazon.fms.resourceset.helpers.Tracer;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
 
 abstract class ResourceSetHandler<ResponseT extends FmsResponse> extends BaseHandler<CallbackContext> {
 
+    /** Seconds CloudFormation waits before resuming an action that ran out of invocation time. */
+    static final int CALLBACK_DELAY_SECONDS = 5;
+
+    /** Most invocations an action is resumed in before it fails, so that an action never making progress ends. */
+    static final int MAX_RESUMPTIONS = 20;
+
     /** FMS client instance to make requests on behalf of CloudFormation. */
     protected final FmsClient client;
 
-    /** Constructor for use by CloudFormation, uses default FMS client. */
+    /** Source of the time budget of each invocation. */
+    private final Supplier<TimeBudget> timeBudgets;
+
+    /**
+     * Constructor for use by CloudFormation, uses the FMS client shared by all handlers, budgets the invocation time
+     * configured through the environment and registers the priming of the handler code paths for when the process is
+     * snapshotted.
+     */
     ResourceSetHandler() {
 
-        client = FmsClient.create();
+        client = FmsClientRegistry.getClient();
+        timeBudgets = () -> TimeBudget.fromEnvironment(System.getenv());
+        SnapshotPriming.register();
     }
 
     /**
-     * Constructor for use in tests, allows for a mocked client.
+     * Constructor for use in tests, allows for a mocked client and invocations without a deadline.
      * @param client The FmsClient to use.
      */
     ResourceSetHandler(final FmsClient client) {
 
+        this(client, TimeBudget::unlimited);
+    }
+
+    /**
+     * Constructor for use in tests, allows for a mocked client and short invocation times.
+     * @param client The FmsClient to use.
+     * @param timeBudgets Source of the time budget of each invocation.
+     */
+    ResourceSetHandler(final FmsClient client, final Supplier<TimeBudget> timeBudgets) {
+
         this.client = client;
+        this.timeBudgets = timeBudgets;
     }
 
     /**
      * Hook called by handleRequest to make the primary action (create, read, etc..) request on the FMS API.
-     * @param proxy AWS proxy to make requests.
+     * @param invoker Invoker to make FMS API requests.
      * @param request CloudFormation's handler request.
+     * @param callbackContext Progress of the action in earlier invocations, updated as the action progresses.
      * @param logger CloudWatch logger.
      * @return Response from the FMS API.
      */
     protected abstract ResponseT makeRequest(
-            final AmazonWebServicesClientProxy proxy,
+            final FmsApiInvoker invoker,
             final ResourceHandlerRequest<ResourceModel> request,
+            final CallbackContext callbackContext,
             final Logger logger);
 
     /**
      * Hook called by handleRequest to build the ProgressEvent after a successful makeRequest call.
      * @param response Generic type request response from makeRequest call.
      * @param request CloudFormation's handler request.
-     * @param proxy AWS proxy to make requests.
+     * @param invoker Invoker to make FMS API requests.
      * @return ProgressEvent with Post-action resource state.
      */
     abstract ProgressEvent<ResourceModel, CallbackContext> constructSuccessProgressEvent(
             final ResponseT response,
             final ResourceHandlerRequest<ResourceModel> request,
-            final AmazonWebServicesClientProxy proxy);
+            final FmsApiInvoker invoker);
+
+    /**
+     * Hook called by handleRequest before any FMS API request, to reject a desired resource state that FMS would reject
+     * without making the requests. Handlers without a desired resource state to validate find no violations.
+     * @param request CloudFormation's handler request.
+     * @return Violations found, empty if the request may proceed.
+     */
+    protected List<String> validateRequest(final ResourceHandlerRequest<ResourceModel> request) {
+
+        return Collections.emptyList();
+    }
+
+    /**
+     * Hook called by handleRequest to determine whether the action can be resumed in a later invocation when it runs
+     * out of invocation time, using the progress recorded in the callback context. Actions that cannot be resumed
+     * fail instead.
+     * @return Whether the action can be resumed.
+     */
+    boolean isResumable() {
+
+        return false;
+    }
 
     /**
      * Logs the requestId of an FmsResponse.
@@ -75,6 +137,18 @@ abstract class ResourceSetHandler<ResponseT extends FmsResponse> extends BaseHan
         logger.log(String.format("%s Id: %s", response.getClass().getSimpleName(), requestId));
     }
 
+    /**
+     * Get the action of the handler from its class name, e.g. Create for the CreateHandler.
+     * @return The handler action.
+     */
+    String actionName() {
+
+        final String className = getClass().getSimpleName();
+        return className.endsWith("Handler")
+                ? className.substring(0, className.length() - "Handler".length())
+                : className;
+    }
+
     /**
      * Hook called by CloudFormation to run resource management actions.
      * @param proxy AWS proxy to make requests.
@@ -91,10 +165,96 @@ abstract class ResourceSetHandler<ResponseT extends FmsResponse> extends BaseHan
             final Logger logger
     ) {
 
+        // record the metrics and trace of the invocation and flush them once it is over
+        final HandlerMetrics metrics = new HandlerMetrics(ResourceModel.TYPE_NAME, actionName());
+        final Tracer tracer = new Tracer(ResourceModel.TYPE_NAME, actionName());
+        final FmsApiInvoker invoker = new FmsApiInvoker(proxy, logger, metrics, tracer, timeBudgets.get());
+        try {
+            final ProgressEvent<ResourceModel, CallbackContext> progressEvent = handleRequest(
+                    invoker,
+                    request,
+                    callbackContext == null ? new CallbackContext() : callbackContext,
+                    logger);
+            metrics.recordOutcome(progressEvent);
+            tracer.recordOutcome(progressEvent);
+            return progressEvent;
+        } catch (RuntimeException e) {
+            metrics.recordOutcome(e);
+            tracer.recordOutcome(e);
+            throw e;
+        } finally {
+            metrics.flush(logger);
+            tracer.flush(logger);
+        }
+    }
+
+    /**
+     * Run the resource management action of the handler, stopping it if it runs out of invocation time.
+     * @param invoker Invoker to make FMS API requests.
+     * @param request CloudFormation's requested resource state.
+     * @param callbackContext Progress of the action in earlier invocations.
+     * @param logger CloudWatch logger.
+     * @return Success event with new resource state, in progress event with the progress of the action when it can
+     *         be resumed, or failure event with handler error code.
+     */
+    private ProgressEvent<ResourceModel, CallbackContext> handleRequest(
+            final FmsApiInvoker invoker,
+            final ResourceHandlerRequest<ResourceModel> request,
+            final CallbackContext callbackContext,
+            final Logger logger
+    ) {
+
+        // fail fast on a desired resource state that FMS would reject
+        final List<String> violations = invoker.getTracer().trace("Validation", () -> validateRequest(request));
+        if (!violations.isEmpty()) {
+            final String message = String.join("; ", violations);
+            logger.log(String.format("Invalid request: %s", message));
+            return ProgressEvent.failed(null, null, HandlerErrorCode.InvalidRequest, message);
+        }
+
+        try {
+            return runAction(invoker, request, callbackContext, logger);
+        } catch (TimeBudget.ExhaustedException e) {
+            logger.log(e.getMessage());
+            if (!isResumable()) {
+                return ProgressEvent.defaultFailureHandler(e, HandlerErrorCode.GeneralServiceException);
+            }
+            if (callbackContext.getResumptions() >= MAX_RESUMPTIONS) {
+                final String message = String.format("%s not complete after %d resumptions: %s",
+                        actionName(), callbackContext.getResumptions(), e.getMessage());
+                logger.log(message);
+                return ProgressEvent.failed(null, null, HandlerErrorCode.GeneralServiceException, message);
+            }
+
+            // return before the invocation times out, CloudFormation resumes the action from the callback context
+            callbackContext.setResumptions(callbackContext.getResumptions() + 1);
+            final ResourceModel model = request.getDesiredResourceState();
+            if (callbackContext.getResourceSetId() != null) {
+                model.setId(callbackContext.getResourceSetId());
+            }
+            return ProgressEvent.defaultInProgressHandler(callbackContext, CALLBACK_DELAY_SECONDS, model);
+        }
+    }
+
+    /**
+     * Run the resource management action of the handler.
+     * @param invoker Invoker to make FMS API requests.
+     * @param request CloudFormation's requested resource state.
+     * @param callbackContext Progress of the action in earlier invocations.
+     * @param logger CloudWatch logger.
+     * @return Success event with new resource state or failure event with handler error code.
+     */
+    private ProgressEvent<ResourceModel, CallbackContext> runAction(
+            final FmsApiInvoker invoker,
+            final ResourceHandlerRequest<ResourceModel> request,
+            final CallbackContext callbackContext,
+            final Logger logger
+    ) {
+
         final ResponseT response;
         try {
             // make the primary handler request
-            response = makeRequest(proxy, request, logger);
+            response = makeRequest(invoker, request, callbackContext, logger);
         } catch(ResourceNotFoundException e) {
             logger.log(e.toString());
             return ProgressEvent.defaultFailureHandler(e, HandlerErrorCode.NotFound);
@@ -107,9 +267,17 @@ abstract class ResourceSetHandler<ResponseT extends FmsResponse> extends BaseHan
         } catch(InternalErrorException e) {
             logger.log(e.toString());
             return ProgressEvent.defaultFailureHandler(e, HandlerErrorCode.ServiceInternalError);
+        } catch(CfnThrottlingException e) {
+            logger.log(e.toString());
+            return ProgressEvent.defaultFailureHandler(e, HandlerErrorCode.Throttling);
+        } catch(SdkClientException e) {
+            logger.log(e.toString());
+            return ProgressEvent.defaultFailureHandler(e, HandlerErrorCode.NetworkFailure);
         }
 
         // let each handler construct its own success progress event with resource model(s)
-        return constructSuccessProgressEvent(response, request, proxy);
+        return invoker.getTracer().trace(
+                "ModelConstruction",
+                () -> constructSuccessProgressEvent(response, request, invoker));
     }
 }
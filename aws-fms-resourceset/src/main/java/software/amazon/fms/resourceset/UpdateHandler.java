@@ -14,16 +14,20 @@ import software.amazon.awssdk.services.fms.model.TagResourceRequest;
 import software.amazon.awssdk.services.fms.model.TagResourceResponse;
 import software.amazon.awssdk.services.fms.model.UntagResourceRequest;
 import software.amazon.awssdk.services.fms.model.UntagResourceResponse;
-import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.Logger;
 import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
 import software.amazon.fms.resourceset.helpers.AssociationHelper;
 import software.amazon.fms.resourceset.helpers.CfnHelper;
+import software.amazon.fms.resourceset.helpers.FmsApiInvoker;
 import software.amazon.fms.resourceset.helpers.FmsHelper;
+import software.amazon.fms.resourceset.helpers.ResourceModelValidator;
+import software.amazon.fms.resourceset.helpers.Span;
+import software.amazon.fms.resourceset.helpers.TimeBudget;
 
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 public class UpdateHandler extends ResourceSetHandler<PutResourceSetResponse> {
 
@@ -35,10 +39,15 @@ public class UpdateHandler extends ResourceSetHandler<PutResourceSetResponse> {
         super(client);
     }
 
+    UpdateHandler(final FmsClient client, final Supplier<TimeBudget> timeBudgets) {
+        super(client, timeBudgets);
+    }
+
     @Override
     protected PutResourceSetResponse makeRequest(
-            final AmazonWebServicesClientProxy proxy,
+            final FmsApiInvoker invoker,
             final ResourceHandlerRequest<ResourceModel> request,
+            final CallbackContext callbackContext,
             final Logger logger
     ) {
 
@@ -51,72 +60,30 @@ public class UpdateHandler extends ResourceSetHandler<PutResourceSetResponse> {
         final GetResourceSetRequest getResourceSetRequest = GetResourceSetRequest.builder()
                 .identifier(request.getDesiredResourceState().getId())
                 .build();
-        final GetResourceSetResponse getResourceSetResponse = proxy.injectCredentialsAndInvokeV2(
+        final GetResourceSetResponse getResourceSetResponse = invoker.invoke(
                 getResourceSetRequest,
                 client::getResourceSet);
         logger.log("ResourceSet retrieved successfully");
         logRequest(getResourceSetResponse, logger);
 
-        // make the update request
-        logger.log("Updating existing ResourceSet");
-        final PutResourceSetRequest putResourceSetRequest = PutResourceSetRequest.builder()
-                .resourceSet(FmsHelper.convertCFNResourceModelToFMSResourceSet(
-                        request.getDesiredResourceState(),
-                        getResourceSetResponse.resourceSet().updateToken()))
-                .build();
-        final PutResourceSetResponse putResourceSetResponse = proxy.injectCredentialsAndInvokeV2(
-                putResourceSetRequest,
-                client::putResourceSet);
-        logger.log("ResourceSet updated successfully");
-        logRequest(putResourceSetResponse, logger);
-
-        Map<String, String> previousResourceTags = request.getPreviousResourceTags();
-
-        // determine tags to remove and add
-        final List<String> removeTags = FmsHelper.tagsToRemove(
-                previousResourceTags,
-                request.getDesiredResourceTags());
-        final List<Tag> addTags = FmsHelper.tagsToAdd(
-                previousResourceTags,
-                request.getDesiredResourceTags());
-
-        // make an untag request
-        if (!removeTags.isEmpty()) {
-            logger.log(String.format("Removing %d tag/s", removeTags.size()));
-            final UntagResourceRequest untagResourceRequest = UntagResourceRequest.builder()
-                    .resourceArn(getResourceSetResponse.resourceSetArn())
-                    .tagKeys(removeTags)
+        final PutResourceSetResponse putResourceSetResponse;
+        if (callbackContext.isResourceSetUpdated()) {
+            // an earlier invocation updated the resource set and ran out of time updating its resources
+            logger.log("Resuming update of the ResourceSet resources");
+            putResourceSetResponse = PutResourceSetResponse.builder()
+                    .resourceSet(getResourceSetResponse.resourceSet())
+                    .resourceSetArn(getResourceSetResponse.resourceSetArn())
                     .build();
-            final UntagResourceResponse untagResourceResponse = proxy.injectCredentialsAndInvokeV2(
-                    untagResourceRequest,
-                    client::untagResource);
-            logger.log("Tags removed successfully");
-            logRequest(untagResourceResponse, logger);
         } else {
-            logger.log("No tags to remove");
-        }
-
-        // make a tag request
-        if (!addTags.isEmpty()) {
-            logger.log(String.format("Adding %d tag/s", addTags.size()));
-            final TagResourceRequest tagResourceRequest = TagResourceRequest.builder()
-                    .resourceArn(getResourceSetResponse.resourceSetArn())
-                    .tagList(addTags)
-                    .build();
-            final TagResourceResponse tagResourceResponse = proxy.injectCredentialsAndInvokeV2(
-                    tagResourceRequest,
-                    client::tagResource);
-            logger.log("Tags added successfully");
-            logRequest(tagResourceResponse, logger);
-        } else {
-            logger.log("No tags to add");
+            putResourceSetResponse = updateResourceSet(invoker, request, getResourceSetResponse, logger);
+            callbackContext.setResourceSetUpdated(true);
         }
 
         AssociationHelper.updateResourceAssociations(
                 getResourceSetResponse.resourceSet().id(),
                 request.getDesiredResourceState().getResources(),
                 client,
-                proxy,
+                invoker,
                 logger
         );
 
@@ -124,19 +91,110 @@ public class UpdateHandler extends ResourceSetHandler<PutResourceSetResponse> {
         return putResourceSetResponse;
     }
 
+    @Override
+    protected List<String> validateRequest(final ResourceHandlerRequest<ResourceModel> request) {
+
+        return ResourceModelValidator.validate(request.getDesiredResourceState());
+    }
+
+    @Override
+    boolean isResumable() {
+
+        return true;
+    }
+
+    /**
+     * Put the desired resource set and reconcile its tags with the desired tags.
+     * @param invoker Invoker to make FMS API requests.
+     * @param request CloudFormation's handler request.
+     * @param getResourceSetResponse Existing resource set.
+     * @param logger CloudWatch logger.
+     * @return Response from the put request.
+     */
+    private PutResourceSetResponse updateResourceSet(
+            final FmsApiInvoker invoker,
+            final ResourceHandlerRequest<ResourceModel> request,
+            final GetResourceSetResponse getResourceSetResponse,
+            final Logger logger
+    ) {
+
+        // make the update request
+        logger.log("Updating existing ResourceSet");
+        final PutResourceSetRequest putResourceSetRequest = PutResourceSetRequest.builder()
+                .resourceSet(invoker.getTracer().trace("Conversion", () ->
+                        FmsHelper.convertCFNResourceModelToFMSResourceSet(
+                                request.getDesiredResourceState(),
+                                getResourceSetResponse.resourceSet().updateToken())))
+                .build();
+        final PutResourceSetResponse putResourceSetResponse = invoker.invoke(
+                putResourceSetRequest,
+                client::putResourceSet);
+        logger.log("ResourceSet updated successfully");
+        logRequest(putResourceSetResponse, logger);
+
+        // reconcile the tags on the resource set with the desired tags
+        try (Span tagReconciliationSpan = invoker.getTracer().startSpan("TagReconciliation")) {
+            Map<String, String> previousResourceTags = request.getPreviousResourceTags();
+
+            // determine tags to remove and add
+            final List<String> removeTags = FmsHelper.tagsToRemove(
+                    previousResourceTags,
+                    request.getDesiredResourceTags());
+            final List<Tag> addTags = FmsHelper.tagsToAdd(
+                    previousResourceTags,
+                    request.getDesiredResourceTags());
+            tagReconciliationSpan.setAttribute("fms.tags.removed", removeTags.size())
+                    .setAttribute("fms.tags.added", addTags.size());
+
+            // make an untag request
+            if (!removeTags.isEmpty()) {
+                logger.log(String.format("Removing %d tag/s", removeTags.size()));
+                final UntagResourceRequest untagResourceRequest = UntagResourceRequest.builder()
+                        .resourceArn(getResourceSetResponse.resourceSetArn())
+                        .tagKeys(removeTags)
+                        .build();
+                final UntagResourceResponse untagResourceResponse = invoker.invoke(
+                        untagResourceRequest,
+                        client::untagResource);
+                logger.log("Tags removed successfully");
+                logRequest(untagResourceResponse, logger);
+            } else {
+                logger.log("No tags to remove");
+            }
+
+            // make a tag request
+            if (!addTags.isEmpty()) {
+                logger.log(String.format("Adding %d tag/s", addTags.size()));
+                final TagResourceRequest tagResourceRequest = TagResourceRequest.builder()
+                        .resourceArn(getResourceSetResponse.resourceSetArn())
+                        .tagList(addTags)
+                        .build();
+                final TagResourceResponse tagResourceResponse = invoker.invoke(
+                        tagResourceRequest,
+                        client::tagResource);
+                logger.log("Tags added successfully");
+                logRequest(tagResourceResponse, logger);
+            } else {
+                logger.log("No tags to add");
+            }
+        }
+
+        return putResourceSetResponse;
+    }
+
     @Override
     protected ProgressEvent<ResourceModel, CallbackContext> constructSuccessProgressEvent(
             final PutResourceSetResponse response,
             final ResourceHandlerRequest<ResourceModel> request,
-            final AmazonWebServicesClientProxy proxy
+            final FmsApiInvoker invoker
     ) {
-        return ProgressEvent.defaultSuccessHandler(constructSuccessResourceModel(response, request, proxy));
+        return ProgressEvent.defaultSuccessHandler(constructSuccessResourceModel(response, request, invoker));
     }
 
     private ResourceModel constructSuccessResourceModel(
             final PutResourceSetResponse response,
             final ResourceHandlerRequest<ResourceModel> request,
-            final AmazonWebServicesClientProxy proxy
+            final FmsApiInvoker invoker
     ) {
 
         // convert the update request response to a resource model
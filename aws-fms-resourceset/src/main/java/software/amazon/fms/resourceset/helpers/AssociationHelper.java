@@ -11,7 +11,6 @@ import software.amazon.awssdk.services.fms.model.ListResourceSetResourcesRequest
 import software.amazon.awssdk.services.fms.model.ListResourceSetResourcesResponse;
 import software.amazon.awssdk.services.fms.model.Resource;
 import software.amazon.cloudformation.exceptions.CfnGeneralServiceException;
-import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.Logger;
 
 import java.util.ArrayList;
@@ -21,25 +20,25 @@ import java.util.Set;
 import java.util.stream.Collectors;
 
 public class AssociationHelper {
-    private static final int MAX_ASSOCIATION_CHANGES_PER_REQUEST = 100;
+    static final int MAX_ASSOCIATION_CHANGES_PER_REQUEST = 100;
 
     /**
      * Update a resource set to use a desired set of resources.
      * @param resourceSetId Resource set to update.
      * @param desiredAssociations Resources that should be associated to the resource set.
      * @param fmsClient FMS fmsClient.
-     * @param proxy CFN proxy.
+     * @param invoker Invoker to make FMS API requests.
      * @param logger CloudWatch logger.
      */
     public static void updateResourceAssociations(
             final String resourceSetId,
             final Set<String> desiredAssociations,
             final FmsClient fmsClient,
-            final AmazonWebServicesClientProxy proxy,
+            final FmsApiInvoker invoker,
             final Logger logger
     ) {
         // list all the resources currently associated with the resource set
-        final Set<String> currentAssociations = listResourceAssociations(resourceSetId, fmsClient, proxy);
+        final Set<String> currentAssociations = listResourceAssociations(resourceSetId, fmsClient, invoker);
 
         // calculate the resources that need to be disassociated from the resource set
         final Set<String> resourcesToDisassociate = calculateResourcesToDisassociate(
@@ -54,37 +53,42 @@ public class AssociationHelper {
         );
 
         // disassociate the resources from the resource set
-        batchDisassociateResources(resourceSetId, resourcesToDisassociate, fmsClient, proxy, logger);
+        batchDisassociateResources(resourceSetId, resourcesToDisassociate, fmsClient, invoker, logger);
 
         // associate the resources to the resource set
-        batchAssociateResources(resourceSetId, resourcesToAssociate, fmsClient, proxy, logger);
+        batchAssociateResources(resourceSetId, resourcesToAssociate, fmsClient, invoker, logger);
     }
 
-    private static Set<String> listResourceAssociations(
+    static Set<String> listResourceAssociations(
             final String resourceSetId,
             final FmsClient fmsClient,
-            final AmazonWebServicesClientProxy proxy
+            final FmsApiInvoker invoker
     ) {
         final List<Resource> resources = new ArrayList<>();
         String nextToken = null;
+        int page = 0;
         do {
-            ListResourceSetResourcesRequest resourceSetResourcesRequest = ListResourceSetResourcesRequest.builder()
-                    .identifier(resourceSetId)
-                    .nextToken(nextToken)
-                    .build();
-
-            ListResourceSetResourcesResponse resourceSetResourcesResponse = proxy.injectCredentialsAndInvokeV2(
-                    resourceSetResourcesRequest,
-                    fmsClient::listResourceSetResources);
-
-            resources.addAll(resourceSetResourcesResponse.items());
-            nextToken = resourceSetResourcesResponse.nextToken();
+            try (Span span = invoker.getTracer().startSpan("AssociationPage")) {
+                span.setAttribute("fms.page.number", ++page);
+                ListResourceSetResourcesRequest resourceSetResourcesRequest = ListResourceSetResourcesRequest.builder()
+                        .identifier(resourceSetId)
+                        .nextToken(nextToken)
+                        .build();
+
+                ListResourceSetResourcesResponse resourceSetResourcesResponse = invoker.invoke(
+                        resourceSetResourcesRequest,
+                        fmsClient::listResourceSetResources);
+
+                resources.addAll(resourceSetResourcesResponse.items());
+                nextToken = resourceSetResourcesResponse.nextToken();
+                span.setAttribute("fms.page.size", resourceSetResourcesResponse.items().size());
+            }
         } while (nextToken != null);
 
         return resources.stream().map(Resource::uri).collect(Collectors.toSet());
     }
 
-    private static Set<String> calculateResourcesToDisassociate(
+    static Set<String> calculateResourcesToDisassociate(
             final Set<String> currentAssociations,
             final Set<String> desiredAssociations
     ) {
@@ -98,7 +102,7 @@ public class AssociationHelper {
                 .collect(Collectors.toSet());
     }
 
-    private static Set<String> calculateResourcesToAssociate(
+    static Set<String> calculateResourcesToAssociate(
             final Set<String> currentAssociations,
             final Set<String> desiredAssociations
     ) {
@@ -112,11 +116,11 @@ public class AssociationHelper {
                 .collect(Collectors.toSet());
     }
 
-    private static void batchAssociateResources(
+    static void batchAssociateResources(
             final String resourceSetId,
             final Set<String> resources,
             final FmsClient fmsClient,
-            final AmazonWebServicesClientProxy proxy,
+            final FmsApiInvoker invoker,
             final Logger logger
     ) {
         if (resources.isEmpty()) {
@@ -130,38 +134,45 @@ public class AssociationHelper {
         final Iterable<List<String>> partitions = Iterables.partition(resources, MAX_ASSOCIATION_CHANGES_PER_REQUEST);
 
         // iterate over each partition of 100 resources and call the associate APIs
+        int batch = 0;
         for (final List<String> partition : partitions) {
             logger.log(String.format("Associating batch of %d resource/s", partition.size()));
-
-            // call the association API
-            final BatchAssociateResourceRequest associateRequest = BatchAssociateResourceRequest.builder()
-                    .resourceSetIdentifier(resourceSetId)
-                    .items(partition)
-                    .build();
-            final BatchAssociateResourceResponse associateResponse = proxy.injectCredentialsAndInvokeV2(
-                    associateRequest,
-                    fmsClient::batchAssociateResource);
-
-            // throw CFN exception for any failed associations
-            if (associateResponse.failedItems() != null && associateResponse.failedItems().size() > 0) {
-                final FailedItem failedItem = associateResponse.failedItems().get(0);
-                final String message = String.format(
-                        "Resource '%s' association failed for reason: %s",
-                        failedItem.uri(),
-                        failedItem.reason().toString()
-                );
-                throw new CfnGeneralServiceException(message);
+            try (Span span = invoker.getTracer().startSpan("AssociationBatch")) {
+                span.setAttribute("fms.batch.action", "Associate")
+                        .setAttribute("fms.batch.number", ++batch)
+                        .setAttribute("fms.batch.size", partition.size());
+
+                // call the association API
+                final BatchAssociateResourceRequest associateRequest = BatchAssociateResourceRequest.builder()
+                        .resourceSetIdentifier(resourceSetId)
+                        .items(partition)
+                        .build();
+                final BatchAssociateResourceResponse associateResponse = invoker.invoke(
+                        associateRequest,
+                        fmsClient::batchAssociateResource);
+
+                // throw CFN exception for any failed associations
+                if (associateResponse.failedItems() != null && associateResponse.failedItems().size() > 0) {
+                    final FailedItem failedItem = associateResponse.failedItems().get(0);
+                    final String message = String.format(
+                            "Resource '%s' association failed for reason: %s",
+                            failedItem.uri(),
+                            failedItem.reason().toString()
+                    );
+                    span.setError(message);
+                    throw new CfnGeneralServiceException(message);
+                }
             }
 
             logger.log("Batch resource association successful");
         }
     }
 
-    private static void batchDisassociateResources(
+    static void batchDisassociateResources(
             final String resourceSetId,
             final Set<String> resources,
             final FmsClient fmsClient,
-            final AmazonWebServicesClientProxy proxy,
+            final FmsApiInvoker invoker,
             final Logger logger
     ) {
         if (resources.isEmpty()) {
@@ -175,27 +186,34 @@ public class AssociationHelper {
         final Iterable<List<String>> partitions = Iterables.partition(resources, MAX_ASSOCIATION_CHANGES_PER_REQUEST);
 
         // iterate over each partition of 100 resources and call the disassociate APIs
+        int batch = 0;
         for (final List<String> partition : partitions) {
             logger.log(String.format("Disassociating batch of %d resource/s", partition.size()));
-
-            // call the disassociation API
-            final BatchDisassociateResourceRequest disassociateRequest = BatchDisassociateResourceRequest.builder()
-                    .resourceSetIdentifier(resourceSetId)
-                    .items(partition)
-                    .build();
-            final BatchDisassociateResourceResponse disassociateResponse = proxy.injectCredentialsAndInvokeV2(
-                    disassociateRequest,
-                    fmsClient::batchDisassociateResource);
-
-            // throw CFN exception for any failed disassociations
-            if (disassociateResponse.failedItems() != null && disassociateResponse.failedItems().size() > 0) {
-                final FailedItem failedItem = disassociateResponse.failedItems().get(0);
-                final String message = String.format(
-                        "Resource '%s' disassociation failed for reason: %s",
-                        failedItem.uri(),
-                        failedItem.reason().toString()
-                );
-                throw new CfnGeneralServiceException(message);
+            try (Span span = invoker.getTracer().startSpan("AssociationBatch")) {
+                span.setAttribute("fms.batch.action", "Disassociate")
+                        .setAttribute("fms.batch.number", ++batch)
+                        .setAttribute("fms.batch.size", partition.size());
+
+                // call the disassociation API
+                final BatchDisassociateResourceRequest disassociateRequest = BatchDisassociateResourceRequest.builder()
+                        .resourceSetIdentifier(resourceSetId)
+                        .items(partition)
+                        .build();
+                final BatchDisassociateResourceResponse disassociateResponse = invoker.invoke(
+                        disassociateRequest,
+                        fmsClient::batchDisassociateResource);
+
+                // throw CFN exception for any failed disassociations
+                if (disassociateResponse.failedItems() != null && disassociateResponse.failedItems().size() > 0) {
+                    final FailedItem failedItem = disassociateResponse.failedItems().get(0);
+                    final String message = String.format(
+                            "Resource '%s' disassociation failed for reason: %s",
+                            failedItem.uri(),
+                            failedItem.reason().toString()
+                    );
+                    span.setError(message);
+                    throw new CfnGeneralServiceException(message);
+                }
             }
 
             logger.log("Batch resource disassociation successful");
@@ -0,0 +1,594 @@
+package software.amazon.fms.resourceset.helpers;
+
+import software.amazon.awssdk.awscore.AwsRequest;
+import software.amazon.awssdk.awscore.AwsRequestOverrideConfiguration;
+import software.amazon.awssdk.awscore.AwsResponse;
+import software.amazon.awssdk.core.exception.AbortedException;
+import software.amazon.awssdk.core.exception.ApiCallTimeoutException;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.core.exception.SdkServiceException;
+import software.amazon.cloudformation.exceptions.CfnThrottlingException;
+import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.Logger;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Makes FMS API requests through the CloudFormation proxy for a single handler invocation. Requests are rate limited
+ * by a client-side token bucket per FMS operation, shared by every invocation in the process, and throttled or
+ * transiently failed requests are retried with jittered exponential backoff until the retry budget of the request
+ * runs out, at which point a {@link CfnThrottlingException} is thrown. The latency, retries and failures of every
+ * request are recorded in the metrics of the invocation, and each request is traced as a span. Requests are bounded
+ * by the {@link TimeBudget} of the invocation: none is made, waited on or retried once the budget is nearly spent, in
+ * which case a {@link TimeBudget.ExhaustedException} is thrown, and each is given a timeout of the time left, which
+ * throws the same exception when it runs out.
+ * Idempotent reads are hedged when enabled through the environment, see {@link HedgingPolicy}.
+ */
+public class FmsApiInvoker {
+
+    /** Environment variable setting the sustained request rate allowed per FMS operation, in requests per second. */
+    static final String RATE_LIMIT_ENV = "FMS_API_RATE_LIMIT";
+
+    /** Environment variable setting the burst of requests allowed per FMS operation. */
+    static final String BURST_LIMIT_ENV = "FMS_API_BURST_LIMIT";
+
+    /** Environment variable setting how long a request may wait on the rate limit and retries, in milliseconds. */
+    static final String RETRY_BUDGET_ENV = "FMS_API_RETRY_BUDGET_MS";
+
+    /** Default sustained request rate allowed per FMS operation. */
+    private static final double DEFAULT_RATE_LIMIT = 10;
+
+    /** Default burst of requests allowed per FMS operation. */
+    private static final int DEFAULT_BURST_LIMIT = 20;
+
+    /** Default time a request may wait on the rate limit and retries. */
+    private static final Duration DEFAULT_RETRY_BUDGET = Duration.ofSeconds(30);
+
+    /** Backoff before the first retry, doubled on each following retry. */
+    private static final Duration BASE_DELAY = Duration.ofMillis(100);
+
+    /** Upper bound of the backoff between two retries. */
+    private static final Duration MAX_DELAY = Duration.ofSeconds(5);
+
+    /** Token buckets shared by every invocation in the process, keyed by FMS operation. */
+    private static final ConcurrentMap<String, TokenBucket> TOKEN_BUCKETS = new ConcurrentHashMap<>();
+
+    /** Hedging of the reads of every invocation in the process. */
+    private static final HedgingPolicy HEDGING = HedgingPolicy.fromEnvironment(System.getenv());
+
+    /** Threads making the requests that may be hedged, so that callers can wait on them with a timeout. */
+    private static final ExecutorService HEDGE_EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+        final Thread thread = new Thread(runnable, "fms-hedged-request");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /** AWS proxy to make requests. */
+    private final AmazonWebServicesClientProxy proxy;
+
+    /** CloudWatch logger. */
+    private final Logger logger;
+
+    /** Metrics of the handler invocation. */
+    private final HandlerMetrics metrics;
+
+    /** Trace of the handler invocation. */
+    private final Tracer tracer;
+
+    /** Time a request may wait on the rate limit and retries, in nanoseconds. */
+    private final long retryBudgetNanos;
+
+    /** Backoff before the first retry, in nanoseconds. */
+    private final long baseDelayNanos;
+
+    /** Upper bound of the backoff between two retries, in nanoseconds. */
+    private final long maxDelayNanos;
+
+    /** Time the handler invocation has left to make requests. */
+    private final TimeBudget timeBudget;
+
+    /** Hedging of the reads made through the invoker. */
+    private final HedgingPolicy hedging;
+
+    /**
+     * Create an invoker for a handler invocation without a time budget, with the retry budget configured through the
+     * environment.
+     * @param proxy AWS proxy to make requests.
+     * @param logger CloudWatch logger.
+     * @param metrics Metrics of the handler invocation.
+     * @param tracer Trace of the handler invocation.
+     */
+    public FmsApiInvoker(
+            final AmazonWebServicesClientProxy proxy,
+            final Logger logger,
+            final HandlerMetrics metrics,
+            final Tracer tracer) {
+
+        this(proxy, logger, metrics, tracer, TimeBudget.unlimited());
+    }
+
+    /**
+     * Create an invoker for a handler invocation, with the retry budget configured through the environment.
+     * @param proxy AWS proxy to make requests.
+     * @param logger CloudWatch logger.
+     * @param metrics Metrics of the handler invocation.
+     * @param tracer Trace of the handler invocation.
+     * @param timeBudget Time the handler invocation has left to make requests.
+     */
+    public FmsApiInvoker(
+            final AmazonWebServicesClientProxy proxy,
+            final Logger logger,
+            final HandlerMetrics metrics,
+            final Tracer tracer,
+            final TimeBudget timeBudget) {
+
+        this(proxy, logger, metrics, tracer, retryBudgetFromEnvironment(System.getenv()), BASE_DELAY, MAX_DELAY,
+                timeBudget);
+    }
+
+    /**
+     * Constructor for use in tests, allows for short retry budgets and delays.
+     * @param proxy AWS proxy to make requests.
+     * @param logger CloudWatch logger.
+     * @param metrics Metrics of the handler invocation.
+     * @param tracer Trace of the handler invocation.
+     * @param retryBudget Time a request may wait on the rate limit and retries.
+     * @param baseDelay Backoff before the first retry.
+     * @param maxDelay Upper bound of the backoff between two retries.
+     */
+    FmsApiInvoker(
+            final AmazonWebServicesClientProxy proxy,
+            final Logger logger,
+            final HandlerMetrics metrics,
+            final Tracer tracer,
+            final Duration retryBudget,
+            final Duration baseDelay,
+            final Duration maxDelay) {
+
+        this(proxy, logger, metrics, tracer, retryBudget, baseDelay, maxDelay, TimeBudget.unlimited());
+    }
+
+    /**
+     * Constructor for use in tests, allows for short retry budgets, delays and time budgets.
+     * @param proxy AWS proxy to make requests.
+     * @param logger CloudWatch logger.
+     * @param metrics Metrics of the handler invocation.
+     * @param tracer Trace of the handler invocation.
+     * @param retryBudget Time a request may wait on the rate limit and retries.
+     * @param baseDelay Backoff before the first retry.
+     * @param maxDelay Upper bound of the backoff between two retries.
+     * @param timeBudget Time the handler invocation has left to make requests.
+     */
+    FmsApiInvoker(
+            final AmazonWebServicesClientProxy proxy,
+            final Logger logger,
+            final HandlerMetrics metrics,
+            final Tracer tracer,
+            final Duration retryBudget,
+            final Duration baseDelay,
+            final Duration maxDelay,
+            final TimeBudget timeBudget) {
+
+        this(proxy, logger, metrics, tracer, retryBudget, baseDelay, maxDelay, timeBudget, HEDGING);
+    }
+
+    /**
+     * Constructor for use in tests, allows for short retry budgets, delays and time budgets and a hedging policy of
+     * the test.
+     * @param proxy AWS proxy to make requests.
+     * @param logger CloudWatch logger.
+     * @param metrics Metrics of the handler invocation.
+     * @param tracer Trace of the handler invocation.
+     * @param retryBudget Time a request may wait on the rate limit and retries.
+     * @param baseDelay Backoff before the first retry.
+     * @param maxDelay Upper bound of the backoff between two retries.
+     * @param timeBudget Time the handler invocation has left to make requests.
+     * @param hedging Hedging of the reads made through the invoker.
+     */
+    FmsApiInvoker(
+            final AmazonWebServicesClientProxy proxy,
+            final Logger logger,
+            final HandlerMetrics metrics,
+            final Tracer tracer,
+            final Duration retryBudget,
+            final Duration baseDelay,
+            final Duration maxDelay,
+            final TimeBudget timeBudget,
+            final HedgingPolicy hedging) {
+
+        this.proxy = proxy;
+        this.logger = logger;
+        this.metrics = metrics;
+        this.tracer = tracer;
+        this.retryBudgetNanos = retryBudget.toNanos();
+        this.baseDelayNanos = baseDelay.toNanos();
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.timeBudget = timeBudget;
+        this.hedging = hedging;
+    }
+
+    /**
+     * Make an FMS API request, waiting on the rate limit of its operation and retrying throttling and transient
+     * network failures.
+     * @param request FMS API request.
+     * @param requestFunction Client method making the request.
+     * @param <RequestT> Type of the request.
+     * @param <ResponseT> Type of the response.
+     * @return Response from the FMS API.
+     * @throws TimeBudget.ExhaustedException if the time budget of the invocation is nearly spent.
+     */
+    public <RequestT extends AwsRequest, ResponseT extends AwsResponse> ResponseT invoke(
+            final RequestT request,
+            final Function<RequestT, ResponseT> requestFunction) {
+
+        final String operation = operationName(request);
+        timeBudget.checkpoint(operation);
+        final long deadline = System.nanoTime() + retryBudgetNanos;
+        final Span span = startCallSpan(operation);
+        try {
+            for (int attempt = 1; ; attempt++) {
+                span.setAttribute("fms.attempts", attempt);
+                acquire(operation, deadline);
+                final long start = System.nanoTime();
+                try {
+                    final ResponseT response = call(operation, request, requestFunction, span);
+                    metrics.recordCall(operation, System.nanoTime() - start);
+                    return response;
+                } catch (SdkException e) {
+                    metrics.recordCall(operation, System.nanoTime() - start);
+                    sleep(retryDelay(operation, attempt, deadline, e));
+                }
+            }
+        } catch (RuntimeException e) {
+            span.setError(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+
+    /**
+     * Get the time the handler invocation has left to make requests.
+     * @return The time budget of the invocation.
+     */
+    public TimeBudget getTimeBudget() {
+
+        return timeBudget;
+    }
+
+    /**
+     * Make a single attempt of a request. An attempt that may be hedged is made on the hedging executor, and is sent
+     * again if it is still outstanding after the hedging delay of its operation.
+     * @param operation FMS operation.
+     * @param request FMS API request.
+     * @param requestFunction Client method making the request.
+     * @param span Span of the request.
+     * @return The first response of the attempt.
+     */
+    private <RequestT extends AwsRequest, ResponseT extends AwsResponse> ResponseT call(
+            final String operation,
+            final RequestT request,
+            final Function<RequestT, ResponseT> requestFunction,
+            final Span span) {
+
+        final Supplier<ResponseT> attempt = () -> {
+            final long start = System.nanoTime();
+            final ResponseT response = timeBudget.isLimited()
+                    ? invokeWithTimeout(operation, request, requestFunction, timeBudget.callTimeout())
+                    : proxy.injectCredentialsAndInvokeV2(request, requestFunction);
+            hedging.recordLatency(operation, System.nanoTime() - start);
+            return response;
+        };
+        final long hedgeDelay = hedging.startRequest(operation);
+        if (hedgeDelay < 0) {
+            return attempt.get();
+        }
+
+        final CompletableFuture<ResponseT> primary = CompletableFuture.supplyAsync(attempt, HEDGE_EXECUTOR);
+        try {
+            return await(primary, hedgeDelay);
+        } catch (TimeoutException e) {
+            if (!startHedge(operation, span)) {
+                return join(primary);
+            }
+        }
+        final CompletableFuture<ResponseT> hedge = CompletableFuture.supplyAsync(attempt, HEDGE_EXECUTOR);
+        final CompletableFuture<ResponseT> winner = join(firstSuccessful(primary, hedge));
+        if (winner == hedge && !hedge.isCompletedExceptionally()) {
+            metrics.recordHedgeWin(operation);
+            span.setAttribute("fms.hedge", "won");
+        }
+        return join(winner);
+    }
+
+    /**
+     * Start the hedge of a slow request if the hedging ratio and the rate limit of its operation allow it without
+     * waiting.
+     * @param operation FMS operation.
+     * @param span Span of the request.
+     * @return Whether the hedge may be sent.
+     */
+    private boolean startHedge(final String operation, final Span span) {
+
+        if (timeBudget.isNearlySpent()) {
+            return false;
+        }
+        final long now = System.nanoTime();
+        final TokenBucket bucket = TOKEN_BUCKETS.computeIfAbsent(operation, key -> newTokenBucket(now));
+        if (bucket.take(now) > 0 || !hedging.tryHedge()) {
+            bucket.giveBack();
+            return false;
+        }
+        metrics.recordHedge(operation);
+        span.setAttribute("fms.hedge", "sent");
+        return true;
+    }
+
+    /**
+     * Race the attempts of a hedged request.
+     * @param primary Future response of the first attempt.
+     * @param hedge Future response of the hedge.
+     * @param <T> Type of the response.
+     * @return Future of the first attempt to succeed, or of the last to fail if both fail.
+     */
+    private static <T> CompletableFuture<CompletableFuture<T>> firstSuccessful(
+            final CompletableFuture<T> primary,
+            final CompletableFuture<T> hedge) {
+
+        final CompletableFuture<CompletableFuture<T>> winner = new CompletableFuture<>();
+        final AtomicInteger outstanding = new AtomicInteger(2);
+        primary.whenComplete((result, e) -> settle(winner, primary, e, outstanding));
+        hedge.whenComplete((result, e) -> settle(winner, hedge, e, outstanding));
+        return winner;
+    }
+
+    private static <T> void settle(
+            final CompletableFuture<CompletableFuture<T>> winner,
+            final CompletableFuture<T> attempt,
+            final Throwable e,
+            final AtomicInteger outstanding) {
+
+        if (outstanding.decrementAndGet() == 0 || e == null) {
+            winner.complete(attempt);
+        }
+    }
+
+    /**
+     * Get the trace of the handler invocation, to add spans for the phases between FMS API requests.
+     * @return The tracer of the invocation.
+     */
+    public Tracer getTracer() {
+
+        return tracer;
+    }
+
+    /**
+     * Start the span of a request to an FMS operation.
+     * @param operation FMS operation.
+     * @return The started span.
+     */
+    private Span startCallSpan(final String operation) {
+
+        return tracer.startSpan("FMS/" + operation, Span.Kind.CLIENT)
+                .setAttribute("rpc.system", "aws-api")
+                .setAttribute("rpc.service", "FMS")
+                .setAttribute("rpc.method", operation);
+    }
+
+    /**
+     * Wait for a token of an operation's rate limit.
+     * @param operation FMS operation.
+     * @param deadline Time by which the request must be made, in nanoseconds.
+     */
+    private void acquire(final String operation, final long deadline) {
+
+        final long now = System.nanoTime();
+        final TokenBucket bucket = TOKEN_BUCKETS.computeIfAbsent(operation, key -> newTokenBucket(now));
+        final long wait = bucket.take(now);
+        if (!timeBudget.allowsWait(wait)) {
+            bucket.giveBack();
+            throw new TimeBudget.ExhaustedException(operation);
+        }
+        if (now + wait > deadline) {
+            bucket.giveBack();
+            metrics.recordFailure(operation);
+            throw new CfnThrottlingException(operation);
+        }
+        sleep(wait);
+    }
+
+    /**
+     * Determine how long to back off before retrying a failed request.
+     * @param operation FMS operation.
+     * @param attempt Number of the failed attempt, starting at 1.
+     * @param deadline Time by which the request must be made, in nanoseconds.
+     * @param e Exception the attempt failed with.
+     * @return Nanoseconds to back off.
+     * @throws SdkException if the failure is not retryable.
+     * @throws CfnThrottlingException if the request was throttled and the retry budget ran out.
+     */
+    private long retryDelay(final String operation, final int attempt, final long deadline, final SdkException e) {
+
+        final boolean throttled = e instanceof SdkServiceException && ((SdkServiceException) e).isThrottlingException();
+        final boolean transientFailure = e instanceof SdkClientException && e.getCause() instanceof IOException;
+        if (!throttled && !transientFailure) {
+            metrics.recordFailure(operation);
+            throw e;
+        }
+
+        // full jitter exponential backoff
+        final long ceiling = Math.min(maxDelayNanos, baseDelayNanos << Math.min(attempt - 1, 30));
+        final long delay = ThreadLocalRandom.current().nextLong(ceiling + 1);
+        if (!timeBudget.allowsWait(delay)) {
+            throw new TimeBudget.ExhaustedException(operation);
+        }
+        if (System.nanoTime() + delay > deadline) {
+            metrics.recordFailure(operation);
+            if (throttled) {
+                throw new CfnThrottlingException(operation, e);
+            }
+            throw e;
+        }
+        metrics.recordRetry(operation, throttled);
+        logger.log(String.format("%s attempt %d failed, retrying in %d ms: %s",
+                operation, attempt, TimeUnit.NANOSECONDS.toMillis(delay), e.getMessage()));
+        return delay;
+    }
+
+    /**
+     * Make a request through the proxy with a timeout. The proxy replaces the override configuration of the request
+     * to set its credentials, so the timeout is set on the request the proxy passes to the client. The timeout is the
+     * time left in the budget of the invocation, so a read timing out means the budget ran out rather than that FMS
+     * could not be reached, and the action can be resumed. A write timing out may still have been applied by FMS, so
+     * it fails instead of being resumed and made again, e.g. making a second resource set.
+     * @throws TimeBudget.ExhaustedException if a read timed out.
+     * @throws ApiCallTimeoutException if a write timed out.
+     */
+    private <RequestT extends AwsRequest, ResponseT extends AwsResponse> ResponseT invokeWithTimeout(
+            final String operation,
+            final RequestT request,
+            final Function<RequestT, ResponseT> requestFunction,
+            final Duration timeout) {
+
+        try {
+            return proxy.injectCredentialsAndInvokeV2(
+                    request,
+                    credentialedRequest -> requestFunction.apply(withTimeout(credentialedRequest, timeout)));
+        } catch (ApiCallTimeoutException e) {
+            if (!isRead(operation)) {
+                logger.log(String.format("%s timed out, its outcome is unknown", operation));
+                throw e;
+            }
+            throw new TimeBudget.ExhaustedException(operation, e);
+        }
+    }
+
+    /**
+     * Set the timeout of a request, keeping the credentials the proxy set on it.
+     * @param request FMS API request.
+     * @param timeout Time the request may take, retries by the SDK included.
+     * @param <RequestT> Type of the request.
+     * @return The request with its timeout.
+     */
+    @SuppressWarnings("unchecked")
+    static <RequestT extends AwsRequest> RequestT withTimeout(final RequestT request, final Duration timeout) {
+
+        final AwsRequestOverrideConfiguration overrideConfiguration = request.overrideConfiguration()
+                .map(AwsRequestOverrideConfiguration::toBuilder)
+                .orElseGet(AwsRequestOverrideConfiguration::builder)
+                .apiCallTimeout(timeout)
+                .build();
+        return (RequestT) request.toBuilder().overrideConfiguration(overrideConfiguration).build();
+    }
+
+    private TokenBucket newTokenBucket(final long nowNanos) {
+
+        final Map<String, String> environment = System.getenv();
+        final double rateLimit = environment.containsKey(RATE_LIMIT_ENV)
+                ? Double.parseDouble(environment.get(RATE_LIMIT_ENV).trim())
+                : DEFAULT_RATE_LIMIT;
+        final int burstLimit = environment.containsKey(BURST_LIMIT_ENV)
+                ? Integer.parseInt(environment.get(BURST_LIMIT_ENV).trim())
+                : DEFAULT_BURST_LIMIT;
+        return new TokenBucket(rateLimit, burstLimit, nowNanos);
+    }
+
+    /**
+     * Read the retry budget from a set of environment variables.
+     * @param environment Environment variables to read.
+     * @return The retry budget, the default if unset.
+     */
+    static Duration retryBudgetFromEnvironment(final Map<String, String> environment) {
+
+        final String retryBudget = environment.get(RETRY_BUDGET_ENV);
+        return retryBudget == null || retryBudget.trim().isEmpty()
+                ? DEFAULT_RETRY_BUDGET
+                : Duration.ofMillis(Long.parseLong(retryBudget.trim()));
+    }
+
+    /**
+     * Get the FMS operation of a request, e.g. GetResourceSet for a GetResourceSetRequest.
+     * @param request FMS API request.
+     * @return The operation name.
+     */
+    static String operationName(final AwsRequest request) {
+
+        final String requestName = request.getClass().getSimpleName();
+        return requestName.endsWith("Request")
+                ? requestName.substring(0, requestName.length() - "Request".length())
+                : requestName;
+    }
+
+    /**
+     * Determine whether an FMS operation only reads, so that it is safe to make again.
+     * @param operation FMS operation.
+     * @return Whether the operation is a read.
+     */
+    static boolean isRead(final String operation) {
+
+        return operation.startsWith("Get") || operation.startsWith("List");
+    }
+
+    private static <T> T await(final CompletableFuture<T> future, final long timeoutNanos) throws TimeoutException {
+
+        try {
+            return future.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw AbortedException.builder().message("Interrupted while waiting for a response").cause(e).build();
+        } catch (ExecutionException e) {
+            throw propagate(e.getCause());
+        }
+    }
+
+    private static <T> T join(final CompletableFuture<T> future) {
+
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw propagate(e.getCause());
+        }
+    }
+
+    /**
+     * Rethrow the failure of a request made on another thread as it would have been thrown on the calling thread.
+     */
+    private static RuntimeException propagate(final Throwable cause) {
+
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return cause instanceof RuntimeException
+                ? (RuntimeException) cause
+                : SdkClientException.create(cause.getMessage(), cause);
+    }
+
+    private static void sleep(final long nanos) {
+
+        if (nanos <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw AbortedException.builder().message("Interrupted while waiting to retry").cause(e).build();
+        }
+    }
+}
@@ -0,0 +1,362 @@
+package software.amazon.fms.resourceset.helpers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import software.amazon.fms.resourceset.ResourceModel;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Local validation of a resource set resource model against the resource schema, so that a model CloudFormation would
+ * accept but FMS rejects fails the handler before any FMS API request. The schema packaged with the handler is
+ * compiled once, when the class is loaded, into a tree of checks with the definitions it references resolved and its
+ * patterns compiled, so a validation is a single walk of the model that collects every violation rather than stopping
+ * at the first one. The keywords the resource schema uses to constrain values are checked: type, pattern, minLength,
+ * maxLength, minimum, maximum, enum, minItems, maxItems, uniqueItems, required, anyOf and oneOf.
+ */
+public final class ResourceModelValidator {
+
+    /** Classpath resource of the resource schema. */
+    static final String SCHEMA_RESOURCE = "/aws-fms-resourceset.json";
+
+    private static final String DEFINITIONS_REFERENCE = "#/definitions/";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final Schema SCHEMA = load(SCHEMA_RESOURCE);
+
+    private ResourceModelValidator() {
+    }
+
+    /**
+     * Validate a resource model against the resource schema.
+     * @param model Resource model to validate, possibly null.
+     * @return The violations found, in the order of the schema, empty if the model is valid or not set.
+     */
+    public static List<String> validate(final ResourceModel model) {
+
+        if (model == null) {
+            return Collections.emptyList();
+        }
+        final List<String> violations = new ArrayList<>();
+        SCHEMA.validate(MAPPER.valueToTree(model), null, violations);
+        return violations;
+    }
+
+    /**
+     * Load and compile the resource schema.
+     * @param resource Classpath resource of the resource schema.
+     * @return The compiled resource schema.
+     */
+    private static Schema load(final String resource) {
+
+        try (InputStream stream = ResourceModelValidator.class.getResourceAsStream(resource)) {
+            if (stream == null) {
+                throw new IllegalStateException("The resource schema " + resource + " is not on the classpath");
+            }
+            final JsonNode schema = MAPPER.readTree(stream);
+            return new Schema(schema, schema.path("definitions"), new HashMap<>());
+        } catch (IOException e) {
+            throw new IllegalStateException("The resource schema " + resource + " could not be read", e);
+        }
+    }
+
+    /**
+     * Compile a schema or the definition it references, each definition being compiled once however many schemas
+     * reference it. The resource schema has no recursive definitions.
+     */
+    private static Schema compile(
+            final JsonNode schema,
+            final JsonNode definitions,
+            final Map<String, Schema> compiledDefinitions) {
+
+        if (!schema.has("$ref")) {
+            return new Schema(schema, definitions, compiledDefinitions);
+        }
+        final String reference = schema.get("$ref").asText();
+        if (!reference.startsWith(DEFINITIONS_REFERENCE) || !definitions.has(
+                reference.substring(DEFINITIONS_REFERENCE.length()))) {
+            throw new IllegalStateException("Unresolved reference " + reference + " in the resource schema");
+        }
+        final String name = reference.substring(DEFINITIONS_REFERENCE.length());
+        Schema definition = compiledDefinitions.get(name);
+        if (definition == null) {
+            definition = compile(definitions.get(name), definitions, compiledDefinitions);
+            compiledDefinitions.put(name, definition);
+        }
+        return definition;
+    }
+
+    private static boolean isPresent(final JsonNode value) {
+
+        return value != null && !value.isNull();
+    }
+
+    /**
+     * Compiled checks of a schema, with the checks of its items, properties and alternatives.
+     */
+    private static final class Schema {
+
+        private final String type;
+        private final Pattern pattern;
+
+        /** Matcher of the pattern reused by each thread, so that matching thousands of IDs allocates nothing. */
+        private final ThreadLocal<Matcher> matcher;
+        private final Integer minLength;
+        private final Integer maxLength;
+        private final BigDecimal minimum;
+        private final BigDecimal maximum;
+        private final Set<JsonNode> allowedValues;
+        private final Integer minItems;
+        private final Integer maxItems;
+        private final boolean uniqueItems;
+        private final Schema items;
+        private final Map<String, Schema> properties = new LinkedHashMap<>();
+        private final List<String> required = new ArrayList<>();
+        private final List<Schema> anyOf = new ArrayList<>();
+        private final List<Schema> oneOf = new ArrayList<>();
+
+        Schema(final JsonNode schema, final JsonNode definitions, final Map<String, Schema> compiledDefinitions) {
+
+            type = schema.has("type") ? schema.get("type").asText() : null;
+            pattern = schema.has("pattern") ? Pattern.compile(schema.get("pattern").asText()) : null;
+            matcher = pattern == null ? null : ThreadLocal.withInitial(() -> pattern.matcher(""));
+            minLength = schema.has("minLength") ? schema.get("minLength").asInt() : null;
+            maxLength = schema.has("maxLength") ? schema.get("maxLength").asInt() : null;
+            minimum = schema.has("minimum") ? schema.get("minimum").decimalValue() : null;
+            maximum = schema.has("maximum") ? schema.get("maximum").decimalValue() : null;
+            allowedValues = schema.has("enum") ? values(schema.get("enum")) : null;
+            minItems = schema.has("minItems") ? schema.get("minItems").asInt() : null;
+            maxItems = schema.has("maxItems") ? schema.get("maxItems").asInt() : null;
+            uniqueItems = schema.path("uniqueItems").asBoolean(false);
+            items = schema.has("items") ? compile(schema.get("items"), definitions, compiledDefinitions) : null;
+            final Iterator<Map.Entry<String, JsonNode>> fields = schema.path("properties").fields();
+            while (fields.hasNext()) {
+                final Map.Entry<String, JsonNode> field = fields.next();
+                properties.put(field.getKey(), compile(field.getValue(), definitions, compiledDefinitions));
+            }
+            schema.path("required").forEach(property -> required.add(property.asText()));
+            schema.path("anyOf").forEach(alternative ->
+                    anyOf.add(compile(alternative, definitions, compiledDefinitions)));
+            schema.path("oneOf").forEach(alternative ->
+                    oneOf.add(compile(alternative, definitions, compiledDefinitions)));
+        }
+
+        /**
+         * Validate a present value, adding the violations found to a list.
+         * @param value Value to validate.
+         * @param path Path of the value in the model, null for the model itself.
+         * @param violations Violations found so far.
+         */
+        void validate(final JsonNode value, final Path path, final List<String> violations) {
+
+            final Object name = path == null ? "ResourceModel" : path;
+            if (type != null && !hasType(value)) {
+                violations.add(String.format("%s must be of type %s", name, type));
+                return;
+            }
+            if (value.isTextual()) {
+                validateString(value.asText(), name, violations);
+            } else if (value.isNumber()) {
+                validateNumber(value.decimalValue(), name, violations);
+            } else if (value.isArray()) {
+                validateArray(value, path, name, violations);
+            } else if (value.isObject()) {
+                validateObject(value, path, violations);
+            }
+            if (allowedValues != null && !allowedValues.contains(value)) {
+                final List<String> names = new ArrayList<>();
+                allowedValues.forEach(allowedValue -> names.add(allowedValue.asText()));
+                violations.add(String.format("%s must be one of %s", name, String.join(", ", names)));
+            }
+            validateAlternatives(value, path, name, violations);
+        }
+
+        private boolean hasType(final JsonNode value) {
+
+            switch (type) {
+                case "string":
+                    return value.isTextual();
+                case "integer":
+                    return value.isIntegralNumber();
+                case "number":
+                    return value.isNumber();
+                case "boolean":
+                    return value.isBoolean();
+                case "array":
+                    return value.isArray();
+                case "object":
+                    return value.isObject();
+                default:
+                    return true;
+            }
+        }
+
+        private void validateString(final String value, final Object name, final List<String> violations) {
+
+            final int length = value.codePointCount(0, value.length());
+            if (minLength != null && length < minLength) {
+                violations.add(String.format("%s must be at least %d characters long", name, minLength));
+            }
+            if (maxLength != null && length > maxLength) {
+                violations.add(String.format("%s must be at most %d characters long", name, maxLength));
+            }
+            if (pattern != null && !matcher.get().reset(value).find()) {
+                violations.add(String.format("%s must match pattern %s", name, pattern.pattern()));
+            }
+        }
+
+        private void validateNumber(final BigDecimal value, final Object name, final List<String> violations) {
+
+            if (minimum != null && value.compareTo(minimum) < 0) {
+                violations.add(String.format("%s must be at least %s", name, minimum.toPlainString()));
+            }
+            if (maximum != null && value.compareTo(maximum) > 0) {
+                violations.add(String.format("%s must be at most %s", name, maximum.toPlainString()));
+            }
+        }
+
+        private void validateArray(
+                final JsonNode value,
+                final Path path,
+                final Object name,
+                final List<String> violations) {
+
+            if (minItems != null && value.size() < minItems) {
+                violations.add(String.format("%s must have at least %d items", name, minItems));
+            }
+            if (maxItems != null && value.size() > maxItems) {
+                violations.add(String.format("%s must have at most %d items", name, maxItems));
+            }
+            final Set<JsonNode> distinctItems = uniqueItems ? new HashSet<>(value.size() * 2) : null;
+            for (int i = 0; i < value.size(); i++) {
+                final JsonNode item = value.get(i);
+                final Path itemPath = new Path(path, null, i);
+                if (distinctItems != null && !distinctItems.add(item)) {
+                    violations.add(String.format("%s is a duplicate of an earlier item", itemPath));
+                }
+                if (items != null && isPresent(item)) {
+                    items.validate(item, itemPath, violations);
+                }
+            }
+        }
+
+        private void validateObject(final JsonNode value, final Path path, final List<String> violations) {
+
+            for (final String property : required) {
+                if (!isPresent(value.get(property))) {
+                    violations.add(String.format("%s is required", new Path(path, property, -1)));
+                }
+            }
+            for (final Map.Entry<String, Schema> property : properties.entrySet()) {
+                final JsonNode propertyValue = value.get(property.getKey());
+                if (isPresent(propertyValue)) {
+                    property.getValue().validate(propertyValue, new Path(path, property.getKey(), -1), violations);
+                }
+            }
+        }
+
+        /**
+         * Validate a value against the anyOf and oneOf alternatives, each of which is validated on its own to count
+         * the alternatives the value satisfies.
+         */
+        private void validateAlternatives(
+                final JsonNode value,
+                final Path path,
+                final Object name,
+                final List<String> violations) {
+
+            if (!anyOf.isEmpty()) {
+                final List<String> unsatisfied = unsatisfied(anyOf, value, path);
+                if (unsatisfied.size() == anyOf.size()) {
+                    violations.add(String.format("%s must satisfy at least one of: %s",
+                            name, String.join(" or ", unsatisfied)));
+                }
+            }
+            if (!oneOf.isEmpty()) {
+                final List<String> unsatisfied = unsatisfied(oneOf, value, path);
+                if (unsatisfied.size() == oneOf.size()) {
+                    violations.add(String.format("%s must satisfy exactly one of: %s",
+                            name, String.join(" or ", unsatisfied)));
+                } else if (unsatisfied.size() < oneOf.size() - 1) {
+                    violations.add(String.format("%s must satisfy exactly one of its %d alternatives, not %d",
+                            name, oneOf.size(), oneOf.size() - unsatisfied.size()));
+                }
+            }
+        }
+
+        /**
+         * Validate a value against alternatives.
+         * @return The violations of each alternative the value does not satisfy, joined.
+         */
+        private static List<String> unsatisfied(
+                final List<Schema> alternatives,
+                final JsonNode value,
+                final Path path) {
+
+            final List<String> unsatisfied = new ArrayList<>();
+            for (final Schema alternative : alternatives) {
+                final List<String> violations = new ArrayList<>();
+                alternative.validate(value, path, violations);
+                if (!violations.isEmpty()) {
+                    unsatisfied.add(String.join(", ", violations));
+                }
+            }
+            return unsatisfied;
+        }
+
+        private static Set<JsonNode> values(final JsonNode values) {
+
+            final Set<JsonNode> set = new LinkedHashSet<>();
+            values.forEach(set::add);
+            return set;
+        }
+    }
+
+    /**
+     * Path of a value in the model, which is only rendered, e.g. Resources[3], when a violation is found.
+     */
+    private static final class Path {
+
+        private final Path parent;
+        private final String property;
+        private final int index;
+
+        /**
+         * Path of a value.
+         * @param parent Path of the object or array holding the value, null for the model itself.
+         * @param property Name of the property holding the value, null for an array item.
+         * @param index Index of the array item.
+         */
+        Path(final Path parent, final String property, final int index) {
+
+            this.parent = parent;
+            this.property = property;
+            this.index = index;
+        }
+
+        @Override
+        public String toString() {
+
+            final String parentPath = parent == null ? "" : parent.toString();
+            if (property == null) {
+                return parentPath + "[" + index + "]";
+            }
+            return parentPath.isEmpty() ? property : parentPath + "." + property;
+        }
+    }
+}
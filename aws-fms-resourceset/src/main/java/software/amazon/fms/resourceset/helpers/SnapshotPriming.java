@@ -0,0 +1,238 @@
+package software.amazon.fms.resourceset.helpers;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.crac.Context;
+import org.crac.Core;
+import org.crac.Resource;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.http.AbortableInputStream;
+import software.amazon.awssdk.http.ExecutableHttpRequest;
+import software.amazon.awssdk.http.HttpExecuteRequest;
+import software.amazon.awssdk.http.HttpExecuteResponse;
+import software.amazon.awssdk.http.SdkHttpClient;
+import software.amazon.awssdk.http.SdkHttpResponse;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.fms.FmsClient;
+import software.amazon.awssdk.services.fms.model.ResourceSet;
+import software.amazon.awssdk.services.fms.model.Tag;
+import software.amazon.cloudformation.resource.Serializer;
+import software.amazon.fms.resourceset.ResourceModel;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Priming of the handler code paths before the process is snapshotted, e.g. by Lambda SnapStart or a CRaC JVM. The
+ * handlers register it once they have built the shared FMS client; before the checkpoint it converts synthetic
+ * resource sets through FmsHelper and CfnHelper, diffs their tags and resource associations, round-trips them through
+ * the serializer of the handler wrapper and marshals each FMS request the handlers make through a client whose
+ * transport never leaves the process, so that the first invocation after the restore finds those classes loaded,
+ * initialized and compiled. It then closes the connections of the shared HTTP client, which are reopened after the
+ * restore. On a JVM without checkpoint support the hooks are never called.
+ */
+public final class SnapshotPriming implements Resource {
+
+    /** Times each code path is run, enough for the hottest methods to be compiled before the checkpoint. */
+    static final int PRIMING_ITERATIONS = 250;
+
+    /** Resources of the larger priming resource set, a full association batch. */
+    private static final int PRIMING_RESOURCES = AssociationHelper.MAX_ASSOCIATION_CHANGES_PER_REQUEST;
+
+    /**
+     * Registered instance. Held here since the checkpoint context is free to keep only weak references to the
+     * resources registered with it.
+     */
+    private static final SnapshotPriming INSTANCE = new SnapshotPriming();
+
+    /** Canned FMS response of the priming transport, every response shape unmarshals it. */
+    private static final byte[] PRIMING_RESPONSE = "{}".getBytes(StandardCharsets.UTF_8);
+
+    private static final TypeReference<ResourceModel> MODEL_TYPE = new TypeReference<ResourceModel>() { };
+
+    /** Flag indicating if the instance has been registered with the checkpoint context. */
+    private static boolean registered;
+
+    private SnapshotPriming() {
+    }
+
+    /**
+     * Register the priming hooks with the global checkpoint context, once per process.
+     */
+    public static synchronized void register() {
+
+        if (!registered) {
+            Core.getGlobalContext().register(INSTANCE);
+            registered = true;
+        }
+    }
+
+    @Override
+    public void beforeCheckpoint(final Context<? extends Resource> context) throws IOException {
+
+        prime(PRIMING_ITERATIONS);
+        FmsClientRegistry.closeConnections();
+    }
+
+    @Override
+    public void afterRestore(final Context<? extends Resource> context) {
+
+        FmsClientRegistry.reopenConnections();
+    }
+
+    /**
+     * Run the conversions, diffs, serialization and request marshalling of the handlers without reaching FMS.
+     * @param iterations Times each code path is run.
+     * @return Number of FMS requests marshalled.
+     * @throws IOException If a model could not be serialized or deserialized.
+     */
+    static int prime(final int iterations) throws IOException {
+
+        final AtomicInteger marshalled = new AtomicInteger();
+        final Serializer serializer = new Serializer();
+        final List<ResourceModel> models = primingModels();
+        final Map<String, String> existingTags = Collections.singletonMap("existing", "value");
+        final Map<String, String> desiredTags = Collections.singletonMap("key", "value");
+        final Set<String> currentAssociations = Collections.singleton("arn:aws:ec2:us-east-1:123456789012:vpc/current");
+
+        try (FmsClient client = primingClient(marshalled)) {
+            for (int i = 0; i < iterations; i++) {
+                for (final ResourceModel model : models) {
+                    final ResourceModel desiredModel =
+                            serializer.deserialize(serializer.serialize(model), MODEL_TYPE);
+                    ResourceModelValidator.validate(desiredModel);
+                    final ResourceSet resourceSet =
+                            FmsHelper.convertCFNResourceModelToFMSResourceSet(desiredModel, "update-token");
+                    final List<Tag> tags = FmsHelper.convertCFNTagMapToFMSTagSet(desiredTags);
+                    final List<Tag> tagsToAdd = FmsHelper.tagsToAdd(existingTags, desiredTags);
+                    final List<String> tagsToRemove = FmsHelper.tagsToRemove(existingTags, desiredTags);
+                    final Set<String> toAssociate = AssociationHelper.calculateResourcesToAssociate(
+                            currentAssociations, desiredModel.getResources());
+                    final Set<String> toDisassociate = AssociationHelper.calculateResourcesToDisassociate(
+                            currentAssociations, desiredModel.getResources());
+                    final ResourceModel resultModel = CfnHelper.convertResourceSetToCFNResourceModel(
+                            resourceSet, desiredModel.getResources(), tags);
+                    serializer.serialize(resultModel);
+
+                    final String resourceSetArn = String.format(
+                            "arn:aws:fms:us-east-1:123456789012:resource-set/%s", model.getId());
+                    client.putResourceSet(request -> request.resourceSet(resourceSet).tagList(tags));
+                    client.getResourceSet(request -> request.identifier(model.getId()));
+                    client.listResourceSetResources(request -> request.identifier(model.getId()));
+                    client.batchAssociateResource(request -> request
+                            .resourceSetIdentifier(model.getId())
+                            .items(toAssociate));
+                    client.batchDisassociateResource(request -> request
+                            .resourceSetIdentifier(model.getId())
+                            .items(toDisassociate));
+                    client.listTagsForResource(request -> request.resourceArn(resourceSetArn));
+                    client.tagResource(request -> request.resourceArn(resourceSetArn).tagList(tagsToAdd));
+                    client.untagResource(request -> request.resourceArn(resourceSetArn).tagKeys(tagsToRemove));
+                    client.deleteResourceSet(request -> request.identifier(model.getId()));
+                }
+                client.listResourceSets(request -> request.maxResults(100));
+            }
+        }
+        return marshalled.get();
+    }
+
+    /**
+     * Synthetic resource sets, one with the required parameters only and one with every parameter and a full batch
+     * of resources.
+     */
+    private static List<ResourceModel> primingModels() {
+
+        final Set<String> resources = new HashSet<>();
+        for (int i = 0; i < PRIMING_RESOURCES; i++) {
+            resources.add(String.format("arn:aws:ec2:us-east-1:123456789012:vpc/vpc-%08d", i));
+        }
+        final List<software.amazon.fms.resourceset.Tag> tags = new ArrayList<>();
+        tags.add(new software.amazon.fms.resourceset.Tag("key", "value"));
+
+        return Arrays.asList(
+                ResourceModel.builder()
+                        .id("00000000-0000-0000-0000-000000000000")
+                        .name("priming")
+                        .resourceTypeList(Collections.singletonList("AWS::EC2::VPC"))
+                        .build(),
+                ResourceModel.builder()
+                        .id("00000000-0000-0000-0000-000000000001")
+                        .name("priming-all-parameters")
+                        .description("priming")
+                        .resourceTypeList(Collections.singletonList("AWS::EC2::VPC"))
+                        .resources(resources)
+                        .tags(tags)
+                        .build());
+    }
+
+    /**
+     * Build an FMS client that marshals and signs its requests as the shared one does, but answers them in process.
+     * @param marshalled Counter of the requests the client marshalled.
+     * @return The priming FMS client.
+     */
+    private static FmsClient primingClient(final AtomicInteger marshalled) {
+
+        final String region = System.getenv(FmsClientRegistry.REGION_ENV);
+        return FmsClient.builder()
+                .region(region == null || region.isEmpty() ? Region.US_EAST_1 : Region.of(region))
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("priming", "priming")))
+                .httpClient(new PrimingHttpClient(marshalled))
+                .build();
+    }
+
+    /**
+     * Transport answering every request with an empty JSON document without opening a connection.
+     */
+    private static final class PrimingHttpClient implements SdkHttpClient {
+
+        private static final Map<String, List<String>> HEADERS =
+                Collections.singletonMap("Content-Type", Collections.singletonList("application/x-amz-json-1.1"));
+
+        private final AtomicInteger marshalled;
+
+        PrimingHttpClient(final AtomicInteger marshalled) {
+
+            this.marshalled = marshalled;
+        }
+
+        @Override
+        public ExecutableHttpRequest prepareRequest(final HttpExecuteRequest request) {
+
+            marshalled.incrementAndGet();
+            return new ExecutableHttpRequest() {
+
+                @Override
+                public HttpExecuteResponse call() {
+
+                    return HttpExecuteResponse.builder()
+                            .response(SdkHttpResponse.builder().statusCode(200).headers(HEADERS).build())
+                            .responseBody(AbortableInputStream.create(new ByteArrayInputStream(PRIMING_RESPONSE)))
+                            .build();
+                }
+
+                @Override
+                public void abort() {
+                }
+            };
+        }
+
+        @Override
+        public String clientName() {
+
+            return "Priming";
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package software.amazon.fms.resourceset.helpers;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Time a handler invocation has left to make FMS API requests. CloudFormation gives each invocation a fixed time to
+ * return a progress event, the handler keeps a reserve of it to wrap up, and stops issuing new requests once only the
+ * reserve is left rather than being killed midway. Requests are given a timeout of the time left, less half of the
+ * reserve, so that a slow request cannot run into the end of the invocation either. Time is read from a clock of
+ * nanoseconds, {@link System#nanoTime()} unless a test provides its own.
+ */
+public class TimeBudget {
+
+    /** Environment variable setting the time CloudFormation gives an invocation, in milliseconds. */
+    static final String INVOCATION_TIME_ENV = "FMS_HANDLER_TIME_BUDGET_MS";
+
+    /** Environment variable setting the time kept back at the end of an invocation to return, in milliseconds. */
+    static final String RESERVE_ENV = "FMS_HANDLER_TIME_RESERVE_MS";
+
+    /** Default time CloudFormation gives an invocation to return a progress event. */
+    private static final Duration DEFAULT_INVOCATION_TIME = Duration.ofSeconds(60);
+
+    /** Default time kept back at the end of an invocation to return. */
+    private static final Duration DEFAULT_RESERVE = Duration.ofSeconds(10);
+
+    /** Shortest timeout given to a request. */
+    private static final Duration MIN_CALL_TIMEOUT = Duration.ofMillis(100);
+
+    /** Clock the budget is measured against, in nanoseconds. */
+    private final LongSupplier clock;
+
+    /** Time by which the invocation must return, in nanoseconds. */
+    private final long deadlineNanos;
+
+    /** Time kept back at the end of the invocation to return, in nanoseconds. */
+    private final long reserveNanos;
+
+    /** Whether the invocation has a deadline, requests are only given a timeout if it does. */
+    private final boolean limited;
+
+    /**
+     * Create the time budget of an invocation.
+     * @param startNanos Time the invocation started, in nanoseconds.
+     * @param invocationTime Time CloudFormation gives the invocation.
+     * @param reserve Time kept back at the end of the invocation to return.
+     */
+    public TimeBudget(final long startNanos, final Duration invocationTime, final Duration reserve) {
+
+        this(System::nanoTime, startNanos, invocationTime, reserve, true);
+    }
+
+    /**
+     * Create the time budget of an invocation starting now, measured against a clock of the caller, e.g. a clock of a
+     * test that advances when the test says so.
+     * @param clock Clock of the invocation, in nanoseconds.
+     * @param invocationTime Time CloudFormation gives the invocation.
+     * @param reserve Time kept back at the end of the invocation to return.
+     */
+    public TimeBudget(final LongSupplier clock, final Duration invocationTime, final Duration reserve) {
+
+        this(clock, clock.getAsLong(), invocationTime, reserve, true);
+    }
+
+    private TimeBudget(
+            final LongSupplier clock,
+            final long startNanos,
+            final Duration invocationTime,
+            final Duration reserve,
+            final boolean limited) {
+
+        this.clock = clock;
+        this.deadlineNanos = startNanos + invocationTime.toNanos();
+        this.reserveNanos = reserve.toNanos();
+        this.limited = limited;
+    }
+
+    /**
+     * Create the time budget of an invocation starting now, configured through the environment.
+     * @param environment Environment variables to read.
+     * @return The time budget.
+     */
+    public static TimeBudget fromEnvironment(final Map<String, String> environment) {
+
+        return new TimeBudget(
+                System.nanoTime(),
+                durationFromEnvironment(environment, INVOCATION_TIME_ENV, DEFAULT_INVOCATION_TIME),
+                durationFromEnvironment(environment, RESERVE_ENV, DEFAULT_RESERVE));
+    }
+
+    /**
+     * Create a time budget that never runs out, for invocations outside of CloudFormation.
+     * @return The time budget.
+     */
+    public static TimeBudget unlimited() {
+
+        return new TimeBudget(
+                System::nanoTime, System.nanoTime(), Duration.ofNanos(Long.MAX_VALUE / 4), Duration.ZERO, false);
+    }
+
+    /**
+     * Get the time left until the invocation must return.
+     * @return Nanoseconds left, negative once the invocation is late.
+     */
+    public long remainingNanos() {
+
+        return deadlineNanos - clock.getAsLong();
+    }
+
+    /**
+     * Determine whether only the reserve is left, so that no new request should be made.
+     * @return Whether the budget is nearly spent.
+     */
+    public boolean isNearlySpent() {
+
+        return remainingNanos() <= reserveNanos;
+    }
+
+    /**
+     * Determine whether the invocation has a deadline.
+     * @return Whether the budget is limited.
+     */
+    public boolean isLimited() {
+
+        return limited;
+    }
+
+    /**
+     * Determine whether a request may still be waiting or running after waiting from now.
+     * @param waitNanos Time to wait in nanoseconds.
+     * @return Whether the wait ends before the end of the request timeouts.
+     */
+    boolean allowsWait(final long waitNanos) {
+
+        return clock.getAsLong() + waitNanos - (deadlineNanos - reserveNanos / 2) <= 0;
+    }
+
+    /**
+     * Get the timeout of a request made now.
+     * @return The time left less half of the reserve, at least {@link #MIN_CALL_TIMEOUT}.
+     */
+    public Duration callTimeout() {
+
+        return Duration.ofNanos(Math.max(MIN_CALL_TIMEOUT.toNanos(), remainingNanos() - reserveNanos / 2));
+    }
+
+    /**
+     * Stop the invocation if only the reserve is left.
+     * @param work Work that would be started next, for the exception message.
+     * @throws ExhaustedException if the budget is nearly spent.
+     */
+    public void checkpoint(final String work) {
+
+        if (isNearlySpent()) {
+            throw new ExhaustedException(work);
+        }
+    }
+
+    private static Duration durationFromEnvironment(
+            final Map<String, String> environment,
+            final String name,
+            final Duration defaultValue) {
+
+        final String value = environment.get(name);
+        return value == null || value.trim().isEmpty()
+                ? defaultValue
+                : Duration.ofMillis(Long.parseLong(value.trim()));
+    }
+
+    /**
+     * Thrown instead of starting new work once the time budget of the invocation is nearly spent.
+     */
+    public static class ExhaustedException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        ExhaustedException(final String work) {
+
+            super(String.format("Invocation time nearly spent, stopping before %s", work));
+        }
+
+        ExhaustedException(final String work, final Throwable cause) {
+
+            super(String.format("Invocation time spent during %s", work), cause);
+        }
+    }
+}
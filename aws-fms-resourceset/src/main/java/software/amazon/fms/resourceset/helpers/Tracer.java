@@ -0,0 +1,264 @@
+package software.amazon.fms.resourceset.helpers;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import software.amazon.cloudformation.proxy.Logger;
+import software.amazon.cloudformation.proxy.ProgressEvent;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Trace of a single handler invocation, with a root span for the invocation and a span per phase (FMS API calls,
+ * conversions, tag reconciliation, ...). The trace is written once at the end of the invocation as OpenTelemetry
+ * protocol JSON through the handler logger when it is sampled: invocations that fail or are slower than a threshold are
+ * always kept, the others at a configurable rate.
+ */
+public class Tracer {
+
+    /** Environment variable disabling tracing when set to false. */
+    static final String ENABLED_ENV = "FMS_TRACING_ENABLED";
+
+    /** Environment variable setting the fraction of successful invocations traced, between 0 and 1. */
+    static final String SAMPLE_RATE_ENV = "FMS_TRACE_SAMPLE_RATE";
+
+    /** Environment variable setting the duration above which invocations are always traced, in milliseconds. */
+    static final String SLOW_THRESHOLD_ENV = "FMS_TRACE_SLOW_THRESHOLD_MS";
+
+    /** Default fraction of successful invocations traced. */
+    private static final double DEFAULT_SAMPLE_RATE = 0.1;
+
+    /** Default duration above which invocations are always traced. */
+    private static final Duration DEFAULT_SLOW_THRESHOLD = Duration.ofSeconds(10);
+
+    private final String resourceType;
+    private final boolean enabled;
+    private final boolean sampledByRate;
+    private final long slowThresholdNanos;
+    private final String traceId;
+    private final long startEpochNanos;
+    private final long startNanoTime;
+    private final Queue<Span> finishedSpans = new ConcurrentLinkedQueue<>();
+    private final Span rootSpan;
+
+    /**
+     * Start the trace of a handler invocation, with sampling configured through the environment.
+     * @param resourceType CloudFormation resource type, e.g. AWS::FMS::ResourceSet.
+     * @param action Handler action, e.g. Create, naming the root span.
+     */
+    public Tracer(final String resourceType, final String action) {
+
+        this(resourceType, action, System.getenv());
+    }
+
+    /**
+     * Constructor for use in tests, allows for a mocked environment.
+     * @param resourceType CloudFormation resource type.
+     * @param action Handler action.
+     * @param environment Environment variables configuring the sampling.
+     */
+    Tracer(final String resourceType, final String action, final Map<String, String> environment) {
+
+        this.resourceType = resourceType;
+        this.enabled = !"false".equalsIgnoreCase(environment.get(ENABLED_ENV));
+        final String sampleRate = environment.get(SAMPLE_RATE_ENV);
+        final double rate = sampleRate == null || sampleRate.trim().isEmpty()
+                ? DEFAULT_SAMPLE_RATE
+                : Double.parseDouble(sampleRate.trim());
+        this.sampledByRate = ThreadLocalRandom.current().nextDouble() < rate;
+        final String slowThreshold = environment.get(SLOW_THRESHOLD_ENV);
+        this.slowThresholdNanos = slowThreshold == null || slowThreshold.trim().isEmpty()
+                ? DEFAULT_SLOW_THRESHOLD.toNanos()
+                : TimeUnit.MILLISECONDS.toNanos(Long.parseLong(slowThreshold.trim()));
+        this.traceId = randomHex(2);
+        this.startEpochNanos = TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis());
+        this.startNanoTime = System.nanoTime();
+        this.rootSpan = enabled
+                ? new Span(this, action, randomHex(1), null, Span.Kind.SERVER, startEpochNanos)
+                : Span.NOOP;
+        rootSpan.setAttribute("cloud.resource_type", resourceType);
+    }
+
+    /**
+     * Get the root span of the invocation.
+     * @return The root span.
+     */
+    public Span getRootSpan() {
+
+        return rootSpan;
+    }
+
+    /**
+     * Start a span for a phase of the invocation.
+     * @param name Name of the phase, e.g. Conversion.
+     * @return The started span.
+     */
+    public Span startSpan(final String name) {
+
+        return startSpan(name, Span.Kind.INTERNAL);
+    }
+
+    /**
+     * Start a span of a given kind for a phase of the invocation.
+     * @param name Name of the phase.
+     * @param kind Kind of the span, CLIENT for calls to FMS.
+     * @return The started span.
+     */
+    public Span startSpan(final String name, final Span.Kind kind) {
+
+        if (!enabled) {
+            return Span.NOOP;
+        }
+        return new Span(this, name, randomHex(1), rootSpan.getSpanId(), kind, epochNanos());
+    }
+
+    /**
+     * Run a phase of the invocation in a span, marking the span as failed if the phase throws.
+     * @param name Name of the phase.
+     * @param phase Phase to run.
+     * @param <T> Type of the phase result.
+     * @return Result of the phase.
+     */
+    public <T> T trace(final String name, final Supplier<T> phase) {
+
+        final Span span = startSpan(name);
+        try {
+            return phase.get();
+        } catch (RuntimeException e) {
+            span.setError(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+
+    /**
+     * Record the outcome of the invocation on the root span from the progress event it returned.
+     * @param progressEvent Progress event returned by the handler.
+     */
+    public void recordOutcome(final ProgressEvent<?, ?> progressEvent) {
+
+        rootSpan.setAttribute("cfn.status", String.valueOf(progressEvent.getStatus()));
+        if (progressEvent.getErrorCode() != null) {
+            rootSpan.setAttribute("cfn.error_code", progressEvent.getErrorCode().name());
+            rootSpan.setError(progressEvent.getMessage());
+        }
+    }
+
+    /**
+     * Record the outcome of an invocation that threw an exception on the root span.
+     * @param e Exception thrown by the handler.
+     */
+    public void recordOutcome(final RuntimeException e) {
+
+        rootSpan.setError(e);
+    }
+
+    /**
+     * End the invocation and write its trace to the logs if it is sampled.
+     * @param logger CloudWatch logger.
+     */
+    public void flush(final Logger logger) {
+
+        if (!enabled) {
+            return;
+        }
+        rootSpan.end();
+        if (isSampled()) {
+            logger.log(toOtlpJson());
+        }
+    }
+
+    /**
+     * Determine whether the trace is kept: failed and slow invocations always are, others at the sample rate.
+     * @return Whether the trace is written to the logs.
+     */
+    boolean isSampled() {
+
+        return sampledByRate
+                || rootSpan.getErrorMessage() != null
+                || rootSpan.getEndEpochNanos() - rootSpan.getStartEpochNanos() >= slowThresholdNanos;
+    }
+
+    /**
+     * Build the OpenTelemetry protocol JSON of the finished spans.
+     * @return The trace as an OTLP JSON string.
+     */
+    String toOtlpJson() {
+
+        final ObjectNode document = JsonNodeFactory.instance.objectNode();
+        final ObjectNode resourceSpans = document.putArray("resourceSpans").addObject();
+        final ArrayNode resourceAttributes = resourceSpans.putObject("resource").putArray("attributes");
+        putAttribute(resourceAttributes, "service.name", resourceType);
+        final ObjectNode scopeSpans = resourceSpans.putArray("scopeSpans").addObject();
+        scopeSpans.putObject("scope").put("name", getClass().getPackage().getName());
+        final ArrayNode spans = scopeSpans.putArray("spans");
+        for (final Span span : finishedSpans) {
+            final ObjectNode node = spans.addObject();
+            node.put("traceId", traceId);
+            node.put("spanId", span.getSpanId());
+            if (span.getParentSpanId() != null) {
+                node.put("parentSpanId", span.getParentSpanId());
+            }
+            node.put("name", span.getName());
+            node.put("kind", span.getKind().getValue());
+            node.put("startTimeUnixNano", String.valueOf(span.getStartEpochNanos()));
+            node.put("endTimeUnixNano", String.valueOf(span.getEndEpochNanos()));
+            final ArrayNode attributes = node.putArray("attributes");
+            span.getAttributes().forEach((key, value) -> putAttribute(attributes, key, value));
+            final ObjectNode status = node.putObject("status");
+            if (span.getErrorMessage() != null) {
+                status.put("code", 2);
+                status.put("message", span.getErrorMessage());
+            } else {
+                status.put("code", 1);
+            }
+        }
+        return document.toString();
+    }
+
+    /**
+     * Record a span that ended.
+     * @param span The ended span.
+     */
+    void finished(final Span span) {
+
+        finishedSpans.add(span);
+    }
+
+    /**
+     * Get the current time in nanoseconds since the epoch, precise to the nanosecond within the invocation.
+     * @return The current time.
+     */
+    long epochNanos() {
+
+        return startEpochNanos + (System.nanoTime() - startNanoTime);
+    }
+
+    private static void putAttribute(final ArrayNode attributes, final String key, final Object value) {
+
+        final ObjectNode attribute = attributes.addObject();
+        attribute.put("key", key);
+        if (value instanceof Long) {
+            // OTLP JSON encodes 64 bit integers as strings
+            attribute.putObject("value").put("intValue", String.valueOf(value));
+        } else {
+            attribute.putObject("value").put("stringValue", String.valueOf(value));
+        }
+    }
+
+    private static String randomHex(final int longs) {
+
+        final StringBuilder hex = new StringBuilder();
+        for (int i = 0; i < longs; i++) {
+            hex.append(String.format("%016x", ThreadLocalRandom.current().nextLong()));
+        }
+        return hex.toString();
+    }
+}
@@ -10,6 +10,8 @@ import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
+import software.amazon.awssdk.core.exception.ApiCallTimeoutException;
 import software.amazon.awssdk.services.fms.FmsClient;
 import software.amazon.awssdk.services.fms.model.BatchAssociateResourceRequest;
 import software.amazon.awssdk.services.fms.model.BatchAssociateResourceResponse;
@@ -17,7 +19,9 @@ import software.amazon.awssdk.services.fms.model.BatchDisassociateResourceReques
 import software.amazon.awssdk.services.fms.model.BatchDisassociateResourceResponse;
 import software.amazon.awssdk.services.fms.model.DeleteResourceSetRequest;
 import software.amazon.awssdk.services.fms.model.DeleteResourceSetResponse;
+import software.amazon.awssdk.services.fms.model.FmsException;
 import software.amazon.awssdk.services.fms.model.FmsRequest;
+import software.amazon.awssdk.services.fms.model.GetResourceSetRequest;
 import software.amazon.awssdk.services.fms.model.InternalErrorException;
 import software.amazon.awssdk.services.fms.model.InvalidInputException;
 import software.amazon.awssdk.services.fms.model.InvalidOperationException;
@@ -35,16 +39,27 @@ import software.amazon.cloudformation.proxy.Logger;
 import software.amazon.cloudformation.proxy.OperationStatus;
 import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+import software.amazon.fms.resourceset.helpers.AllocationBudget;
+import software.amazon.fms.resourceset.helpers.ApiCallBudget;
+import software.amazon.fms.resourceset.helpers.BaseSampleHelper;
 import software.amazon.fms.resourceset.helpers.CfnSampleHelper;
 import software.amazon.fms.resourceset.helpers.FmsSampleHelper;
+import software.amazon.fms.resourceset.helpers.TimeBudget;
 
+import java.time.Duration;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -119,6 +134,13 @@ class CreateHandlerTest {
                 FmsSampleHelper.sampleListResourceSetResourcesRequest()
         ));
 
+        // verify the api call budget
+        ApiCallBudget.budget()
+                .allow("PutResourceSet", 1)
+                .allow("ListResourceSetResources", 1)
+                .total(2)
+                .assertWithin(proxy);
+
         // assertions
         assertThat(response).isNotNull();
         assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
@@ -182,6 +204,14 @@ class CreateHandlerTest {
                 FmsSampleHelper.sampleBatchAssociateResourceRequest()
         ));
 
+        // verify the api call budget
+        ApiCallBudget.budget()
+                .allow("PutResourceSet", 1)
+                .allow("ListResourceSetResources", 1)
+                .allow("BatchAssociateResource", 1)
+                .total(3)
+                .assertWithin(proxy);
+
         // assertions
         assertThat(response).isNotNull();
         assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
@@ -191,6 +221,159 @@ class CreateHandlerTest {
         assertThat(response.getErrorCode()).isNull();
     }
 
+    @Test
+    void handleRequestThrottledAssociationRetried() {
+
+        // stub the response for the create request
+        doReturn(FmsSampleHelper.samplePutResourceSetAllParametersResponse())
+                .when(proxy)
+                .injectCredentialsAndInvokeV2(
+                        ArgumentMatchers.isA(PutResourceSetRequest.class),
+                        ArgumentMatchers.any()
+                );
+
+        // stub the response for the list resource set resources request
+        doReturn(FmsSampleHelper.sampleListResourceSetResourcesResponseEmptyResource())
+                .when(proxy)
+                .injectCredentialsAndInvokeV2(
+                        ArgumentMatchers.isA(ListResourceSetResourcesRequest.class),
+                        ArgumentMatchers.any()
+                );
+
+        // throttle the first batch associate request
+        doThrow(FmsException.builder()
+                .awsErrorDetails(AwsErrorDetails.builder().errorCode("ThrottlingException").build())
+                .statusCode(400)
+                .build())
+                .doReturn(FmsSampleHelper.sampleBatchAssociateResourceResponse(false))
+                .when(proxy)
+                .injectCredentialsAndInvokeV2(
+                        ArgumentMatchers.isA(BatchAssociateResourceRequest.class),
+                        ArgumentMatchers.any()
+                );
+
+        // create the create request and send it
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(CfnSampleHelper.sampleAllParametersResourceModel(false, false, false))
+                .build();
+        final ProgressEvent<ResourceModel, CallbackContext> response =
+                handler.handleRequest(proxy, request, null, logger);
+
+        // verify stub calls
+        verify(proxy, times(4)).injectCredentialsAndInvokeV2(
+                captor.capture(),
+                ArgumentMatchers.any()
+        );
+        assertThat(captor.getAllValues()).isEqualTo(Arrays.asList(
+                FmsSampleHelper.samplePutResourceSetAllParametersRequest(false),
+                FmsSampleHelper.sampleListResourceSetResourcesRequest(),
+                FmsSampleHelper.sampleBatchAssociateResourceRequest(),
+                FmsSampleHelper.sampleBatchAssociateResourceRequest()
+        ));
+
+        // assertions
+        assertThat(response).isNotNull();
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getErrorCode()).isNull();
+    }
+
+    @Test
+    void handleRequestManyResourcesWithinApiCallBudget() {
+
+        // stub the responses for the create, list resource set resources and batch associate requests
+        doReturn(FmsSampleHelper.samplePutResourceSetAllParametersResponse())
+                .when(proxy)
+                .injectCredentialsAndInvokeV2(
+                        ArgumentMatchers.isA(PutResourceSetRequest.class),
+                        ArgumentMatchers.any()
+                );
+        doReturn(FmsSampleHelper.sampleListResourceSetResourcesResponseEmptyResource())
+                .when(proxy)
+                .injectCredentialsAndInvokeV2(
+                        ArgumentMatchers.isA(ListResourceSetResourcesRequest.class),
+                        ArgumentMatchers.any()
+                );
+        doReturn(FmsSampleHelper.sampleBatchAssociateResourceResponse(false))
+                .when(proxy)
+                .injectCredentialsAndInvokeV2(
+                        ArgumentMatchers.isA(BatchAssociateResourceRequest.class),
+                        ArgumentMatchers.any()
+                );
+
+        // model a resource set with more resources than a single batch associate request takes
+        final int resourceCount = 250;
+        final Set<String> resources = new HashSet<>();
+        for (int i = 0; i < resourceCount; i++) {
+            resources.add(String.format("%010d", i));
+        }
+        final ResourceModel requestModel = CfnSampleHelper.sampleAllParametersResourceModel(false, false, false);
+        requestModel.setResources(resources);
+
+        // create the create request and send it
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(requestModel)
+                .build();
+        final ProgressEvent<ResourceModel, CallbackContext> response =
+                handler.handleRequest(proxy, request, null, logger);
+
+        // verify the api call budget, one batch associate request per 100 resources
+        ApiCallBudget.budget()
+                .allow("PutResourceSet", 1)
+                .allow("ListResourceSetResources", 1)
+                .allow("BatchAssociateResource", (resourceCount + 99) / 100)
+                .assertWithin(proxy);
+
+        // assertions
+        assertThat(ApiCallBudget.countCalls(proxy)).containsEntry("BatchAssociateResource", 3L);
+        assertThat(response).isNotNull();
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getErrorCode()).isNull();
+    }
+
+    @Test
+    void handleRequestManyResourcesWithinAllocationBudget() {
+
+        // stub the responses for the create, list resource set resources and batch associate requests
+        doReturn(FmsSampleHelper.samplePutResourceSetAllParametersResponse())
+                .when(proxy)
+                .injectCredentialsAndInvokeV2(
+                        ArgumentMatchers.isA(PutResourceSetRequest.class),
+                        ArgumentMatchers.any()
+                );
+        doReturn(FmsSampleHelper.sampleListResourceSetResourcesResponseEmptyResource())
+                .when(proxy)
+                .injectCredentialsAndInvokeV2(
+                        ArgumentMatchers.isA(ListResourceSetResourcesRequest.class),
+                        ArgumentMatchers.any()
+                );
+        doReturn(FmsSampleHelper.sampleBatchAssociateResourceResponse(false))
+                .when(proxy)
+                .injectCredentialsAndInvokeV2(
+                        ArgumentMatchers.isA(BatchAssociateResourceRequest.class),
+                        ArgumentMatchers.any()
+                );
+
+        // model a resource set with a few thousand resources
+        final Set<String> resources = new HashSet<>();
+        for (int i = 0; i < 2000; i++) {
+            resources.add(String.format("arn:aws:ec2:us-east-1:000000000000:vpc/vpc-%08d", i));
+        }
+        final ResourceModel requestModel = CfnSampleHelper.sampleAllParametersResourceModel(false, false, false);
+        requestModel.setResources(resources);
+
+        // create the create request and send it, measuring the allocations of the handler
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(requestModel)
+                .build();
+        final ProgressEvent<ResourceModel, CallbackContext> response = AllocationBudget.megabytes(4)
+                .assertWithin(() -> handler.handleRequest(proxy, request, null, message -> { }));
+
+        // assertions
+        assertThat(response).isNotNull();
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getErrorCode()).isNull();
+    }
+
     @Test
     void handlerRequestResourceSetTags() {
 
@@ -234,6 +417,13 @@ class CreateHandlerTest {
                 ArgumentMatchers.any()
         );
 
+        // verify the api call budget
+        ApiCallBudget.budget()
+                .allow("PutResourceSet", 1)
+                .allow("ListResourceSetResources", 1)
+                .total(2)
+                .assertWithin(proxy);
+
         // assertions
         assertThat(response).isNotNull();
         assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
@@ -243,6 +433,32 @@ class CreateHandlerTest {
         assertThat(response.getErrorCode()).isNull();
     }
 
+    @Test
+    void handleRequestSchemaViolationsFailBeforeCreate() {
+
+        // model a resource set violating the resource schema in several places
+        final ResourceModel requestModel = CfnSampleHelper.sampleRequiredParametersResourceModel(false, true, false, false);
+        requestModel.setName("TEST!");
+
+        // create the create request and send it
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(requestModel)
+                .build();
+        final ProgressEvent<ResourceModel, CallbackContext> response =
+                handler.handleRequest(proxy, request, null, logger);
+
+        // verify no request was made
+        verify(proxy, never()).injectCredentialsAndInvokeV2(ArgumentMatchers.any(), ArgumentMatchers.any());
+
+        // assertions
+        assertThat(response).isNotNull();
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.FAILED);
+        assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.InvalidRequest);
+        assertThat(response.getMessage()).isEqualTo(String.join("; ",
+                "ResourceTypeList is required",
+                "Name must match pattern ^([a-zA-Z0-9_.:/=+\\-@\\s]+)$"));
+    }
+
     @Test
     void handleRequestResourceNotFoundException() {
 
@@ -557,4 +773,160 @@ class CreateHandlerTest {
             ));
         });
     }
+
+    @Test
+    void handleRequestOutOfTimeReturnsInProgress() {
+
+        // create the resource set, then run out of time before associating its resources
+        final AtomicLong clock = new AtomicLong();
+        final CreateHandler outOfTimeHandler = new CreateHandler(
+                client,
+                () -> new TimeBudget(clock::get, Duration.ofMillis(500), Duration.ofMillis(250)));
+        final PutResourceSetResponse describeResponse = FmsSampleHelper.samplePutResourceSetAllParametersResponse();
+        doAnswer(invocation -> {
+            clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(300));
+            return describeResponse;
+        })
+                .when(proxy)
+                .injectCredentialsAndInvokeV2(
+                        ArgumentMatchers.isA(PutResourceSetRequest.class),
+                        ArgumentMatchers.any()
+                );
+
+        // create the create request and send it
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(CfnSampleHelper.sampleAllParametersResourceModel(false, false, false))
+                .build();
+        final ProgressEvent<ResourceModel, CallbackContext> response =
+                outOfTimeHandler.handleRequest(proxy, request, null, logger);
+
+        // verify the api call budget
+        ApiCallBudget.budget()
+                .allow("PutResourceSet", 1)
+                .total(1)
+                .assertWithin(proxy);
+
+        // assertions
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(response.getCallbackDelaySeconds()).isEqualTo(ResourceSetHandler.CALLBACK_DELAY_SECONDS);
+        assertThat(response.getCallbackContext().getResourceSetId()).isEqualTo(describeResponse.resourceSet().id());
+        assertThat(response.getCallbackContext().getResumptions()).isEqualTo(1);
+        assertThat(response.getResourceModel().getId()).isEqualTo(describeResponse.resourceSet().id());
+        assertThat(response.getErrorCode()).isNull();
+    }
+
+    @Test
+    void handleRequestCreateTimeoutFailsWithoutResuming() {
+
+        // time out the create request, which FMS may have applied
+        final CreateHandler limitedHandler = new CreateHandler(
+                client,
+                () -> new TimeBudget(new AtomicLong()::get, Duration.ofSeconds(60), Duration.ofSeconds(10)));
+        doThrow(ApiCallTimeoutException.create(TimeUnit.SECONDS.toMillis(50)))
+                .when(proxy)
+                .injectCredentialsAndInvokeV2(
+                        ArgumentMatchers.isA(PutResourceSetRequest.class),
+                        ArgumentMatchers.any()
+                );
+
+        // create the create request and send it
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(CfnSampleHelper.sampleAllParametersResourceModel(false, false, false))
+                .build();
+        final ProgressEvent<ResourceModel, CallbackContext> response =
+                limitedHandler.handleRequest(proxy, request, null, logger);
+
+        // verify the api call budget
+        ApiCallBudget.budget()
+                .allow("PutResourceSet", 1)
+                .total(1)
+                .assertWithin(proxy);
+
+        // assertions, the create is not resumed, which would make a second resource set
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.FAILED);
+        assertThat(response.getCallbackContext()).isNull();
+        assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.NetworkFailure);
+    }
+
+    @Test
+    void handleRequestFailsAfterMaxResumptions() {
+
+        // run out of time before any request, as every invocation so far has
+        final CreateHandler outOfTimeHandler = new CreateHandler(
+                client,
+                () -> new TimeBudget(new AtomicLong()::get, Duration.ofMillis(500), Duration.ofMillis(600)));
+
+        // resume the create request for the last time
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(CfnSampleHelper.sampleAllParametersResourceModel(false, false, false))
+                .build();
+        final CallbackContext callbackContext = CallbackContext.builder()
+                .resourceSetId(BaseSampleHelper.sampleResourceSetId)
+                .resumptions(ResourceSetHandler.MAX_RESUMPTIONS)
+                .build();
+        final ProgressEvent<ResourceModel, CallbackContext> response =
+                outOfTimeHandler.handleRequest(proxy, request, callbackContext, logger);
+
+        // assertions
+        verify(proxy, never()).injectCredentialsAndInvokeV2(ArgumentMatchers.any(), ArgumentMatchers.any());
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.FAILED);
+        assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.GeneralServiceException);
+        assertThat(response.getMessage()).contains(String.valueOf(ResourceSetHandler.MAX_RESUMPTIONS));
+    }
+
+    @Test
+    void handleRequestResumesFromCallbackContext() {
+
+        // stub the response for the read request of the resource set created by the earlier invocation
+        doReturn(FmsSampleHelper.sampleGetResourceSetAllParametersResponse())
+                .when(proxy)
+                .injectCredentialsAndInvokeV2(
+                        ArgumentMatchers.isA(GetResourceSetRequest.class),
+                        ArgumentMatchers.any()
+                );
+
+        // stub the response for the list resource set resources request
+        doReturn(FmsSampleHelper.sampleListResourceSetResourcesResponseEmptyResource())
+                .when(proxy)
+                .injectCredentialsAndInvokeV2(
+                        ArgumentMatchers.isA(ListResourceSetResourcesRequest.class),
+                        ArgumentMatchers.any()
+                );
+
+        // stub the response for the associate request
+        doReturn(FmsSampleHelper.sampleBatchAssociateResourceResponse(false))
+                .when(proxy)
+                .injectCredentialsAndInvokeV2(
+                        ArgumentMatchers.isA(BatchAssociateResourceRequest.class),
+                        ArgumentMatchers.any()
+                );
+
+        // resume the create request
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(CfnSampleHelper.sampleAllParametersResourceModel(false, false, false))
+                .build();
+        final CallbackContext callbackContext = CallbackContext.builder()
+                .resourceSetId(BaseSampleHelper.sampleResourceSetId)
+                .resumptions(1)
+                .build();
+        final ProgressEvent<ResourceModel, CallbackContext> response =
+                handler.handleRequest(proxy, request, callbackContext, logger);
+
+        // verify stub calls, the resource set is not created again
+        verify(proxy, times(3)).injectCredentialsAndInvokeV2(
+                captor.capture(),
+                ArgumentMatchers.any()
+        );
+        assertThat(captor.getAllValues()).isEqualTo(Arrays.asList(
+                FmsSampleHelper.sampleGetResourceSetRequest(),
+                FmsSampleHelper.sampleListResourceSetResourcesRequest(),
+                FmsSampleHelper.sampleBatchAssociateResourceRequest()
+        ));
+
+        // assertions
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getCallbackContext()).isNull();
+        assertThat(response.getResourceModel().getId()).isEqualTo(BaseSampleHelper.sampleResourceSetId);
+        assertThat(response.getErrorCode()).isNull();
+    }
 }
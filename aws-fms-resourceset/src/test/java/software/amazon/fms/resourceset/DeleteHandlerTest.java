@@ -23,6 +23,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.fms.resourceset.helpers.ApiCallBudget;
 import software.amazon.fms.resourceset.helpers.CfnSampleHelper;
 import software.amazon.fms.resourceset.helpers.FmsSampleHelper;
 
@@ -89,6 +90,12 @@ public class DeleteHandlerTest {
                 FmsSampleHelper.sampleDeleteResourceSetRequest()
         );
 
+        // verify the api call budget
+        ApiCallBudget.budget()
+                .allow("DeleteResourceSet", 1)
+                .total(1)
+                .assertWithin(proxy);
+
         // assertions
         assertThat(response).isNotNull();
         assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
@@ -0,0 +1,148 @@
+package software.amazon.fms.resourceset;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.crac.Core;
+import software.amazon.awssdk.services.fms.FmsClient;
+import software.amazon.cloudformation.proxy.OperationStatus;
+import software.amazon.cloudformation.proxy.ProgressEvent;
+import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+import software.amazon.cloudformation.resource.Serializer;
+import software.amazon.fms.resourceset.helpers.CfnSampleHelper;
+import software.amazon.fms.resourceset.helpers.InMemoryFmsClient;
+import software.amazon.fms.resourceset.helpers.LocalFmsEndpoint;
+import software.amazon.fms.resourceset.helpers.SnapshotPriming;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Latency of the first invocation of a handler in a fresh JVM, with and without the snapshot priming. Each probe JVM
+ * builds the handler client, mirrored onto a local endpoint so that the invocation goes through the SDK marshalling
+ * and HTTP transport, then, when primed, notifies the global checkpoint context the way a checkpoint and restore
+ * would, which runs the priming and closes and reopens the connections. It then times a single Create invocation,
+ * including the serialization of the handler wrapper. Run with: mvn test-compile -P first-invocation
+ */
+public class FirstInvocationBenchmark {
+
+    /** Number of fresh JVMs started with and without priming. */
+    private static final int SAMPLES = 10;
+
+    private static final TypeReference<ResourceModel> MODEL_TYPE = new TypeReference<ResourceModel>() { };
+
+    public static void main(final String[] args) throws Exception {
+
+        if (args.length == 3 && "probe".equals(args[0])) {
+            probe(URI.create(args[1]), Boolean.parseBoolean(args[2]));
+        } else if (args.length == 0) {
+            compare();
+        } else {
+            System.err.println("usage: FirstInvocationBenchmark [probe <endpoint> <primed>]");
+            System.exit(2);
+        }
+    }
+
+    /**
+     * Make a single Create invocation, the first one of a fresh JVM, and print its duration in microseconds.
+     * @param endpoint Local FMS endpoint started by the benchmark.
+     * @param primed Whether to run the checkpoint hooks before the invocation.
+     */
+    private static void probe(final URI endpoint, final boolean primed) throws Exception {
+
+        final FmsClient client = LocalFmsEndpoint.mirror(InMemoryFmsClient.builder().build(), endpoint);
+        final CreateHandler handler = new CreateHandler(client);
+        if (primed) {
+            SnapshotPriming.register();
+            Core.getGlobalContext().beforeCheckpoint(null);
+            Core.getGlobalContext().afterRestore(null);
+        }
+
+        final Serializer serializer = new Serializer();
+        final ResourceModel model = CfnSampleHelper.sampleRequiredParametersResourceModel(false, false, true, false);
+
+        final long start = System.nanoTime();
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(serializer.deserialize(serializer.serialize(model), MODEL_TYPE))
+                .awsPartition(InMemoryFmsClient.PARTITION)
+                .region(InMemoryFmsClient.REGION)
+                .awsAccountId(InMemoryFmsClient.ACCOUNT_ID)
+                .build();
+        final ProgressEvent<ResourceModel, CallbackContext> event =
+                handler.handleRequest(InMemoryFmsClient.newProxy(), request, null, message -> { });
+        serializer.serialize(event);
+        final long elapsed = System.nanoTime() - start;
+
+        if (event.getStatus() != OperationStatus.SUCCESS) {
+            throw new IllegalStateException("first invocation failed: " + event.getMessage());
+        }
+        System.out.println(elapsed / 1000);
+    }
+
+    /**
+     * Start fresh JVMs probing the first invocation, alternating between runs without and with priming.
+     */
+    private static void compare() throws IOException, InterruptedException {
+
+        try (LocalFmsEndpoint endpoint = LocalFmsEndpoint.start()) {
+            final List<Long> unprimed = new ArrayList<>();
+            final List<Long> primed = new ArrayList<>();
+            for (int i = 0; i < SAMPLES; i++) {
+                unprimed.add(runProbe(endpoint.getUri(), false));
+                primed.add(runProbe(endpoint.getUri(), true));
+            }
+
+            final long medianUnprimed = median(unprimed);
+            final long medianPrimed = median(primed);
+            System.out.println("priming     first invocation (us, median)");
+            System.out.printf("%-11s %d%n", "none", medianUnprimed);
+            System.out.printf("%-11s %d%n", "snapshot", medianPrimed);
+            System.out.printf("first invocation reduced by %d%%%n",
+                    100 * (medianUnprimed - medianPrimed) / medianUnprimed);
+        }
+    }
+
+    /**
+     * Start a fresh JVM making a single Create invocation.
+     * @param endpoint Local FMS endpoint.
+     * @param primed Whether the JVM runs the checkpoint hooks before the invocation.
+     * @return The microseconds the first invocation took.
+     */
+    private static long runProbe(final URI endpoint, final boolean primed) throws IOException, InterruptedException {
+
+        final List<String> command = Arrays.asList(
+                Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+                "-classpath", System.getProperty("java.class.path"),
+                FirstInvocationBenchmark.class.getName(),
+                "probe",
+                endpoint.toString(),
+                Boolean.toString(primed));
+        final Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+
+        final List<String> output = new ArrayList<>();
+        try (BufferedReader lines = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = lines.readLine()) != null) {
+                output.add(line);
+            }
+        }
+        if (process.waitFor() != 0 || output.isEmpty()) {
+            throw new IllegalStateException("first invocation probe failed: " + String.join("\n", output));
+        }
+        return Long.parseLong(output.get(output.size() - 1).trim());
+    }
+
+    private static long median(final List<Long> samples) {
+
+        final List<Long> sorted = new ArrayList<>(samples);
+        Collections.sort(sorted);
+        return sorted.get(sorted.size() / 2);
+    }
+}
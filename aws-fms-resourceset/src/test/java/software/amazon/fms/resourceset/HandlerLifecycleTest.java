@@ -0,0 +1,136 @@
+package software.amazon.fms.resourceset;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.cloudformation.exceptions.CfnGeneralServiceException;
+import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.HandlerErrorCode;
+import software.amazon.cloudformation.proxy.Logger;
+import software.amazon.cloudformation.proxy.OperationStatus;
+import software.amazon.cloudformation.proxy.ProgressEvent;
+import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+import software.amazon.fms.resourceset.helpers.CfnSampleHelper;
+import software.amazon.fms.resourceset.helpers.InMemoryFmsClient;
+
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Runs the handlers through the lifecycle of a resource set against the in-memory FMS stand-in, rather than against
+ * responses stubbed call by call.
+ */
+@ExtendWith(MockitoExtension.class)
+class HandlerLifecycleTest {
+
+    @Mock
+    private Logger logger;
+
+    private Configuration configuration;
+    private AmazonWebServicesClientProxy proxy;
+
+    @BeforeEach
+    void setup() {
+
+        logger = mock(Logger.class);
+        configuration = new Configuration();
+        proxy = InMemoryFmsClient.newProxy();
+    }
+
+    @Test
+    void resourceSetLifecycle() {
+
+        final InMemoryFmsClient client = InMemoryFmsClient.builder().pageSize(50).build();
+
+        // create the resource set with 250 resources
+        final ResourceModel createModel = CfnSampleHelper.sampleAllParametersResourceModel(false, true, false);
+        createModel.setResources(resources(0, 250));
+        final ProgressEvent<ResourceModel, CallbackContext> created = new CreateHandler(client)
+                .handleRequest(proxy, request(createModel), null, logger);
+        assertThat(created.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        final String resourceSetId = created.getResourceModel().getId();
+        assertThat(client.getResources(resourceSetId)).hasSize(250);
+
+        // update the resource set to drop the first 100 resources and add 150 new ones
+        final ResourceModel updateModel = CfnSampleHelper.sampleAllParametersResourceModel(false, false, true);
+        updateModel.setId(resourceSetId);
+        updateModel.setResources(resources(100, 400));
+        final ProgressEvent<ResourceModel, CallbackContext> updated = new UpdateHandler(client)
+                .handleRequest(proxy, request(updateModel), null, logger);
+        assertThat(updated.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(client.getResources(resourceSetId)).isEqualTo(new TreeSet<>(resources(100, 400)));
+
+        // read the resource set back, paging through its resources
+        final ProgressEvent<ResourceModel, CallbackContext> read = new ReadHandler(client)
+                .handleRequest(proxy, request(bareModel(resourceSetId)), null, logger);
+        assertThat(read.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(read.getResourceModel().getResources()).isEqualTo(resources(100, 400));
+
+        // list the resource sets
+        final ProgressEvent<ResourceModel, CallbackContext> listed = new ListHandler(client)
+                .handleRequest(proxy, request(CfnSampleHelper.sampleBareResourceModel(false)), null, logger);
+        assertThat(listed.getResourceModels()).extracting(ResourceModel::getId).containsExactly(resourceSetId);
+
+        // delete the resource set, it can no longer be read
+        final ProgressEvent<ResourceModel, CallbackContext> deleted = new DeleteHandler(client)
+                .handleRequest(proxy, request(bareModel(resourceSetId)), null, logger);
+        assertThat(deleted.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        final ProgressEvent<ResourceModel, CallbackContext> readDeleted = new ReadHandler(client)
+                .handleRequest(proxy, request(bareModel(resourceSetId)), null, logger);
+        assertThat(readDeleted.getErrorCode()).isEqualTo(HandlerErrorCode.NotFound);
+
+        // assertions
+        assertThat(client.getResourceSets()).isEmpty();
+        assertThat(client.getCallCounts())
+                .containsEntry("BatchAssociateResource", 5L)
+                .containsEntry("BatchDisassociateResource", 1L)
+                .containsEntry("ListResourceSetResources", 1L + 5L + 6L);
+    }
+
+    @Test
+    void failedAssociationItems() {
+
+        // fail a tenth of the associated resources
+        final InMemoryFmsClient client = InMemoryFmsClient.builder()
+                .seed(7)
+                .failedItemRate(0.1)
+                .build();
+        final ResourceModel createModel = CfnSampleHelper.sampleAllParametersResourceModel(false, false, false);
+        createModel.setResources(resources(0, 100));
+
+        // assertions
+        Assertions.assertThrows(CfnGeneralServiceException.class, () -> new CreateHandler(client)
+                .handleRequest(proxy, request(createModel), null, logger));
+        assertThat(client.getResourceSets()).hasSize(1);
+        assertThat(client.getResources(client.getResourceSets().keySet().iterator().next()))
+                .hasSizeLessThan(100);
+    }
+
+    private static Set<String> resources(final int from, final int to) {
+
+        final Set<String> resources = new TreeSet<>();
+        for (int i = from; i < to; i++) {
+            resources.add(String.format("arn:aws:ec2:us-east-1:000000000000:vpc/vpc-%08d", i));
+        }
+        return resources;
+    }
+
+    private static ResourceModel bareModel(final String resourceSetId) {
+
+        return ResourceModel.builder().id(resourceSetId).build();
+    }
+
+    private ResourceHandlerRequest<ResourceModel> request(final ResourceModel model) {
+
+        return ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(model)
+                .desiredResourceTags(configuration.resourceDefinedTags(model))
+                .build();
+    }
+}
@@ -0,0 +1,145 @@
+package software.amazon.fms.resourceset;
+
+import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.Logger;
+import software.amazon.cloudformation.proxy.ProgressEvent;
+import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+import software.amazon.fms.resourceset.helpers.CfnSampleHelper;
+import software.amazon.fms.resourceset.helpers.InMemoryFmsClient;
+import software.amazon.fms.resourceset.helpers.LoadHarness;
+import software.amazon.fms.resourceset.helpers.WorkloadGenerator;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Drives thousands of concurrent Create, Read, Update, List and Delete invocations of the resource set handlers
+ * against the in-memory FMS stand-in, and reports the throughput, latency, FMS API calls and heap usage of each
+ * action. Most resource sets have a hundred members, every twentieth has more than ten thousand, and each update
+ * replaces a tenth of the members so that both association batches are exercised. The members are ARNs generated by
+ * the {@link WorkloadGenerator} across a thousand accounts and the regions and resource types of an organization.
+ * Run with: mvn test-compile -P load-test [-Dload.invocations=2000] [-Dload.concurrency=64]
+ */
+public class HandlerLoadDriver {
+
+    /** Number of members of the regular resource sets. */
+    private static final int SMALL_RESOURCE_SET = 100;
+
+    /** Number of members of the large resource sets. */
+    private static final int LARGE_RESOURCE_SET = 12000;
+
+    /** Every how many invocations a resource set is a large one. */
+    private static final int LARGE_RESOURCE_SET_INTERVAL = 20;
+
+    /** Invocations per List invocation of the other actions, a List invocation reads a page of resource sets. */
+    private static final int INVOCATIONS_PER_LIST = 10;
+
+    /** Number of accounts owning the members of the resource sets. */
+    private static final int ACCOUNTS = 1000;
+
+    /** Resource URIs shared by the resource sets, so the payloads do not each hold copies of the same strings. */
+    private static final List<String> RESOURCES;
+
+    static {
+        final WorkloadGenerator generator = new WorkloadGenerator(WorkloadGenerator.DEFAULT_SEED);
+        RESOURCES = generator.resourceArns(
+                LARGE_RESOURCE_SET + LARGE_RESOURCE_SET / 10, generator.accountIds(ACCOUNTS));
+    }
+
+    public static void main(final String[] args) {
+
+        final int invocations = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        final int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+
+        final InMemoryFmsClient client = InMemoryFmsClient.builder()
+                .seed(1)
+                .logNormalLatency(Duration.ofMillis(20), 0.5)
+                .throttleRate(0.01)
+                .build();
+        final AmazonWebServicesClientProxy proxy = InMemoryFmsClient.newProxy();
+        final Logger logger = message -> { };
+        final Configuration configuration = new Configuration();
+        final AtomicReferenceArray<String> resourceSetIds = new AtomicReferenceArray<>(invocations);
+
+        final LoadHarness harness = new LoadHarness(concurrency, System.out);
+        System.out.printf("%d invocations per action, %d concurrent%n", invocations, concurrency);
+        harness.printHeader();
+        long failures = 0;
+
+        final CreateHandler createHandler = new CreateHandler(client);
+        failures += harness.run("Create", invocations, i -> {
+            final ResourceModel model = model(i, true);
+            final ProgressEvent<ResourceModel, CallbackContext> event =
+                    createHandler.handleRequest(proxy, request(configuration, model), null, logger);
+            if (event.getResourceModel() != null) {
+                resourceSetIds.set(i, event.getResourceModel().getId());
+            }
+            return event;
+        }, client::getCallCounts);
+
+        final ReadHandler readHandler = new ReadHandler(client);
+        failures += harness.run("Read", invocations, i -> readHandler.handleRequest(
+                proxy,
+                request(configuration, ResourceModel.builder().id(resourceSetIds.get(i)).build()),
+                null,
+                logger), client::getCallCounts);
+
+        final UpdateHandler updateHandler = new UpdateHandler(client);
+        failures += harness.run("Update", invocations, i -> {
+            final ResourceModel model = model(i, false);
+            model.setId(resourceSetIds.get(i));
+            return updateHandler.handleRequest(proxy, request(configuration, model), null, logger);
+        }, client::getCallCounts);
+
+        final ListHandler listHandler = new ListHandler(client);
+        final int listInvocations = Math.max(1, invocations / INVOCATIONS_PER_LIST);
+        failures += harness.run("List", listInvocations, i -> listHandler.handleRequest(
+                proxy,
+                request(configuration, CfnSampleHelper.sampleBareResourceModel(false)),
+                null,
+                logger), client::getCallCounts);
+
+        final DeleteHandler deleteHandler = new DeleteHandler(client);
+        failures += harness.run("Delete", invocations, i -> deleteHandler.handleRequest(
+                proxy,
+                request(configuration, ResourceModel.builder().id(resourceSetIds.get(i)).build()),
+                null,
+                logger), client::getCallCounts);
+
+        if (failures > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Assemble the resource set of an invocation. The updated resource set drops the first tenth of the members of
+     * the created one and adds as many new members.
+     * @param index Index of the invocation.
+     * @param created Whether the resource set is the created or the updated one.
+     * @return The resource set.
+     */
+    private static ResourceModel model(final int index, final boolean created) {
+
+        final int size = index % LARGE_RESOURCE_SET_INTERVAL == 0 ? LARGE_RESOURCE_SET : SMALL_RESOURCE_SET;
+        final int from = created ? 0 : size / 10;
+        final Set<String> resources = new HashSet<>(RESOURCES.subList(from, from + size));
+
+        final ResourceModel model = CfnSampleHelper.sampleAllParametersResourceModel(false, created, !created);
+        model.setName(String.format("load-test-%d", index));
+        model.setResources(resources);
+        return model;
+    }
+
+    private static ResourceHandlerRequest<ResourceModel> request(
+            final Configuration configuration,
+            final ResourceModel model) {
+
+        return ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(model)
+                .desiredResourceTags(configuration.resourceDefinedTags(model))
+                .build();
+    }
+}
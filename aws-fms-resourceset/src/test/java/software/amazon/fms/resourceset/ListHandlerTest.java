@@ -27,6 +27,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.fms.resourceset.helpers.ApiCallBudget;
 import software.amazon.fms.resourceset.helpers.CfnSampleHelper;
 import software.amazon.fms.resourceset.helpers.FmsSampleHelper;
 
@@ -97,6 +98,12 @@ public class ListHandlerTest {
                 .maxResults(50)
                 .build();
 
+        // verify the api call budget
+        ApiCallBudget.budget()
+                .allow("ListResourceSets", 1)
+                .total(1)
+                .assertWithin(proxy);
+
         // assertions
         assertThat(response).isNotNull();
         assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
@@ -143,6 +150,12 @@ public class ListHandlerTest {
                 .maxResults(50)
                 .build();
 
+        // verify the api call budget
+        ApiCallBudget.budget()
+                .allow("ListResourceSets", 1)
+                .total(1)
+                .assertWithin(proxy);
+
         // assertions
         assertThat(response).isNotNull();
         assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
@@ -1,10 +1,14 @@
 package software.amazon.fms.resourceset;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
 import org.mockito.ArgumentCaptor;
 import org.mockito.ArgumentMatchers;
 import org.mockito.Captor;
+import software.amazon.awssdk.core.exception.SdkClientException;
 import software.amazon.awssdk.services.fms.FmsClient;
 import software.amazon.awssdk.services.fms.model.FmsRequest;
 import software.amazon.awssdk.services.fms.model.GetResourceSetRequest;
@@ -16,7 +20,9 @@ import software.amazon.awssdk.services.fms.model.ListResourceSetResourcesRequest
 import software.amazon.awssdk.services.fms.model.ListResourceSetResourcesResponse;
 import software.amazon.awssdk.services.fms.model.ListTagsForResourceRequest;
 import software.amazon.awssdk.services.fms.model.ListTagsForResourceResponse;
+import software.amazon.awssdk.services.fms.model.Resource;
 import software.amazon.awssdk.services.fms.model.ResourceNotFoundException;
+import software.amazon.cloudformation.exceptions.CfnThrottlingException;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.HandlerErrorCode;
 import software.amazon.cloudformation.proxy.Logger;
@@ -30,8 +36,11 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.fms.resourceset.helpers.AllocationBudget;
+import software.amazon.fms.resourceset.helpers.ApiCallBudget;
 import software.amazon.fms.resourceset.helpers.CfnSampleHelper;
 import software.amazon.fms.resourceset.helpers.FmsSampleHelper;
+import software.amazon.fms.resourceset.helpers.TimeBudget;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.doReturn;
@@ -39,6 +48,7 @@ import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 
 @ExtendWith(MockitoExtension.class)
 class ReadHandlerTest {
@@ -118,6 +128,14 @@ class ReadHandlerTest {
                 FmsSampleHelper.sampleListResourceSetResourcesRequest()
         ));
 
+        // verify the api call budget
+        ApiCallBudget.budget()
+                .allow("GetResourceSet", 1)
+                .allow("ListTagsForResource", 1)
+                .allow("ListResourceSetResources", 1)
+                .total(3)
+                .assertWithin(proxy);
+
         // assertions
         assertThat(response).isNotNull();
         assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
@@ -191,6 +209,56 @@ class ReadHandlerTest {
         assertThat(response.getErrorCode()).isNull();
     }
 
+    @Test
+    void handleRequestManyResourcesWithinAllocationBudget() {
+
+        // stub the response for the read request
+        final GetResourceSetResponse describeResponse = FmsSampleHelper.sampleGetResourceSetAllParametersResponse();
+        doReturn(describeResponse)
+                .when(proxy)
+                .injectCredentialsAndInvokeV2(
+                        ArgumentMatchers.isA(GetResourceSetRequest.class),
+                        ArgumentMatchers.any()
+                );
+
+        // stub the response for the list tags request
+        final ListTagsForResourceResponse describeListResponse =
+                FmsSampleHelper.sampleListTagsForResourceResponse(false, false);
+        doReturn(describeListResponse)
+                .when(proxy)
+                .injectCredentialsAndInvokeV2(
+                        ArgumentMatchers.isA(ListTagsForResourceRequest.class),
+                        ArgumentMatchers.any()
+                );
+
+        // stub the response for the list resourceSet resources request with a few thousand resources
+        final List<Resource> resources = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            resources.add(Resource.builder()
+                    .uri(String.format("arn:aws:ec2:us-east-1:000000000000:vpc/vpc-%08d", i))
+                    .accountId("000000000000")
+                    .build());
+        }
+        doReturn(ListResourceSetResourcesResponse.builder().items(resources).build())
+                .when(proxy)
+                .injectCredentialsAndInvokeV2(
+                        ArgumentMatchers.isA(ListResourceSetResourcesRequest.class),
+                        ArgumentMatchers.any()
+                );
+
+        // create the read request and send it, measuring the allocations of the handler
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(CfnSampleHelper.sampleBareResourceModel(true))
+                .build();
+        final ProgressEvent<ResourceModel, CallbackContext> response = AllocationBudget.megabytes(4)
+                .assertWithin(() -> handler.handleRequest(proxy, request, null, message -> { }));
+
+        // assertions
+        assertThat(response).isNotNull();
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getResourceModel().getResources()).hasSize(resources.size());
+    }
+
     @Test
     void handleRequestRetrieveTags() {
 
@@ -245,6 +313,14 @@ class ReadHandlerTest {
                 FmsSampleHelper.sampleListResourceSetResourcesRequest()
         ));
 
+        // verify the api call budget
+        ApiCallBudget.budget()
+                .allow("GetResourceSet", 1)
+                .allow("ListTagsForResource", 1)
+                .allow("ListResourceSetResources", 1)
+                .total(3)
+                .assertWithin(proxy);
+
         // assertions
         assertThat(response).isNotNull();
         assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
@@ -415,4 +491,79 @@ class ReadHandlerTest {
         assertThat(response.getResourceModels()).isNull();
         assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.ServiceInternalError);
     }
+
+    @Test
+    void handleRequestThrottlingException() {
+
+        // mock the retry budget running out on throttled requests
+        doThrow(new CfnThrottlingException("GetResourceSet"))
+                .when(proxy)
+                .injectCredentialsAndInvokeV2(
+                        ArgumentMatchers.isA(GetResourceSetRequest.class),
+                        ArgumentMatchers.any()
+                );
+
+        // create the read request and send it
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(CfnSampleHelper.sampleBareResourceModel(true))
+                .build();
+        final ProgressEvent<ResourceModel, CallbackContext> response =
+                handler.handleRequest(proxy, request, null, logger);
+
+        // assertions
+        assertThat(response).isNotNull();
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.FAILED);
+        assertThat(response.getResourceModel()).isNull();
+        assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.Throttling);
+    }
+
+    @Test
+    void handleRequestNetworkFailure() {
+
+        // mock a non transient SdkClientException from the SDK
+        doThrow(SdkClientException.builder().message("Unable to execute HTTP request").build())
+                .when(proxy)
+                .injectCredentialsAndInvokeV2(
+                        ArgumentMatchers.isA(GetResourceSetRequest.class),
+                        ArgumentMatchers.any()
+                );
+
+        // create the read request and send it
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(CfnSampleHelper.sampleBareResourceModel(true))
+                .build();
+        final ProgressEvent<ResourceModel, CallbackContext> response =
+                handler.handleRequest(proxy, request, null, logger);
+
+        // verify the request was not retried
+        verify(proxy, times(1)).injectCredentialsAndInvokeV2(
+                ArgumentMatchers.isA(GetResourceSetRequest.class),
+                ArgumentMatchers.any()
+        );
+
+        // assertions
+        assertThat(response).isNotNull();
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.FAILED);
+        assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.NetworkFailure);
+    }
+
+    @Test
+    void handleRequestOutOfTimeFails() {
+
+        // run out of time before the first request, a read cannot be resumed
+        final ReadHandler outOfTimeHandler = new ReadHandler(
+                client,
+                () -> new TimeBudget(System.nanoTime(), Duration.ZERO, Duration.ZERO));
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(CfnSampleHelper.sampleBareResourceModel(true))
+                .build();
+        final ProgressEvent<ResourceModel, CallbackContext> response =
+                outOfTimeHandler.handleRequest(proxy, request, null, logger);
+
+        // assertions
+        verifyNoInteractions(proxy);
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.FAILED);
+        assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.GeneralServiceException);
+        assertThat(response.getCallbackContext()).isNull();
+    }
 }
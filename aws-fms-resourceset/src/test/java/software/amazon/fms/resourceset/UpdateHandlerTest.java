@@ -1,6 +1,10 @@
 package software.amazon.fms.resourceset;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 
 import org.mockito.ArgumentCaptor;
@@ -21,6 +25,7 @@ import software.amazon.awssdk.services.fms.model.ListResourceSetResourcesRequest
 import software.amazon.awssdk.services.fms.model.ListResourceSetResourcesResponse;
 import software.amazon.awssdk.services.fms.model.ListTagsForResourceRequest;
 import software.amazon.awssdk.services.fms.model.ListTagsForResourceResponse;
+import software.amazon.awssdk.services.fms.model.Resource;
 import software.amazon.awssdk.services.fms.model.PutResourceSetRequest;
 import software.amazon.awssdk.services.fms.model.PutResourceSetResponse;
 import software.amazon.awssdk.services.fms.model.ResourceNotFoundException;
@@ -39,8 +44,11 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.fms.resourceset.helpers.AllocationBudget;
+import software.amazon.fms.resourceset.helpers.ApiCallBudget;
 import software.amazon.fms.resourceset.helpers.CfnSampleHelper;
 import software.amazon.fms.resourceset.helpers.FmsSampleHelper;
+import software.amazon.fms.resourceset.helpers.TimeBudget;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.doReturn;
@@ -48,6 +56,7 @@ import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 
 @ExtendWith(MockitoExtension.class)
 public class UpdateHandlerTest {
@@ -130,6 +139,14 @@ public class UpdateHandlerTest {
                 FmsSampleHelper.sampleListResourceSetResourcesRequest()
         ));
 
+        // verify the api call budget
+        ApiCallBudget.budget()
+                .allow("GetResourceSet", 1)
+                .allow("PutResourceSet", 1)
+                .allow("ListResourceSetResources", 1)
+                .total(3)
+                .assertWithin(proxy);
+
         // assertions
         assertThat(response).isNotNull();
         assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
@@ -205,6 +222,15 @@ public class UpdateHandlerTest {
                 FmsSampleHelper.sampleBatchAssociateResourceRequest()
         ));
 
+        // verify the api call budget
+        ApiCallBudget.budget()
+                .allow("GetResourceSet", 1)
+                .allow("PutResourceSet", 1)
+                .allow("ListResourceSetResources", 1)
+                .allow("BatchAssociateResource", 1)
+                .total(4)
+                .assertWithin(proxy);
+
         // assertions
         assertThat(response).isNotNull();
         assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
@@ -281,6 +307,15 @@ public class UpdateHandlerTest {
                 FmsSampleHelper.sampleBatchDisassociateResourceRequest()
         ));
 
+        // verify the api call budget
+        ApiCallBudget.budget()
+                .allow("GetResourceSet", 1)
+                .allow("PutResourceSet", 1)
+                .allow("ListResourceSetResources", 1)
+                .allow("BatchDisassociateResource", 1)
+                .total(4)
+                .assertWithin(proxy);
+
         // assertions
         assertThat(response).isNotNull();
         assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
@@ -291,6 +326,68 @@ public class UpdateHandlerTest {
         assertThat(response.getErrorCode()).isNull();
     }
 
+    @Test
+    void handleRequestManyResourcesWithinAllocationBudget() {
+
+        // stub the responses for the read and update requests
+        doReturn(FmsSampleHelper.sampleGetResourceSetAllParametersResponse())
+                .when(proxy)
+                .injectCredentialsAndInvokeV2(
+                        ArgumentMatchers.isA(GetResourceSetRequest.class),
+                        ArgumentMatchers.any()
+                );
+        doReturn(FmsSampleHelper.samplePutResourceSetAllParametersResponse())
+                .when(proxy)
+                .injectCredentialsAndInvokeV2(
+                        ArgumentMatchers.isA(PutResourceSetRequest.class),
+                        ArgumentMatchers.any()
+                );
+
+        // model a few thousand current resources, of which the update replaces a tenth
+        final List<String> uris = new ArrayList<>();
+        for (int i = 0; i < 2200; i++) {
+            uris.add(String.format("arn:aws:ec2:us-east-1:000000000000:vpc/vpc-%08d", i));
+        }
+        final List<Resource> currentResources = new ArrayList<>();
+        uris.subList(0, 2000).forEach(uri -> currentResources.add(Resource.builder().uri(uri).build()));
+
+        // stub the responses for the list resourceSet resources and batch requests
+        doReturn(ListResourceSetResourcesResponse.builder().items(currentResources).build())
+                .when(proxy)
+                .injectCredentialsAndInvokeV2(
+                        ArgumentMatchers.isA(ListResourceSetResourcesRequest.class),
+                        ArgumentMatchers.any()
+                );
+        doReturn(FmsSampleHelper.sampleBatchAssociateResourceResponse(false))
+                .when(proxy)
+                .injectCredentialsAndInvokeV2(
+                        ArgumentMatchers.isA(BatchAssociateResourceRequest.class),
+                        ArgumentMatchers.any()
+                );
+        doReturn(FmsSampleHelper.sampleBatchDisassociateResourceResponse(false))
+                .when(proxy)
+                .injectCredentialsAndInvokeV2(
+                        ArgumentMatchers.isA(BatchDisassociateResourceRequest.class),
+                        ArgumentMatchers.any()
+                );
+
+        // model the pre-request resource state
+        final ResourceModel requestModel = CfnSampleHelper.sampleAllParametersResourceModel(true, false, false);
+        requestModel.setResources(new HashSet<>(uris.subList(200, uris.size())));
+
+        // create the update request and send it, measuring the allocations of the handler
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(requestModel)
+                .build();
+        final ProgressEvent<ResourceModel, CallbackContext> response = AllocationBudget.megabytes(4)
+                .assertWithin(() -> handler.handleRequest(proxy, request, null, message -> { }));
+
+        // assertions
+        assertThat(response).isNotNull();
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getErrorCode()).isNull();
+    }
+
     @Test
     void handlerRequestDeleteResourceSetTags() {
 
@@ -520,6 +617,16 @@ public class UpdateHandlerTest {
                 FmsSampleHelper.sampleListResourceSetResourcesRequest()
         ));
 
+        // verify the api call budget
+        ApiCallBudget.budget()
+                .allow("GetResourceSet", 1)
+                .allow("PutResourceSet", 1)
+                .allow("ListResourceSetResources", 1)
+                .allow("UntagResource", 1)
+                .allow("TagResource", 1)
+                .total(5)
+                .assertWithin(proxy);
+
         // assertions
         assertThat(response).isNotNull();
         assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
@@ -728,4 +835,72 @@ public class UpdateHandlerTest {
         assertThat(response.getResourceModels()).isNull();
         assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.ServiceInternalError);
     }
+
+    @Test
+    void handleRequestResumesFromCallbackContext() {
+
+        // stub the response for the read request
+        doReturn(FmsSampleHelper.sampleGetResourceSetRequiredParametersResponse())
+                .when(proxy)
+                .injectCredentialsAndInvokeV2(
+                        ArgumentMatchers.isA(GetResourceSetRequest.class),
+                        ArgumentMatchers.any()
+                );
+
+        // stub the response for the list resourceSet resources request
+        doReturn(FmsSampleHelper.sampleListResourceSetResourcesResponseEmptyResource())
+                .when(proxy)
+                .injectCredentialsAndInvokeV2(
+                        ArgumentMatchers.isA(ListResourceSetResourcesRequest.class),
+                        ArgumentMatchers.any()
+                );
+
+        // resume the update request after an earlier invocation updated the resource set
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(CfnSampleHelper.sampleRequiredParametersResourceModel(true, false, false, false))
+                .build();
+        final CallbackContext callbackContext = CallbackContext.builder()
+                .resourceSetUpdated(true)
+                .resumptions(1)
+                .build();
+        final ProgressEvent<ResourceModel, CallbackContext> response =
+                handler.handleRequest(proxy, request, callbackContext, logger);
+
+        // verify stub calls, the resource set is not put again
+        verify(proxy, times(2)).injectCredentialsAndInvokeV2(
+                captor.capture(),
+                ArgumentMatchers.any()
+        );
+        assertThat(captor.getAllValues()).isEqualTo(Arrays.asList(
+                FmsSampleHelper.sampleGetResourceSetRequest(),
+                FmsSampleHelper.sampleListResourceSetResourcesRequest()
+        ));
+
+        // assertions
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getCallbackContext()).isNull();
+        assertThat(response.getErrorCode()).isNull();
+    }
+
+    @Test
+    void handleRequestOutOfTimeReturnsInProgress() {
+
+        // run out of time before the first request
+        final UpdateHandler outOfTimeHandler = new UpdateHandler(
+                client,
+                () -> new TimeBudget(System.nanoTime(), Duration.ZERO, Duration.ZERO));
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(CfnSampleHelper.sampleRequiredParametersResourceModel(true, false, false, false))
+                .build();
+        final ProgressEvent<ResourceModel, CallbackContext> response =
+                outOfTimeHandler.handleRequest(proxy, request, null, logger);
+
+        // assertions
+        verifyNoInteractions(proxy);
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(response.getCallbackDelaySeconds()).isEqualTo(ResourceSetHandler.CALLBACK_DELAY_SECONDS);
+        assertThat(response.getCallbackContext().isResourceSetUpdated()).isFalse();
+        assertThat(response.getCallbackContext().getResumptions()).isEqualTo(1);
+        assertThat(response.getResourceModel()).isEqualTo(request.getDesiredResourceState());
+    }
 }
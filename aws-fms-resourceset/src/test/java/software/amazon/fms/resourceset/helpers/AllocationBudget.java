@@ -0,0 +1,83 @@
+package software.amazon.fms.resourceset.helpers;
+
+import org.junit.jupiter.api.Assumptions;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Maximum number of bytes a handler invocation may allocate on the calling thread, measured with the allocation
+ * counter of the JVM. The invocation is run once before it is measured, so that class loading and lazy initialization
+ * are not charged to it. Budgets are set with headroom above the measured allocations, to catch regressions such as
+ * an extra copy of a large payload rather than small fluctuations.
+ */
+public class AllocationBudget {
+
+    private static final long KILOBYTE = 1024;
+
+    private final long maxBytes;
+
+    private AllocationBudget(final long maxBytes) {
+
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Start a budget in kilobytes.
+     * @param kilobytes Maximum number of kilobytes allocated.
+     * @return The budget.
+     */
+    public static AllocationBudget kilobytes(final long kilobytes) {
+
+        return new AllocationBudget(kilobytes * KILOBYTE);
+    }
+
+    /**
+     * Start a budget in megabytes.
+     * @param megabytes Maximum number of megabytes allocated.
+     * @return The budget.
+     */
+    public static AllocationBudget megabytes(final long megabytes) {
+
+        return new AllocationBudget(megabytes * KILOBYTE * KILOBYTE);
+    }
+
+    /**
+     * Run an invocation once to warm it up, then again measuring its allocations, and assert they are within the
+     * budget. The test is skipped on JVMs without per-thread allocation counters.
+     * @param invocation Handler invocation, run on the calling thread.
+     * @param <T> Type of the result of the invocation.
+     * @return The result of the measured run.
+     */
+    public <T> T assertWithin(final Supplier<T> invocation) {
+
+        final com.sun.management.ThreadMXBean threads = threadMXBean();
+        final long threadId = Thread.currentThread().getId();
+        invocation.get();
+
+        final long before = threads.getThreadAllocatedBytes(threadId);
+        final T result = invocation.get();
+        final long allocatedBytes = threads.getThreadAllocatedBytes(threadId) - before;
+        assertThat(allocatedBytes)
+                .as("bytes allocated by the invocation")
+                .isLessThanOrEqualTo(maxBytes);
+        return result;
+    }
+
+    private static com.sun.management.ThreadMXBean threadMXBean() {
+
+        final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        Assumptions.assumeTrue(threads instanceof com.sun.management.ThreadMXBean,
+                "the JVM does not count the bytes allocated per thread");
+        final com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+        Assumptions.assumeTrue(allocations.isThreadAllocatedMemorySupported(),
+                "the JVM does not count the bytes allocated per thread");
+        if (!allocations.isThreadAllocatedMemoryEnabled()) {
+            allocations.setThreadAllocatedMemoryEnabled(true);
+        }
+        return allocations;
+    }
+}
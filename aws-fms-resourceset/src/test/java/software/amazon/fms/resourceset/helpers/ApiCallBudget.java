@@ -0,0 +1,87 @@
+package software.amazon.fms.resourceset.helpers;
+
+import org.mockito.Mockito;
+import org.mockito.invocation.Invocation;
+import software.amazon.awssdk.awscore.AwsRequest;
+import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Maximum number of FMS API calls a handler path may make, asserted against the calls recorded by a mocked proxy.
+ * Operations that are not allowed by the budget may not be called at all, so a handler change that adds a call to a
+ * path fails the tests of that path.
+ */
+public class ApiCallBudget {
+
+    private final Map<String, Integer> maxCalls = new TreeMap<>();
+    private int maxTotalCalls = Integer.MAX_VALUE;
+
+    /**
+     * Start an empty budget, allowing no calls.
+     * @return The budget.
+     */
+    public static ApiCallBudget budget() {
+
+        return new ApiCallBudget();
+    }
+
+    /**
+     * Allow calls to an FMS operation.
+     * @param operation FMS operation, e.g. GetResourceSet.
+     * @param calls Maximum number of calls to the operation.
+     * @return This budget.
+     */
+    public ApiCallBudget allow(final String operation, final int calls) {
+
+        maxCalls.put(operation, calls);
+        return this;
+    }
+
+    /**
+     * Cap the number of calls across every operation.
+     * @param calls Maximum number of calls.
+     * @return This budget.
+     */
+    public ApiCallBudget total(final int calls) {
+
+        maxTotalCalls = calls;
+        return this;
+    }
+
+    /**
+     * Assert the calls made through a mocked proxy are within the budget.
+     * @param proxy Mocked AWS proxy the handler made its requests with.
+     */
+    public void assertWithin(final AmazonWebServicesClientProxy proxy) {
+
+        final Map<String, Long> calls = countCalls(proxy);
+        assertThat(maxCalls).as("operations allowed by the budget").containsKeys(calls.keySet().toArray(new String[0]));
+        calls.forEach((operation, count) ->
+                assertThat(count).as("calls to %s", operation).isLessThanOrEqualTo(maxCalls.get(operation)));
+        assertThat(calls.values().stream().mapToLong(Long::longValue).sum())
+                .as("total calls %s", calls)
+                .isLessThanOrEqualTo(maxTotalCalls);
+    }
+
+    /**
+     * Count the FMS API calls made through a mocked proxy, synchronous and asynchronous, per operation.
+     * @param proxy Mocked AWS proxy.
+     * @return Calls per FMS operation.
+     */
+    public static Map<String, Long> countCalls(final AmazonWebServicesClientProxy proxy) {
+
+        final Map<String, Long> calls = new TreeMap<>();
+        for (final Invocation invocation : Mockito.mockingDetails(proxy).getInvocations()) {
+            final Object request = invocation.getArguments().length > 0 ? invocation.getArgument(0) : null;
+            if (invocation.getMethod().getName().startsWith("injectCredentialsAndInvokeV2")
+                    && request instanceof AwsRequest) {
+                calls.merge(FmsApiInvoker.operationName((AwsRequest) request), 1L, Long::sum);
+            }
+        }
+        return calls;
+    }
+}
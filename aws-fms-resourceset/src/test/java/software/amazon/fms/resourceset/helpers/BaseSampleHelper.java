@@ -4,7 +4,7 @@ public class BaseSampleHelper {
     public final static String sampleAccountId = "000000000000";
     public final static String sampleFailedReason = "sampleFailedReason";
     public final static String sampleResourceSetDescription = "Description";
-    public final static String sampleResourceSetId = "00000000-0000-0000-0000-000000000000";
+    public final static String sampleResourceSetId = "0000000000000000000000";
     public final static String sampleResourceUri = "0123456789";
     public final static String sampleResourceUri2 = "9876543210";
     public final static String sampleResourceSetName = "TEST";
@@ -13,5 +13,5 @@ public class BaseSampleHelper {
     public final static String sampleTagKey = "key";
     public final static String sampleTagValue = "value";
     public final static String sampleResourceTypeListElement = "AWS::NetworkFirewall::Firewall";
-    public final static String sampleResourceSetArn = "arn:aws:fms:us-east-1:000000000000:resourceSet/00000000-0000-0000-0000-000000000000";
+    public final static String sampleResourceSetArn = "arn:aws:fms:us-east-1:000000000000:resourceSet/0000000000000000000000";
 }
@@ -0,0 +1,384 @@
+package software.amazon.fms.resourceset.helpers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
+import software.amazon.awssdk.core.exception.ApiCallTimeoutException;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.services.fms.FmsClient;
+import software.amazon.awssdk.services.fms.model.FmsException;
+import software.amazon.awssdk.services.fms.model.GetResourceSetRequest;
+import software.amazon.awssdk.services.fms.model.GetResourceSetResponse;
+import software.amazon.awssdk.services.fms.model.InternalErrorException;
+import software.amazon.awssdk.services.fms.model.PutResourceSetRequest;
+import software.amazon.cloudformation.exceptions.CfnThrottlingException;
+import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.Logger;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class FmsApiInvokerTest {
+
+    @Mock
+    private AmazonWebServicesClientProxy proxy;
+
+    @Mock
+    private FmsClient client;
+
+    @Mock
+    private Logger logger;
+
+    private HandlerMetrics metrics;
+
+    private Tracer tracer;
+
+    private FmsApiInvoker invoker;
+
+    @BeforeEach
+    void setup() {
+
+        metrics = new HandlerMetrics("AWS::FMS::ResourceSet", "Read");
+        tracer = new Tracer("AWS::FMS::ResourceSet", "Read");
+        invoker = new FmsApiInvoker(
+                proxy, logger, metrics, tracer, Duration.ofSeconds(5), Duration.ofMillis(1), Duration.ofMillis(2));
+    }
+
+    @Test
+    void invokeReturnsResponse() {
+
+        // stub the response for the read request
+        final GetResourceSetResponse getResourceSetResponse = FmsSampleHelper.sampleGetResourceSetRequiredParametersResponse();
+        doReturn(getResourceSetResponse)
+                .when(proxy)
+                .injectCredentialsAndInvokeV2(
+                        ArgumentMatchers.isA(GetResourceSetRequest.class),
+                        ArgumentMatchers.any()
+                );
+
+        // assertions
+        assertThat(invoker.invoke(FmsSampleHelper.sampleGetResourceSetRequest(), client::getResourceSet))
+                .isEqualTo(getResourceSetResponse);
+    }
+
+    @Test
+    void invokeRetriesThrottledRequest() throws IOException {
+
+        // throttle the first two read requests
+        final GetResourceSetResponse getResourceSetResponse = FmsSampleHelper.sampleGetResourceSetRequiredParametersResponse();
+        doThrow(sampleThrottlingException(), sampleThrottlingException())
+                .doReturn(getResourceSetResponse)
+                .when(proxy)
+                .injectCredentialsAndInvokeV2(
+                        ArgumentMatchers.isA(GetResourceSetRequest.class),
+                        ArgumentMatchers.any()
+                );
+
+        // assertions
+        assertThat(invoker.invoke(FmsSampleHelper.sampleGetResourceSetRequest(), client::getResourceSet))
+                .isEqualTo(getResourceSetResponse);
+        verify(proxy, times(3)).injectCredentialsAndInvokeV2(
+                ArgumentMatchers.isA(GetResourceSetRequest.class),
+                ArgumentMatchers.any()
+        );
+
+        // the retries are recorded in the metrics of the invocation
+        final JsonNode document = new ObjectMapper().readTree(metrics.toEmfDocuments("FMS", 0L).get(0));
+        assertThat(document.get("Operation").asText()).isEqualTo("GetResourceSet");
+        assertThat(document.get("Calls").asLong()).isEqualTo(3);
+        assertThat(document.get("Retries").asLong()).isEqualTo(2);
+        assertThat(document.get("Throttles").asLong()).isEqualTo(2);
+        assertThat(document.get("Failures").asLong()).isEqualTo(0);
+    }
+
+    @Test
+    void invokeRetriesTransientNetworkFailure() {
+
+        // fail the first read request on the network
+        final GetResourceSetResponse getResourceSetResponse = FmsSampleHelper.sampleGetResourceSetRequiredParametersResponse();
+        doThrow(SdkClientException.builder().cause(new IOException("Connection reset")).build())
+                .doReturn(getResourceSetResponse)
+                .when(proxy)
+                .injectCredentialsAndInvokeV2(
+                        ArgumentMatchers.isA(GetResourceSetRequest.class),
+                        ArgumentMatchers.any()
+                );
+
+        // assertions
+        assertThat(invoker.invoke(FmsSampleHelper.sampleGetResourceSetRequest(), client::getResourceSet))
+                .isEqualTo(getResourceSetResponse);
+        verify(proxy, times(2)).injectCredentialsAndInvokeV2(
+                ArgumentMatchers.isA(GetResourceSetRequest.class),
+                ArgumentMatchers.any()
+        );
+    }
+
+    @Test
+    void invokeDoesNotRetryServiceError() {
+
+        // mock an InternalErrorException from the FMS API
+        doThrow(InternalErrorException.builder().build())
+                .when(proxy)
+                .injectCredentialsAndInvokeV2(
+                        ArgumentMatchers.isA(GetResourceSetRequest.class),
+                        ArgumentMatchers.any()
+                );
+
+        // assertions
+        assertThrows(InternalErrorException.class,
+                () -> invoker.invoke(FmsSampleHelper.sampleGetResourceSetRequest(), client::getResourceSet));
+        verify(proxy, times(1)).injectCredentialsAndInvokeV2(
+                ArgumentMatchers.isA(GetResourceSetRequest.class),
+                ArgumentMatchers.any()
+        );
+    }
+
+    @Test
+    void invokeThrowsThrottlingWhenRetryBudgetRunsOut() {
+
+        // throttle every read request
+        doThrow(sampleThrottlingException())
+                .when(proxy)
+                .injectCredentialsAndInvokeV2(
+                        ArgumentMatchers.isA(GetResourceSetRequest.class),
+                        ArgumentMatchers.any()
+                );
+        final FmsApiInvoker shortBudgetInvoker = new FmsApiInvoker(
+                proxy, logger, metrics, tracer, Duration.ofMillis(20), Duration.ofMillis(5), Duration.ofMillis(10));
+
+        // assertions
+        final CfnThrottlingException e = assertThrows(CfnThrottlingException.class,
+                () -> shortBudgetInvoker.invoke(FmsSampleHelper.sampleGetResourceSetRequest(), client::getResourceSet));
+        assertThat(e.getCause()).isInstanceOf(FmsException.class);
+    }
+
+    @Test
+    void invokeStopsWhenTimeBudgetIsNearlySpent() {
+
+        final FmsApiInvoker nearlySpentInvoker = new FmsApiInvoker(
+                proxy, logger, metrics, tracer, Duration.ofSeconds(5), Duration.ofMillis(1), Duration.ofMillis(2),
+                new TimeBudget(new AtomicLong()::get, Duration.ofSeconds(1), Duration.ofSeconds(1)));
+
+        // assertions
+        assertThrows(TimeBudget.ExhaustedException.class,
+                () -> nearlySpentInvoker.invoke(FmsSampleHelper.sampleGetResourceSetRequest(), client::getResourceSet));
+        verifyNoInteractions(proxy);
+    }
+
+    @Test
+    void invokeStopsRetryingWhenTimeBudgetRunsOut() {
+
+        // throttle every read request, each taking 100 ms of the invocation time
+        final AtomicLong clock = new AtomicLong();
+        doAnswer(invocation -> {
+            clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+            throw sampleThrottlingException();
+        })
+                .when(proxy)
+                .injectCredentialsAndInvokeV2(
+                        ArgumentMatchers.isA(GetResourceSetRequest.class),
+                        ArgumentMatchers.any()
+                );
+        final FmsApiInvoker shortTimeBudgetInvoker = new FmsApiInvoker(
+                proxy, logger, metrics, tracer, Duration.ofSeconds(5), Duration.ofMillis(5), Duration.ofMillis(10),
+                new TimeBudget(clock::get, Duration.ofMillis(400), Duration.ofMillis(200)));
+
+        // assertions
+        assertThrows(TimeBudget.ExhaustedException.class, () -> shortTimeBudgetInvoker.invoke(
+                FmsSampleHelper.sampleGetResourceSetRequest(), client::getResourceSet));
+        assertThat(clock.get()).isLessThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(400));
+    }
+
+    @Test
+    void invokeStopsWhenRequestRunsOutOfTimeBudget() {
+
+        // time out the read request, its timeout being the time left in the budget
+        doThrow(ApiCallTimeoutException.create(TimeUnit.SECONDS.toMillis(50)))
+                .when(proxy)
+                .injectCredentialsAndInvokeV2(
+                        ArgumentMatchers.isA(GetResourceSetRequest.class),
+                        ArgumentMatchers.any()
+                );
+        final FmsApiInvoker limitedInvoker = new FmsApiInvoker(
+                proxy, logger, metrics, tracer, Duration.ofSeconds(5), Duration.ofMillis(1), Duration.ofMillis(2),
+                new TimeBudget(new AtomicLong()::get, Duration.ofSeconds(60), Duration.ofSeconds(10)));
+
+        // assertions
+        final TimeBudget.ExhaustedException e = assertThrows(TimeBudget.ExhaustedException.class,
+                () -> limitedInvoker.invoke(FmsSampleHelper.sampleGetResourceSetRequest(), client::getResourceSet));
+        assertThat(e.getMessage()).contains("GetResourceSet");
+        assertThat(e.getCause()).isInstanceOf(ApiCallTimeoutException.class);
+        verify(proxy, times(1)).injectCredentialsAndInvokeV2(
+                ArgumentMatchers.isA(GetResourceSetRequest.class),
+                ArgumentMatchers.any()
+        );
+    }
+
+    @Test
+    void invokeFailsWhenWriteRunsOutOfTimeBudget() {
+
+        // time out the create request, which FMS may have applied
+        doThrow(ApiCallTimeoutException.create(TimeUnit.SECONDS.toMillis(50)))
+                .when(proxy)
+                .injectCredentialsAndInvokeV2(
+                        ArgumentMatchers.isA(PutResourceSetRequest.class),
+                        ArgumentMatchers.any()
+                );
+        final FmsApiInvoker limitedInvoker = new FmsApiInvoker(
+                proxy, logger, metrics, tracer, Duration.ofSeconds(5), Duration.ofMillis(1), Duration.ofMillis(2),
+                new TimeBudget(new AtomicLong()::get, Duration.ofSeconds(60), Duration.ofSeconds(10)));
+
+        // assertions, the write is neither retried nor left to be resumed
+        assertThrows(ApiCallTimeoutException.class, () -> limitedInvoker.invoke(
+                FmsSampleHelper.samplePutResourceSetRequiredParametersRequest(false, false, false),
+                client::putResourceSet));
+        verify(proxy, times(1)).injectCredentialsAndInvokeV2(
+                ArgumentMatchers.isA(PutResourceSetRequest.class),
+                ArgumentMatchers.any()
+        );
+    }
+
+    @Test
+    void withTimeoutKeepsOverrideConfiguration() {
+
+        final GetResourceSetRequest request = FmsSampleHelper.sampleGetResourceSetRequest().toBuilder()
+                .overrideConfiguration(configuration -> configuration.putHeader("header", "value"))
+                .build();
+        final GetResourceSetRequest requestWithTimeout = FmsApiInvoker.withTimeout(request, Duration.ofSeconds(3));
+
+        // assertions
+        assertThat(requestWithTimeout.overrideConfiguration()).hasValueSatisfying(configuration -> {
+            assertThat(configuration.apiCallTimeout()).hasValue(Duration.ofSeconds(3));
+            assertThat(configuration.headers()).containsEntry("header", Collections.singletonList("value"));
+        });
+        assertThat(requestWithTimeout.identifier()).isEqualTo(request.identifier());
+    }
+
+    @Test
+    void invokeHedgesSlowRead() throws IOException, InterruptedException {
+
+        // stall the first read request until the end of the test, its hedge responds immediately
+        final CountDownLatch stalled = new CountDownLatch(1);
+        final GetResourceSetResponse getResourceSetResponse =
+                FmsSampleHelper.sampleGetResourceSetRequiredParametersResponse();
+        doAnswer(invocation -> {
+            stalled.await();
+            return getResourceSetResponse;
+        })
+                .doReturn(getResourceSetResponse)
+                .when(proxy)
+                .injectCredentialsAndInvokeV2(
+                        ArgumentMatchers.isA(GetResourceSetRequest.class),
+                        ArgumentMatchers.any()
+                );
+        final FmsApiInvoker hedgingInvoker = new FmsApiInvoker(proxy, logger, metrics, tracer,
+                Duration.ofSeconds(5), Duration.ofMillis(1), Duration.ofMillis(2), TimeBudget.unlimited(),
+                warmHedgingPolicy(1));
+
+        // assertions
+        try {
+            assertThat(hedgingInvoker.invoke(FmsSampleHelper.sampleGetResourceSetRequest(), client::getResourceSet))
+                    .isEqualTo(getResourceSetResponse);
+        } finally {
+            stalled.countDown();
+        }
+        verify(proxy, times(2)).injectCredentialsAndInvokeV2(
+                ArgumentMatchers.isA(GetResourceSetRequest.class),
+                ArgumentMatchers.any()
+        );
+
+        // the hedge and its win are recorded in the metrics of the invocation
+        final JsonNode document = new ObjectMapper().readTree(metrics.toEmfDocuments("FMS", 0L).get(0));
+        assertThat(document.get("Calls").asLong()).isEqualTo(1);
+        assertThat(document.get("Hedges").asLong()).isEqualTo(1);
+        assertThat(document.get("HedgeWins").asLong()).isEqualTo(1);
+    }
+
+    @Test
+    void invokeDoesNotHedgeBeyondMaxRatio() throws IOException {
+
+        // slow down the read request past the hedging delay
+        final GetResourceSetResponse getResourceSetResponse =
+                FmsSampleHelper.sampleGetResourceSetRequiredParametersResponse();
+        doAnswer(invocation -> {
+            Thread.sleep(100);
+            return getResourceSetResponse;
+        })
+                .when(proxy)
+                .injectCredentialsAndInvokeV2(
+                        ArgumentMatchers.isA(GetResourceSetRequest.class),
+                        ArgumentMatchers.any()
+                );
+        final FmsApiInvoker hedgingInvoker = new FmsApiInvoker(proxy, logger, metrics, tracer,
+                Duration.ofSeconds(5), Duration.ofMillis(1), Duration.ofMillis(2), TimeBudget.unlimited(),
+                warmHedgingPolicy(0));
+
+        // assertions
+        assertThat(hedgingInvoker.invoke(FmsSampleHelper.sampleGetResourceSetRequest(), client::getResourceSet))
+                .isEqualTo(getResourceSetResponse);
+        verify(proxy, times(1)).injectCredentialsAndInvokeV2(
+                ArgumentMatchers.isA(GetResourceSetRequest.class),
+                ArgumentMatchers.any()
+        );
+        final JsonNode document = new ObjectMapper().readTree(metrics.toEmfDocuments("FMS", 0L).get(0));
+        assertThat(document.get("Hedges").asLong()).isEqualTo(0);
+    }
+
+    @Test
+    void operationName() {
+
+        // assertions
+        assertThat(FmsApiInvoker.operationName(FmsSampleHelper.sampleGetResourceSetRequest())).isEqualTo("GetResourceSet");
+    }
+
+    @Test
+    void retryBudgetFromEnvironment() {
+
+        // assertions
+        assertThat(FmsApiInvoker.retryBudgetFromEnvironment(Collections.emptyMap()))
+                .isEqualTo(Duration.ofSeconds(30));
+        assertThat(FmsApiInvoker.retryBudgetFromEnvironment(
+                Collections.singletonMap(FmsApiInvoker.RETRY_BUDGET_ENV, "1500")))
+                .isEqualTo(Duration.ofMillis(1500));
+    }
+
+    /**
+     * Create a hedging policy that has recorded enough latencies of 50 ms to hedge reads after 50 ms.
+     */
+    private static HedgingPolicy warmHedgingPolicy(final double maxRatio) {
+
+        final HedgingPolicy hedging = new HedgingPolicy(50, maxRatio);
+        for (int i = 0; i < HedgingPolicy.MIN_SAMPLES; i++) {
+            hedging.recordLatency("GetResourceSet", TimeUnit.MILLISECONDS.toNanos(50));
+        }
+        return hedging;
+    }
+
+    private static FmsException sampleThrottlingException() {
+
+        return FmsException.builder()
+                .awsErrorDetails(AwsErrorDetails.builder().errorCode("ThrottlingException").build())
+                .statusCode(400)
+                .build();
+    }
+}
@@ -0,0 +1,96 @@
+package software.amazon.fms.resourceset.helpers;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HedgingPolicyTest {
+
+    @Test
+    void hedgingIsDisabledUnlessConfigured() {
+
+        final HedgingPolicy hedging = HedgingPolicy.fromEnvironment(Collections.emptyMap());
+        for (int i = 0; i < HedgingPolicy.MIN_SAMPLES; i++) {
+            hedging.recordLatency("GetResourceSet", TimeUnit.MILLISECONDS.toNanos(10));
+        }
+
+        // assertions
+        assertThat(hedging.appliesTo("GetResourceSet")).isFalse();
+        assertThat(hedging.startRequest("GetResourceSet")).isNegative();
+    }
+
+    @Test
+    void onlyReadsAreHedged() {
+
+        final Map<String, String> environment = new HashMap<>();
+        environment.put(HedgingPolicy.PERCENTILE_ENV, "95");
+        final HedgingPolicy hedging = HedgingPolicy.fromEnvironment(environment);
+
+        // assertions
+        assertThat(hedging.appliesTo("GetResourceSet")).isTrue();
+        assertThat(hedging.appliesTo("ListTagsForResource")).isTrue();
+        assertThat(hedging.appliesTo("PutResourceSet")).isFalse();
+        assertThat(hedging.startRequest("PutResourceSet")).isNegative();
+    }
+
+    @Test
+    void hedgeDelayIsLatencyPercentileOnceEnoughAreRecorded() {
+
+        final HedgingPolicy hedging = new HedgingPolicy(90, 1);
+        for (int i = 1; i < HedgingPolicy.MIN_SAMPLES; i++) {
+            hedging.recordLatency("GetResourceSet", TimeUnit.MILLISECONDS.toNanos(10));
+        }
+
+        // assertions
+        assertThat(hedging.startRequest("GetResourceSet")).isNegative();
+        hedging.recordLatency("GetResourceSet", TimeUnit.MILLISECONDS.toNanos(10));
+        assertThat(hedging.startRequest("GetResourceSet")).isEqualTo(TimeUnit.MILLISECONDS.toNanos(10));
+    }
+
+    @Test
+    void hedgesAreCappedToMaxRatio() {
+
+        final Map<String, String> environment = new HashMap<>();
+        environment.put(HedgingPolicy.PERCENTILE_ENV, "95");
+        environment.put(HedgingPolicy.MAX_RATIO_ENV, "0.25");
+        final HedgingPolicy hedging = HedgingPolicy.fromEnvironment(environment);
+        for (int i = 0; i < 3; i++) {
+            hedging.startRequest("GetResourceSet");
+        }
+
+        // assertions
+        assertThat(hedging.tryHedge()).isFalse();
+        hedging.startRequest("GetResourceSet");
+        assertThat(hedging.tryHedge()).isTrue();
+        assertThat(hedging.tryHedge()).isFalse();
+    }
+
+    @Test
+    void invalidSettingsFallBackToDefaults() {
+
+        final Map<String, String> environment = new HashMap<>();
+
+        // assertions, a percentile out of bounds or not a number leaves hedging disabled
+        for (final String percentile : new String[] {"0", "100", "-5", "NaN", "p95"}) {
+            environment.put(HedgingPolicy.PERCENTILE_ENV, percentile);
+            assertThat(HedgingPolicy.fromEnvironment(environment).appliesTo("GetResourceSet")).as("%s", percentile).isFalse();
+        }
+
+        // assertions, the settings are trimmed and a ratio out of bounds is left at its default
+        environment.put(HedgingPolicy.PERCENTILE_ENV, " 95 ");
+        environment.put(HedgingPolicy.MAX_RATIO_ENV, " 1 ");
+        final HedgingPolicy trimmed = HedgingPolicy.fromEnvironment(environment);
+        trimmed.startRequest("GetResourceSet");
+        assertThat(trimmed.appliesTo("GetResourceSet")).isTrue();
+        assertThat(trimmed.tryHedge()).isTrue();
+        environment.put(HedgingPolicy.MAX_RATIO_ENV, "2");
+        final HedgingPolicy defaultRatio = HedgingPolicy.fromEnvironment(environment);
+        defaultRatio.startRequest("GetResourceSet");
+        assertThat(defaultRatio.tryHedge()).isFalse();
+    }
+}
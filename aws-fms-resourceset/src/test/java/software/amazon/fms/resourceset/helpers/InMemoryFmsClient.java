@@ -0,0 +1,510 @@
+package software.amazon.fms.resourceset.helpers;
+
+import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
+import software.amazon.awssdk.core.exception.AbortedException;
+import software.amazon.awssdk.services.fms.FmsClient;
+import software.amazon.awssdk.services.fms.model.BatchAssociateResourceRequest;
+import software.amazon.awssdk.services.fms.model.BatchAssociateResourceResponse;
+import software.amazon.awssdk.services.fms.model.BatchDisassociateResourceRequest;
+import software.amazon.awssdk.services.fms.model.BatchDisassociateResourceResponse;
+import software.amazon.awssdk.services.fms.model.DeleteResourceSetRequest;
+import software.amazon.awssdk.services.fms.model.DeleteResourceSetResponse;
+import software.amazon.awssdk.services.fms.model.FailedItem;
+import software.amazon.awssdk.services.fms.model.FailedItemReason;
+import software.amazon.awssdk.services.fms.model.FmsException;
+import software.amazon.awssdk.services.fms.model.GetResourceSetRequest;
+import software.amazon.awssdk.services.fms.model.GetResourceSetResponse;
+import software.amazon.awssdk.services.fms.model.InvalidOperationException;
+import software.amazon.awssdk.services.fms.model.ListResourceSetResourcesRequest;
+import software.amazon.awssdk.services.fms.model.ListResourceSetResourcesResponse;
+import software.amazon.awssdk.services.fms.model.ListResourceSetsRequest;
+import software.amazon.awssdk.services.fms.model.ListResourceSetsResponse;
+import software.amazon.awssdk.services.fms.model.ListTagsForResourceRequest;
+import software.amazon.awssdk.services.fms.model.ListTagsForResourceResponse;
+import software.amazon.awssdk.services.fms.model.PutResourceSetRequest;
+import software.amazon.awssdk.services.fms.model.PutResourceSetResponse;
+import software.amazon.awssdk.services.fms.model.Resource;
+import software.amazon.awssdk.services.fms.model.ResourceNotFoundException;
+import software.amazon.awssdk.services.fms.model.ResourceSet;
+import software.amazon.awssdk.services.fms.model.ResourceSetSummary;
+import software.amazon.awssdk.services.fms.model.Tag;
+import software.amazon.awssdk.services.fms.model.TagResourceRequest;
+import software.amazon.awssdk.services.fms.model.TagResourceResponse;
+import software.amazon.awssdk.services.fms.model.UntagResourceRequest;
+import software.amazon.awssdk.services.fms.model.UntagResourceResponse;
+import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.Credentials;
+import software.amazon.cloudformation.proxy.LoggerProxy;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Stateful in-memory stand-in for the FMS resource set and tagging APIs, to run the real handlers through multi-call
+ * flows offline, including paginated resource listings and batched associations at scale. Every call can be delayed
+ * by a latency distribution and throttled at a configurable rate, and a fraction of the items of batch requests can be
+ * reported as failed, all drawn from a seeded random source so that runs are repeatable. The stand-in is thread safe,
+ * the latency of concurrent calls overlaps as it would against the service.
+ */
+public class InMemoryFmsClient implements FmsClient {
+
+    public static final String PARTITION = "aws";
+    public static final String REGION = "us-east-1";
+    public static final String ACCOUNT_ID = "000000000000";
+
+    private final LongSupplier latencyMillis;
+    private final double throttleRate;
+    private final double failedItemRate;
+    private final int pageSize;
+    private final Random random;
+
+    private final Map<String, ResourceSet> resourceSets = new TreeMap<>();
+    private final Map<String, TreeSet<String>> resources = new TreeMap<>();
+    private final Map<String, Map<String, String>> tags = new TreeMap<>();
+    private final Map<String, Long> callCounts = new ConcurrentSkipListMap<>();
+
+    private InMemoryFmsClient(final Builder builder) {
+
+        this.random = new Random(builder.seed);
+        this.latencyMillis = builder.latencyMillis == null ? () -> 0 : builder.latencyMillis.apply(random);
+        this.throttleRate = builder.throttleRate;
+        this.failedItemRate = builder.failedItemRate;
+        this.pageSize = builder.pageSize;
+    }
+
+    public static Builder builder() {
+
+        return new Builder();
+    }
+
+    /**
+     * Create a CloudFormation proxy that makes the requests of the handlers against a stand-in, the way the proxy
+     * given to the handlers in Lambda does.
+     * @return The proxy.
+     */
+    public static AmazonWebServicesClientProxy newProxy() {
+
+        return new AmazonWebServicesClientProxy(
+                new LoggerProxy(),
+                new Credentials("accessKeyId", "secretAccessKey", "sessionToken"),
+                () -> Long.MAX_VALUE);
+    }
+
+    /**
+     * Get the number of calls made to each FMS operation, throttled calls included.
+     * @return Calls per FMS operation, sorted by operation.
+     */
+    public Map<String, Long> getCallCounts() {
+
+        return new TreeMap<>(callCounts);
+    }
+
+    /**
+     * Get the resource sets currently stored, keyed by resource set ID.
+     * @return The stored resource sets.
+     */
+    public synchronized Map<String, ResourceSet> getResourceSets() {
+
+        return new TreeMap<>(resourceSets);
+    }
+
+    /**
+     * Get the resources currently associated with a resource set.
+     * @param resourceSetId Resource set ID.
+     * @return The associated resource URIs, sorted.
+     */
+    public synchronized TreeSet<String> getResources(final String resourceSetId) {
+
+        return new TreeSet<>(resources.getOrDefault(resourceSetId, new TreeSet<>()));
+    }
+
+    @Override
+    public String serviceName() {
+
+        return SERVICE_NAME;
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public PutResourceSetResponse putResourceSet(final PutResourceSetRequest request) {
+
+        return call("PutResourceSet", () -> {
+            final ResourceSet resourceSet = request.resourceSet();
+            final String resourceSetId;
+            final long updateToken;
+            if (resourceSet.id() == null) {
+                // resource set IDs are 22 base62 characters
+                resourceSetId = UUID.randomUUID().toString().replace("-", "").substring(0, 22);
+                updateToken = 1;
+            } else {
+                final ResourceSet current = resourceSets.get(resourceSet.id());
+                if (current == null) {
+                    throw notFound("Resource set " + resourceSet.id());
+                }
+                if (!current.updateToken().equals(resourceSet.updateToken())) {
+                    throw InvalidOperationException.builder()
+                            .message("The resource set update token is out of date")
+                            .awsErrorDetails(errorDetails("InvalidOperationException"))
+                            .statusCode(400)
+                            .build();
+                }
+                resourceSetId = resourceSet.id();
+                updateToken = Long.parseLong(current.updateToken()) + 1;
+            }
+
+            final ResourceSet stored = resourceSet.toBuilder()
+                    .id(resourceSetId)
+                    .updateToken(String.valueOf(updateToken))
+                    .build();
+            resourceSets.put(resourceSetId, stored);
+            final String resourceSetArn = resourceSetArn(resourceSetId);
+            if (updateToken == 1) {
+                resources.put(resourceSetId, new TreeSet<>());
+                tags.put(resourceSetArn, new TreeMap<>());
+            }
+            if (request.hasTagList()) {
+                request.tagList().forEach(tag -> tags.get(resourceSetArn).put(tag.key(), tag.value()));
+            }
+            return PutResourceSetResponse.builder().resourceSet(stored).resourceSetArn(resourceSetArn).build();
+        });
+    }
+
+    @Override
+    public GetResourceSetResponse getResourceSet(final GetResourceSetRequest request) {
+
+        return call("GetResourceSet", () -> GetResourceSetResponse.builder()
+                .resourceSet(resourceSetOf(request.identifier()))
+                .resourceSetArn(resourceSetArn(request.identifier()))
+                .build());
+    }
+
+    @Override
+    public DeleteResourceSetResponse deleteResourceSet(final DeleteResourceSetRequest request) {
+
+        return call("DeleteResourceSet", () -> {
+            if (resourceSets.remove(request.identifier()) == null) {
+                throw notFound("Resource set " + request.identifier());
+            }
+            resources.remove(request.identifier());
+            tags.remove(resourceSetArn(request.identifier()));
+            return DeleteResourceSetResponse.builder().build();
+        });
+    }
+
+    @Override
+    public ListResourceSetsResponse listResourceSets(final ListResourceSetsRequest request) {
+
+        return call("ListResourceSets", () -> {
+            final List<ResourceSet> all = new ArrayList<>(resourceSets.values());
+            final int from = request.nextToken() == null ? 0 : Integer.parseInt(request.nextToken());
+            final int to = Math.min(all.size(), from + pageSize(request.maxResults()));
+            return ListResourceSetsResponse.builder()
+                    .resourceSets(all.subList(from, to).stream()
+                            .map(resourceSet -> ResourceSetSummary.builder()
+                                    .id(resourceSet.id())
+                                    .name(resourceSet.name())
+                                    .description(resourceSet.description())
+                                    .build())
+                            .collect(Collectors.toList()))
+                    .nextToken(to < all.size() ? String.valueOf(to) : null)
+                    .build();
+        });
+    }
+
+    @Override
+    public ListResourceSetResourcesResponse listResourceSetResources(final ListResourceSetResourcesRequest request) {
+
+        return call("ListResourceSetResources", () -> {
+            resourceSetOf(request.identifier());
+            final TreeSet<String> associated = resources.get(request.identifier());
+
+            // page through the sorted URIs, the next token being the last URI of the page
+            final List<Resource> page = new ArrayList<>();
+            final int limit = pageSize(request.maxResults());
+            for (final String uri : request.nextToken() == null
+                    ? associated
+                    : associated.tailSet(request.nextToken(), false)) {
+                if (page.size() == limit) {
+                    break;
+                }
+                page.add(Resource.builder().uri(uri).accountId(ACCOUNT_ID).build());
+            }
+            final String lastUri = page.isEmpty() ? null : page.get(page.size() - 1).uri();
+            return ListResourceSetResourcesResponse.builder()
+                    .items(page)
+                    .nextToken(lastUri != null && associated.higher(lastUri) != null ? lastUri : null)
+                    .build();
+        });
+    }
+
+    @Override
+    public BatchAssociateResourceResponse batchAssociateResource(final BatchAssociateResourceRequest request) {
+
+        return call("BatchAssociateResource", () -> {
+            resourceSetOf(request.resourceSetIdentifier());
+            final List<FailedItem> failedItems = new ArrayList<>();
+            for (final String uri : request.items()) {
+                if (itemFails()) {
+                    failedItems.add(FailedItem.builder().uri(uri).reason(FailedItemReason.NOT_VALID_ARN).build());
+                } else {
+                    resources.get(request.resourceSetIdentifier()).add(uri);
+                }
+            }
+            return BatchAssociateResourceResponse.builder()
+                    .resourceSetIdentifier(request.resourceSetIdentifier())
+                    .failedItems(failedItems)
+                    .build();
+        });
+    }
+
+    @Override
+    public BatchDisassociateResourceResponse batchDisassociateResource(
+            final BatchDisassociateResourceRequest request) {
+
+        return call("BatchDisassociateResource", () -> {
+            resourceSetOf(request.resourceSetIdentifier());
+            final List<FailedItem> failedItems = new ArrayList<>();
+            for (final String uri : request.items()) {
+                if (itemFails()) {
+                    failedItems.add(FailedItem.builder().uri(uri).reason(FailedItemReason.NOT_VALID_ARN).build());
+                } else {
+                    resources.get(request.resourceSetIdentifier()).remove(uri);
+                }
+            }
+            return BatchDisassociateResourceResponse.builder()
+                    .resourceSetIdentifier(request.resourceSetIdentifier())
+                    .failedItems(failedItems)
+                    .build();
+        });
+    }
+
+    @Override
+    public ListTagsForResourceResponse listTagsForResource(final ListTagsForResourceRequest request) {
+
+        return call("ListTagsForResource", () -> ListTagsForResourceResponse.builder()
+                .tagList(tagsOf(request.resourceArn()).entrySet().stream()
+                        .map(tag -> Tag.builder().key(tag.getKey()).value(tag.getValue()).build())
+                        .collect(Collectors.toList()))
+                .build());
+    }
+
+    @Override
+    public TagResourceResponse tagResource(final TagResourceRequest request) {
+
+        return call("TagResource", () -> {
+            final Map<String, String> resourceTags = tagsOf(request.resourceArn());
+            request.tagList().forEach(tag -> resourceTags.put(tag.key(), tag.value()));
+            return TagResourceResponse.builder().build();
+        });
+    }
+
+    @Override
+    public UntagResourceResponse untagResource(final UntagResourceRequest request) {
+
+        return call("UntagResource", () -> {
+            tagsOf(request.resourceArn()).keySet().removeAll(request.tagKeys());
+            return UntagResourceResponse.builder().build();
+        });
+    }
+
+    /**
+     * Make a call against the stand-in: wait for the latency of the call, throttle it or run it on the state.
+     * @param operation FMS operation.
+     * @param body Effect of the call on the state.
+     * @param <T> Type of the response.
+     * @return The response.
+     */
+    private <T> T call(final String operation, final Supplier<T> body) {
+
+        callCounts.merge(operation, 1L, Long::sum);
+        final long latency;
+        final boolean throttled;
+        synchronized (random) {
+            latency = latencyMillis.getAsLong();
+            throttled = random.nextDouble() < throttleRate;
+        }
+        sleep(latency);
+        if (throttled) {
+            throw FmsException.builder()
+                    .message("Rate exceeded")
+                    .awsErrorDetails(errorDetails("ThrottlingException"))
+                    .statusCode(400)
+                    .build();
+        }
+        synchronized (this) {
+            return body.get();
+        }
+    }
+
+    private ResourceSet resourceSetOf(final String resourceSetId) {
+
+        final ResourceSet resourceSet = resourceSets.get(resourceSetId);
+        if (resourceSet == null) {
+            throw notFound("Resource set " + resourceSetId);
+        }
+        return resourceSet;
+    }
+
+    private int pageSize(final Integer maxResults) {
+
+        return maxResults == null ? pageSize : Math.min(maxResults, pageSize);
+    }
+
+    private boolean itemFails() {
+
+        synchronized (random) {
+            return random.nextDouble() < failedItemRate;
+        }
+    }
+
+    private Map<String, String> tagsOf(final String resourceArn) {
+
+        final Map<String, String> resourceTags = tags.get(resourceArn);
+        if (resourceTags == null) {
+            throw notFound("Resource " + resourceArn);
+        }
+        return resourceTags;
+    }
+
+    private static String resourceSetArn(final String resourceSetId) {
+
+        return String.format("arn:%s:fms:%s:%s:resource-set/%s", PARTITION, REGION, ACCOUNT_ID, resourceSetId);
+    }
+
+    private static ResourceNotFoundException notFound(final String resource) {
+
+        return ResourceNotFoundException.builder()
+                .message(resource + " does not exist")
+                .awsErrorDetails(errorDetails("ResourceNotFoundException"))
+                .statusCode(400)
+                .build();
+    }
+
+    private static AwsErrorDetails errorDetails(final String errorCode) {
+
+        return AwsErrorDetails.builder().errorCode(errorCode).serviceName(SERVICE_NAME).build();
+    }
+
+    private static void sleep(final long millis) {
+
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw AbortedException.builder().message("Interrupted while waiting for the stand-in").cause(e).build();
+        }
+    }
+
+    public static class Builder {
+
+        private long seed = 0;
+        private Function<Random, LongSupplier> latencyMillis;
+        private double throttleRate = 0;
+        private double failedItemRate = 0;
+        private int pageSize = 100;
+
+        /**
+         * Seed the random source of the latencies and throttling.
+         * @param seed Seed of the random source.
+         * @return This builder.
+         */
+        public Builder seed(final long seed) {
+
+            this.seed = seed;
+            return this;
+        }
+
+        /**
+         * Delay every call by the same latency.
+         * @param latency Latency of the calls.
+         * @return This builder.
+         */
+        public Builder fixedLatency(final Duration latency) {
+
+            this.latencyMillis = random -> latency::toMillis;
+            return this;
+        }
+
+        /**
+         * Delay the calls by latencies drawn uniformly between two bounds.
+         * @param min Lower bound of the latencies.
+         * @param max Upper bound of the latencies.
+         * @return This builder.
+         */
+        public Builder uniformLatency(final Duration min, final Duration max) {
+
+            this.latencyMillis = random ->
+                    () -> min.toMillis() + (long) (random.nextDouble() * (max.toMillis() - min.toMillis()));
+            return this;
+        }
+
+        /**
+         * Delay the calls by log-normally distributed latencies, the long tail typical of service calls.
+         * @param median Median latency of the calls.
+         * @param sigma Standard deviation of the logarithm of the latencies, 0.5 gives a p99 around 3x the median.
+         * @return This builder.
+         */
+        public Builder logNormalLatency(final Duration median, final double sigma) {
+
+            this.latencyMillis = random ->
+                    () -> Math.round(median.toMillis() * Math.exp(sigma * random.nextGaussian()));
+            return this;
+        }
+
+        /**
+         * Throttle a fraction of the calls with a ThrottlingException.
+         * @param throttleRate Fraction of the calls throttled, between 0 and 1.
+         * @return This builder.
+         */
+        public Builder throttleRate(final double throttleRate) {
+
+            this.throttleRate = throttleRate;
+            return this;
+        }
+
+        /**
+         * Report a fraction of the items of batch associate and disassociate requests as failed.
+         * @param failedItemRate Fraction of the items failed, between 0 and 1.
+         * @return This builder.
+         */
+        public Builder failedItemRate(final double failedItemRate) {
+
+            this.failedItemRate = failedItemRate;
+            return this;
+        }
+
+        /**
+         * Set the maximum number of items of the pages of list requests.
+         * @param pageSize Maximum number of items per page.
+         * @return This builder.
+         */
+        public Builder pageSize(final int pageSize) {
+
+            this.pageSize = pageSize;
+            return this;
+        }
+
+        public InMemoryFmsClient build() {
+
+            return new InMemoryFmsClient(this);
+        }
+    }
+}
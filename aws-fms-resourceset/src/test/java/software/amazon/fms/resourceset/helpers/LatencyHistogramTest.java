@@ -0,0 +1,63 @@
+package software.amazon.fms.resourceset.helpers;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LatencyHistogramTest {
+
+    @Test
+    void emptyHistogram() {
+
+        final LatencyHistogram histogram = new LatencyHistogram();
+
+        // assertions
+        assertThat(histogram.getCount()).isEqualTo(0);
+        assertThat(histogram.getMaxMs()).isEqualTo(0);
+        assertThat(histogram.getPercentileMs(99)).isEqualTo(0);
+    }
+
+    @Test
+    void percentilesFromBuckets() {
+
+        final LatencyHistogram histogram = new LatencyHistogram();
+        IntStream.rangeClosed(1, 98).forEach(i -> histogram.record(15));
+        histogram.record(150);
+        histogram.record(40000);
+
+        // assertions
+        assertThat(histogram.getCount()).isEqualTo(100);
+        assertThat(histogram.getSumMs()).isEqualTo(98 * 15 + 150 + 40000);
+        assertThat(histogram.getMaxMs()).isEqualTo(40000);
+        assertThat(histogram.getPercentileMs(50)).isEqualTo(20);
+        assertThat(histogram.getPercentileMs(99)).isEqualTo(200);
+        assertThat(histogram.getPercentileMs(100)).isEqualTo(40000);
+    }
+
+    @Test
+    void percentileCappedByMax() {
+
+        final LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(3);
+
+        // assertions
+        assertThat(histogram.getPercentileMs(50)).isEqualTo(3);
+    }
+
+    @Test
+    void recordConcurrently() {
+
+        final LatencyHistogram histogram = new LatencyHistogram();
+        CompletableFuture.allOf(IntStream.range(0, 8)
+                .mapToObj(thread -> CompletableFuture.runAsync(() ->
+                        IntStream.range(0, 1000).forEach(i -> histogram.record(i % 100))))
+                .toArray(CompletableFuture[]::new)).join();
+
+        // assertions
+        assertThat(histogram.getCount()).isEqualTo(8000);
+        assertThat(histogram.getMaxMs()).isEqualTo(99);
+    }
+}
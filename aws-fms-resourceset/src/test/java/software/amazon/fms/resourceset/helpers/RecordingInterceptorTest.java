@@ -0,0 +1,151 @@
+package software.amazon.fms.resourceset.helpers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.fms.FmsClient;
+import software.amazon.awssdk.services.fms.model.ListResourceSetResourcesRequest;
+import software.amazon.awssdk.services.fms.model.ListResourceSetResourcesResponse;
+import software.amazon.awssdk.services.fms.model.ListResourceSetsRequest;
+import software.amazon.awssdk.services.fms.model.Resource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RecordingInterceptorTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void recordsEachInteraction() throws IOException {
+
+        final Path recording = tempDir.resolve("recording.jsonl");
+        try (LocalFmsEndpoint endpoint = LocalFmsEndpoint.start();
+             FmsClient client = FmsClient.builder()
+                     .region(Region.US_EAST_1)
+                     .endpointOverride(endpoint.getUri())
+                     .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("id", "key")))
+                     .httpClient(HttpTransportConfiguration.builder().build().buildHttpClient())
+                     .overrideConfiguration(configuration -> configuration
+                             .addExecutionInterceptor(new RecordingInterceptor(recording)))
+                     .build()) {
+            client.listResourceSets(request -> request.maxResults(10));
+            client.getResourceSet(request -> request.identifier("resource-set"));
+        }
+
+        final ObjectMapper mapper = new ObjectMapper();
+        final List<String> lines = Files.readAllLines(recording, StandardCharsets.UTF_8);
+        final JsonNode listResourceSets = mapper.readTree(lines.get(0));
+        final JsonNode getResourceSet = mapper.readTree(lines.get(1));
+
+        // assertions
+        assertThat(lines).hasSize(2);
+        assertThat(listResourceSets.get("operation").asText()).isEqualTo("ListResourceSets");
+        assertThat(mapper.readTree(listResourceSets.get("request").asText()).get("MaxResults").asInt()).isEqualTo(10);
+        assertThat(listResourceSets.get("status").asInt()).isEqualTo(200);
+        assertThat(listResourceSets.get("response").asText()).isEqualTo("{}");
+        assertThat(listResourceSets.get("latencyNanos").asLong()).isPositive();
+        assertThat(getResourceSet.get("operation").asText()).isEqualTo("GetResourceSet");
+        assertThat(mapper.readTree(getResourceSet.get("request").asText()).get("Identifier").asText())
+                .isEqualTo("resource-set");
+    }
+
+    @Test
+    void replayServesRecordedPagesInOrder() throws IOException {
+
+        final Path recording = record(
+                interaction("ListResourceSetResources", "{\"Items\":[{\"URI\":\"first\"}],\"NextToken\":\"next\"}", 0),
+                interaction("ListResourceSetResources", "{\"Items\":[{\"URI\":\"second\"}]}", 0));
+
+        try (FmsClient client = ReplayHttpClient.newClient(recording, false)) {
+            final List<String> uris = new ArrayList<>();
+            String nextToken = null;
+            do {
+                final ListResourceSetResourcesResponse page = client.listResourceSetResources(
+                        ListResourceSetResourcesRequest.builder()
+                                .identifier("resource-set")
+                                .nextToken(nextToken)
+                                .build());
+                page.items().stream().map(Resource::uri).forEach(uris::add);
+                nextToken = page.nextToken();
+            } while (nextToken != null);
+
+            // assertions
+            assertThat(uris).containsExactly("first", "second");
+        }
+    }
+
+    @Test
+    void replayPrefersResponseToSameRequest() throws IOException {
+
+        final Path recording = record(
+                interaction("GetResourceSet", "{\"Identifier\":\"first\"}",
+                        "{\"ResourceSet\":{\"Name\":\"first\"}}", 0),
+                interaction("GetResourceSet", "{\"Identifier\":\"second\"}",
+                        "{\"ResourceSet\":{\"Name\":\"second\"}}", 0));
+
+        try (FmsClient client = ReplayHttpClient.newClient(recording, false)) {
+
+            // assertions
+            assertThat(client.getResourceSet(request -> request.identifier("second")).resourceSet().name())
+                    .isEqualTo("second");
+            assertThat(client.getResourceSet(request -> request.identifier("first")).resourceSet().name())
+                    .isEqualTo("first");
+        }
+    }
+
+    @Test
+    void replayReproducesRecordedLatency() throws IOException {
+
+        final long latencyNanos = TimeUnit.MILLISECONDS.toNanos(50);
+        final Path recording = record(interaction("ListResourceSets", "{}", latencyNanos));
+
+        try (FmsClient client = ReplayHttpClient.newClient(recording, true)) {
+            final long start = System.nanoTime();
+            client.listResourceSets(ListResourceSetsRequest.builder().build());
+
+            // assertions
+            assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(latencyNanos);
+        }
+    }
+
+    private Path record(final String... interactions) throws IOException {
+
+        final Path recording = tempDir.resolve("replay.jsonl");
+        Files.write(recording, Arrays.asList(interactions), StandardCharsets.UTF_8);
+        return recording;
+    }
+
+    private static String interaction(final String operation, final String response, final long latencyNanos) {
+
+        return interaction(operation, "{}", response, latencyNanos);
+    }
+
+    private static String interaction(
+            final String operation,
+            final String request,
+            final String response,
+            final long latencyNanos) {
+
+        return new ObjectMapper().createObjectNode()
+                .put("operation", operation)
+                .put("request", request)
+                .put("status", 200)
+                .put("response", response)
+                .put("latencyNanos", latencyNanos)
+                .toString();
+    }
+}
@@ -0,0 +1,117 @@
+package software.amazon.fms.resourceset.helpers;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.fms.resourceset.ResourceModel;
+import software.amazon.fms.resourceset.Tag;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResourceModelValidatorTest {
+
+    private static final String RESOURCE_ARN = "arn:aws:ec2:us-east-1:000000000000:vpc/vpc-1";
+
+    @Test
+    void sampleAndGeneratedResourceSetsAreValid() {
+
+        final ResourceModel generated = new WorkloadGenerator(WorkloadGenerator.DEFAULT_SEED).resourceSet(10000, 1000);
+        generated.setId(BaseSampleHelper.sampleResourceSetId);
+
+        // assertions
+        assertThat(ResourceModelValidator.validate(generated)).isEmpty();
+        assertThat(ResourceModelValidator.validate(CfnSampleHelper.sampleAllParametersResourceModel(true, true, true)))
+                .isEmpty();
+        assertThat(ResourceModelValidator.validate(null)).isEmpty();
+    }
+
+    @Test
+    void resourceTypeListIsRequiredButMayBeEmpty() {
+
+        final ResourceModel missing = CfnSampleHelper.sampleRequiredParametersResourceModel(false, true, false, false);
+        final ResourceModel empty = CfnSampleHelper.sampleRequiredParametersResourceModel(false, true, false, false);
+        empty.setResourceTypeList(Collections.emptyList());
+
+        // assertions
+        assertThat(ResourceModelValidator.validate(missing)).containsExactly("ResourceTypeList is required");
+        assertThat(ResourceModelValidator.validate(empty)).isEmpty();
+    }
+
+    @Test
+    void idIsExactlyTwentyTwoBase62Characters() {
+
+        final ResourceModel model = CfnSampleHelper.sampleRequiredParametersResourceModel(true, false, false, false);
+
+        // assertions
+        model.setId(BaseSampleHelper.sampleResourceSetId.substring(1));
+        assertThat(ResourceModelValidator.validate(model)).containsExactly("Id must be at least 22 characters long");
+        model.setId(BaseSampleHelper.sampleResourceSetId + "0");
+        assertThat(ResourceModelValidator.validate(model)).containsExactly("Id must be at most 22 characters long");
+        model.setId(BaseSampleHelper.sampleResourceSetId.substring(1) + "-");
+        assertThat(ResourceModelValidator.validate(model)).containsExactly("Id must match pattern ^([a-z0-9A-Z]*)$");
+    }
+
+    @Test
+    void nameAndDescriptionAllowWhitespaceButNotOtherPunctuation() {
+
+        final ResourceModel model = CfnSampleHelper.sampleAllParametersResourceModel(false, false, false);
+        model.setName("Production VPCs: us-east-1/a");
+        model.setDescription("");
+
+        // assertions
+        assertThat(ResourceModelValidator.validate(model)).isEmpty();
+        model.setName("VPCs (production)");
+        model.setDescription("All VPCs!");
+        assertThat(ResourceModelValidator.validate(model)).containsExactly(
+                "Name must match pattern ^([a-zA-Z0-9_.:/=+\\-@\\s]+)$",
+                "Description must match pattern ^([a-zA-Z0-9_.:/=+\\-@\\s]*)$");
+    }
+
+    @Test
+    void resourceTypesMustBeUniqueWhileResourcesAreASet() {
+
+        final ResourceModel model = CfnSampleHelper.sampleRequiredParametersResourceModel(false, false, false, false);
+        model.setResourceTypeList(Arrays.asList(
+                BaseSampleHelper.sampleResourceTypeListElement, BaseSampleHelper.sampleResourceTypeListElement));
+        model.setResources(new HashSet<>(Arrays.asList(RESOURCE_ARN, RESOURCE_ARN)));
+
+        // assertions, the resources are unordered and unique by construction, the resource types are a list
+        assertThat(model.getResources()).hasSize(1);
+        assertThat(ResourceModelValidator.validate(model))
+                .containsExactly("ResourceTypeList[1] is a duplicate of an earlier item");
+    }
+
+    @Test
+    void resourcesAreArnsOrUrisWithoutWhitespace() {
+
+        final ResourceModel model = CfnSampleHelper.sampleRequiredParametersResourceModel(false, false, false, false);
+
+        // assertions
+        model.setResources(new HashSet<>(Collections.singletonList(RESOURCE_ARN.replace("vpc-1", "vpc 1"))));
+        assertThat(ResourceModelValidator.validate(model))
+                .containsExactly("Resources[0] must match pattern ^([^\\s]*)$");
+        model.setResources(new HashSet<>(Collections.singletonList(String.join("", Collections.nCopies(1025, "a")))));
+        assertThat(ResourceModelValidator.validate(model))
+                .containsExactly("Resources[0] must be at most 1024 characters long");
+        model.setResources(new HashSet<>(Collections.singletonList("")));
+        assertThat(ResourceModelValidator.validate(model))
+                .containsExactly("Resources[0] must be at least 1 characters long");
+    }
+
+    @Test
+    void tagValuesMayBeEmptyButTagKeysMayNot() {
+
+        final ResourceModel model = CfnSampleHelper.sampleRequiredParametersResourceModel(false, false, false, false);
+        model.setTags(Arrays.asList(
+                Tag.builder().key(BaseSampleHelper.sampleTagKey).value("").build(),
+                Tag.builder().key("").value(BaseSampleHelper.sampleTagValue).build(),
+                Tag.builder().key(BaseSampleHelper.sampleTagKey + "2").build()));
+
+        // assertions
+        assertThat(ResourceModelValidator.validate(model)).containsExactly(
+                "Tags[1].Key must be at least 1 characters long",
+                "Tags[2].Value is required");
+    }
+}
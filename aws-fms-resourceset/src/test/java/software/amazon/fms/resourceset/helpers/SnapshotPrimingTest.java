@@ -0,0 +1,20 @@
+package software.amazon.fms.resourceset.helpers;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SnapshotPrimingTest {
+
+    /** Requests marshalled per priming iteration, nine for each of the two priming resource sets and a list. */
+    private static final int REQUESTS_PER_ITERATION = 2 * 9 + 1;
+
+    @Test
+    void primeMarshalsEveryRequestWithoutSendingIt() throws IOException {
+
+        // assertions
+        assertThat(SnapshotPriming.prime(2)).isEqualTo(2 * REQUESTS_PER_ITERATION);
+    }
+}
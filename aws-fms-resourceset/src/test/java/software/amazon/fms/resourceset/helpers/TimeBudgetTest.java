@@ -0,0 +1,77 @@
+package software.amazon.fms.resourceset.helpers;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TimeBudgetTest {
+
+    @Test
+    void budgetWithTimeLeftAllowsRequests() {
+
+        final AtomicLong clock = new AtomicLong();
+        final TimeBudget timeBudget = new TimeBudget(clock::get, Duration.ofSeconds(60), Duration.ofSeconds(10));
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(5));
+
+        // assertions
+        assertThat(timeBudget.isLimited()).isTrue();
+        assertThat(timeBudget.isNearlySpent()).isFalse();
+        assertThat(timeBudget.remainingNanos()).isEqualTo(TimeUnit.SECONDS.toNanos(55));
+        assertThat(timeBudget.callTimeout()).isEqualTo(Duration.ofSeconds(50));
+        assertThat(timeBudget.allowsWait(TimeUnit.SECONDS.toNanos(50))).isTrue();
+        assertThat(timeBudget.allowsWait(TimeUnit.SECONDS.toNanos(51))).isFalse();
+        assertDoesNotThrow(() -> timeBudget.checkpoint("GetResourceSet"));
+    }
+
+    @Test
+    void budgetWithOnlyTheReserveLeftStopsRequests() {
+
+        final AtomicLong clock = new AtomicLong();
+        final TimeBudget timeBudget = new TimeBudget(clock::get, Duration.ofSeconds(60), Duration.ofSeconds(10));
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(55));
+
+        // assertions
+        assertThat(timeBudget.isNearlySpent()).isTrue();
+        assertThat(timeBudget.callTimeout()).isEqualTo(Duration.ofMillis(100));
+        final TimeBudget.ExhaustedException e =
+                assertThrows(TimeBudget.ExhaustedException.class, () -> timeBudget.checkpoint("GetResourceSet"));
+        assertThat(e.getMessage()).contains("GetResourceSet");
+    }
+
+    @Test
+    void unlimitedBudgetNeverRunsOut() {
+
+        final TimeBudget timeBudget = TimeBudget.unlimited();
+
+        // assertions
+        assertThat(timeBudget.isLimited()).isFalse();
+        assertThat(timeBudget.isNearlySpent()).isFalse();
+        assertThat(timeBudget.allowsWait(TimeUnit.DAYS.toNanos(365))).isTrue();
+    }
+
+    @Test
+    void fromEnvironment() {
+
+        final Map<String, String> environment = new HashMap<>();
+        environment.put(TimeBudget.INVOCATION_TIME_ENV, "3000");
+        environment.put(TimeBudget.RESERVE_ENV, "1000");
+        final TimeBudget configured = TimeBudget.fromEnvironment(environment);
+        final TimeBudget defaults = TimeBudget.fromEnvironment(Collections.emptyMap());
+
+        // assertions
+        assertThat(configured.remainingNanos()).isLessThanOrEqualTo(TimeUnit.SECONDS.toNanos(3));
+        assertThat(configured.callTimeout()).isLessThanOrEqualTo(Duration.ofMillis(2500));
+        assertThat(defaults.remainingNanos())
+                .isGreaterThan(TimeUnit.SECONDS.toNanos(50))
+                .isLessThanOrEqualTo(TimeUnit.SECONDS.toNanos(60));
+    }
+}
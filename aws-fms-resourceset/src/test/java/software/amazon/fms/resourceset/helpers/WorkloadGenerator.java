@@ -0,0 +1,244 @@
+package software.amazon.fms.resourceset.helpers;
+
+import software.amazon.fms.resourceset.ResourceModel;
+import software.amazon.fms.resourceset.Tag;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Seeded generator of the resource sets of a large organization, for the tests, benchmarks and load drivers that need
+ * more than the fixed samples of {@link CfnSampleHelper}. It generates resource sets of up to hundreds of thousands of
+ * members, whose ARNs are spread over the accounts and regions of the organization and over the resource types FMS
+ * policies protect, and tags at the limits of the resource schema. The same seed always generates the same data, so
+ * runs can be compared, and the account and organizational unit IDs are generated the same way as those of the
+ * generators of the other modules.
+ */
+public class WorkloadGenerator {
+
+    /** Seed of the data shared by the benchmarks and load drivers. */
+    public static final long DEFAULT_SEED = 20180101L;
+
+    /** Most tags a CloudFormation resource can have. */
+    public static final int MAX_TAGS = 50;
+
+    /** Longest tag key. */
+    public static final int MAX_TAG_KEY_LENGTH = 128;
+
+    /** Longest tag value. */
+    public static final int MAX_TAG_VALUE_LENGTH = 256;
+
+    /** Regions the resources of the organization are spread over. */
+    static final List<String> REGIONS = Arrays.asList(
+            "us-east-1", "us-east-2", "us-west-1", "us-west-2", "ca-central-1", "sa-east-1",
+            "eu-west-1", "eu-west-2", "eu-central-1", "ap-south-1", "ap-southeast-1", "ap-northeast-1");
+
+    /** Resource types the members of the resource sets have. */
+    public static final List<String> RESOURCE_TYPES = Collections.unmodifiableList(Arrays.asList(
+            "AWS::EC2::VPC",
+            "AWS::EC2::Subnet",
+            "AWS::EC2::Instance",
+            "AWS::EC2::SecurityGroup",
+            "AWS::EC2::NetworkInterface",
+            "AWS::EC2::EIP",
+            "AWS::ElasticLoadBalancingV2::LoadBalancer",
+            "AWS::ElasticLoadBalancing::LoadBalancer",
+            "AWS::CloudFront::Distribution",
+            "AWS::ApiGateway::Stage"));
+
+    private static final String ALPHANUMERIC = "0123456789abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ";
+    private static final int LOWER_ALPHANUMERIC = 36;
+    private static final long ACCOUNT_IDS = 1_000_000_000_000L;
+
+    /** Most resource types of a generated resource set. */
+    private static final int MAX_RESOURCE_TYPES_PER_SET = 3;
+
+    private final Random random;
+    private final String organizationRoot;
+
+    /**
+     * Generate the data of a seed.
+     * @param seed Seed of the data.
+     */
+    public WorkloadGenerator(final long seed) {
+
+        this.random = new Random(seed);
+        this.organizationRoot = lowerAlphanumeric(4);
+    }
+
+    /**
+     * Generate a resource set with every parameter set, without identifiers.
+     * @param resources Number of members of the resource set.
+     * @param accounts Number of accounts the members are spread over.
+     * @return The resource set.
+     */
+    public ResourceModel resourceSet(final int resources, final int accounts) {
+
+        final List<String> resourceTypes = new ArrayList<>(RESOURCE_TYPES);
+        Collections.shuffle(resourceTypes, random);
+        final List<String> resourceTypeList =
+                resourceTypes.subList(0, 1 + random.nextInt(MAX_RESOURCE_TYPES_PER_SET));
+
+        return ResourceModel.builder()
+                .name(String.format("resource-set-%s", alphanumeric(8)))
+                .description(String.format("Generated resource set of %d resources in %d accounts",
+                        resources, accounts))
+                .resourceTypeList(new ArrayList<>(resourceTypeList))
+                .resources(new LinkedHashSet<>(resourceArns(resources, accountIds(accounts), resourceTypeList)))
+                .tags(tags(MAX_TAGS))
+                .build();
+    }
+
+    /**
+     * Generate distinct resource ARNs of every resource type.
+     * @param count Number of ARNs.
+     * @param accountIds Accounts owning the resources.
+     * @return The ARNs.
+     */
+    public List<String> resourceArns(final int count, final List<String> accountIds) {
+
+        return resourceArns(count, accountIds, RESOURCE_TYPES);
+    }
+
+    /**
+     * Generate distinct resource ARNs.
+     * @param count Number of ARNs.
+     * @param accountIds Accounts owning the resources.
+     * @param resourceTypes Resource types of the resources, from {@link #RESOURCE_TYPES}.
+     * @return The ARNs.
+     */
+    public List<String> resourceArns(final int count, final List<String> accountIds, final List<String> resourceTypes) {
+
+        final Set<String> arns = new LinkedHashSet<>();
+        while (arns.size() < count) {
+            final String resourceType = resourceTypes.get(random.nextInt(resourceTypes.size()));
+            final String account = accountIds.get(random.nextInt(accountIds.size()));
+            arns.add(resourceArn(resourceType, account, region()));
+        }
+        return new ArrayList<>(arns);
+    }
+
+    /**
+     * Generate distinct account IDs.
+     * @param count Number of accounts.
+     * @return The account IDs.
+     */
+    public List<String> accountIds(final int count) {
+
+        final Set<String> accountIds = new LinkedHashSet<>();
+        while (accountIds.size() < count) {
+            accountIds.add(String.format("%012d", Math.floorMod(random.nextLong(), ACCOUNT_IDS)));
+        }
+        return new ArrayList<>(accountIds);
+    }
+
+    /**
+     * Generate distinct IDs of organizational units under the root of the organization.
+     * @param count Number of organizational units.
+     * @return The organizational unit IDs.
+     */
+    public List<String> orgUnitIds(final int count) {
+
+        final Set<String> orgUnitIds = new LinkedHashSet<>();
+        while (orgUnitIds.size() < count) {
+            orgUnitIds.add(String.format("ou-%s-%s", organizationRoot, lowerAlphanumeric(8)));
+        }
+        return new ArrayList<>(orgUnitIds);
+    }
+
+    /**
+     * Generate tags with keys and values of the longest length.
+     * @param count Number of tags.
+     * @return The tags, with distinct keys.
+     */
+    public List<Tag> tags(final int count) {
+
+        final Set<String> keys = new LinkedHashSet<>();
+        while (keys.size() < count) {
+            keys.add(alphanumeric(MAX_TAG_KEY_LENGTH));
+        }
+        final List<Tag> tags = new ArrayList<>(count);
+        for (final String key : keys) {
+            tags.add(Tag.builder().key(key).value(alphanumeric(MAX_TAG_VALUE_LENGTH)).build());
+        }
+        return tags;
+    }
+
+    /**
+     * Generate the ARN of a resource in the format of its service.
+     */
+    private String resourceArn(final String resourceType, final String account, final String region) {
+
+        switch (resourceType) {
+            case "AWS::EC2::VPC":
+                return ec2Arn(region, account, "vpc/vpc-");
+            case "AWS::EC2::Subnet":
+                return ec2Arn(region, account, "subnet/subnet-");
+            case "AWS::EC2::Instance":
+                return ec2Arn(region, account, "instance/i-");
+            case "AWS::EC2::SecurityGroup":
+                return ec2Arn(region, account, "security-group/sg-");
+            case "AWS::EC2::NetworkInterface":
+                return ec2Arn(region, account, "network-interface/eni-");
+            case "AWS::EC2::EIP":
+                return ec2Arn(region, account, "eip-allocation/eipalloc-");
+            case "AWS::ElasticLoadBalancingV2::LoadBalancer":
+                return String.format("arn:aws:elasticloadbalancing:%s:%s:loadbalancer/app/%s/%s",
+                        region, account, lowerAlphanumeric(12), hex(16));
+            case "AWS::ElasticLoadBalancing::LoadBalancer":
+                return String.format("arn:aws:elasticloadbalancing:%s:%s:loadbalancer/%s",
+                        region, account, lowerAlphanumeric(16));
+            case "AWS::CloudFront::Distribution":
+                return String.format("arn:aws:cloudfront::%s:distribution/E%s",
+                        account, hex(13).toUpperCase(Locale.ROOT));
+            case "AWS::ApiGateway::Stage":
+                return String.format("arn:aws:apigateway:%s::/restapis/%s/stages/%s",
+                        region, lowerAlphanumeric(10), random.nextBoolean() ? "prod" : "test");
+            default:
+                throw new IllegalArgumentException("Unsupported resource type " + resourceType);
+        }
+    }
+
+    private String ec2Arn(final String region, final String account, final String resource) {
+
+        return String.format("arn:aws:ec2:%s:%s:%s%s", region, account, resource, hex(17));
+    }
+
+    private String region() {
+
+        return REGIONS.get(random.nextInt(REGIONS.size()));
+    }
+
+    private String hex(final int length) {
+
+        return randomString(16, length);
+    }
+
+    private String lowerAlphanumeric(final int length) {
+
+        return randomString(LOWER_ALPHANUMERIC, length);
+    }
+
+    private String alphanumeric(final int length) {
+
+        return randomString(ALPHANUMERIC.length(), length);
+    }
+
+    /**
+     * Generate a string from the first characters of the alphanumeric alphabet, e.g. 16 for hexadecimal.
+     */
+    private String randomString(final int alphabet, final int length) {
+
+        final char[] characters = new char[length];
+        for (int i = 0; i < length; i++) {
+            characters[i] = ALPHANUMERIC.charAt(random.nextInt(alphabet));
+        }
+        return new String(characters);
+    }
+}
@@ -0,0 +1,100 @@
+package software.amazon.fms.resourceset.helpers;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.fms.resourceset.ResourceModel;
+import software.amazon.fms.resourceset.Tag;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WorkloadGeneratorTest {
+
+    /** Patterns of the resource schema. */
+    private static final String NAME_PATTERN = "^([a-zA-Z0-9_.:/=+\\-@\\s]+)$";
+    private static final String RESOURCE_PATTERN = "^([^\\s]*)$";
+
+    @Test
+    void sameSeedGeneratesSameData() {
+
+        final ResourceModel first = new WorkloadGenerator(1).resourceSet(1000, 100);
+        final ResourceModel second = new WorkloadGenerator(1).resourceSet(1000, 100);
+        final ResourceModel otherSeed = new WorkloadGenerator(2).resourceSet(1000, 100);
+
+        // assertions
+        assertThat(second).isEqualTo(first);
+        assertThat(otherSeed).isNotEqualTo(first);
+    }
+
+    @Test
+    void accountIdsMatchThoseOfTheOtherModules() {
+
+        // generated the same way as by the policy generator, so a seed gives the same accounts in every module
+        final List<String> accountIds = new WorkloadGenerator(WorkloadGenerator.DEFAULT_SEED).accountIds(1000);
+
+        // assertions
+        assertThat(accountIds).hasSize(1000).doesNotHaveDuplicates();
+        assertThat(accountIds).allSatisfy(account -> assertThat(account).hasSize(12).matches("^([0-9]*)$"));
+        assertThat(new WorkloadGenerator(WorkloadGenerator.DEFAULT_SEED).accountIds(1000)).isEqualTo(accountIds);
+    }
+
+    @Test
+    void resourceSetMembersAreDistinctArnsOfItsResourceTypesAcrossAccountsAndRegions() {
+
+        final ResourceModel resourceSet = new WorkloadGenerator(1).resourceSet(100000, 1000);
+        final Set<String> accounts = resourceSet.getResources().stream()
+                .map(arn -> arn.split(":")[4])
+                .filter(account -> !account.isEmpty())
+                .collect(Collectors.toSet());
+        final Set<String> regions = resourceSet.getResources().stream()
+                .map(arn -> arn.split(":")[3])
+                .filter(region -> !region.isEmpty())
+                .collect(Collectors.toSet());
+
+        // assertions
+        assertThat(resourceSet.getName()).matches(NAME_PATTERN);
+        assertThat(resourceSet.getDescription()).matches(NAME_PATTERN);
+        assertThat(resourceSet.getResources()).hasSize(100000);
+        assertThat(resourceSet.getResources()).allSatisfy(arn -> assertThat(arn)
+                .startsWith("arn:aws:")
+                .matches(RESOURCE_PATTERN)
+                .hasSizeLessThanOrEqualTo(1024));
+        assertThat(resourceSet.getResourceTypeList()).isNotEmpty().isSubsetOf(WorkloadGenerator.RESOURCE_TYPES);
+        assertThat(accounts.size()).isGreaterThan(1);
+        assertThat(regions.size()).isGreaterThan(1);
+    }
+
+    @Test
+    void resourceArnsCoverEveryResourceType() {
+
+        final WorkloadGenerator generator = new WorkloadGenerator(1);
+        final List<String> arns = generator.resourceArns(1000, generator.accountIds(10));
+
+        // assertions
+        assertThat(arns).hasSize(1000).doesNotHaveDuplicates();
+        assertThat(arns).anySatisfy(arn -> assertThat(arn).contains(":vpc/vpc-"));
+        assertThat(arns).anySatisfy(arn -> assertThat(arn).contains(":subnet/subnet-"));
+        assertThat(arns).anySatisfy(arn -> assertThat(arn).contains(":instance/i-"));
+        assertThat(arns).anySatisfy(arn -> assertThat(arn).contains(":security-group/sg-"));
+        assertThat(arns).anySatisfy(arn -> assertThat(arn).contains(":loadbalancer/app/"));
+        assertThat(arns).anySatisfy(arn -> assertThat(arn).startsWith("arn:aws:cloudfront::"));
+        assertThat(arns).anySatisfy(arn -> assertThat(arn).startsWith("arn:aws:apigateway:"));
+    }
+
+    @Test
+    void tagsAreAtTheirLimits() {
+
+        final ResourceModel resourceSet = new WorkloadGenerator(1).resourceSet(1, 1);
+
+        // assertions
+        assertThat(resourceSet.getTags()).hasSize(WorkloadGenerator.MAX_TAGS);
+        assertThat(resourceSet.getTags().stream().map(Tag::getKey).collect(Collectors.toSet()))
+                .hasSize(WorkloadGenerator.MAX_TAGS);
+        assertThat(resourceSet.getTags()).allSatisfy(tag -> {
+            assertThat(tag.getKey()).hasSize(WorkloadGenerator.MAX_TAG_KEY_LENGTH);
+            assertThat(tag.getValue()).hasSize(WorkloadGenerator.MAX_TAG_VALUE_LENGTH);
+        });
+    }
+}